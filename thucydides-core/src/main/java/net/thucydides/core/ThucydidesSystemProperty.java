@@ -59,6 +59,12 @@ public enum ThucydidesSystemProperty {
      */
     REPORT_RESOURCE_PATH("thucydides.report.resources"),
 
+    /**
+     * The number of threads used to resolve the tags of the test outcomes before the aggregate reports are generated.
+     * Defaults to 1. Only use more threads if all the tag providers are thread-safe.
+     */
+    REPORT_TAGGING_THREADS("thucydides.report.tagging.threads"),
+
     /**
      * Where should reports be generated.
      */
@@ -106,6 +112,36 @@ public enum ThucydidesSystemProperty {
      */
     THUCYDIDES_TAKE_SCREENSHOTS("thucydides.take.screenshots"),
 
+    /**
+     * Take optional screenshots on a background thread, so that the steps don't wait for the browser to return them.
+     * Screenshots of failing steps are always taken straight away. When the next step starts or ends, the test waits
+     * for the screenshots still being taken, for up to 10 seconds; screenshots returned later than this are dropped,
+     * as they may show a later state of the page.
+     * Only use this with drivers that accept commands from more than one thread, such as remote drivers.
+     */
+    THUCYDIDES_ASYNCHRONOUS_SCREENSHOTS("thucydides.asynchronous.screenshots"),
+
+    /**
+     * The maximum number of screenshots to take for each test.
+     * As this budget runs out, screenshots are only taken after each step, then only for failures.
+     */
+    MAX_SCREENSHOTS_PER_TEST("thucydides.max.screenshots.per.test"),
+
+    /**
+     * The maximum number of screenshots to take during a test run, across all the tests run in the same JVM.
+     */
+    MAX_SCREENSHOTS_PER_RUN("thucydides.max.screenshots.per.run"),
+
+    /**
+     * The maximum disk space, in megabytes, to use for the screenshots of each test.
+     */
+    MAX_SCREENSHOT_MEGABYTES_PER_TEST("thucydides.max.screenshot.megabytes.per.test"),
+
+    /**
+     * The maximum disk space, in megabytes, to use for screenshots during a test run.
+     */
+    MAX_SCREENSHOT_MEGABYTES_PER_RUN("thucydides.max.screenshot.megabytes.per.run"),
+
     /**
      * Should Thucydides display detailed information in the test result tables.
      * If this is set to true, test result tables will display a breakdown of the steps by result.
@@ -203,6 +239,52 @@ public enum ThucydidesSystemProperty {
      */
     RESIZED_WIDTH("thucydides.resized.image.width"),
 
+    /**
+     * The deflate level (0 to 9) used when screenshots are saved as PNG files.
+     * Lower levels are faster but produce larger files. Defaults to 4.
+     */
+    SCREENSHOT_COMPRESSION_LEVEL("thucydides.screenshot.compression.level"),
+
+    /**
+     * The PNG row filter used when screenshots are saved: NONE (the default), SUB, UP, AVERAGE, PAETH or ADAPTIVE.
+     */
+    SCREENSHOT_PNG_FILTER("thucydides.screenshot.png.filter"),
+
+    /**
+     * The number of threads used to read and filter the rows of each screenshot saved as a PNG file,
+     * while the rows already filtered are compressed. Defaults to the number of available processors.
+     */
+    SCREENSHOT_ENCODING_THREADS("thucydides.screenshot.encoding.threads"),
+
+    /**
+     * The image format used for report thumbnails: PNG (the default) or JPEG.
+     * JPEG is the only lossy format available, as the JDK has no image writer for formats such as WebP.
+     */
+    THUMBNAIL_FORMAT("thucydides.thumbnail.format"),
+
+    /**
+     * The quality (from 1 to 100) of report thumbnails saved as JPEG files. Defaults to 80.
+     */
+    THUMBNAIL_QUALITY("thucydides.thumbnail.quality"),
+
+    /**
+     * Generate thumbnails and previews of each screenshot for the HTML reports, so that report pages do not load
+     * the full-size screenshots. False by default.
+     */
+    SCREENSHOT_THUMBNAILS("thucydides.screenshot.thumbnails"),
+
+    /**
+     * The number of results of each kind of word inflection (plural forms, human-readable names and so on)
+     * kept for reuse while the reports are generated. Defaults to 1000.
+     */
+    INFLECTION_CACHE_SIZE("thucydides.inflection.cache.size"),
+
+    /**
+     * A file in which the entries of the JAR files on the classpath are saved between runs,
+     * so that unchanged JAR files do not need to be scanned again. Not used by default.
+     */
+    CLASSPATH_INDEX("thucydides.classpath.index"),
+
     /**
      * Public URL where the Thucydides reports will be displayed.
      * This is mainly for use by plugins.
@@ -226,7 +308,9 @@ public enum ThucydidesSystemProperty {
 
     /**
      * Batch strategy to use for parallel batches.
-     * Allowed values - DIVIDE_EQUALLY (default) and DIVIDE_BY_TEST_COUNT
+     * Allowed values - DIVIDE_EQUALLY (default), DIVIDE_BY_TEST_COUNT and DIVIDE_BY_DURATION.
+     * DIVIDE_BY_DURATION uses the test durations recorded in the statistics database.
+     * DIVIDE_ON_DEMAND lets any number of worker processes claim test classes as they go.
      */
     BATCH_STRATEGY("thucydides.batch.strategy"),
 
@@ -245,6 +329,53 @@ public enum ThucydidesSystemProperty {
      */
     BATCH_NUMBER("thucydides.batch.number"),
 
+    /**
+     * A properties file giving the estimated duration in milliseconds of each test class, indexed by class name,
+     * for the DIVIDE_BY_DURATION batch strategy. Pass the same file to every batch so that they all compute the
+     * same partition, even on machines with different statistics databases.
+     */
+    BATCH_DURATIONS_FILE("thucydides.batch.durations.file"),
+
+    /**
+     * When there is no durations file, the DIVIDE_BY_DURATION batch strategy only uses durations recorded in the
+     * statistics database before this date (in ISO format, e.g. 2013-05-01T18:00, in UTC unless an offset is given).
+     * Defaults to the start of the current day in UTC, so that tests recorded by batches that are already running
+     * do not change the partition. Set it explicitly when the batches may start on different days.
+     */
+    BATCH_DURATIONS_CUTOFF("thucydides.batch.durations.cutoff"),
+
+    /**
+     * The directory that worker processes use to share out test classes with the DIVIDE_ON_DEMAND batch strategy.
+     * By default, a sub-directory of the output directory is used.
+     */
+    BATCH_COORDINATION_DIRECTORY("thucydides.batch.coordination.dir"),
+
+    /**
+     * Identifies a test run with the DIVIDE_ON_DEMAND batch strategy, e.g. the CI build number.
+     * Required: all the workers of a run must use the same value, and each run a new one.
+     */
+    BATCH_RUN_ID("thucydides.batch.run.id"),
+
+    /**
+     * How long, in minutes, the claim of a worker that is no longer renewing it is kept with the DIVIDE_ON_DEMAND
+     * batch strategy. After this time, another worker can take the test class over. Defaults to 60 minutes.
+     */
+    BATCH_CLAIM_TIMEOUT("thucydides.batch.claim.timeout"),
+
+    /**
+     * The order in which the tests in a test class, and the test classes in a FailuresFirstSuite, are executed.
+     * Use FAILURES_FIRST to run recently failing and unstable tests first, using the statistics database.
+     * By default, tests run in the order provided by JUnit.
+     */
+    TEST_ORDERING("thucydides.test.ordering"),
+
+    /**
+     * The maximum number of tests that can run in parallel across all the test classes in the JVM,
+     * usually the number of browsers that the Selenium grid can host. Not limited by default: each test class only
+     * limits its own tests, using its thread count.
+     */
+    CONCURRENT_BROWSERS("thucydides.concurrent.browsers"),
+
     /**
      * HTTP Proxy URL configuration for Firefox
      */
@@ -386,8 +517,8 @@ public enum ThucydidesSystemProperty {
     THUCYDIDES_STORE_HTML_SOURCE("thucydides.store.html.source"),
 
     /**
-     * If set to true, a copy of the original screenshot will be kept when screenshots are scaled for the reports.
-     * False by default to conserve disk space.
+     * If set to true, the original screenshots are left untouched, and padded copies are used in the reports.
+     * False by default to conserve disk space: the screenshots are padded in place.
      */
     THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS("thucydides.keep.unscaled.screenshots"),
 
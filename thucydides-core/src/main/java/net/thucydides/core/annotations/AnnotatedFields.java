@@ -0,0 +1,80 @@
+package net.thucydides.core.annotations;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Find the fields in a class, and in its superclasses, that carry a given annotation.
+ * The fields found are only looked up once for each class and annotation.
+ * The cached fields refer back to their class, so they are only softly reachable: the garbage collector
+ * can clear them when memory runs low, and a class loaded by a discarded class loader can then be unloaded.
+ * Typical use:
+ * <pre>
+ *     <code>
+ *         for (Field field : AnnotatedFields.of(testClass).annotatedWith(Steps.class)) {
+ *             ...
+ *         }
+ *     </code>
+ * </pre>
+ */
+public class AnnotatedFields {
+
+    private static final Cache<Class<?>, ConcurrentMap<Class<? extends Annotation>, List<Field>>> ANNOTATED_FIELDS
+            = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
+    private final Class<?> clazz;
+
+    public static AnnotatedFields of(final Class<?> clazz) {
+        return new AnnotatedFields(clazz);
+    }
+
+    private AnnotatedFields(final Class<?> clazz) {
+        this.clazz = clazz;
+    }
+
+    /**
+     * The annotated fields of the class, followed by those of its superclasses.
+     */
+    public List<Field> annotatedWith(final Class<? extends Annotation> annotation) {
+        ConcurrentMap<Class<? extends Annotation>, List<Field>> fieldsByAnnotation = ANNOTATED_FIELDS.getIfPresent(clazz);
+        if (fieldsByAnnotation == null) {
+            fieldsByAnnotation = new MapMaker().makeMap();
+            ConcurrentMap<Class<? extends Annotation>, List<Field>> existingFields
+                    = ANNOTATED_FIELDS.asMap().putIfAbsent(clazz, fieldsByAnnotation);
+            if (existingFields != null) {
+                fieldsByAnnotation = existingFields;
+            }
+        }
+        List<Field> fields = fieldsByAnnotation.get(annotation);
+        if (fields == null) {
+            fieldsByAnnotation.putIfAbsent(annotation, findFieldsAnnotatedWith(annotation));
+            fields = fieldsByAnnotation.get(annotation);
+        }
+        return fields;
+    }
+
+    private List<Field> findFieldsAnnotatedWith(final Class<? extends Annotation> annotation) {
+        ImmutableList.Builder<Field> fields = ImmutableList.builder();
+        for (Class<?> type = clazz; (type != null) && (type != Object.class); type = type.getSuperclass()) {
+            fields.addAll(declaredFieldsAnnotatedWith(type, annotation));
+        }
+        return fields.build();
+    }
+
+    private List<Field> declaredFieldsAnnotatedWith(final Class<?> type, final Class<? extends Annotation> annotation) {
+        ImmutableList.Builder<Field> fields = ImmutableList.builder();
+        for (Field field : type.getDeclaredFields()) {
+            if (field.getAnnotation(annotation) != null) {
+                fields.add(field);
+            }
+        }
+        return fields.build();
+    }
+}
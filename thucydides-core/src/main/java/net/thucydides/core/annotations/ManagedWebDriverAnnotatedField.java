@@ -2,11 +2,11 @@ package net.thucydides.core.annotations;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import org.openqa.selenium.WebDriver;
 
 import java.lang.reflect.Field;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
@@ -92,8 +92,8 @@ public class ManagedWebDriverAnnotatedField {
         }
     }
 
-    private static ImmutableSet<Field> fieldsIn(Class clazz) {
-        return ImmutableSet.copyOf(Fields.of(clazz).allFields());
+    private static List<Field> fieldsIn(Class clazz) {
+        return AnnotatedFields.of(clazz).annotatedWith(Managed.class);
     }
 
     public boolean isUniqueSession() {
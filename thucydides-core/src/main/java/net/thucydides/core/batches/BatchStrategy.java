@@ -8,7 +8,9 @@ import java.lang.reflect.InvocationTargetException;
 public enum BatchStrategy {
 
     DIVIDE_EQUALLY(SystemVariableBasedBatchManager.class),
-    DIVIDE_BY_TEST_COUNT(TestCountBasedBatchManager.class);
+    DIVIDE_BY_TEST_COUNT(TestCountBasedBatchManager.class),
+    DIVIDE_BY_DURATION(DurationBasedBatchManager.class),
+    DIVIDE_ON_DEMAND(OnDemandBatchManager.class);
 
     private Class<? extends BatchManager> batchManagerClass;
 
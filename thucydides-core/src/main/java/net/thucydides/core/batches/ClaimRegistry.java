@@ -0,0 +1,174 @@
+package net.thucydides.core.batches;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The test classes claimed by one worker in a claim directory, for the DIVIDE_ON_DEMAND batch strategy.
+ * A batch manager is created for each test runner, so the claims are kept here rather than in the batch manager:
+ * all the batch managers in a JVM share one registry for each claim directory, and so appear as a single worker,
+ * with a single thread renewing the claims and a single shutdown hook completing them.
+ */
+class ClaimRegistry {
+
+    private static final String CLAIM_SUFFIX = ".claim";
+    private static final String EXPIRED_CLAIM_SUFFIX = ".expired-";
+    private static final String COMPLETED = " completed";
+
+    private static final ConcurrentMap<File, ClaimRegistry> SHARED_REGISTRIES = new MapMaker().makeMap();
+
+    private final File claimDirectory;
+    private final long claimTimeout;
+    private final String workerName;
+    private final Set<String> claimedTestCases = new CopyOnWriteArraySet<String>();
+
+    private ScheduledExecutorService claimRenewer;
+
+    private final Logger logger = LoggerFactory.getLogger(ClaimRegistry.class);
+
+    ClaimRegistry(final File claimDirectory, final long claimTimeout, final String workerName) {
+        this.claimDirectory = claimDirectory;
+        this.claimTimeout = claimTimeout;
+        this.workerName = workerName;
+    }
+
+    /**
+     * The registry used by all the batch managers of this JVM for a given claim directory.
+     * The claim timeout of the first batch manager to use the directory applies.
+     */
+    static ClaimRegistry forThisJvm(final File claimDirectory, final long claimTimeout) {
+        File key = claimDirectory.getAbsoluteFile();
+        ClaimRegistry registry = SHARED_REGISTRIES.get(key);
+        if (registry == null) {
+            SHARED_REGISTRIES.putIfAbsent(key, new ClaimRegistry(key, claimTimeout,
+                                                                 ManagementFactory.getRuntimeMXBean().getName()));
+            registry = SHARED_REGISTRIES.get(key);
+        }
+        return registry;
+    }
+
+    String getWorkerName() {
+        return workerName;
+    }
+
+    boolean isClaimed(final String testCaseName) {
+        return claimedTestCases.contains(testCaseName);
+    }
+
+    /**
+     * Try to claim a test class for this worker.
+     * If the claim directory cannot be written to, the workers can no longer tell which test classes have been run,
+     * so the run fails rather than letting every worker run every test class.
+     */
+    boolean claim(final String testCaseName) {
+        File claimFile = claimFileFor(testCaseName);
+        try {
+            claimDirectory.mkdirs();
+            if (claimFile.createNewFile() || takeOverExpiredClaim(claimFile)) {
+                FileUtils.writeStringToFile(claimFile, workerName);
+                if (workerName.equals(FileUtils.readFileToString(claimFile))) {
+                    claimedTestCases.add(testCaseName);
+                    renewClaimsWhileRunning();
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not claim test case " + testCaseName + " in " + claimDirectory
+                                            + ": the coordination directory must be writable by all the workers", e);
+        }
+    }
+
+    private File claimFileFor(final String testCaseName) {
+        return new File(claimDirectory, testCaseName + CLAIM_SUFFIX);
+    }
+
+    /**
+     * Only one worker can move an expired claim out of the way, so only one worker takes over the test class.
+     */
+    private boolean takeOverExpiredClaim(final File claimFile) throws IOException {
+        if (!hasExpired(claimFile)) {
+            return false;
+        }
+        File expiredClaim = new File(claimDirectory, claimFile.getName() + EXPIRED_CLAIM_SUFFIX + workerName);
+        if (claimFile.renameTo(expiredClaim)) {
+            logger.info("Taking over expired claim " + claimFile + " from " + FileUtils.readFileToString(expiredClaim));
+            return claimFile.createNewFile();
+        }
+        return false;
+    }
+
+    private boolean hasExpired(final File claimFile) throws IOException {
+        long lastRenewed = claimFile.lastModified();
+        if ((lastRenewed == 0) || (System.currentTimeMillis() - lastRenewed < claimTimeout)) {
+            return false;
+        }
+        try {
+            return !FileUtils.readFileToString(claimFile).endsWith(COMPLETED);
+        } catch (FileNotFoundException alreadyTakenOver) {
+            return false;
+        }
+    }
+
+    private synchronized void renewClaimsWhileRunning() {
+        if (claimRenewer != null) {
+            return;
+        }
+        claimRenewer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                                                                          .setNameFormat("thucydides-batch-claims")
+                                                                          .setDaemon(true).build());
+        long renewalPeriod = Math.max(claimTimeout / 4, 1);
+        claimRenewer.scheduleAtFixedRate(new Runnable() {
+            public void run() {
+                renewClaims();
+            }
+        }, renewalPeriod, renewalPeriod, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                completeClaims();
+            }
+        });
+    }
+
+    private void renewClaims() {
+        long now = System.currentTimeMillis();
+        for (String testCaseName : claimedTestCases) {
+            claimFileFor(testCaseName).setLastModified(now);
+        }
+    }
+
+    /**
+     * Called when the worker shuts down normally, so that the test classes it ran are never taken over.
+     */
+    synchronized void completeClaims() {
+        if (claimRenewer != null) {
+            claimRenewer.shutdownNow();
+        }
+        for (String testCaseName : claimedTestCases) {
+            File claimFile = claimFileFor(testCaseName);
+            if (!claimFile.exists()) {
+                continue;
+            }
+            try {
+                FileUtils.writeStringToFile(claimFile, workerName + COMPLETED);
+            } catch (IOException e) {
+                logger.warn("Could not mark the claim on test case " + testCaseName + " as completed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package net.thucydides.core.batches;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.statistics.TestStatisticsProvider;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static net.thucydides.core.ThucydidesSystemProperty.BATCH_DURATIONS_CUTOFF;
+import static net.thucydides.core.ThucydidesSystemProperty.BATCH_DURATIONS_FILE;
+
+/**
+ * Divides test cases between batches using their estimated durations.
+ * Test classes are allocated using a longest-processing-time-first strategy: the slowest test classes
+ * are allocated first, each one going to the batch with the lowest total estimated duration so far.
+ * The durations come from the file named by thucydides.batch.durations.file if there is one, or otherwise from
+ * the tests recorded in the statistics database before a fixed cutoff date. Either way, the input does not change
+ * while the tests run, so every batch node computes the same partition without needing to talk to the others.
+ * The default cutoff is the start of the current day in UTC, so nodes in different time zones agree on it as long
+ * as they start on the same UTC day; pass an explicit cutoff to nodes that may not.
+ * A batch manager is created for each test runner, so the partition is computed once per JVM and shared.
+ * Test classes with no recorded duration are allocated using a hash of their class name.
+ */
+@Singleton
+public class DurationBasedBatchManager extends SystemVariableBasedBatchManager {
+
+    private static final Map<String, Map<String, Integer>> SHARED_BATCH_ALLOCATIONS = Maps.newHashMap();
+
+    private final TestStatisticsProvider testStatisticsProvider;
+
+    private final Optional<File> durationsFile;
+
+    private final Date durationsCutoff;
+
+    private Map<String, Integer> batchAllocations;
+
+    private volatile String currentTestCaseName;
+
+    private final Logger logger = LoggerFactory.getLogger(DurationBasedBatchManager.class);
+
+    public DurationBasedBatchManager(EnvironmentVariables environmentVariables) {
+        this(environmentVariables, Injectors.getInjector().getInstance(TestStatisticsProvider.class));
+    }
+
+    @Inject
+    public DurationBasedBatchManager(EnvironmentVariables environmentVariables,
+                                     TestStatisticsProvider testStatisticsProvider) {
+        super(environmentVariables);
+        this.testStatisticsProvider = testStatisticsProvider;
+        this.durationsFile = durationsFileFrom(environmentVariables);
+        this.durationsCutoff = durationsCutoffFrom(environmentVariables);
+    }
+
+    private Optional<File> durationsFileFrom(EnvironmentVariables environmentVariables) {
+        String durationsFilePath = environmentVariables.getProperty(BATCH_DURATIONS_FILE.getPropertyName());
+        return StringUtils.isBlank(durationsFilePath) ? Optional.<File>absent() : Optional.of(new File(durationsFilePath));
+    }
+
+    private Date durationsCutoffFrom(EnvironmentVariables environmentVariables) {
+        String cutoff = environmentVariables.getProperty(BATCH_DURATIONS_CUTOFF.getPropertyName());
+        if (StringUtils.isBlank(cutoff)) {
+            return new LocalDate(DateTimeZone.UTC).toDateTimeAtStartOfDay(DateTimeZone.UTC).toDate();
+        }
+        return new DateTime(cutoff, DateTimeZone.UTC).toDate();
+    }
+
+    @Override
+    public void registerTestCase(Class<?> testCaseClass) {
+        currentTestCaseName = testCaseClass.getName();
+        super.registerTestCase(testCaseClass);
+    }
+
+    @Override
+    public void registerTestCase(String testCaseName) {
+        currentTestCaseName = testCaseName;
+        super.registerTestCase(testCaseName);
+    }
+
+    @Override
+    public boolean shouldExecuteThisTest(int testCount) {
+        if (batchCount <= 0) {
+            return true;
+        }
+        if (currentTestCaseName == null) {
+            return super.shouldExecuteThisTest(testCount);
+        }
+        Integer allocatedBatch = getBatchAllocations().get(currentTestCaseName);
+        if (allocatedBatch == null) {
+            allocatedBatch = batchForUnrecordedTestCase(currentTestCaseName, batchCount);
+        }
+        return allocatedBatch == getActualBatchNumber();
+    }
+
+    /**
+     * String hash codes are the same in every JVM, so every batch node allocates unrecorded test classes in the same way.
+     */
+    static int batchForUnrecordedTestCase(String testCaseName, int batchCount) {
+        int hash = testCaseName.hashCode() % batchCount;
+        return (hash < 0) ? hash + batchCount : hash;
+    }
+
+    /**
+     * The batch (numbered from zero) allocated to each test class with a recorded duration.
+     * The durations are only read by the first batch manager in this JVM that uses the same durations and batch count.
+     */
+    protected synchronized Map<String, Integer> getBatchAllocations() {
+        if (batchAllocations == null) {
+            batchAllocations = sharedBatchAllocations();
+        }
+        return batchAllocations;
+    }
+
+    private Map<String, Integer> sharedBatchAllocations() {
+        String allocationKey = durationsSource() + "#" + batchCount;
+        synchronized (SHARED_BATCH_ALLOCATIONS) {
+            Map<String, Integer> allocations = SHARED_BATCH_ALLOCATIONS.get(allocationKey);
+            if (allocations == null) {
+                allocations = allocateToBatches(recordedDurations(), batchCount);
+                SHARED_BATCH_ALLOCATIONS.put(allocationKey, allocations);
+            }
+            return allocations;
+        }
+    }
+
+    private String durationsSource() {
+        if (durationsFile.isPresent()) {
+            return durationsFile.get().getAbsolutePath();
+        }
+        return "statistics before " + durationsCutoff.getTime();
+    }
+
+    private Map<String, Long> recordedDurations() {
+        if (durationsFile.isPresent()) {
+            return durationsFrom(durationsFile.get());
+        }
+        try {
+            return testStatisticsProvider.getEstimatedTestCaseDurations(durationsCutoff);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read test durations from the statistics database - test classes will be allocated by name", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private Map<String, Long> durationsFrom(File file) {
+        Properties durations = new Properties();
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                durations.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read test durations from " + file + " - test classes will be allocated by name", e);
+            return Collections.emptyMap();
+        }
+        Map<String, Long> testCaseDurations = Maps.newHashMap();
+        for (String testCaseName : durations.stringPropertyNames()) {
+            try {
+                testCaseDurations.put(testCaseName, Long.valueOf(durations.getProperty(testCaseName).trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid duration for " + testCaseName + " in " + file);
+            }
+        }
+        return testCaseDurations;
+    }
+
+    static Map<String, Integer> allocateToBatches(Map<String, Long> durations, int batchCount) {
+        List<Map.Entry<String, Long>> slowestFirst = Lists.newArrayList(durations.entrySet());
+        Collections.sort(slowestFirst, new SlowestFirstComparator());
+
+        long[] batchDurations = new long[batchCount];
+        Map<String, Integer> allocations = Maps.newHashMap();
+        for (Map.Entry<String, Long> testCase : slowestFirst) {
+            int batch = shortestBatchIn(batchDurations);
+            batchDurations[batch] += testCase.getValue();
+            allocations.put(testCase.getKey(), batch);
+        }
+        return ImmutableMap.copyOf(allocations);
+    }
+
+    private static int shortestBatchIn(long[] batchDurations) {
+        int shortestBatch = 0;
+        for (int batch = 1; batch < batchDurations.length; batch++) {
+            if (batchDurations[batch] < batchDurations[shortestBatch]) {
+                shortestBatch = batch;
+            }
+        }
+        return shortestBatch;
+    }
+
+    /**
+     * Order by decreasing duration, using the class name to break ties so that the ordering is the same on every node.
+     */
+    private static class SlowestFirstComparator implements Comparator<Map.Entry<String, Long>> {
+        public int compare(Map.Entry<String, Long> first, Map.Entry<String, Long> second) {
+            int durationComparison = second.getValue().compareTo(first.getValue());
+            if (durationComparison != 0) {
+                return durationComparison;
+            }
+            return first.getKey().compareTo(second.getKey());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package net.thucydides.core.batches;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.webdriver.SystemPropertiesConfiguration;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares test cases between any number of worker JVMs, handing each test class to the first worker that asks for it.
+ * Every worker runs the whole test suite with the DIVIDE_ON_DEMAND batch strategy. When a worker reaches a test class,
+ * it tries to claim it by atomically creating a claim file in a shared coordination directory. If the class has
+ * already been claimed by another worker it is skipped, so a worker that is held up by slow tests simply claims fewer
+ * classes. No batch count or batch number is needed, and workers can be added at any time.
+ * <p/>
+ * The coordination directory defaults to a sub-directory of the output directory, so workers sharing a build
+ * directory also write their results to the same place for the aggregator. It can be set explicitly using the
+ * thucydides.batch.coordination.dir property. All the workers of a run must be given the same run id
+ * (thucydides.batch.run.id, e.g. the CI build number): claims are kept in a separate directory for each run,
+ * so a new run never sees the claims of a previous one.
+ * <p/>
+ * Claims are leases. A worker renews its claims while it is running, and marks them as completed when it shuts down.
+ * The claims of a worker that dies are no longer renewed: once they are older than thucydides.batch.claim.timeout
+ * minutes, another worker can take the test classes over. Since exclusive file creation is not reliable on some
+ * network file systems, a worker also reads its name back from the claim file before running the test class.
+ * <p/>
+ * Each JVM is a single worker: the batch managers created for each test runner share their claims through
+ * a ClaimRegistry. If the coordination directory cannot be written to, the test fails with an IllegalStateException,
+ * since running it anyway would mean every worker runs every test class.
+ */
+@Singleton
+public class OnDemandBatchManager extends SystemVariableBasedBatchManager {
+
+    private static final String DEFAULT_COORDINATION_DIRECTORY = "batch-claims";
+    private static final int DEFAULT_CLAIM_TIMEOUT_IN_MINUTES = 60;
+
+    private final ClaimRegistry claimRegistry;
+
+    private volatile String currentTestCaseName;
+
+    @Inject
+    public OnDemandBatchManager(EnvironmentVariables environmentVariables) {
+        super(environmentVariables);
+        this.claimRegistry = ClaimRegistry.forThisJvm(claimDirectoryDefinedIn(environmentVariables),
+                                                      claimTimeoutDefinedIn(environmentVariables));
+    }
+
+    /**
+     * Used to simulate several workers within the same JVM.
+     */
+    protected OnDemandBatchManager(EnvironmentVariables environmentVariables, String workerName) {
+        super(environmentVariables);
+        this.claimRegistry = new ClaimRegistry(claimDirectoryDefinedIn(environmentVariables),
+                                               claimTimeoutDefinedIn(environmentVariables),
+                                               workerName);
+    }
+
+    private File claimDirectoryDefinedIn(EnvironmentVariables environmentVariables) {
+        return new File(coordinationDirectoryDefinedIn(environmentVariables), runIdDefinedIn(environmentVariables));
+    }
+
+    private File coordinationDirectoryDefinedIn(EnvironmentVariables environmentVariables) {
+        String coordinationDirectoryPath = ThucydidesSystemProperty.BATCH_COORDINATION_DIRECTORY.from(environmentVariables);
+        if (coordinationDirectoryPath != null) {
+            return new File(coordinationDirectoryPath);
+        }
+        File outputDirectory = new SystemPropertiesConfiguration(environmentVariables).getOutputDirectory();
+        return new File(outputDirectory, DEFAULT_COORDINATION_DIRECTORY);
+    }
+
+    private String runIdDefinedIn(EnvironmentVariables environmentVariables) {
+        String runId = ThucydidesSystemProperty.BATCH_RUN_ID.from(environmentVariables);
+        if ((runId == null) || (runId.trim().length() == 0)) {
+            throw new IllegalStateException("The DIVIDE_ON_DEMAND batch strategy needs a run id shared by all the workers: "
+                                            + "set the " + ThucydidesSystemProperty.BATCH_RUN_ID.getPropertyName()
+                                            + " property (e.g. to the CI build number)");
+        }
+        return runId.trim();
+    }
+
+    private long claimTimeoutDefinedIn(EnvironmentVariables environmentVariables) {
+        return TimeUnit.MINUTES.toMillis(environmentVariables.getPropertyAsInteger(
+                ThucydidesSystemProperty.BATCH_CLAIM_TIMEOUT.getPropertyName(), DEFAULT_CLAIM_TIMEOUT_IN_MINUTES));
+    }
+
+    @Override
+    public void registerTestCase(Class<?> testCaseClass) {
+        currentTestCaseName = testCaseClass.getName();
+        super.registerTestCase(testCaseClass);
+    }
+
+    @Override
+    public void registerTestCase(String testCaseName) {
+        currentTestCaseName = testCaseName;
+        super.registerTestCase(testCaseName);
+    }
+
+    @Override
+    public boolean shouldExecuteThisTest(int testCount) {
+        String testCaseName = currentTestCaseName;
+        if (testCaseName == null) {
+            return true;
+        }
+        return claimRegistry.isClaimed(testCaseName) || claimRegistry.claim(testCaseName);
+    }
+
+    String getWorkerName() {
+        return claimRegistry.getWorkerName();
+    }
+
+    /**
+     * Called when the worker shuts down normally, so that the test classes it ran are never taken over.
+     */
+    void completeClaims() {
+        claimRegistry.completeClaims();
+    }
+}
@@ -0,0 +1,182 @@
+package net.thucydides.core.csv;
+
+import com.google.common.collect.Maps;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A row of CSV test data.
+ * Values are looked up by column position through the headers shared by all of the rows of a data source,
+ * so each row only holds the values read from the file.
+ */
+public class CSVRow {
+
+    private final Columns columns;
+    private final String[] values;
+    private final int rowNumber;
+
+    CSVRow(final Columns columns, final String[] values, final int rowNumber) {
+        this.columns = columns;
+        this.values = values;
+        this.rowNumber = rowNumber;
+    }
+
+    /**
+     * The position of this row in the data source, starting at 0 for the first row after the headers.
+     */
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public List<String> getHeaders() {
+        return columns.getHeaders();
+    }
+
+    public int getColumnCount() {
+        return Math.min(values.length, columns.size());
+    }
+
+    public String get(final int column) {
+        if (column < getColumnCount()) {
+            return values[column].trim();
+        }
+        return null;
+    }
+
+    public String get(final String header) {
+        Integer column = columns.indexOf(header);
+        return (column == null) ? null : get(column);
+    }
+
+    /**
+     * A read-only map view of this row, keyed by column header.
+     */
+    public Map<String, String> asMap() {
+        return new RowMap();
+    }
+
+    String getPropertyName(final int column) {
+        return columns.getPropertyName(column);
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private class RowMap extends AbstractMap<String, String> {
+
+        @Override
+        public String get(final Object header) {
+            return (header instanceof String) ? CSVRow.this.get((String) header) : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object header) {
+            return get(header) != null;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<Entry<String, String>>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<Entry<String, String>>() {
+                        private int column = nextUsedColumnFrom(0);
+
+                        public boolean hasNext() {
+                            return column < getColumnCount();
+                        }
+
+                        public Entry<String, String> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, String> entry = new SimpleImmutableEntry<String, String>(columns.getHeader(column),
+                                                                                                   CSVRow.this.get(column));
+                            column = nextUsedColumnFrom(column + 1);
+                            return entry;
+                        }
+
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (int column = 0; column < getColumnCount(); column++) {
+                        if (columns.isUsed(column)) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+
+        private int nextUsedColumnFrom(final int firstColumn) {
+            int column = firstColumn;
+            while ((column < getColumnCount()) && !columns.isUsed(column)) {
+                column++;
+            }
+            return column;
+        }
+    }
+
+    /**
+     * The headers of a data source, with the JavaBean property name of each column.
+     */
+    static class Columns {
+        private final List<String> headers;
+        private final String[] propertyNames;
+        private final Map<String, Integer> columnIndexes;
+
+        Columns(final List<String> headers) {
+            this.headers = headers;
+            this.propertyNames = new String[headers.size()];
+            this.columnIndexes = Maps.newHashMap();
+            int column = 0;
+            for (String header : headers) {
+                propertyNames[column] = FieldName.from(header).inNormalizedForm();
+                columnIndexes.put(header, column);
+                column++;
+            }
+        }
+
+        List<String> getHeaders() {
+            return headers;
+        }
+
+        String getHeader(final int column) {
+            return headers.get(column);
+        }
+
+        String getPropertyName(final int column) {
+            return propertyNames[column];
+        }
+
+        Integer indexOf(final String header) {
+            return columnIndexes.get(header);
+        }
+
+        /**
+         * When several columns have the same header, the last one is used.
+         */
+        boolean isUsed(final int column) {
+            return indexOf(getHeader(column)) == column;
+        }
+
+        int size() {
+            return headers.size();
+        }
+    }
+}
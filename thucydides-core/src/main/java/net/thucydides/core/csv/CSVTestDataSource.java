@@ -37,7 +37,7 @@ public class CSVTestDataSource implements TestDataSource {
 
     public CSVTestDataSource(final String path, final char separatorValue) throws IOException {
         this.separator = separatorValue;
-        List<String[]> csvDataRows = getCSVDataFrom(getDataFileFor(path));
+        List<String[]> csvDataRows = getCSVDataFrom(readerFor(path));
         String[] titleRow = csvDataRows.get(0);
 
         this.headers = convert(titleRow, new Converter<String, String>() {
@@ -64,10 +64,10 @@ public class CSVTestDataSource implements TestDataSource {
         }
     }
 
-    private Reader getDataFileFor(final String path) throws FileNotFoundException {
+    static Reader readerFor(final String path) throws FileNotFoundException {
         Preconditions.checkNotNull(path,"Test data source was not defined");
         if (isAClasspathResource(path)) {
-        		return new InputStreamReader(getClass().getClassLoader().getResourceAsStream(path));
+        		return new InputStreamReader(CSVTestDataSource.class.getClassLoader().getResourceAsStream(path));
         } else if (validFileSystemPath(path)){
         	return new FileReader(new File(path));
         }
@@ -0,0 +1,183 @@
+package net.thucydides.core.csv;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import net.thucydides.core.csv.converters.TypeConverter;
+import net.thucydides.core.csv.converters.TypeConverters;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * How test data is assigned to instances of a given class.
+ * The constructors, setters, fields and type converters are looked up once for each class and property,
+ * rather than for each value in the test data.
+ * A binding holds on to its class, so bindings are kept as soft references that can be cleared when memory is short,
+ * rather than keeping classes from discarded class loaders loaded.
+ */
+final class ClassBinding {
+
+    private static final Cache<Class<?>, ClassBinding> CLASS_BINDINGS
+            = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
+    private final Class<?> boundClass;
+    private final Map<Integer, Constructor<?>> constructorsByParameterCount;
+    private final ConcurrentMap<String, Optional<PropertyBinding>> propertyBindings;
+
+    private ClassBinding(final Class<?> boundClass) {
+        this.boundClass = boundClass;
+        this.constructorsByParameterCount = constructorsByParameterCountIn(boundClass);
+        this.propertyBindings = new MapMaker().makeMap();
+    }
+
+    static ClassBinding forClass(final Class<?> boundClass) {
+        ClassBinding classBinding = CLASS_BINDINGS.getIfPresent(boundClass);
+        if (classBinding == null) {
+            classBinding = new ClassBinding(boundClass);
+            ClassBinding existingBinding = CLASS_BINDINGS.asMap().putIfAbsent(boundClass, classBinding);
+            if (existingBinding != null) {
+                classBinding = existingBinding;
+            }
+        }
+        return classBinding;
+    }
+
+    /**
+     * When several constructors take the same number of parameters, the first one declared is used.
+     */
+    private static Map<Integer, Constructor<?>> constructorsByParameterCountIn(final Class<?> boundClass) {
+        Map<Integer, Constructor<?>> constructors = Maps.newHashMap();
+        for (Constructor<?> constructor : boundClass.getDeclaredConstructors()) {
+            int parameterCount = constructor.getParameterTypes().length;
+            if (!constructors.containsKey(parameterCount)) {
+                constructors.put(parameterCount, constructor);
+            }
+        }
+        return constructors;
+    }
+
+    boolean hasDefaultConstructor() {
+        return constructorsByParameterCount.containsKey(0);
+    }
+
+    Optional<Constructor<?>> constructorTaking(final int parameterCount) {
+        return Optional.<Constructor<?>>fromNullable(constructorsByParameterCount.get(parameterCount));
+    }
+
+    Optional<PropertyBinding> propertyNamed(final String property) {
+        Optional<PropertyBinding> propertyBinding = propertyBindings.get(property);
+        if (propertyBinding == null) {
+            propertyBindings.putIfAbsent(property, findPropertyBinding(property));
+            propertyBinding = propertyBindings.get(property);
+        }
+        return propertyBinding;
+    }
+
+    private Optional<PropertyBinding> findPropertyBinding(final String property) {
+        try {
+            Method setter = findSetter(property);
+            if (setter != null) {
+                return Optional.<PropertyBinding>of(new SetterBinding(setter));
+            }
+            Field field = findField(property);
+            if (field != null) {
+                return Optional.<PropertyBinding>of(new FieldBinding(field));
+            }
+            return Optional.absent();
+        } catch (RuntimeException e) {
+            return Optional.<PropertyBinding>of(new UnassignableBinding(e));
+        }
+    }
+
+    private Method findSetter(final String property) {
+        String setterMethod = "set" + StringUtils.capitalize(property);
+        for (Method method : boundClass.getMethods()) {
+            if (method.getName().equals(setterMethod)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private Field findField(final String property) {
+        for (Class<?> declaringClass = boundClass; declaringClass != null; declaringClass = declaringClass.getSuperclass()) {
+            for (Field field : declaringClass.getDeclaredFields()) {
+                if (field.getName().compareToIgnoreCase(property) == 0) {
+                    field.setAccessible(true);
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Assigns a test data value to a property, converting it to the type of the property.
+     */
+    abstract static class PropertyBinding {
+
+        void assign(final Object target, final String value) {
+            try {
+                assignConverted(target, value);
+            } catch (Exception e) {
+                throw new FailedToInitializeTestData("Could not assign property value", e);
+            }
+        }
+
+        protected abstract void assignConverted(Object target, String value) throws Exception;
+    }
+
+    private static class SetterBinding extends PropertyBinding {
+        private final Method setter;
+        private final TypeConverter converter;
+
+        SetterBinding(final Method setter) {
+            this.setter = setter;
+            this.converter = TypeConverters.getTypeConverterFor(setter.getParameterTypes()[0]);
+        }
+
+        @Override
+        protected void assignConverted(final Object target, final String value) throws Exception {
+            setter.invoke(target, converter.valueOf(value));
+        }
+    }
+
+    private static class FieldBinding extends PropertyBinding {
+        private final Field field;
+        private final TypeConverter converter;
+
+        FieldBinding(final Field field) {
+            this.field = field;
+            this.converter = TypeConverters.getTypeConverterFor(field.getType());
+        }
+
+        @Override
+        protected void assignConverted(final Object target, final String value) throws Exception {
+            field.set(target, converter.valueOf(value));
+        }
+    }
+
+    /**
+     * A property that was found but that test data cannot be assigned to, for example because there is no
+     * converter for its type.
+     */
+    private static class UnassignableBinding extends PropertyBinding {
+        private final RuntimeException cause;
+
+        UnassignableBinding(final RuntimeException cause) {
+            this.cause = cause;
+        }
+
+        @Override
+        protected void assignConverted(final Object target, final String value) {
+            throw cause;
+        }
+    }
+}
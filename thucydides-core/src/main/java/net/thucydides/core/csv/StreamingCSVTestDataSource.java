@@ -0,0 +1,207 @@
+package net.thucydides.core.csv;
+
+import au.com.bytecode.opencsv.CSVReader;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Test data from a CSV file, read one row at a time.
+ * Unlike the CSVTestDataSource, the file is never loaded into memory as a whole: each iteration over the rows
+ * reads the file again, and test data beans are only created as the rows are read.
+ * This makes it suitable for very large data sets.
+ * Rows can also be split into shards, so that several threads can each work through a different part of the data.
+ */
+public class StreamingCSVTestDataSource {
+
+    private final String path;
+    private final char separator;
+    private final CSVRow.Columns columns;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingCSVTestDataSource.class);
+
+    public StreamingCSVTestDataSource(final String path, final char separatorValue) throws IOException {
+        this.path = path;
+        this.separator = separatorValue;
+        this.columns = new CSVRow.Columns(readHeaders());
+    }
+
+    public StreamingCSVTestDataSource(final String path) throws IOException {
+        this(path, CSVReader.DEFAULT_SEPARATOR);
+    }
+
+    private List<String> readHeaders() throws IOException {
+        CSVReader reader = openReader();
+        try {
+            String[] titleRow = reader.readNext();
+            Preconditions.checkState(titleRow != null, "No column headings found in test data from " + path);
+            ImmutableList.Builder<String> headers = ImmutableList.builder();
+            for (String title : titleRow) {
+                headers.add(StringUtils.strip(title));
+            }
+            return headers.build();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private CSVReader openReader() throws IOException {
+        return new CSVReader(CSVTestDataSource.readerFor(path), separator);
+    }
+
+    public List<String> getHeaders() {
+        return columns.getHeaders();
+    }
+
+    /**
+     * All of the data rows, read from the file as they are needed.
+     * The file is closed once the last row has been read.
+     */
+    public Iterable<CSVRow> getRows() {
+        return getRowsInShard(0, 1);
+    }
+
+    /**
+     * Every shardCount-th row, starting from the row number shard.
+     * Each of shardCount threads can work on a different shard, between them covering all of the rows exactly once.
+     */
+    public Iterable<CSVRow> getRowsInShard(final int shard, final int shardCount) {
+        Preconditions.checkArgument(shardCount > 0, "There must be at least one shard");
+        Preconditions.checkArgument((shard >= 0) && (shard < shardCount),
+                                    "Shard number should be between 0 and " + (shardCount - 1));
+        return new Iterable<CSVRow>() {
+            public Iterator<CSVRow> iterator() {
+                return new RowIterator(shard, shardCount);
+            }
+        };
+    }
+
+    public int countRows() {
+        int rowCount = 0;
+        for (Iterator<CSVRow> rows = getRows().iterator(); rows.hasNext(); rows.next()) {
+            rowCount++;
+        }
+        return rowCount;
+    }
+
+    /**
+     * Returns the test data as JavaBean instances, each one created as it is needed.
+     */
+    public <T> Iterable<T> getDataAsInstancesOf(final Class<T> clazz, final Object... constructorArgs) {
+        return getDataAsInstancesOf(getRows(), clazz, constructorArgs);
+    }
+
+    /**
+     * Returns the test data in some of the rows, such as a shard, as JavaBean instances.
+     */
+    public <T> Iterable<T> getDataAsInstancesOf(final Iterable<CSVRow> rows,
+                                                final Class<T> clazz,
+                                                final Object... constructorArgs) {
+        return new Iterable<T>() {
+            public Iterator<T> iterator() {
+                final Iterator<CSVRow> rowIterator = rows.iterator();
+                return new AbstractIterator<T>() {
+                    @Override
+                    protected T computeNext() {
+                        if (rowIterator.hasNext()) {
+                            return newInstanceFrom(clazz, rowIterator.next(), constructorArgs);
+                        }
+                        return endOfData();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns the test data in a single row as a JavaBean instance.
+     */
+    public <T> T getInstanceFrom(final CSVRow row, final Class<T> clazz, final Object... constructorArgs) {
+        return newInstanceFrom(clazz, row, constructorArgs);
+    }
+
+    private <T> T newInstanceFrom(final Class<T> clazz, final CSVRow row, final Object... constructorArgs) {
+        T newObject = createNewInstanceOf(clazz, constructorArgs);
+        boolean validPropertyFound = false;
+        for (int column = 0; column < row.getColumnCount(); column++) {
+            if (assignPropertyValue(newObject, row.getPropertyName(column), row.get(column))) {
+                validPropertyFound = true;
+            }
+        }
+        if (!validPropertyFound) {
+            throw new FailedToInitializeTestData("No properties or public fields matching the data columns were found "
+                                                 + "or could be assigned for the class " + clazz.getName()
+                                                 + "using test data: " + row);
+        }
+        return newObject;
+    }
+
+    private <T> T createNewInstanceOf(final Class<T> clazz, final Object... constructorArgs) {
+        try {
+            return InstanceBuilder.newInstanceOf(clazz, constructorArgs);
+        } catch (Exception e) {
+            LOGGER.error("Could not create test data bean", e);
+            throw new FailedToInitializeTestData("Could not create test data beans", e);
+        }
+    }
+
+    private <T> boolean assignPropertyValue(final T newObject, final String property, final String value) {
+        try {
+            InstanceBuilder.inObject(newObject).setPropertyValue(property, value);
+            return true;
+        } catch (FailedToInitializeTestData e) {
+            return false;
+        }
+    }
+
+    private class RowIterator extends AbstractIterator<CSVRow> {
+
+        private final int shard;
+        private final int shardCount;
+        private CSVReader reader;
+        private int rowNumber = -1;
+
+        private RowIterator(final int shard, final int shardCount) {
+            this.shard = shard;
+            this.shardCount = shardCount;
+        }
+
+        @Override
+        protected CSVRow computeNext() {
+            try {
+                if (reader == null) {
+                    reader = openReader();
+                    reader.readNext();
+                }
+                String[] values;
+                while ((values = reader.readNext()) != null) {
+                    rowNumber++;
+                    if (rowNumber % shardCount == shard) {
+                        return new CSVRow(columns, values, rowNumber);
+                    }
+                }
+                reader.close();
+                return endOfData();
+            } catch (IOException e) {
+                closeQuietly();
+                throw new FailedToInitializeTestData("Could not read test data from " + path, e);
+            }
+        }
+
+        private void closeQuietly() {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
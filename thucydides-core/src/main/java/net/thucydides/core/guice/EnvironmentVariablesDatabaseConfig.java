@@ -19,6 +19,14 @@ public class EnvironmentVariablesDatabaseConfig implements DatabaseConfig {
 
     private static final int TABLE_NAME_COLUMN  = 3;
 
+    /**
+     * Columns added to the TESTRUN table since it was first released, and the SQL used to add them
+     * to an existing database that is validated rather than updated.
+     */
+    private static final String[][] ADDED_TESTRUN_COLUMNS = {
+            {"TESTCASENAME", "ALTER TABLE TESTRUN ADD TESTCASENAME VARCHAR(255)"}
+    };
+
     private final EnvironmentVariables environmentVariables;
     private final LocalDatabase localDatabase;
     private boolean isActive = true;
@@ -74,12 +82,30 @@ public class EnvironmentVariablesDatabaseConfig implements DatabaseConfig {
         try {
             Connection conn = DriverManager.getConnection(jdbcConnection, connectionProps);
             List<String> tables = getTablesFrom(conn);
-            return tables.contains("TESTRUN");
+            if (tables.contains("TESTRUN")) {
+                addMissingColumnsTo(conn);
+                return true;
+            }
+            return false;
         } catch (SQLException e) {
             return false;
         }
     }
 
+    private void addMissingColumnsTo(Connection conn) throws SQLException {
+        DatabaseMetaData md = conn.getMetaData();
+        for (String[] addedColumn : ADDED_TESTRUN_COLUMNS) {
+            ResultSet columns = md.getColumns(null, null, "TESTRUN", addedColumn[0]);
+            try {
+                if (!columns.next()) {
+                    conn.createStatement().executeUpdate(addedColumn[1]);
+                }
+            } finally {
+                columns.close();
+            }
+        }
+    }
+
     private List<String> getTablesFrom(Connection conn) throws SQLException {
         DatabaseMetaData md = conn.getMetaData();
         ResultSet rs = md.getTables(null, null, "%", null);
@@ -0,0 +1,21 @@
+package net.thucydides.core.images;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes images in a particular image format.
+ */
+public interface ImageEncoder {
+
+    /**
+     * The usual file extension for this image format, without the leading dot.
+     */
+    String getFileExtension();
+
+    void write(final BufferedImage image, final OutputStream outputStream) throws IOException;
+
+    void write(final BufferedImage image, final File file) throws IOException;
+}
@@ -0,0 +1,62 @@
+package net.thucydides.core.images;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.util.EnvironmentVariables;
+
+/**
+ * Provides the image encoders used to save screenshots and report thumbnails, as configured by the
+ * thucydides.screenshot.* and thucydides.thumbnail.* system properties.
+ */
+@Singleton
+public class ImageEncoders {
+
+    private final ImageEncoder screenshotEncoder;
+    private final ImageEncoder thumbnailEncoder;
+
+    @Inject
+    public ImageEncoders(EnvironmentVariables environmentVariables) {
+        this.screenshotEncoder = pngEncoderFor(environmentVariables);
+        this.thumbnailEncoder = thumbnailEncoderFor(environmentVariables, screenshotEncoder);
+    }
+
+    /**
+     * The encoders configured for the current Thucydides environment.
+     */
+    public static ImageEncoders getDefault() {
+        return Injectors.getInjector().getInstance(ImageEncoders.class);
+    }
+
+    /**
+     * Screenshots are always saved as lossless PNG files.
+     */
+    public ImageEncoder forScreenshots() {
+        return screenshotEncoder;
+    }
+
+    public ImageEncoder forThumbnails() {
+        return thumbnailEncoder;
+    }
+
+    private static ImageEncoder pngEncoderFor(EnvironmentVariables environmentVariables) {
+        int compressionLevel = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.SCREENSHOT_COMPRESSION_LEVEL,
+                                                                         PngEncoder.DEFAULT_COMPRESSION_LEVEL);
+        PngFilter filter = PngFilter.fromName(environmentVariables.getProperty(ThucydidesSystemProperty.SCREENSHOT_PNG_FILTER),
+                                              PngEncoder.DEFAULT_FILTER);
+        int threads = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.SCREENSHOT_ENCODING_THREADS,
+                                                                PngEncoder.DEFAULT_THREADS);
+        return new PngEncoder(compressionLevel, filter, threads);
+    }
+
+    private static ImageEncoder thumbnailEncoderFor(EnvironmentVariables environmentVariables, ImageEncoder pngEncoder) {
+        String format = environmentVariables.getProperty(ThucydidesSystemProperty.THUMBNAIL_FORMAT, "png");
+        if (format.equalsIgnoreCase("jpeg") || format.equalsIgnoreCase("jpg")) {
+            int quality = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUMBNAIL_QUALITY,
+                                                                    JpegEncoder.DEFAULT_QUALITY);
+            return new JpegEncoder(quality);
+        }
+        return pngEncoder;
+    }
+}
@@ -0,0 +1,96 @@
+package net.thucydides.core.images;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * Writes images as JPEG files of a given quality.
+ * Lossy compression is not suitable for the screenshots themselves, but produces much smaller report thumbnails.
+ */
+public class JpegEncoder implements ImageEncoder {
+
+    public static final int DEFAULT_QUALITY = 80;
+
+    private final int quality;
+
+    public JpegEncoder() {
+        this(DEFAULT_QUALITY);
+    }
+
+    /**
+     * @param quality the image quality, from 1 (smallest files) to 100 (best quality).
+     */
+    public JpegEncoder(final int quality) {
+        this.quality = Math.max(1, Math.min(quality, 100));
+    }
+
+    public int getQuality() {
+        return quality;
+    }
+
+    public String getFileExtension() {
+        return "jpg";
+    }
+
+    public void write(final BufferedImage image, final File file) throws IOException {
+        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            write(image, outputStream);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    public void write(final BufferedImage image, final OutputStream outputStream) throws IOException {
+        ImageWriter writer = jpegWriter();
+        ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream);
+        try {
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(withoutTransparency(image), null, null), writeParamsFor(writer));
+        } finally {
+            writer.dispose();
+            imageOutputStream.close();
+        }
+    }
+
+    private ImageWriter jpegWriter() throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG image writer is available");
+        }
+        return writers.next();
+    }
+
+    private ImageWriteParam writeParamsFor(final ImageWriter writer) {
+        ImageWriteParam params = writer.getDefaultWriteParam();
+        params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        params.setCompressionQuality(quality / 100.0f);
+        return params;
+    }
+
+    /**
+     * JPEG files have no alpha channel, so transparent areas are painted white.
+     */
+    private BufferedImage withoutTransparency(final BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+        BufferedImage opaqueImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = opaqueImage.createGraphics();
+        graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        graphics.dispose();
+        return opaqueImage;
+    }
+}
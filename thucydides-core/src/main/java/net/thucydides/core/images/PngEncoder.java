@@ -0,0 +1,345 @@
+package net.thucydides.core.images;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * A PNG encoder tuned for screenshots.
+ * Unlike the standard ImageIO PNG writer, the deflate level and the row filter can be configured,
+ * and the rows of large images can be read and filtered on several threads while the rows already filtered
+ * are compressed. The filtered rows are always compressed as a single deflate stream on the calling thread,
+ * as PNG files hold a single stream and splitting it needs Deflater sync flushes, which are not available on Java 6.
+ * The output is therefore the same whatever the number of threads.
+ * All the encoders share one pool of daemon threads, so creating encoders does not leave threads behind.
+ */
+public class PngEncoder implements ImageEncoder {
+
+    public static final int DEFAULT_COMPRESSION_LEVEL = 4;
+    /**
+     * Screenshots have long runs of identical pixels, which deflate already compresses well without any filtering.
+     */
+    public static final PngFilter DEFAULT_FILTER = PngFilter.NONE;
+    /**
+     * Reading the pixels of a screenshot takes almost as long as compressing them, even without filtering,
+     * so by default the rows are read on all the available processors.
+     */
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    private static final int TRUECOLOR = 2;
+    private static final int TRUECOLOR_WITH_ALPHA = 6;
+    private static final int BIT_DEPTH = 8;
+    private static final int IDAT_CHUNK_SIZE = 64 * 1024;
+    private static final int ROWS_PER_TASK = 64;
+    private static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    private static ExecutorService sharedExecutorService;
+
+    private final int compressionLevel;
+    private final PngFilter filter;
+    private final int threads;
+
+    public PngEncoder() {
+        this(DEFAULT_COMPRESSION_LEVEL, DEFAULT_FILTER, DEFAULT_THREADS);
+    }
+
+    public PngEncoder(final int compressionLevel, final PngFilter filter, final int threads) {
+        this.compressionLevel = Math.max(Deflater.NO_COMPRESSION, Math.min(compressionLevel, Deflater.BEST_COMPRESSION));
+        this.filter = filter;
+        this.threads = Math.max(1, threads);
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public PngFilter getFilter() {
+        return filter;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public String getFileExtension() {
+        return "png";
+    }
+
+    public void write(final BufferedImage image, final File file) throws IOException {
+        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            write(image, outputStream);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    public void write(final BufferedImage image, final OutputStream outputStream) throws IOException {
+        boolean withAlpha = image.getColorModel().hasAlpha();
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.write(PNG_SIGNATURE);
+        writeChunk(out, "IHDR", headerFor(image, withAlpha));
+        writeImageData(out, image, withAlpha);
+        writeChunk(out, "IEND", new byte[0]);
+        out.flush();
+    }
+
+    private byte[] headerFor(final BufferedImage image, final boolean withAlpha) throws IOException {
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(image.getWidth());
+        header.writeInt(image.getHeight());
+        header.writeByte(BIT_DEPTH);
+        header.writeByte(withAlpha ? TRUECOLOR_WITH_ALPHA : TRUECOLOR);
+        header.writeByte(0); // deflate compression
+        header.writeByte(0); // adaptive filtering, with one filter type per row
+        header.writeByte(0); // no interlacing
+        return headerBytes.toByteArray();
+    }
+
+    private void writeImageData(final DataOutputStream out, final BufferedImage image, final boolean withAlpha) throws IOException {
+        Deflater deflater = new Deflater(compressionLevel);
+        try {
+            ImageDataOutputStream imageData = new ImageDataOutputStream(out);
+            DeflaterOutputStream compressedData = new DeflaterOutputStream(imageData, deflater, IDAT_CHUNK_SIZE);
+            if (shouldReadRowsInParallel(image)) {
+                writeRowsInParallel(compressedData, image, withAlpha);
+            } else {
+                writeRows(compressedData, image, withAlpha);
+            }
+            compressedData.finish();
+            imageData.writeRemainingData();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private boolean shouldReadRowsInParallel(final BufferedImage image) {
+        return (threads > 1) && (image.getHeight() > ROWS_PER_TASK);
+    }
+
+    private void writeRows(final OutputStream out, final BufferedImage image, final boolean withAlpha) throws IOException {
+        RowFilter rowFilter = new RowFilter(image, withAlpha);
+        for (int y = 0; y < image.getHeight(); y++) {
+            out.write(rowFilter.filteredRow(y));
+        }
+    }
+
+    /**
+     * Rows are read and filtered in bands on the worker threads, and written out in order.
+     * A new band is started each time a band is written, so that the worker threads keep filtering
+     * while the calling thread compresses, and only a few bands are held in memory at a time.
+     */
+    private void writeRowsInParallel(final OutputStream out, final BufferedImage image, final boolean withAlpha) throws IOException {
+        int height = image.getHeight();
+        Queue<Future<List<byte[]>>> bands = Lists.newLinkedList();
+        int nextBandStart = 0;
+        try {
+            while ((nextBandStart < height) || !bands.isEmpty()) {
+                while ((bands.size() < threads) && (nextBandStart < height)) {
+                    int bandEnd = Math.min(nextBandStart + ROWS_PER_TASK, height);
+                    bands.add(sharedExecutorService().submit(filteredBand(image, withAlpha, nextBandStart, bandEnd)));
+                    nextBandStart = bandEnd;
+                }
+                for (byte[] filteredRow : rowsIn(bands.remove())) {
+                    out.write(filteredRow);
+                }
+            }
+        } finally {
+            for (Future<List<byte[]>> unusedBand : bands) {
+                unusedBand.cancel(true);
+            }
+        }
+    }
+
+    private Callable<List<byte[]>> filteredBand(final BufferedImage image, final boolean withAlpha,
+                                                final int bandStart, final int bandEnd) {
+        return new Callable<List<byte[]>>() {
+            public List<byte[]> call() {
+                RowFilter rowFilter = new RowFilter(image, withAlpha);
+                if (bandStart > 0) {
+                    rowFilter.filteredRow(bandStart - 1);
+                }
+                List<byte[]> filteredRows = Lists.newArrayList();
+                for (int y = bandStart; y < bandEnd; y++) {
+                    byte[] filteredRow = rowFilter.filteredRow(y);
+                    filteredRows.add(Arrays.copyOf(filteredRow, filteredRow.length));
+                }
+                return filteredRows;
+            }
+        };
+    }
+
+    private List<byte[]> rowsIn(final Future<List<byte[]>> band) throws IOException {
+        try {
+            return band.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding PNG image");
+        } catch (ExecutionException e) {
+            IOException encodingFailure = new IOException("Failed to encode PNG image");
+            encodingFailure.initCause(e.getCause());
+            throw encodingFailure;
+        }
+    }
+
+    /**
+     * The number of threads of an encoder only limits the number of bands it filters at the same time.
+     */
+    private static synchronized ExecutorService sharedExecutorService() {
+        if (sharedExecutorService == null) {
+            sharedExecutorService = Executors.newFixedThreadPool(AVAILABLE_PROCESSORS,
+                                                                 new ThreadFactoryBuilder().setNameFormat("png-encoder-%d")
+                                                                                           .setDaemon(true)
+                                                                                           .build());
+        }
+        return sharedExecutorService;
+    }
+
+    private static void writeChunk(final DataOutputStream out, final String type, final byte[] data) throws IOException {
+        writeChunk(out, type, data, data.length);
+    }
+
+    private static void writeChunk(final DataOutputStream out, final String type,
+                                   final byte[] data, final int length) throws IOException {
+        byte[] typeBytes = type.getBytes("US-ASCII");
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Splits the compressed image data into IDAT chunks.
+     */
+    private static class ImageDataOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+        private int count = 0;
+
+        private ImageDataOutputStream(final DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (count == buffer.length) {
+                writeRemainingData();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] data, final int offset, final int length) throws IOException {
+            int written = 0;
+            while (written < length) {
+                if (count == buffer.length) {
+                    writeRemainingData();
+                }
+                int bytesToCopy = Math.min(length - written, buffer.length - count);
+                System.arraycopy(data, offset + written, buffer, count, bytesToCopy);
+                count += bytesToCopy;
+                written += bytesToCopy;
+            }
+        }
+
+        void writeRemainingData() throws IOException {
+            if (count > 0) {
+                writeChunk(out, "IDAT", buffer, count);
+                count = 0;
+            }
+        }
+    }
+
+    /**
+     * Reads the raw pixels of successive rows and filters each row against the previous one.
+     * Each thread needs its own row filter, as the buffers are reused from one row to the next.
+     */
+    private class RowFilter {
+        private final BufferedImage image;
+        private final boolean withAlpha;
+        private final int width;
+        private final int bytesPerPixel;
+        private final byte[][] filterBuffers;
+        private byte[] row;
+        private byte[] priorRow;
+        private int[] packedPixels;
+
+        private RowFilter(final BufferedImage image, final boolean withAlpha) {
+            this.image = image;
+            this.withAlpha = withAlpha;
+            this.width = image.getWidth();
+            this.bytesPerPixel = withAlpha ? 4 : 3;
+            int rowLength = width * bytesPerPixel;
+            this.row = new byte[rowLength];
+            this.priorRow = new byte[rowLength];
+            this.filterBuffers = PngFilter.filterBuffersFor(rowLength);
+        }
+
+        /**
+         * Rows must be read in sequence, as each row is filtered against the row read before it.
+         */
+        byte[] filteredRow(final int y) {
+            byte[] previousRow = priorRow;
+            priorRow = row;
+            row = previousRow;
+            readRow(y, row);
+            return filter.filterRow(row, priorRow, bytesPerPixel, filterBuffers);
+        }
+
+        private void readRow(final int y, final byte[] rawRow) {
+            if (hasInterleavedSamples()) {
+                image.getRaster().getDataElements(0, y, width, 1, rawRow);
+            } else {
+                readPackedRow(y, rawRow);
+            }
+        }
+
+        /**
+         * The samples of these image types are returned in RGB(A) order, so they can be copied as they are.
+         */
+        private boolean hasInterleavedSamples() {
+            return (image.getType() == BufferedImage.TYPE_3BYTE_BGR) || (image.getType() == BufferedImage.TYPE_4BYTE_ABGR);
+        }
+
+        private void readPackedRow(final int y, final byte[] rawRow) {
+            if (packedPixels == null) {
+                packedPixels = new int[width];
+            }
+            image.getRGB(0, y, width, 1, packedPixels, 0, width);
+            int i = 0;
+            for (int pixel : packedPixels) {
+                rawRow[i++] = (byte) (pixel >> 16);
+                rawRow[i++] = (byte) (pixel >> 8);
+                rawRow[i++] = (byte) pixel;
+                if (withAlpha) {
+                    rawRow[i++] = (byte) (pixel >>> 24);
+                }
+            }
+        }
+    }
+}
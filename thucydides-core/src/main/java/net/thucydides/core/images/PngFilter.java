@@ -0,0 +1,132 @@
+package net.thucydides.core.images;
+
+/**
+ * The row filters defined by the PNG specification.
+ * Filtering each row against its neighbours makes screenshots, with their large areas of flat colour, compress
+ * much better. ADAPTIVE tries each filter on every row and keeps the one that is likely to compress best.
+ */
+public enum PngFilter {
+
+    NONE(0), SUB(1), UP(2), AVERAGE(3), PAETH(4), ADAPTIVE(-1);
+
+    private static final PngFilter[] BASIC_FILTERS = {NONE, SUB, UP, AVERAGE, PAETH};
+
+    private final int filterType;
+
+    private PngFilter(final int filterType) {
+        this.filterType = filterType;
+    }
+
+    /**
+     * Parse a filter name, ignoring case.
+     * @return the matching filter, or the default filter if the name is empty or unknown.
+     */
+    public static PngFilter fromName(final String name, final PngFilter defaultFilter) {
+        if (name != null) {
+            for (PngFilter filter : values()) {
+                if (filter.name().equalsIgnoreCase(name.trim())) {
+                    return filter;
+                }
+            }
+        }
+        return defaultFilter;
+    }
+
+    /**
+     * Filter a row of raw pixel data.
+     * @param row the raw bytes of the row
+     * @param priorRow the raw bytes of the previous row, or zeros for the first row
+     * @param bytesPerPixel the number of bytes in each pixel
+     * @param filteredRows one buffer per basic filter, each one byte longer than the row
+     * @return the buffer holding the filtered row, starting with the filter type byte
+     */
+    byte[] filterRow(final byte[] row, final byte[] priorRow, final int bytesPerPixel, final byte[][] filteredRows) {
+        if (this == ADAPTIVE) {
+            return bestFilteredRow(row, priorRow, bytesPerPixel, filteredRows);
+        }
+        byte[] filteredRow = filteredRows[filterType];
+        applyFilter(filterType, row, priorRow, bytesPerPixel, filteredRow);
+        return filteredRow;
+    }
+
+    static byte[][] filterBuffersFor(final int rowLength) {
+        return new byte[BASIC_FILTERS.length][rowLength + 1];
+    }
+
+    /**
+     * Uses the heuristic suggested in the PNG specification: the filtered row with the smallest sum of
+     * absolute differences usually compresses best.
+     */
+    private byte[] bestFilteredRow(final byte[] row, final byte[] priorRow, final int bytesPerPixel, final byte[][] filteredRows) {
+        byte[] bestRow = null;
+        long bestScore = Long.MAX_VALUE;
+        for (PngFilter filter : BASIC_FILTERS) {
+            byte[] filteredRow = filteredRows[filter.filterType];
+            applyFilter(filter.filterType, row, priorRow, bytesPerPixel, filteredRow);
+            long score = sumOfAbsoluteDifferences(filteredRow);
+            if (score < bestScore) {
+                bestScore = score;
+                bestRow = filteredRow;
+            }
+        }
+        return bestRow;
+    }
+
+    private static long sumOfAbsoluteDifferences(final byte[] filteredRow) {
+        long sum = 0;
+        for (int i = 1; i < filteredRow.length; i++) {
+            sum += Math.abs((int) filteredRow[i]);
+        }
+        return sum;
+    }
+
+    private static void applyFilter(final int filterType, final byte[] row, final byte[] priorRow,
+                                    final int bytesPerPixel, final byte[] filteredRow) {
+        filteredRow[0] = (byte) filterType;
+        int length = row.length;
+        switch (filterType) {
+            case 1:
+                for (int i = 0; i < length; i++) {
+                    int left = (i >= bytesPerPixel) ? row[i - bytesPerPixel] : 0;
+                    filteredRow[i + 1] = (byte) (row[i] - left);
+                }
+                break;
+            case 2:
+                for (int i = 0; i < length; i++) {
+                    filteredRow[i + 1] = (byte) (row[i] - priorRow[i]);
+                }
+                break;
+            case 3:
+                for (int i = 0; i < length; i++) {
+                    int left = (i >= bytesPerPixel) ? (row[i - bytesPerPixel] & 0xff) : 0;
+                    int up = priorRow[i] & 0xff;
+                    filteredRow[i + 1] = (byte) (row[i] - ((left + up) >> 1));
+                }
+                break;
+            case 4:
+                for (int i = 0; i < length; i++) {
+                    int left = (i >= bytesPerPixel) ? (row[i - bytesPerPixel] & 0xff) : 0;
+                    int up = priorRow[i] & 0xff;
+                    int upLeft = (i >= bytesPerPixel) ? (priorRow[i - bytesPerPixel] & 0xff) : 0;
+                    filteredRow[i + 1] = (byte) (row[i] - paethPredictor(left, up, upLeft));
+                }
+                break;
+            default:
+                System.arraycopy(row, 0, filteredRow, 1, length);
+        }
+    }
+
+    private static int paethPredictor(final int left, final int up, final int upLeft) {
+        int estimate = left + up - upLeft;
+        int distanceToLeft = Math.abs(estimate - left);
+        int distanceToUp = Math.abs(estimate - up);
+        int distanceToUpLeft = Math.abs(estimate - upLeft);
+        if ((distanceToLeft <= distanceToUp) && (distanceToLeft <= distanceToUpLeft)) {
+            return left;
+        } else if (distanceToUp <= distanceToUpLeft) {
+            return up;
+        } else {
+            return upLeft;
+        }
+    }
+}
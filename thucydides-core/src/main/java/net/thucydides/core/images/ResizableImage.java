@@ -14,7 +14,8 @@ import java.io.IOException;
 public class ResizableImage {
 
     private final File screenshotFile;
-    private final SimpleImageInfo imageInfo;
+    private final int width;
+    private final int height;
     private final int MAX_SUPPORTED_HEIGHT = 4000;
 
     private final Logger logger = LoggerFactory.getLogger(ResizableImage.class);
@@ -24,20 +25,36 @@ public class ResizableImage {
     }
 
     public ResizableImage(final File screenshotFile) throws IOException {
+        this(screenshotFile, new SimpleImageInfo(screenshotFile));
+    }
+
+    private ResizableImage(final File screenshotFile, final SimpleImageInfo imageInfo) {
+        this(screenshotFile, imageInfo.getWidth(), imageInfo.getHeight());
+    }
+
+    /**
+     * Use dimensions that are already known, rather than reading them from the image file.
+     */
+    protected ResizableImage(final File screenshotFile, final int width, final int height) {
         this.screenshotFile = screenshotFile;
-        this.imageInfo = new SimpleImageInfo(screenshotFile);
+        this.width = width;
+        this.height = height;
     }
 
     public static ResizableImage loadFrom(final File screenshotFile) throws IOException {
         return new ResizableImage(screenshotFile);
     }
 
+    public static ResizableImage loadFrom(final File screenshotFile, final int width, final int height) {
+        return new ResizableImage(screenshotFile, width, height);
+    }
+
     public int getWitdh() {
-        return imageInfo.getWidth();
+        return width;
     }
 
     public int getHeight() {
-        return imageInfo.getHeight();
+        return height;
     }
 
     public ResizableImage rescaleCanvas(final int height) throws IOException {
@@ -49,9 +66,8 @@ public class ResizableImage {
         int targetHeight = Math.min(height, MAX_SUPPORTED_HEIGHT);
 
         BufferedImage image = ImageIO.read(screenshotFile);
-        int width = new SimpleImageInfo(screenshotFile).getWidth();
         try {
-            return resizeImage(width, targetHeight, image);
+            return resizeImage(getWitdh(), targetHeight, image);
         } catch (IllegalArgumentException e) {
             getLogger().warn("Could not resize screenshot: " + screenshotFile, e);
             return this;
@@ -1,6 +1,5 @@
 package net.thucydides.core.images;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
@@ -8,15 +7,21 @@ import java.io.IOException;
 public class ResizedImage extends ResizableImage {
 
     private final BufferedImage image;
+    private final ImageEncoder imageEncoder;
 
     public ResizedImage(final BufferedImage image, final File screenshotFile) throws IOException {
-        super(screenshotFile);
+        this(image, screenshotFile, ImageEncoders.getDefault().forScreenshots());
+    }
+
+    public ResizedImage(final BufferedImage image, final File screenshotFile, final ImageEncoder imageEncoder) {
+        super(screenshotFile, image.getWidth(), image.getHeight());
         this.image = image;
+        this.imageEncoder = imageEncoder;
     }
 
     @Override
     public void saveTo(final File file) throws IOException {
-        ImageIO.write(image, "PNG", file);
+        imageEncoder.write(image, file);
     }
 
     @Override
@@ -0,0 +1,151 @@
+package net.thucydides.core.matchers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.hamcrest.Matcher;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.IsEqual;
+
+import java.util.List;
+import java.util.Map;
+
+import static net.thucydides.core.matchers.dates.BeanFields.fieldValueIn;
+
+/**
+ * Finds the beans or maps in a list that match a set of bean matchers.
+ * The matchers are prepared once for the whole list rather than applied to each element in turn:
+ * equality matchers such as is(...) and equalTo(...) are applied first, as they are cheap and usually
+ * the most selective, and each field matcher is only evaluated once for each distinct field value,
+ * so filtering a large list of rows takes close to linear time.
+ */
+public class BeanFilter {
+
+    private final List<MatcherStage> stages;
+
+    private BeanFilter(final List<MatcherStage> stages) {
+        this.stages = stages;
+    }
+
+    public static BeanFilter matching(final List<? extends BeanMatcher> matchers) {
+        List<MatcherStage> equalityStages = Lists.newArrayList();
+        List<MatcherStage> otherStages = Lists.newArrayList();
+        for (BeanMatcher matcher : matchers) {
+            if (isAnEqualityMatcher(matcher)) {
+                equalityStages.add(new PropertyMatcherStage((BeanPropertyMatcher) matcher));
+            } else if (matcher instanceof BeanPropertyMatcher) {
+                otherStages.add(new PropertyMatcherStage((BeanPropertyMatcher) matcher));
+            } else {
+                otherStages.add(new ElementMatcherStage(matcher));
+            }
+        }
+        return new BeanFilter(ImmutableList.<MatcherStage>builder().addAll(equalityStages).addAll(otherStages).build());
+    }
+
+    public static BeanFilter matching(final BeanMatcher... matchers) {
+        return matching(ImmutableList.copyOf(matchers));
+    }
+
+    private static boolean isAnEqualityMatcher(final BeanMatcher matcher) {
+        if (matcher instanceof BeanPropertyMatcher) {
+            Matcher<?> valueMatcher = ((BeanPropertyMatcher) matcher).getValueMatcher();
+            return (valueMatcher instanceof IsEqual) || (valueMatcher instanceof Is);
+        }
+        return false;
+    }
+
+    /**
+     * The positions in the list of the elements that match every matcher, in their original order.
+     */
+    public <T> List<Integer> indexesIn(final List<T> elements) {
+        List<Integer> candidates = Lists.newArrayList();
+        for (int index = 0; index < elements.size(); index++) {
+            if (elements.get(index) != null) {
+                candidates.add(index);
+            }
+        }
+        for (MatcherStage stage : stages) {
+            if (candidates.isEmpty()) {
+                break;
+            }
+            candidates = stage.filter(elements, candidates);
+        }
+        return candidates;
+    }
+
+    public <T> List<T> filter(final List<T> elements) {
+        ImmutableList.Builder<T> matchingElements = ImmutableList.builder();
+        for (Integer index : indexesIn(elements)) {
+            matchingElements.add(elements.get(index));
+        }
+        return matchingElements.build();
+    }
+
+    private interface MatcherStage {
+        <T> List<Integer> filter(List<T> elements, List<Integer> candidates);
+    }
+
+    /**
+     * Reads the field once for each element, and remembers the verdict of the matcher for each distinct value.
+     * Only immutable value types are remembered, as matchers on other objects may depend on more than their equality.
+     */
+    private static class PropertyMatcherStage implements MatcherStage {
+        private final String fieldName;
+        private final Matcher<?> valueMatcher;
+
+        private PropertyMatcherStage(final BeanPropertyMatcher propertyMatcher) {
+            this.fieldName = propertyMatcher.getFieldName();
+            this.valueMatcher = propertyMatcher.getValueMatcher();
+        }
+
+        public <T> List<Integer> filter(final List<T> elements, final List<Integer> candidates) {
+            Map<Object, Boolean> verdictsByValue = Maps.newHashMap();
+            List<Integer> matchingIndexes = Lists.newArrayList();
+            for (Integer index : candidates) {
+                Object value = fieldValueIn(elements.get(index)).forField(fieldName);
+                if (matches(value, verdictsByValue)) {
+                    matchingIndexes.add(index);
+                }
+            }
+            return matchingIndexes;
+        }
+
+        private boolean matches(final Object value, final Map<Object, Boolean> verdictsByValue) {
+            if (!isAValueType(value)) {
+                return valueMatcher.matches(value);
+            }
+            Boolean verdict = verdictsByValue.get(value);
+            if (verdict == null) {
+                verdict = valueMatcher.matches(value);
+                verdictsByValue.put(value, verdict);
+            }
+            return verdict;
+        }
+
+        private boolean isAValueType(final Object value) {
+            return (value instanceof String)
+                    || (value instanceof Number)
+                    || (value instanceof Boolean)
+                    || (value instanceof Character)
+                    || (value instanceof Enum);
+        }
+    }
+
+    private static class ElementMatcherStage implements MatcherStage {
+        private final BeanMatcher matcher;
+
+        private ElementMatcherStage(final BeanMatcher matcher) {
+            this.matcher = matcher;
+        }
+
+        public <T> List<Integer> filter(final List<T> elements, final List<Integer> candidates) {
+            List<Integer> matchingIndexes = Lists.newArrayList();
+            for (Integer index : candidates) {
+                if (matcher.matches(elements.get(index))) {
+                    matchingIndexes.add(index);
+                }
+            }
+            return matchingIndexes;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package net.thucydides.core.matchers;
 
 import ch.lambdaj.Lambda;
 import ch.lambdaj.function.convert.Converter;
-import com.google.common.collect.ImmutableList;
 import org.apache.commons.collections.ListUtils;
 
 import java.beans.IntrospectionException;
@@ -76,13 +75,7 @@ public class BeanMatcherAsserts {
     }
 
     public static <T> List<T> filterElements(final List<T> elements, final BeanMatcher... matchers) {
-        List<T> filteredItems = ImmutableList.copyOf(elements);
-
-        for(BeanFieldMatcher matcher : propertyMatchersIn(matchers)) {
-            filteredItems = filter(matcher.getMatcher(), filteredItems);
-        }
-
-        return filteredItems;
+        return BeanFilter.matching(propertyMatchersIn(matchers)).filter(elements);
     }
 
     private static List<BeanFieldMatcher> propertyMatchersIn(BeanMatcher[] matchers) {
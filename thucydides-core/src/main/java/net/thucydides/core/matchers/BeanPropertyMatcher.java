@@ -19,6 +19,14 @@ class BeanPropertyMatcher implements BeanFieldMatcher {
         return matcher.matches(fieldValueIn(bean).forField(fieldName));
     }
 
+    String getFieldName() {
+        return fieldName;
+    }
+
+    Matcher<? extends Object> getValueMatcher() {
+        return matcher;
+    }
+
     @Override
     public <T> Matcher<T> getMatcher() {
         return new InstantiatedBeanMatcher<T>(this);
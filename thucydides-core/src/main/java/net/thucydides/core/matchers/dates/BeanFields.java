@@ -1,9 +1,32 @@
 package net.thucydides.core.matchers.dates;
 
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.MethodUtils;
 import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 public class BeanFields {
 
+    /**
+     * Nested, indexed and mapped property names are left to PropertyUtils.
+     */
+    private static final String PROPERTY_EXPRESSION_CHARACTERS = ".[(";
+
+    /**
+     * The getters refer to their class, so they are softly referenced to let unused classes be unloaded.
+     */
+    private static final Cache<Class<?>, ConcurrentMap<String, Optional<Method>>> PROPERTY_READERS
+            = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
     private final Object bean;
 
     private BeanFields(Object bean) {
@@ -13,13 +36,60 @@ public class BeanFields {
     public static BeanFields fieldValueIn(Object bean) {
         return new BeanFields(bean);
     }
-    
+
     public Object forField(String fieldName) {
         try {
+            if (isASimplePropertyName(fieldName)) {
+                return simplePropertyValue(fieldName);
+            }
             return PropertyUtils.getProperty(bean, fieldName);
         } catch (Exception e) {
             throw new IllegalArgumentException("Could not find property value for " + fieldName);
         }
     }
 
+    private boolean isASimplePropertyName(String fieldName) {
+        return !StringUtils.containsAny(fieldName, PROPERTY_EXPRESSION_CHARACTERS) && !(bean instanceof DynaBean);
+    }
+
+    private Object simplePropertyValue(String fieldName) throws Exception {
+        if (bean instanceof Map) {
+            return ((Map) bean).get(fieldName);
+        }
+        Optional<Method> reader = readerFor(bean.getClass(), fieldName);
+        if (!reader.isPresent()) {
+            throw new NoSuchMethodException("Unknown property " + fieldName);
+        }
+        return reader.get().invoke(bean);
+    }
+
+    /**
+     * The getter of each property is only looked up once for each class.
+     */
+    private static Optional<Method> readerFor(Class<?> beanClass, String fieldName) {
+        ConcurrentMap<String, Optional<Method>> readers = PROPERTY_READERS.getIfPresent(beanClass);
+        if (readers == null) {
+            readers = new MapMaker().makeMap();
+            ConcurrentMap<String, Optional<Method>> existingReaders = PROPERTY_READERS.asMap().putIfAbsent(beanClass, readers);
+            if (existingReaders != null) {
+                readers = existingReaders;
+            }
+        }
+        Optional<Method> reader = readers.get(fieldName);
+        if (reader == null) {
+            readers.putIfAbsent(fieldName, findReaderFor(beanClass, fieldName));
+            reader = readers.get(fieldName);
+        }
+        return reader;
+    }
+
+    private static Optional<Method> findReaderFor(Class<?> beanClass, String fieldName) {
+        for (PropertyDescriptor descriptor : PropertyUtils.getPropertyDescriptors(beanClass)) {
+            if (descriptor.getName().equals(fieldName) && (descriptor.getReadMethod() != null)) {
+                return Optional.fromNullable(MethodUtils.getAccessibleMethod(beanClass, descriptor.getReadMethod()));
+            }
+        }
+        return Optional.absent();
+    }
+
 }
@@ -4,30 +4,47 @@ import ch.lambdaj.function.convert.Converter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static ch.lambdaj.Lambda.convert;
 
 /**
- * A table of test data
+ * A table of test data.
+ * The table is stored by column, with each distinct value stored only once per column,
+ * and the result of each row stored in a single byte, so that tables with many rows stay small.
  */
 public class DataTable {
     private final List<String> headers;
-    private final List<DataTableRow> rows;
+    private final List<DataTableColumn> columns;
+    private byte[] rowResults;
+    private int size;
     private final boolean predefinedRows;
     private AtomicInteger currentRow = new AtomicInteger(0);
 
     private final static List<DataTableRow> NO_ROWS = Lists.newArrayList();
+    private final static List<List<Object>> NO_ROW_VALUES = Lists.newArrayList();
+    private final static List<Object> NO_VALUES = ImmutableList.of();
 
-    private DataTable(List<String> headers, List<DataTableRow> rows) {
+    private final static TestResult[] TEST_RESULTS = TestResult.values();
+
+    private DataTable(List<String> headers, List<DataTableRow> rows, Iterable<? extends List<?>> rowValues) {
         this.headers = headers;
-        this.rows = new CopyOnWriteArrayList(rows);
-        this.predefinedRows = !rows.isEmpty();
+        this.columns = Lists.newArrayList();
+        this.rowResults = new byte[Math.max(rows.size(), 16)];
+        for (DataTableRow row : rows) {
+            appendRow(row.getValues(), row.getResult());
+        }
+        for (List<?> values : rowValues) {
+            appendRow(values, TestResult.UNDEFINED);
+        }
+        this.predefinedRows = (size > 0);
     }
 
     public static DataTableBuilder withHeaders(List<String> headers) {
@@ -38,8 +55,133 @@ public class DataTable {
         return ImmutableList.copyOf(headers);
     }
 
+    /**
+     * The rows that are in this table when this method is called.
+     * The rows are not copied: each row reads its values and its result from the table when they are asked for,
+     * and a result set on a row is recorded in the table.
+     */
     public List<DataTableRow> getRows() {
-        return ImmutableList.copyOf(rows);
+        final int rowCount = getSize();
+        return new AbstractList<DataTableRow>() {
+            @Override
+            public DataTableRow get(int rowNumber) {
+                if (rowNumber >= rowCount) {
+                    throw new IndexOutOfBoundsException("No row " + rowNumber + " in a list of " + rowCount + " rows");
+                }
+                return getRow(rowNumber);
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    /**
+     * A row of this table, which reads its values and its result from the table.
+     */
+    public synchronized DataTableRow getRow(int rowNumber) {
+        if (rowNumber >= size) {
+            throw new IndexOutOfBoundsException("No row " + rowNumber + " in a table of " + size + " rows");
+        }
+        return new TableRow(rowNumber);
+    }
+
+    /**
+     * The columns of this table. Rows with more values than there are headers have values in extra columns.
+     */
+    public synchronized List<DataTableColumn> getColumns() {
+        return ImmutableList.copyOf(columns);
+    }
+
+    public synchronized TestResult getResultAt(int rowNumber) {
+        return TEST_RESULTS[rowResults[rowNumber]];
+    }
+
+    public synchronized int countRowsWithResult(TestResult expectedResult) {
+        int matchingRows = 0;
+        for (int row = 0; row < size; row++) {
+            if (rowResults[row] == expectedResult.ordinal()) {
+                matchingRows++;
+            }
+        }
+        return matchingRows;
+    }
+
+    /**
+     * A row ends with its last cell that has a value. Cells before it without a value are read as null,
+     * so that the other values stay in their columns.
+     */
+    private synchronized List<Object> getValuesIn(int rowNumber) {
+        int rowLength = columns.size();
+        while ((rowLength > 0) && !columns.get(rowLength - 1).hasValueAt(rowNumber)) {
+            rowLength--;
+        }
+        List<Object> values = Lists.newArrayListWithCapacity(rowLength);
+        for (int column = 0; column < rowLength; column++) {
+            values.add(columns.get(column).getValueAt(rowNumber));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private synchronized void appendRow(List<?> values, TestResult result) {
+        while (columns.size() < values.size()) {
+            columns.add(new DataTableColumn(size));
+        }
+        int column = 0;
+        for (Object value : values) {
+            columns.get(column++).addValue(value);
+        }
+        while (column < columns.size()) {
+            columns.get(column++).addMissingValue();
+        }
+        if (size == rowResults.length) {
+            rowResults = Arrays.copyOf(rowResults, rowResults.length * 2);
+        }
+        rowResults[size++] = (byte) result.ordinal();
+    }
+
+    private synchronized void setResultAt(int rowNumber, TestResult result) {
+        rowResults[rowNumber] = (byte) result.ordinal();
+    }
+
+    private synchronized void updateResultAt(int rowNumber, TestResult newResult) {
+        if (newResult == TestResult.UNDEFINED) {
+            rowResults[rowNumber] = (byte) newResult.ordinal();
+        } else {
+            TestResultList testResults = TestResultList.of(getResultAt(rowNumber), newResult);
+            rowResults[rowNumber] = (byte) testResults.getOverallResult().ordinal();
+        }
+    }
+
+    private class TableRow extends DataTableRow {
+        private final int rowNumber;
+
+        private TableRow(int rowNumber) {
+            super(NO_VALUES);
+            this.rowNumber = rowNumber;
+        }
+
+        @Override
+        public List getValues() {
+            return getValuesIn(rowNumber);
+        }
+
+        @Override
+        public TestResult getResult() {
+            return getResultAt(rowNumber);
+        }
+
+        @Override
+        public void setResult(TestResult result) {
+            setResultAt(rowNumber, result);
+        }
+
+        @Override
+        public void updateResult(TestResult newResult) {
+            updateResultAt(rowNumber, newResult);
+        }
     }
 
     public RowValueAccessor row(int rowNumber) {
@@ -51,7 +193,8 @@ public class DataTable {
     }
 
     public boolean atLastRow() {
-        return ((rows.isEmpty()) || (currentRow.get() == rows.size() - 1));
+        int rowCount = getSize();
+        return ((rowCount == 0) || (currentRow.get() == rowCount - 1));
     }
 
     public RowValueAccessor currentRow() {
@@ -66,17 +209,14 @@ public class DataTable {
         return currentRow.intValue();
     }
 
-    public void addRow(Map<String, ? extends Object> data) {
-        DataTableRow newRow = new DataTableRow(ImmutableList.copyOf(data.values()));
-        rows.add(newRow);
-        currentRow.set(rows.size() - 1);
+    public synchronized void addRow(Map<String, ? extends Object> data) {
+        appendRow(Lists.newArrayList(data.values()), TestResult.UNDEFINED);
+        currentRow.set(size - 1);
     }
 
-    public void addRows(List<DataTableRow> rows) {
+    public synchronized void addRows(List<DataTableRow> rows) {
         for(DataTableRow row : rows) {
-            DataTableRow newRow = new DataTableRow(ImmutableList.copyOf(row.getValues()));
-            newRow.setResult(row.getResult());
-            this.rows.add(newRow);
+            appendRow(row.getValues(), row.getResult());
         }
         currentRow.set(rows.size() -1);
     }
@@ -85,21 +225,27 @@ public class DataTable {
         return predefinedRows;
     }
 
-    public int getSize() {
-        return rows.size();
+    public synchronized int getSize() {
+        return size;
     }
 
     public static class DataTableBuilder {
         final List<String> headers;
         final List<DataTableRow> rows;
+        final Iterable<? extends List<?>> rowValues;
 
         public DataTableBuilder(List<String> headers) {
             this(headers, NO_ROWS);
         }
 
         public DataTableBuilder(List<String> headers, List<DataTableRow> rows) {
+            this(headers, rows, NO_ROW_VALUES);
+        }
+
+        private DataTableBuilder(List<String> headers, List<DataTableRow> rows, Iterable<? extends List<?>> rowValues) {
             this.headers = headers;
             this.rows = rows;
+            this.rowValues = rowValues;
         }
 
         public DataTableBuilder andCopyRowDataFrom(DataTableRow row) {
@@ -109,7 +255,15 @@ public class DataTable {
         }
 
         public DataTable build() {
-            return new DataTable(headers, rows);
+            return new DataTable(headers, rows, rowValues);
+        }
+
+        /**
+         * Rows read one at a time, for example from a large data file.
+         * The values of each row are stored in the table columns as the row is read, and the row itself is not kept.
+         */
+        public DataTableBuilder andStreamedRows(Iterable<? extends List<?>> rowValues) {
+            return new DataTableBuilder(headers, NO_ROWS, rowValues);
         }
 
         public DataTableBuilder andRows(List<List<Object>> rows) {
@@ -155,13 +309,13 @@ public class DataTable {
         }
 
         public void hasResult(TestResult result) {
-            dataTable.rows.get(rowNumber).updateResult(result);
+            dataTable.updateResultAt(rowNumber, result);
         }
 
         public Map<String, Object> getData() {
             Map<String, Object> rowData = new HashMap<String, Object>();
             int i = 0;
-            for (Object value : dataTable.rows.get(rowNumber).getValues()) {
+            for (Object value : dataTable.getRow(rowNumber).getValues()) {
                 rowData.put(dataTable.headers.get(i), value);
                 i++;
             }
@@ -172,8 +326,8 @@ public class DataTable {
         public Map<String, String> toStringMap() {
             Map<String, String> rowData = new HashMap<String, String>();
             int i = 0;
-            for (Object value : dataTable.rows.get(rowNumber).getValues()) {
-                rowData.put(dataTable.headers.get(i), value.toString());
+            for (Object value : dataTable.getRow(rowNumber).getValues()) {
+                rowData.put(dataTable.headers.get(i), (value == null) ? "" : value.toString());
                 i++;
             }
 
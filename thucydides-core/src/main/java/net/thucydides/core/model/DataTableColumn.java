@@ -0,0 +1,82 @@
+package net.thucydides.core.model;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The values of one column of a data table.
+ * Each distinct value is only stored once, and each cell refers to a value by its index,
+ * which keeps large tables with many repeated values small.
+ */
+public class DataTableColumn {
+
+    /**
+     * The value index of a cell in a row that is too short to have a value in this column.
+     */
+    public static final int NO_VALUE = -1;
+
+    private final List<Object> distinctValues = Lists.newArrayList();
+    private final Map<Object, Integer> valueIndexes = Maps.newHashMap();
+    private int[] cells;
+    private int size;
+
+    DataTableColumn(final int rowsWithoutValues) {
+        this.cells = new int[Math.max(rowsWithoutValues, 16)];
+        for (int row = 0; row < rowsWithoutValues; row++) {
+            addMissingValue();
+        }
+    }
+
+    void addValue(final Object value) {
+        Integer valueIndex = valueIndexes.get(value);
+        if (valueIndex == null) {
+            valueIndex = distinctValues.size();
+            distinctValues.add(value);
+            valueIndexes.put(value, valueIndex);
+        }
+        addCell(valueIndex);
+    }
+
+    void addMissingValue() {
+        addCell(NO_VALUE);
+    }
+
+    private void addCell(final int valueIndex) {
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, cells.length * 2);
+        }
+        cells[size++] = valueIndex;
+    }
+
+    public boolean hasValueAt(final int row) {
+        return getValueIndexAt(row) != NO_VALUE;
+    }
+
+    public Object getValueAt(final int row) {
+        int valueIndex = getValueIndexAt(row);
+        return (valueIndex == NO_VALUE) ? null : distinctValues.get(valueIndex);
+    }
+
+    /**
+     * The index of the value of a cell in the list of distinct values, or NO_VALUE.
+     */
+    public int getValueIndexAt(final int row) {
+        return cells[row];
+    }
+
+    /**
+     * The distinct values in this column, in the order in which they first appear.
+     */
+    public List<Object> getDistinctValues() {
+        return ImmutableList.copyOf(distinctValues);
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
@@ -1,27 +1,31 @@
 package net.thucydides.core.model;
 
 import com.google.common.base.Function;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * A row of a data table. Cells can hold null values.
+ */
 public class DataTableRow {
     private final List cellValues;
     private TestResult result;
 
     public DataTableRow(List cellValues) {
-        this.cellValues = ImmutableList.copyOf(cellValues);
+        this.cellValues = Collections.unmodifiableList(new ArrayList(cellValues));
         this.result = TestResult.UNDEFINED;
     }
 
     public List getValues() {
-        return ImmutableList.copyOf(cellValues);
+        return cellValues;
     }
 
     public List<String> getStringValues() {
 
-        return Lists.transform(cellValues, new Function<Object, String>() {
+        return Lists.transform(getValues(), new Function<Object, String>() {
             @Override
             public String apply(Object o) {
                 return o== null ? "" : o.toString();
@@ -41,7 +45,7 @@ public class DataTableRow {
         if (newResult == TestResult.UNDEFINED) {
             setResult(newResult);
         } else {
-            TestResultList testResults = TestResultList.of(this.result, newResult);
+            TestResultList testResults = TestResultList.of(getResult(), newResult);
             setResult(testResults.getOverallResult());
         }
     }
@@ -9,18 +9,28 @@ public class Screenshot {
     private final String filename;
     private final String description;
     private final int width;
+    private final int height;
     private final Throwable error;
 
     public Screenshot(final String filename,
                       final String description,
                       final int width,
+                      final int height,
                       final Throwable error) {
         this.filename = filename;
         this.description = description;
         this.width = width;
+        this.height = height;
         this.error = error;
     }
 
+    public Screenshot(final String filename,
+                      final String description,
+                      final int width,
+                      final Throwable error) {
+        this(filename, description, width, 0, error);
+    }
+
     public Screenshot(final String filename,
                       final String description,
                       final int width) {
@@ -60,6 +70,13 @@ public class Screenshot {
         return width;
     }
 
+    /**
+     * @return the height of the screenshot in pixels, or 0 if it was not recorded.
+     */
+    public int getHeight() {
+        return height;
+    }
+
     public HtmlFormattedInfo getHtml() {
         return new HtmlFormattedInfo(description);
     }
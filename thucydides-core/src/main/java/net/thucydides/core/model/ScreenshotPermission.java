@@ -3,6 +3,7 @@ package net.thucydides.core.model;
 import com.google.common.base.Optional;
 import net.thucydides.core.annotations.Screenshots;
 import net.thucydides.core.reflection.StackTraceAnalyser;
+import net.thucydides.core.screenshots.ScreenshotBudget;
 import net.thucydides.core.webdriver.Configuration;
 import org.apache.commons.lang3.ArrayUtils;
 
@@ -11,13 +12,27 @@ import java.lang.reflect.Method;
 public class ScreenshotPermission {
 
     private final Configuration configuration;
+    private final Optional<ScreenshotBudget.ForTest> screenshotBudget;
 
     public ScreenshotPermission(Configuration configuration) {
         this.configuration = configuration;
+        this.screenshotBudget = Optional.absent();
     }
 
+    public ScreenshotPermission(Configuration configuration, ScreenshotBudget.ForTest screenshotBudget) {
+        this.configuration = configuration;
+        this.screenshotBudget = Optional.fromNullable(screenshotBudget);
+    }
 
     public boolean areAllowed(TakeScreenshots takeScreenshots) {
+        return areAllowedByBudget(takeScreenshots) && areAllowedByConfiguration(takeScreenshots);
+    }
+
+    private boolean areAllowedByBudget(TakeScreenshots takeScreenshots) {
+        return !screenshotBudget.isPresent() || screenshotBudget.get().allows(takeScreenshots);
+    }
+
+    private boolean areAllowedByConfiguration(TakeScreenshots takeScreenshots) {
         Optional<TakeScreenshots> overrideLevel = methodOverride();
         if (overrideLevel.isPresent()) {
             return takeScreenshotLevel(takeScreenshots).isAtLeast(overrideLevel.get());
@@ -10,7 +10,6 @@ import com.google.common.collect.Sets;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.annotations.TestAnnotations;
 import net.thucydides.core.guice.Injectors;
-import net.thucydides.core.images.SimpleImageInfo;
 import net.thucydides.core.issues.IssueTracking;
 import net.thucydides.core.model.features.ApplicationFeature;
 import net.thucydides.core.reports.html.Formatter;
@@ -27,8 +26,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.ListableBeanFactory;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -36,10 +33,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static ch.lambdaj.Lambda.convert;
 import static ch.lambdaj.Lambda.extract;
-import static ch.lambdaj.Lambda.filter;
 import static ch.lambdaj.Lambda.flatten;
 import static ch.lambdaj.Lambda.having;
 import static ch.lambdaj.Lambda.join;
@@ -58,7 +55,6 @@ import static net.thucydides.core.model.TestResult.PENDING;
 import static net.thucydides.core.model.TestResult.SKIPPED;
 import static net.thucydides.core.model.TestResult.SUCCESS;
 import static net.thucydides.core.util.NameConverter.withNoArguments;
-import static org.hamcrest.Matchers.is;
 
 /**
  * Represents the results of a test (or "scenario") execution. This
@@ -153,6 +149,17 @@ public class TestOutcome {
 
     private DataTable dataTable;
 
+    /**
+     * Values derived from the test steps, which are only cached once the test outcome has been frozen.
+     */
+    private volatile DerivedValues derivedValues;
+
+    /**
+     * Counts the changes made to the test steps of this test outcome, including changes made to the steps directly.
+     * Copies of this test outcome share their test steps, and so share this count.
+     */
+    private AtomicLong stepChanges = new AtomicLong();
+
     public TestOutcome(final String methodName) {
         this(methodName, null);
     }
@@ -230,6 +237,7 @@ public class TestOutcome {
         this.methodName = methodName;
         this.testCase = testCase;
         this.testSteps.addAll(testSteps);
+        countStepChangesIn(stepChanges);
         this.issues = issues;
         this.additionalIssues = additionalIssues;
         this.tags = tags;
@@ -254,7 +262,7 @@ public class TestOutcome {
 
     public TestOutcome withQualifier(String qualifier) {
         if (qualifier != null) {
-            return new TestOutcome(this.startTime,
+            TestOutcome qualifiedOutcome = new TestOutcome(this.startTime,
                     this.duration,
                     this.storedTitle,
                     this.methodName,
@@ -268,6 +276,11 @@ public class TestOutcome {
                     this.annotatedResult,
                     this.dataTable,
                     Optional.fromNullable(qualifier));
+            qualifiedOutcome.countStepChangesIn(stepChanges);
+            if (isFrozen()) {
+                qualifiedOutcome.freeze();
+            }
+            return qualifiedOutcome;
         } else {
             return this;
         }
@@ -276,7 +289,7 @@ public class TestOutcome {
 
     public TestOutcome withMethodName(String methodName) {
         if (methodName != null) {
-            return new TestOutcome(this.startTime,
+            TestOutcome renamedOutcome = new TestOutcome(this.startTime,
                     this.duration,
                     this.storedTitle,
                     methodName,
@@ -290,6 +303,8 @@ public class TestOutcome {
                     this.annotatedResult,
                     this.dataTable,
                     this.qualifier);
+            renamedOutcome.countStepChangesIn(stepChanges);
+            return renamedOutcome;
         } else {
             return this;
         }
@@ -407,14 +422,62 @@ public class TestOutcome {
      * @return A list of top-level test steps for this test.
      */
     public List<TestStep> getTestSteps() {
+        DerivedValues frozenValues = currentDerivedValues();
+        if (frozenValues != null) {
+            return frozenValues.getTestSteps();
+        }
         return ImmutableList.copyOf(testSteps);
     }
 
+    /**
+     * Freeze a finished test outcome, for example once it has been loaded or once the test has been completed.
+     * Values derived from the test steps, such as the result, the step counts and the screenshots, are then only
+     * calculated once. Recording new steps or results through this test outcome unfreezes it, and the derived values
+     * are calculated again if any test step is changed directly.
+     */
+    public void freeze() {
+        if (derivedValues == null) {
+            derivedValues = new DerivedValues();
+        }
+    }
+
+    public boolean isFrozen() {
+        return derivedValues != null;
+    }
+
+    private void unfreeze() {
+        derivedValues = null;
+    }
+
+    private void countStepChangesIn(final AtomicLong changes) {
+        this.stepChanges = changes;
+        for (TestStep step : testSteps) {
+            step.countChangesIn(changes);
+        }
+    }
+
+    private DerivedValues currentDerivedValues() {
+        DerivedValues frozenValues = derivedValues;
+        if ((frozenValues != null) && frozenValues.testStepsHaveChanged()) {
+            frozenValues = new DerivedValues();
+            derivedValues = frozenValues;
+        }
+        return frozenValues;
+    }
+
     public boolean hasScreenshots() {
         return !getScreenshots().isEmpty();
     }
 
     public List<ScreenshotAndHtmlSource> getScreenshotAndHtmlSources() {
+        DerivedValues frozenValues = currentDerivedValues();
+        if (frozenValues != null) {
+            return frozenValues.getScreenshotAndHtmlSources();
+        }
+        return calculateScreenshotAndHtmlSources();
+    }
+
+    private List<ScreenshotAndHtmlSource> calculateScreenshotAndHtmlSources() {
         List<TestStep> testStepsWithScreenshots = select(getFlattenedTestSteps(),
                 having(on(TestStep.class).needsScreenshots()));
 
@@ -422,6 +485,14 @@ public class TestOutcome {
     }
 
     public List<Screenshot> getScreenshots() {
+        DerivedValues frozenValues = currentDerivedValues();
+        if (frozenValues != null) {
+            return frozenValues.getScreenshots();
+        }
+        return calculateScreenshots();
+    }
+
+    private List<Screenshot> calculateScreenshots() {
         List<Screenshot> screenshots = new ArrayList<Screenshot>();
 
         List<TestStep> testStepsWithScreenshots = select(getFlattenedTestSteps(),
@@ -443,21 +514,26 @@ public class TestOutcome {
             public Screenshot convert(ScreenshotAndHtmlSource from) {
                 return new Screenshot(from.getScreenshotFile().getName(),
                         currentStep.getDescription(),
-                        widthOf(from.getScreenshotFile()),
+                        widthOf(from),
+                        from.getHeight(),
                         currentStep.getException());
             }
         };
     }
 
-    private int widthOf(final File screenshot) {
-        try {
-            return new SimpleImageInfo(screenshot).getWidth();
-        } catch (IOException e) {
-            return ThucydidesSystemProperty.DEFAULT_WIDTH;
-        }
+    private int widthOf(final ScreenshotAndHtmlSource screenshot) {
+        return screenshot.hasDimensions() ? screenshot.getWidth() : ThucydidesSystemProperty.DEFAULT_WIDTH;
     }
 
     public List<TestStep> getFlattenedTestSteps() {
+        DerivedValues frozenValues = currentDerivedValues();
+        if (frozenValues != null) {
+            return frozenValues.getFlattenedTestSteps();
+        }
+        return calculateFlattenedTestSteps();
+    }
+
+    private List<TestStep> calculateFlattenedTestSteps() {
         List<TestStep> flattenedTestSteps = new ArrayList<TestStep>();
         for (TestStep step : getTestSteps()) {
             flattenedTestSteps.add(step);
@@ -469,6 +545,14 @@ public class TestOutcome {
     }
 
     public List<TestStep> getLeafTestSteps() {
+        DerivedValues frozenValues = currentDerivedValues();
+        if (frozenValues != null) {
+            return frozenValues.getLeafTestSteps();
+        }
+        return calculateLeafTestSteps();
+    }
+
+    private List<TestStep> calculateLeafTestSteps() {
         List<TestStep> leafTestSteps = new ArrayList<TestStep>();
         for (TestStep step : getTestSteps()) {
             if (step.isAGroup()) {
@@ -490,6 +574,14 @@ public class TestOutcome {
      * @return The outcome of this test.
      */
     public TestResult getResult() {
+        DerivedValues frozenValues = currentDerivedValues();
+        if (frozenValues != null) {
+            return frozenValues.getResult();
+        }
+        return calculateResult();
+    }
+
+    private TestResult calculateResult() {
         if (testFailureCause != null) {
             return new FailureAnalysis().resultFor(testFailureCause);
         }
@@ -509,6 +601,8 @@ public class TestOutcome {
      */
     public TestOutcome recordStep(final TestStep step) {
         checkNotNull(step.getDescription(), "The test step description was not defined.");
+        unfreeze();
+        step.countChangesIn(stepChanges);
         if (inGroup()) {
             getCurrentStepGroup().addChildStep(step);
         } else {
@@ -574,6 +668,7 @@ public class TestOutcome {
      * Turns the current step into a group. Subsequent steps will be added as children of the current step.
      */
     public void startGroup() {
+        unfreeze();
         if (!testSteps.isEmpty()) {
             groupStack.push(getCurrentStep());
         }
@@ -583,6 +678,7 @@ public class TestOutcome {
      * Finish the current group. Subsequent steps will be added after the current step.
      */
     public void endGroup() {
+        unfreeze();
         if (!groupStack.isEmpty()) {
             groupStack.pop();
         }
@@ -629,6 +725,7 @@ public class TestOutcome {
     }
 
     public void setTestFailureCause(Throwable cause) {
+        unfreeze();
         this.testFailureCause = cause;
     }
 
@@ -637,6 +734,7 @@ public class TestOutcome {
     }
 
     public void setAnnotatedResult(final TestResult annotatedResult) {
+        unfreeze();
         if (this.annotatedResult != PENDING) {
             this.annotatedResult = annotatedResult;
         }
@@ -738,7 +836,7 @@ public class TestOutcome {
         for (TagProvider tagProvider : tagProviders) {
             Set<TestTag> providedTags = tagProvider.getTagsFor(this);
             if (providedTags != null) {
-                tags.addAll(tagProvider.getTagsFor(this));
+                tags.addAll(providedTags);
             }
         }
         return tags;
@@ -812,6 +910,7 @@ public class TestOutcome {
     }
 
     public void updateCurrentRowResult(TestResult result) {
+        unfreeze();
         dataTable.currentRow().hasResult(result);
     }
 
@@ -840,10 +939,7 @@ public class TestOutcome {
     }
 
     private int countDataRowsWithResult(TestResult expectedResult) {
-        List<DataTableRow> matchingRows
-                = filter(having(on(DataTableRow.class).getResult(), is(expectedResult)),
-                getDataTable().getRows());
-        return matchingRows.size();
+        return getDataTable().countRowsWithResult(expectedResult);
     }
 
     public int countNestedStepsWithResult(TestResult expectedResult) {
@@ -901,8 +997,7 @@ public class TestOutcome {
     }
 
     public Integer getPendingCount() {
-        List<TestStep> allTestSteps = getLeafTestSteps();
-        return select(allTestSteps, having(on(TestStep.class).isPending())).size();
+        return count(pendingSteps()).in(getLeafTestSteps());
     }
 
     public Boolean isSuccess() {
@@ -1058,6 +1153,79 @@ public class TestOutcome {
         };
     }
 
+    StepFilter pendingSteps() {
+        return new StepFilter() {
+            @Override
+            boolean apply(TestStep step) {
+                return step.isPending();
+            }
+        };
+    }
+
+    /**
+     * Lazily calculated values for a frozen test outcome.
+     * Each value is calculated at most a few times even when reports are generated in parallel,
+     * as the calculations are idempotent.
+     */
+    private class DerivedValues {
+        private final long stepChangeCount = stepChanges.get();
+        private volatile List<TestStep> testSteps;
+        private volatile List<TestStep> flattenedTestSteps;
+        private volatile List<TestStep> leafTestSteps;
+        private volatile TestResult result;
+        private volatile List<Screenshot> screenshots;
+        private volatile List<ScreenshotAndHtmlSource> screenshotAndHtmlSources;
+
+        /**
+         * The dimensions of the screenshots are also taken into account, as they are recorded once the screenshots are saved.
+         */
+        boolean testStepsHaveChanged() {
+            return stepChangeCount != stepChanges.get();
+        }
+
+        List<TestStep> getTestSteps() {
+            if (testSteps == null) {
+                testSteps = ImmutableList.copyOf(TestOutcome.this.testSteps);
+            }
+            return testSteps;
+        }
+
+        List<TestStep> getFlattenedTestSteps() {
+            if (flattenedTestSteps == null) {
+                flattenedTestSteps = calculateFlattenedTestSteps();
+            }
+            return flattenedTestSteps;
+        }
+
+        List<TestStep> getLeafTestSteps() {
+            if (leafTestSteps == null) {
+                leafTestSteps = calculateLeafTestSteps();
+            }
+            return leafTestSteps;
+        }
+
+        TestResult getResult() {
+            if (result == null) {
+                result = calculateResult();
+            }
+            return result;
+        }
+
+        List<Screenshot> getScreenshots() {
+            if (screenshots == null) {
+                screenshots = calculateScreenshots();
+            }
+            return screenshots;
+        }
+
+        List<ScreenshotAndHtmlSource> getScreenshotAndHtmlSources() {
+            if (screenshotAndHtmlSources == null) {
+                screenshotAndHtmlSources = ImmutableList.copyOf(calculateScreenshotAndHtmlSources());
+            }
+            return screenshotAndHtmlSources;
+        }
+    }
+
     public void setStatistics(TestStatistics statistics) {
         this.statistics = statistics;
     }
@@ -6,6 +6,7 @@ import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static ch.lambdaj.Lambda.extract;
 import static ch.lambdaj.Lambda.join;
@@ -39,6 +40,12 @@ public class TestStep {
 
     private List<TestStep> children = new ArrayList<TestStep>();
 
+    /**
+     * Counts the changes made to the steps of the test outcome that recorded this step,
+     * so that the test outcome can tell when its steps have changed once it has been frozen.
+     */
+    private transient volatile AtomicLong outcomeChanges;
+
     public TestStep() {
         startTime = System.currentTimeMillis();
     }
@@ -85,6 +92,28 @@ public class TestStep {
     
     public void setDescription(final String description) {
         this.description = description;
+        changed();
+    }
+
+    private void changed() {
+        AtomicLong changes = outcomeChanges;
+        if (changes != null) {
+            changes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Called when this step is recorded in a test outcome. Changes to its child steps and to the dimensions
+     * of its screenshots are counted as well.
+     */
+    void countChangesIn(final AtomicLong outcomeChanges) {
+        this.outcomeChanges = outcomeChanges;
+        for (ScreenshotAndHtmlSource screenshot : getScreenshots()) {
+            screenshot.countChangesIn(outcomeChanges);
+        }
+        for (TestStep child : getChildren()) {
+            child.countChangesIn(outcomeChanges);
+        }
     }
 
     public String getDescription() {
@@ -118,6 +147,7 @@ public class TestStep {
      */
     public void setResult(final TestResult result) {
         this.result = result;
+        changed();
     }
 
     public TestResult getResult() {
@@ -196,6 +226,7 @@ public class TestStep {
     public void failedWith(final Throwable exception) {
         setResult(new FailureAnalysis().resultFor(exception));
         this.cause = exception;
+        changed();
     }
 
     public String getErrorMessage() {
@@ -208,6 +239,7 @@ public class TestStep {
      */
     public void testAborted(final Throwable exception) {
         this.cause = exception;
+        changed();
     }
 
     private String errorMessageFrom(final Throwable error) {
@@ -239,6 +271,10 @@ public class TestStep {
 
     public void addChildStep(final TestStep step) {
         children.add(step);
+        if (outcomeChanges != null) {
+            step.countChangesIn(outcomeChanges);
+        }
+        changed();
     }
 
     public boolean hasChildren() {
@@ -260,6 +296,10 @@ public class TestStep {
     public void addScreenshot(ScreenshotAndHtmlSource screenshotAndHtmlSource) {
         if (thisIsANew(screenshotAndHtmlSource)) {
             screenshots.add(screenshotAndHtmlSource);
+            if (outcomeChanges != null) {
+                screenshotAndHtmlSource.countChangesIn(outcomeChanges);
+            }
+            changed();
         }
     }
 
@@ -278,5 +318,6 @@ public class TestStep {
 
     public void removeScreenshot(int index) {
         screenshots.remove(index);
+        changed();
     }
 }
@@ -3,6 +3,7 @@ package net.thucydides.core.pages.components;
 import ch.lambdaj.function.convert.Converter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import net.thucydides.core.matchers.BeanFilter;
 import net.thucydides.core.matchers.BeanMatcher;
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.By;
@@ -183,29 +184,14 @@ public class HtmlTable {
 
     private List<Integer> findMatchingIndexesFor(List<WebElement> rowElements,
                                                  BeanMatcher[] matchers) {
-        List<Integer> indexes = new ArrayList<Integer>();
+        List<Map<Object, String>> rows = new ArrayList<Map<Object, String>>();
         List<String> headings = getHeadings();
 
-        int index = 0;
         for(WebElement row : rowElements) {
-            List<WebElement> cells = cellsIn(row);
-            Map<Object, String> rowData = rowDataFrom(cells, headings);
-            if (matches(rowData, matchers)) {
-                indexes.add(index);
-            }
-            index++;
+            rows.add(rowDataFrom(cellsIn(row), headings));
         }
 
-        return indexes;
-    }
-
-    private boolean matches(Map<Object, String> rowData, BeanMatcher[] matchers) {
-        for(BeanMatcher matcher : matchers) {
-            if (!matcher.matches(rowData)) {
-                return false;
-            }
-        }
-        return true;
+        return BeanFilter.matching(matchers).indexesIn(rows);
     }
 
 
@@ -3,12 +3,14 @@ package net.thucydides.core.reflection;
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import net.thucydides.core.resources.ClasspathIndex;
 import sun.tools.jar.resources.jar;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -22,8 +24,6 @@ import java.util.TreeSet;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 /**
  * Load classes from a given package.
@@ -111,6 +111,7 @@ public class ClassFinder {
             for (String directory : dirs) {
                 classes.addAll(findClasses(directory, packageName));
             }
+            ClasspathIndex.shared().saveIfChanged();
             List<Class<?>> classList = Lists.newArrayList();
             for (String className : classes) {
                 try {
@@ -129,17 +130,16 @@ public class ClassFinder {
     }
 
     /**
-     * Recursive method used to find all classes in a given directory and subdirs. * Adapted from http://snippets.dzone.com/posts/show/4831 and extended to support use of JAR files * @param directory The base directory * @param packageName The package name for classes found inside the base directory * @return The classes * @throws ClassNotFoundException
+     * Find all classes in a given directory and subdirs, or in the JAR or zip file containing a package.
+     * The entries of each archive and directory are read through the shared ClasspathIndex,
+     * so each one is only scanned again if it changes.
      */
     private static TreeSet findClasses(String directory, String packageName) throws Exception {
         TreeSet classes = new TreeSet();
         if (directory.startsWith("file:") && directory.contains("!")) {
             String[] split = directory.split("!");
-            URL jar = new URL(split[0]);
-            ZipInputStream zip = new ZipInputStream(jar.openStream());
-            ZipEntry entry = null;
-            while ((entry = zip.getNextEntry()) != null) {
-                if (entry.getName().endsWith(".class")) {
+            for (String entry : ClasspathIndex.shared().entriesIn(archiveFileAt(split[0]))) {
+                if (entry.endsWith(".class")) {
                     String className = classNameFor(entry);
                     if (isNotAnInnerClass(className)) {
                         classes.add(className);
@@ -151,19 +151,27 @@ public class ClassFinder {
         if (!dir.exists()) {
             return classes;
         }
-        File[] files = dir.listFiles();
-        for (File file : files) {
-            if (file.isDirectory()) {
-                classes.addAll(findClasses(file.getAbsolutePath(), packageName + "." + file.getName()));
-            } else if (file.getName().endsWith(".class")) {
-                classes.add(packageName + '.' + file.getName().substring(0, file.getName().length() - 6));
+        String packageDirectory = dir.getCanonicalPath() + File.separator;
+        for (String file : ClasspathIndex.shared().entriesIn(dir)) {
+            if (file.endsWith(".class") && file.startsWith(packageDirectory)) {
+                String relativePath = file.substring(packageDirectory.length(), file.length() - 6);
+                classes.add(packageName + '.' + relativePath.replace(File.separatorChar, '.'));
             }
         }
         return classes;
     }
 
-    private static String classNameFor(ZipEntry entry) {
-        return entry.getName().replaceAll("[$].*", "").replaceAll("[.]class", "").replace('/', '.');
+    private static File archiveFileAt(String archiveUrl) throws MalformedURLException {
+        URL archive = new URL(archiveUrl);
+        try {
+            return new File(archive.toURI());
+        } catch (URISyntaxException e) {
+            return new File(archive.getFile());
+        }
+    }
+
+    private static String classNameFor(String entryName) {
+        return entryName.replaceAll("[$].*", "").replaceAll("[.]class", "").replace('/', '.');
     }
 }
 
@@ -75,6 +75,9 @@ public class ReportService {
     public void generateReportsFor(final List<TestOutcome> testOutcomeResults) {
 
         TestOutcomes allTestOutcomes = TestOutcomes.of(testOutcomeResults);
+        for(TestOutcome testOutcomeResult : testOutcomeResults) {
+            testOutcomeResult.freeze();
+        }
         for (AcceptanceTestReporter reporter : getSubscribedReporters()) {
             for(TestOutcome testOutcomeResult : testOutcomeResults) {
                 generateReportFor(testOutcomeResult, allTestOutcomes, reporter);
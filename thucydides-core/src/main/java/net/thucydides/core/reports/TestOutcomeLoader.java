@@ -35,6 +35,9 @@ public class TestOutcomeLoader {
             Optional<TestOutcome> testOutcome = testOutcomeReporter.loadReportFrom(reportFile);
             testOutcomes.addAll(testOutcome.asSet());
         }
+        for (TestOutcome testOutcome : testOutcomes) {
+            testOutcome.freeze();
+        }
 
         return ImmutableList.copyOf(testOutcomes);
     }
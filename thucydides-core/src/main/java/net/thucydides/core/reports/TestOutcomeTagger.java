@@ -0,0 +1,118 @@
+package net.thucydides.core.reports;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Resolves the tags of a set of test outcomes in one go, before the aggregate reports are generated.
+ * Identical tags are replaced by a single shared instance to save memory in large test suites.
+ * <p/>
+ * The tag providers are run in the calling thread unless the thucydides.report.tagging.threads property is set.
+ * Parallel tagging calls each tag provider from several threads at once, so only use it if all the tag providers
+ * on the classpath are thread-safe. Small sets of test outcomes are always tagged in the calling thread.
+ */
+public class TestOutcomeTagger {
+
+    private static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
+    private static final int MINIMUM_TEST_OUTCOMES_PER_THREAD = 50;
+
+    private static ExecutorService sharedTaggingPool;
+
+    private final int threadCount;
+    private final Interner<TestTag> tagInterner = Interners.newStrongInterner();
+
+    private final Logger logger = LoggerFactory.getLogger(TestOutcomeTagger.class);
+
+    public TestOutcomeTagger() {
+        this(Injectors.getInjector().getInstance(EnvironmentVariables.class));
+    }
+
+    public TestOutcomeTagger(EnvironmentVariables environmentVariables) {
+        this(environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.REPORT_TAGGING_THREADS.getPropertyName(), 1));
+    }
+
+    public TestOutcomeTagger(int threadCount) {
+        this.threadCount = Math.max(threadCount, 1);
+    }
+
+    public void tag(final List<? extends TestOutcome> testOutcomes) {
+        int threadsNeeded = Math.min(threadCount, testOutcomes.size() / MINIMUM_TEST_OUTCOMES_PER_THREAD);
+        if (threadsNeeded <= 1) {
+            tagEachOf(testOutcomes);
+        } else {
+            waitForAll(tagInParallel(testOutcomes, threadsNeeded));
+        }
+    }
+
+    private List<Future<?>> tagInParallel(List<? extends TestOutcome> testOutcomes, int threadsNeeded) {
+        int outcomesPerThread = (testOutcomes.size() + threadsNeeded - 1) / threadsNeeded;
+        List<Future<?>> tasks = newArrayList();
+        for (final List<? extends TestOutcome> someTestOutcomes : Lists.partition(testOutcomes, outcomesPerThread)) {
+            tasks.add(taggingPool().submit(new Runnable() {
+                public void run() {
+                    tagEachOf(someTestOutcomes);
+                }
+            }));
+        }
+        return tasks;
+    }
+
+    private void tagEachOf(List<? extends TestOutcome> testOutcomes) {
+        for (TestOutcome testOutcome : testOutcomes) {
+            try {
+                testOutcome.setTags(internedVersionOf(testOutcome.getTags()));
+            } catch (RuntimeException e) {
+                logger.warn("Could not resolve the tags for " + testOutcome.getTitle() + " - they will be resolved when needed", e);
+            }
+        }
+    }
+
+    private static synchronized ExecutorService taggingPool() {
+        if (sharedTaggingPool == null) {
+            sharedTaggingPool = Executors.newFixedThreadPool(AVAILABLE_PROCESSORS,
+                                                             new ThreadFactoryBuilder().setNameFormat("thucydides-tagging-%d")
+                                                                                       .setDaemon(true).build());
+        }
+        return sharedTaggingPool;
+    }
+
+    private Set<TestTag> internedVersionOf(Set<TestTag> tags) {
+        Set<TestTag> internedTags = Sets.newHashSet();
+        for (TestTag tag : tags) {
+            internedTags.add(tagInterner.intern(tag));
+        }
+        return internedTags;
+    }
+
+    private void waitForAll(List<Future<?>> tasks) {
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.warn("Could not resolve the tags of the test outcomes", e.getCause());
+            }
+        }
+    }
+}
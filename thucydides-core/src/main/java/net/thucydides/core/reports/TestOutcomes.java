@@ -260,6 +260,16 @@ public class TestOutcomes {
         return TestOutcomes.of(filter(havingTag(tag), outcomes)).withLabel(tag.getName()).withRootOutcomes(getRootOutcomes());
     }
 
+    /**
+     * A subset of these test outcomes that has already been selected, for example using a precomputed index.
+     *
+     * @param selectedOutcomes test outcomes taken from this set
+     * @param label the label to use for the new set of test outcomes
+     */
+    public TestOutcomes withOutcomesFrom(List<? extends TestOutcome> selectedOutcomes, String label) {
+        return TestOutcomes.of(selectedOutcomes).withLabel(label).withRootOutcomes(getRootOutcomes());
+    }
+
     /**
      * Return a copy of the current test outcomes, with test run history and statistics.
      *
@@ -343,6 +353,13 @@ public class TestOutcomes {
         return validOutcomes;
     }
 
+    /**
+     * @return The test outcomes in this set, in their original order.
+     */
+    public List<? extends TestOutcome> getOutcomes() {
+        return outcomes;
+    }
+
     /**
      * @return The list of TestOutcomes contained in this test outcome set.
      */
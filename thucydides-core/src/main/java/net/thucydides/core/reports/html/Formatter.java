@@ -1,11 +1,14 @@
 package net.thucydides.core.reports.html;
 
 import ch.lambdaj.Lambda;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 import net.thucydides.core.issues.IssueTracking;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.text.translate.AggregateTranslator;
 import org.apache.commons.lang3.text.translate.CharSequenceTranslator;
 import org.apache.commons.lang3.text.translate.EntityArrays;
@@ -16,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,14 +35,26 @@ public class Formatter {
     private final static Pattern shortIssueNumberPattern = Pattern.compile(ISSUE_NUMBER_REGEXP);
     private final static String FULL_ISSUE_NUMBER_REGEXP = "([A-Z][A-Z0-9-_]*)-\\d+";
     private final static Pattern fullIssueNumberPattern = Pattern.compile(FULL_ISSUE_NUMBER_REGEXP);
+    private final static Pattern anyIssueNumberPattern = Pattern.compile(ISSUE_NUMBER_REGEXP + "|" + FULL_ISSUE_NUMBER_REGEXP);
     private final static String ISSUE_LINK_FORMAT = "<a target=\"_blank\" href=\"{0}\">{1}</a>";
     private static final String ELIPSE = "&hellip;";
+    private static final String LINE_BREAK = "<br>";
+
+    /**
+     * The same titles and step descriptions are formatted for many outcomes, so the formatted text is kept for reuse.
+     */
+    private static final int FORMATTED_TEXT_CACHE_SIZE = 5000;
 
     private final IssueTracking issueTracking;
 
+    private final Cache<String, String> textWithLinks;
+    private final Cache<List<Object>, String> textWithFields;
+
     @Inject
     public Formatter(IssueTracking issueTracking) {
         this.issueTracking = issueTracking;
+        this.textWithLinks = CacheBuilder.newBuilder().maximumSize(FORMATTED_TEXT_CACHE_SIZE).build();
+        this.textWithFields = CacheBuilder.newBuilder().maximumSize(FORMATTED_TEXT_CACHE_SIZE).build();
     }
 
 
@@ -90,22 +106,39 @@ public class Formatter {
     }
 
     public String addLinks(final String value) {
-        if (issueTracking == null) {
+        if ((issueTracking == null) || (value == null)) {
             return value;
         }
-        String formattedValue = value;
-        if (issueTracking.getIssueTrackerUrl() != null) {
-            formattedValue = insertFullIssueTrackingUrls(value);
-        }
-        if (issueTracking.getShortenedIssueTrackerUrl() != null) {
-            formattedValue = insertShortenedIssueTrackingUrls(formattedValue);
+        String formattedValue = textWithLinks.getIfPresent(value);
+        if (formattedValue == null) {
+            formattedValue = insertIssueTrackingUrls(value,
+                                                     issueTracking.getIssueTrackerUrl(),
+                                                     issueTracking.getShortenedIssueTrackerUrl());
+            textWithLinks.put(value, formattedValue);
         }
         return formattedValue;
     }
 
     public String addLineBreaks(final String text) {
-        return (text != null) ?
-                text.replaceAll(IOUtils.LINE_SEPARATOR_WINDOWS,"<br>").replaceAll(IOUtils.LINE_SEPARATOR_UNIX, "<br>") : "";
+        if (text == null) {
+            return "";
+        }
+        if (text.indexOf('\n') < 0) {
+            return text;
+        }
+        StringBuilder textWithLineBreaks = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                textWithLineBreaks.append(LINE_BREAK);
+            } else if ((c == '\r') && (i + 1 < text.length()) && (text.charAt(i + 1) == '\n')) {
+                textWithLineBreaks.append(LINE_BREAK);
+                i++;
+            } else {
+                textWithLineBreaks.append(c);
+            }
+        }
+        return textWithLineBreaks.toString();
     }
 
     private final CharSequenceTranslator ESCAPE_SPECIAL_CHARS = new AggregateTranslator(
@@ -137,16 +170,44 @@ public class Formatter {
         }
     }
 
-    private String insertShortenedIssueTrackingUrls(String value) {
-        String formattedValue = value;
-        String issueUrlFormat = issueTracking.getShortenedIssueTrackerUrl();
-        List<String> issues = shortenedIssuesIn(value);
-        for(String issue : issues) {
-            String issueUrl = MessageFormat.format(issueUrlFormat, stripLeadingHashFrom(issue));
-            String issueLink = MessageFormat.format(ISSUE_LINK_FORMAT, issueUrl, issue);
-            formattedValue = formattedValue.replaceAll(issue, issueLink);
+    /**
+     * Replaces the full and shortened issue numbers with links in a single pass over the text.
+     * Issue numbers are only linked if there is an issue tracker URL for their form.
+     */
+    private String insertIssueTrackingUrls(final String value, final String issueUrlFormat, final String shortenedIssueUrlFormat) {
+        Pattern issuePattern = issuePatternFor(issueUrlFormat, shortenedIssueUrlFormat);
+        if (issuePattern == null) {
+            return value;
         }
-        return formattedValue;
+        Matcher matcher = issuePattern.matcher(value);
+        StringBuilder formattedValue = null;
+        int end = 0;
+        while (matcher.find()) {
+            if (formattedValue == null) {
+                formattedValue = new StringBuilder(value.length() + 128);
+            }
+            String issue = matcher.group();
+            String issueUrl = (issue.startsWith("#")) ? MessageFormat.format(shortenedIssueUrlFormat, stripLeadingHashFrom(issue))
+                                                      : MessageFormat.format(issueUrlFormat, issue);
+            formattedValue.append(value, end, matcher.start());
+            formattedValue.append(MessageFormat.format(ISSUE_LINK_FORMAT, issueUrl, issue));
+            end = matcher.end();
+        }
+        if (formattedValue == null) {
+            return value;
+        }
+        return formattedValue.append(value, end, value.length()).toString();
+    }
+
+    private Pattern issuePatternFor(final String issueUrlFormat, final String shortenedIssueUrlFormat) {
+        if ((issueUrlFormat != null) && (shortenedIssueUrlFormat != null)) {
+            return anyIssueNumberPattern;
+        } else if (issueUrlFormat != null) {
+            return fullIssueNumberPattern;
+        } else if (shortenedIssueUrlFormat != null) {
+            return shortIssueNumberPattern;
+        }
+        return null;
     }
 
     public static List<String> shortenedIssuesIn(String value) {
@@ -159,24 +220,39 @@ public class Formatter {
         return extractor.getFullIssues();
     }
 
-    private String insertFullIssueTrackingUrls(String value) {
-        String formattedValue = value;
-        String issueUrlFormat = issueTracking.getIssueTrackerUrl();
-        List<String> issues = fullIssuesIn(value);
-        for(String issue : issues) {
-            String issueUrl = MessageFormat.format(issueUrlFormat, issue);
-            String issueLink = MessageFormat.format(ISSUE_LINK_FORMAT, issueUrl, issue);
-            formattedValue = formattedValue.replaceAll(issue, issueLink);
+    public String formatWithFields(String textToFormat, List<String> fields) {
+        List<Object> key = ImmutableList.<Object>of(textToFormat, fields);
+        String formattedText = textWithFields.getIfPresent(key);
+        if (formattedText == null) {
+            formattedText = addLineBreaks(escapeFields(textToFormat, ImmutableSet.copyOf(fields)));
+            textWithFields.put(key, formattedText);
         }
-        return formattedValue;
+        return formattedText;
     }
 
-    public String formatWithFields(String textToFormat, List<String> fields) {
-        String textWithEscapedFields = textToFormat;
-        for(String field : fields) {
-            textWithEscapedFields = textWithEscapedFields.replaceAll("<" + field + ">", "&lt;" + field + "&gt;");
+    /**
+     * Escapes every &lt;field&gt; placeholder in a single pass over the text.
+     */
+    private String escapeFields(final String textToFormat, final Set<String> fields) {
+        StringBuilder textWithEscapedFields = new StringBuilder(textToFormat.length() + 16);
+        int position = 0;
+        while (position < textToFormat.length()) {
+            int fieldStart = textToFormat.indexOf('<', position);
+            int fieldEnd = (fieldStart < 0) ? -1 : textToFormat.indexOf('>', fieldStart + 1);
+            if (fieldEnd < 0) {
+                break;
+            }
+            String field = textToFormat.substring(fieldStart + 1, fieldEnd);
+            if (fields.contains(field)) {
+                textWithEscapedFields.append(textToFormat, position, fieldStart);
+                textWithEscapedFields.append("&lt;").append(field).append("&gt;");
+                position = fieldEnd + 1;
+            } else {
+                textWithEscapedFields.append(textToFormat, position, fieldStart + 1);
+                position = fieldStart + 1;
+            }
         }
-        return addLineBreaks(textWithEscapedFields);
+        return textWithEscapedFields.append(textToFormat, position, textToFormat.length()).toString();
     }
 
     private String stripLeadingHashFrom(final String issue) {
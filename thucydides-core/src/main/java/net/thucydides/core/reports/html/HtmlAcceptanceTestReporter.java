@@ -1,11 +1,12 @@
 package net.thucydides.core.reports.html;
 
-import ch.lambdaj.function.convert.Converter;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.images.ImageEncoders;
 import net.thucydides.core.images.ResizableImage;
 import net.thucydides.core.issues.IssueTracking;
 import net.thucydides.core.model.Screenshot;
@@ -14,12 +15,12 @@ import net.thucydides.core.model.TestStep;
 import net.thucydides.core.reports.AcceptanceTestReporter;
 import net.thucydides.core.reports.ReportOptions;
 import net.thucydides.core.reports.TestOutcomes;
-import net.thucydides.core.reports.html.screenshots.ScreenshotFormatter;
+import net.thucydides.core.reports.html.screenshots.ScreenshotExpander;
 import net.thucydides.core.requirements.FileSystemRequirementsTagProvider;
 import net.thucydides.core.requirements.RequirementsProviderService;
 import net.thucydides.core.requirements.RequirementsTagProvider;
 import net.thucydides.core.requirements.model.Requirement;
-import net.thucydides.core.screenshots.ScreenshotException;
+import net.thucydides.core.screenshots.ScreenshotDerivatives;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.util.Inflector;
 import org.slf4j.Logger;
@@ -33,12 +34,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static ch.lambdaj.Lambda.convert;
 import static com.google.common.collect.Iterables.any;
 import static net.thucydides.core.model.ReportType.HTML;
 
-import static net.thucydides.core.ThucydidesSystemProperty.THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS;
-
 /**
  * Generates acceptance test results in XML form.
  * 
@@ -55,6 +53,9 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
 
     private final IssueTracking issueTracking;
     private List<RequirementsTagProvider> requirementsTagProviders;
+    private ScreenshotExpander screenshotExpander;
+    private ScreenshotDerivatives screenshotDerivatives;
+    private Formatter formatter;
 
     public void setQualifier(final String qualifier) {
         this.qualifier = qualifier;
@@ -153,17 +154,32 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
     }
 
     private void addFormattersToContext(final Map<String,Object> context) {
-        Formatter formatter = new Formatter(issueTracking);
         context.put("reportOptions", new ReportOptions(getEnvironmentVariables()));
-        context.put("formatter", formatter);
+        context.put("formatter", getFormatter());
         context.put("reportName", new ReportNameProvider());
+        context.put("screenshotDerivatives", getScreenshotDerivatives().inDirectory(getOutputDirectory()));
+    }
+
+    private synchronized Formatter getFormatter() {
+        if (formatter == null) {
+            formatter = new Formatter(issueTracking);
+        }
+        return formatter;
+    }
+
+    private synchronized ScreenshotDerivatives getScreenshotDerivatives() {
+        if (screenshotDerivatives == null) {
+            screenshotDerivatives = new ScreenshotDerivatives(new ImageEncoders(getEnvironmentVariables()));
+        }
+        return screenshotDerivatives;
     }
 
     private void generateScreenshotReportsFor(final TestOutcome testOutcome, final TestOutcomes allTestOutcomes) throws IOException {
 
         Preconditions.checkNotNull(getOutputDirectory());
 
-        List<Screenshot> screenshots = expandScreenshots(testOutcome.getScreenshots());
+        List<Screenshot> fullSizeScreenshots = testOutcome.getScreenshots();
+        List<Screenshot> screenshots = expandScreenshots(previewsOf(fullSizeScreenshots));
 
         String screenshotReport = testOutcome.getReportName() + "_screenshots.html";
 
@@ -171,6 +187,7 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
         addTestOutcomeToContext(testOutcome, allTestOutcomes, context);
         addFormattersToContext(context);
         context.put("screenshots", screenshots);
+        context.put("fullSizeScreenshots", fullSizeScreenshots);
         context.put("reportName", new ReportNameProvider());
         context.put("narrativeView", testOutcome.getReportName());
         String htmlContents = mergeTemplate(DEFAULT_ACCEPTANCE_TEST_SCREENSHOT).usingContext(context);
@@ -178,48 +195,58 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
 
     }
 
-    private List<Screenshot> expandScreenshots(List<Screenshot> screenshots) throws IOException {
-        return convert(screenshots, new ExpandedScreenshotConverter(maxScreenshotHeightIn(screenshots)));
+    /**
+     * The screenshot slider displays the previews of wide screenshots where they are available,
+     * and links them to the full-size screenshots.
+     */
+    private List<Screenshot> previewsOf(List<Screenshot> screenshots) {
+        ScreenshotDerivatives.InDirectory derivatives = getScreenshotDerivatives().inDirectory(getOutputDirectory());
+        List<Screenshot> previews = Lists.newArrayList();
+        for (Screenshot screenshot : screenshots) {
+            if (derivatives.hasPreview(screenshot.getFilename())) {
+                previews.add(new Screenshot(derivatives.previewFor(screenshot.getFilename()),
+                                            screenshot.getDescription(),
+                                            ScreenshotDerivatives.PREVIEW_WIDTH,
+                                            screenshot.getError()));
+            } else {
+                previews.add(screenshot);
+            }
+        }
+        return previews;
     }
 
-    private class ExpandedScreenshotConverter implements Converter<Screenshot, Screenshot> {
-        private final int maxHeight;
-
-        public ExpandedScreenshotConverter(int maxHeight) {
-            this.maxHeight = maxHeight;
-        }
+    private List<Screenshot> expandScreenshots(List<Screenshot> screenshots) throws IOException {
+        return getScreenshotExpander().expandToHeight(screenshots, maxScreenshotHeightIn(screenshots));
+    }
 
-        public Screenshot convert(Screenshot screenshot) {
-            try {
-                return ScreenshotFormatter.forScreenshot(screenshot)
-                                          .inDirectory(getOutputDirectory())
-                                          .keepOriginals(shouldKeepOriginalScreenshots())
-                                          .expandToHeight(maxHeight);
-            } catch (IOException e) {
-                LOGGER.error("Failed to write scaled screenshot for {}: {}", screenshot, e);
-                throw new ScreenshotException("Failed to write scaled screenshot", e);
-            }
+    /**
+     * The expander keeps track of the screenshots it has already expanded, so it is kept for as long as
+     * reports are generated in the same directory.
+     */
+    private synchronized ScreenshotExpander getScreenshotExpander() {
+        if ((screenshotExpander == null) || (!getOutputDirectory().equals(screenshotExpander.getOutputDirectory()))) {
+            screenshotExpander = new ScreenshotExpander(getOutputDirectory(), getEnvironmentVariables());
         }
-    };
-
-    private boolean shouldKeepOriginalScreenshots() {
-        return getEnvironmentVariables().getPropertyAsBoolean(THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS, false);
+        return screenshotExpander;
     }
 
     private int maxScreenshotHeightIn(List<Screenshot> screenshots) throws IOException {
         int maxHeight = 0;
         for (Screenshot screenshot : screenshots) {
-            File screenshotFile = new File(getOutputDirectory(),screenshot.getFilename());
-            if (screenshotFile.exists()) {
-                maxHeight = maxHeightOf(maxHeight, screenshotFile);
+            if (screenshot.getHeight() > 0) {
+                maxHeight = maxHeightOf(maxHeight, screenshot.getWidth(), screenshot.getHeight());
+            } else {
+                File screenshotFile = new File(getOutputDirectory(),screenshot.getFilename());
+                if (screenshotFile.exists()) {
+                    ResizableImage image = ResizableImage.loadFrom(screenshotFile);
+                    maxHeight = maxHeightOf(maxHeight, image.getWitdh(), image.getHeight());
+                }
             }
         }
         return maxHeight;
     }
 
-    private int maxHeightOf(int maxHeight, File screenshotFile) throws IOException {
-        int height = ResizableImage.loadFrom(screenshotFile).getHeight();
-        int width = ResizableImage.loadFrom(screenshotFile).getWitdh();
+    private int maxHeightOf(int maxHeight, int width, int height) {
         if (width > MAXIMUM_SCREENSHOT_WIDTH) {
             height = (int) ((height * 1.0) * (MAXIMUM_SCREENSHOT_WIDTH * 1.0 / width));
         }
@@ -9,6 +9,7 @@ import net.thucydides.core.model.NumericalFormatter;
 import net.thucydides.core.model.TestTag;
 import net.thucydides.core.reports.ReportOptions;
 import net.thucydides.core.reports.TestOutcomeLoader;
+import net.thucydides.core.reports.TestOutcomeTagger;
 import net.thucydides.core.reports.TestOutcomes;
 import net.thucydides.core.reports.UserStoryTestReporter;
 import net.thucydides.core.reports.history.TestHistory;
@@ -50,6 +51,7 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
     private String projectName;
     private ReportNameProvider reportNameProvider;
     private final IssueTracking issueTracking;
+    private Formatter formatter;
     private final RequirmentsOutcomeFactory requirementsFactory;
     private final HtmlRequirementsReporter htmlRequirementsReporter;
     private final HtmlProgressReporter htmlProgressReporter;
@@ -87,9 +89,15 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         return testHistory;
     }
 
+    private Formatter getFormatter() {
+        if (formatter == null) {
+            formatter = new Formatter(issueTracking);
+        }
+        return formatter;
+    }
+
     private void addFormattersToContext(final Map<String, Object> context) {
-        Formatter formatter = new Formatter(issueTracking);
-        context.put("formatter", formatter);
+        context.put("formatter", getFormatter());
         context.put("formatted", new NumericalFormatter());
         context.put("inflection", Inflector.getInstance());
     }
@@ -127,10 +135,8 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
     private void generateRequirementsReportsForChildRequirements(RequirementsOutcomes requirementsOutcomes) throws IOException {
         List<RequirementOutcome> requirementOutcomes = requirementsOutcomes.getRequirementOutcomes();
         for (RequirementOutcome outcome : requirementOutcomes) {
-            Requirement requirement = outcome.getRequirement();
-            TestOutcomes testOutcomesForThisRequirement = outcome.getTestOutcomes().withTag(requirement.getName());
-            RequirementsOutcomes requirementOutcomesForThisRequirement = requirementsFactory.buildRequirementsOutcomesFrom(requirement, testOutcomesForThisRequirement);
-            generateNestedRequirementsReportsFor(requirement, requirementOutcomesForThisRequirement);
+            RequirementsOutcomes requirementOutcomesForThisRequirement = requirementsOutcomes.forChildRequirementsOf(outcome);
+            generateNestedRequirementsReportsFor(outcome.getRequirement(), requirementOutcomesForThisRequirement);
         }
     }
 
@@ -144,7 +150,9 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
     }
 
     private TestOutcomes loadTestOutcomesFrom(File sourceDirectory) throws IOException {
-        return TestOutcomeLoader.testOutcomesIn(sourceDirectory).withHistory();
+        TestOutcomes testOutcomes = TestOutcomeLoader.testOutcomesIn(sourceDirectory).withHistory();
+        new TestOutcomeTagger(getEnvironmentVariables()).tag(testOutcomes.getOutcomes());
+        return testOutcomes;
     }
 
     private void generateAggregateReportFor(TestOutcomes testOutcomes) throws IOException {
@@ -1,11 +1,13 @@
 package net.thucydides.core.reports.html;
 
+import com.google.common.collect.Lists;
 import net.thucydides.core.resources.FileResources;
 import net.thucydides.core.resources.ResourceList;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -32,14 +34,13 @@ public class HtmlResourceCopier {
 
         Collection<String> reportResources = ResourceList.forResources(resourcePattern).list();
 
+        List<String> resourcesToCopy = Lists.newArrayList();
         for (String resourcePath : reportResources) {
-            if (fileResourceFromAJar(resourcePath)) {
-                fileResource.copyResourceTo(resourcePath, targetDirectory);
-            } else if (fileResourceFromPath(resourcePath)) {
-                fileResource.copyResourceTo(resourcePath,
-                                            targetDirectory);
+            if (fileResourceFromAJar(resourcePath) || fileResourceFromPath(resourcePath)) {
+                resourcesToCopy.add(resourcePath);
             }
         }
+        fileResource.copyResourcesTo(resourcesToCopy, targetDirectory);
     }
 
     private boolean fileResourceFromAJar(final String resourcePath) {
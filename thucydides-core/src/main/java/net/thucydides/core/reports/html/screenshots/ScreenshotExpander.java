@@ -0,0 +1,229 @@
+package net.thucydides.core.reports.html.screenshots;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.thucydides.core.images.ResizableImage;
+import net.thucydides.core.model.Screenshot;
+import net.thucydides.core.screenshots.ScreenshotException;
+import net.thucydides.core.util.EnvironmentVariables;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static net.thucydides.core.ThucydidesSystemProperty.THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS;
+
+/**
+ * Expands the screenshots of a test outcome to a common height, so that they can be displayed in the screenshot report.
+ * Shorter screenshots are padded in place, unless thucydides.keep.unscaled.screenshots is set,
+ * in which case they are padded in a copy which is used instead, and the original screenshot files are left untouched.
+ * Each distinct screenshot file is expanded once, and the files are expanded in parallel.
+ * Screenshots that are already at least as tall as the target height, or that have already been expanded to it,
+ * are not read or copied. A screenshot file that has been replaced or changed since it was expanded,
+ * or whose expanded copy has been deleted, is expanded again.
+ * The number of images decoded at the same time is limited by an image memory budget.
+ */
+public class ScreenshotExpander {
+
+    private static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
+    private static final int MAX_SUPPORTED_HEIGHT = 4000;
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int KILOBYTE = 1024;
+
+    /**
+     * By default, images being expanded can use up to a quarter of the available heap.
+     */
+    private static final int DEFAULT_IMAGE_MEMORY_BUDGET_IN_KB = (int) Math.min(Integer.MAX_VALUE,
+                                                                                Runtime.getRuntime().maxMemory() / 4 / KILOBYTE);
+
+    private static final ExecutorService SHARED_EXECUTOR
+            = Executors.newFixedThreadPool(AVAILABLE_PROCESSORS,
+                                           new ThreadFactoryBuilder().setNameFormat("screenshot-expander-%d")
+                                                                     .setDaemon(true)
+                                                                     .build());
+
+    private final File outputDirectory;
+    private final int imageMemoryBudget;
+    private final Semaphore imageMemory;
+    private final ExecutorService executorService;
+    private final boolean keepOriginals;
+
+    /**
+     * The expanded version of each screenshot file that has been expanded, indexed by file path.
+     */
+    private final ConcurrentMap<String, ExpandedScreenshot> expandedScreenshots
+            = new ConcurrentHashMap<String, ExpandedScreenshot>();
+
+    public ScreenshotExpander(final File outputDirectory, final EnvironmentVariables environmentVariables) {
+        this(outputDirectory, DEFAULT_IMAGE_MEMORY_BUDGET_IN_KB, SHARED_EXECUTOR,
+             environmentVariables.getPropertyAsBoolean(THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS.getPropertyName(), false));
+    }
+
+    protected ScreenshotExpander(final File outputDirectory,
+                                 final int imageMemoryBudgetInKb,
+                                 final ExecutorService executorService,
+                                 final boolean keepOriginals) {
+        this.outputDirectory = outputDirectory;
+        this.imageMemoryBudget = Math.max(1, imageMemoryBudgetInKb);
+        this.imageMemory = new Semaphore(imageMemoryBudget, true);
+        this.executorService = executorService;
+        this.keepOriginals = keepOriginals;
+    }
+
+    public File getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public boolean keepsOriginals() {
+        return keepOriginals;
+    }
+
+    /**
+     * Expand the screenshots to the given height.
+     * @return the expanded screenshots, in the same order as the original screenshots.
+     * When the original screenshots are kept, screenshots that needed padding refer to their padded copies.
+     */
+    public List<Screenshot> expandToHeight(final List<Screenshot> screenshots, final int targetHeight) {
+        Map<String, Future<Screenshot>> expansions = Maps.newHashMap();
+        for (Screenshot screenshot : screenshots) {
+            if (!expansions.containsKey(screenshot.getFilename())) {
+                expansions.put(screenshot.getFilename(), executorService.submit(expansionOf(screenshot, targetHeight)));
+            }
+        }
+
+        List<Screenshot> expandedScreenshots = Lists.newArrayList();
+        for (Screenshot screenshot : screenshots) {
+            Screenshot expandedFile = resultOf(expansions.get(screenshot.getFilename()));
+            expandedScreenshots.add(new Screenshot(expandedFile.getFilename(),
+                                                   screenshot.getDescription(),
+                                                   screenshot.getWidth(),
+                                                   expandedFile.getHeight(),
+                                                   screenshot.getError()));
+        }
+        return expandedScreenshots;
+    }
+
+    private Callable<Screenshot> expansionOf(final Screenshot screenshot, final int targetHeight) {
+        return new Callable<Screenshot>() {
+            public Screenshot call() throws IOException {
+                return expand(screenshot, targetHeight);
+            }
+        };
+    }
+
+    private Screenshot expand(final Screenshot screenshot, final int targetHeight) throws IOException {
+        File screenshotFile = new File(outputDirectory, screenshot.getFilename());
+        if (!screenshotFile.exists()) {
+            return screenshot;
+        }
+        ExpandedScreenshot alreadyExpanded = expandedScreenshots.get(screenshotFile.getPath());
+        if ((alreadyExpanded != null) && alreadyExpanded.isStillValidFor(screenshotFile, targetHeight)) {
+            return alreadyExpanded.getScreenshot();
+        }
+        Screenshot screenshotWithDimensions = withDimensions(screenshot, screenshotFile);
+        if (alreadyTallEnough(screenshotWithDimensions, targetHeight)) {
+            recordExpansion(screenshotFile, screenshotWithDimensions);
+            return screenshotWithDimensions;
+        }
+
+        int requiredMemory = memoryRequiredToExpand(screenshotWithDimensions, targetHeight);
+        imageMemory.acquireUninterruptibly(requiredMemory);
+        try {
+            ScreenshotFormatter formatter = ScreenshotFormatter.forScreenshot(screenshotWithDimensions)
+                                                               .inDirectory(outputDirectory);
+            Screenshot expandedScreenshot = keepOriginals ? formatter.expandCopyToHeight(targetHeight)
+                                                          : formatter.expandToHeight(targetHeight);
+            recordExpansion(screenshotFile, expandedScreenshot);
+            return expandedScreenshot;
+        } finally {
+            imageMemory.release(requiredMemory);
+        }
+    }
+
+    /**
+     * Screenshots padded in place are recorded after they have been padded, so that padding them does not
+     * count as a change.
+     */
+    private void recordExpansion(final File screenshotFile, final Screenshot expandedScreenshot) {
+        expandedScreenshots.put(screenshotFile.getPath(),
+                                new ExpandedScreenshot(expandedScreenshot,
+                                                       screenshotFile.lastModified(),
+                                                       screenshotFile.length(),
+                                                       new File(outputDirectory, expandedScreenshot.getFilename())));
+    }
+
+    private Screenshot withDimensions(final Screenshot screenshot, final File screenshotFile) throws IOException {
+        if (screenshot.getHeight() > 0) {
+            return screenshot;
+        }
+        ResizableImage image = ResizableImage.loadFrom(screenshotFile);
+        return new Screenshot(screenshot.getFilename(),
+                              screenshot.getDescription(),
+                              image.getWitdh(),
+                              image.getHeight(),
+                              screenshot.getError());
+    }
+
+    private boolean alreadyTallEnough(final Screenshot screenshot, final int targetHeight) {
+        return (screenshot.getHeight() >= targetHeight) || (screenshot.getHeight() > MAX_SUPPORTED_HEIGHT);
+    }
+
+    /**
+     * Both the original image and the expanded image are held in memory during the expansion.
+     */
+    private int memoryRequiredToExpand(final Screenshot screenshot, final int targetHeight) {
+        long pixels = (long) screenshot.getWidth() * (screenshot.getHeight() + Math.min(targetHeight, MAX_SUPPORTED_HEIGHT));
+        long requiredMemory = pixels * BYTES_PER_PIXEL / KILOBYTE;
+        return (int) Math.max(1, Math.min(requiredMemory, imageMemoryBudget));
+    }
+
+    /**
+     * An expanded screenshot, with the modification date and size of the screenshot file it was expanded from.
+     */
+    private static class ExpandedScreenshot {
+        private final Screenshot screenshot;
+        private final long lastModified;
+        private final long length;
+        private final File expandedFile;
+
+        private ExpandedScreenshot(final Screenshot screenshot, final long lastModified,
+                                   final long length, final File expandedFile) {
+            this.screenshot = screenshot;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.expandedFile = expandedFile;
+        }
+
+        Screenshot getScreenshot() {
+            return screenshot;
+        }
+
+        boolean isStillValidFor(final File screenshotFile, final int targetHeight) {
+            return (screenshot.getHeight() >= targetHeight)
+                    && (screenshotFile.lastModified() == lastModified)
+                    && (screenshotFile.length() == length)
+                    && expandedFile.exists();
+        }
+    }
+
+    private Screenshot resultOf(final Future<Screenshot> expansion) {
+        try {
+            return expansion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScreenshotException("Interrupted while writing scaled screenshots", e);
+        } catch (ExecutionException e) {
+            throw new ScreenshotException("Failed to write scaled screenshot", e.getCause());
+        }
+    }
+}
@@ -4,9 +4,6 @@ import net.thucydides.core.images.ResizableImage;
 import net.thucydides.core.model.Screenshot;
 import org.apache.commons.io.FileUtils;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 
@@ -15,64 +12,96 @@ import java.io.IOException;
  */
 public class ScreenshotFormatter {
 
+    public static final String PADDED_SCREENSHOT_PREFIX = "padded_";
+
     private final Screenshot screenshot;
     private final File sourceDirectory;
-    private final boolean shouldKeepOriginalScreenshots;
 
-    private ScreenshotFormatter(final Screenshot screenshot,
-                                final File sourceDirectory,
-                                final boolean shouldKeepOriginalScreenshots) {
+    private ScreenshotFormatter(final Screenshot screenshot, final File sourceDirectory) {
         this.screenshot = screenshot;
         this.sourceDirectory = sourceDirectory;
-        this.shouldKeepOriginalScreenshots = shouldKeepOriginalScreenshots;
     }
 
     public static ScreenshotFormatter forScreenshot(final Screenshot screenshot) {
-        return new ScreenshotFormatter(screenshot, null, false);
+        return new ScreenshotFormatter(screenshot, null);
     }
 
     public ScreenshotFormatter inDirectory(final File sourceDirectory) {
-        return new ScreenshotFormatter(screenshot, sourceDirectory, shouldKeepOriginalScreenshots);
+        return new ScreenshotFormatter(screenshot, sourceDirectory);
     }
 
+    /**
+     * Pad the screenshot file itself to the given height.
+     * The file is read again rather than trusting the recorded dimensions, as it may already have been padded.
+     */
+    public Screenshot expandToHeight(final int targetHeight) throws IOException {
+        File screenshotFile = new File(sourceDirectory, screenshot.getFilename());
+        if (!screenshotFile.exists()) {
+            return screenshot;
+        }
+        ResizableImage image = ResizableImage.loadFrom(screenshotFile);
+        ResizableImage paddedImage = image.rescaleCanvas(targetHeight);
+        if (paddedImage != image) {
+            replace(screenshotFile, paddedImage);
+        }
+        return new Screenshot(screenshotFile.getName(),
+                              screenshot.getDescription(),
+                              screenshot.getWidth(),
+                              paddedImage.getHeight(),
+                              screenshot.getError());
+    }
 
-    public ScreenshotFormatter keepOriginals(boolean shouldKeepOriginalScreenshots) {
-        return new ScreenshotFormatter(screenshot, sourceDirectory, shouldKeepOriginalScreenshots);
+    /**
+     * The padded image is written to a temporary file first, so that the screenshot file is never left half-written.
+     */
+    private void replace(final File screenshotFile, final ResizableImage paddedImage) throws IOException {
+        File paddedFile = File.createTempFile(PADDED_SCREENSHOT_PREFIX, ".tmp", sourceDirectory);
+        try {
+            paddedImage.saveTo(paddedFile);
+            if (!paddedFile.renameTo(screenshotFile)) {
+                screenshotFile.delete();
+                FileUtils.moveFile(paddedFile, screenshotFile);
+            }
+        } finally {
+            paddedFile.delete();
+        }
     }
 
-    public Screenshot expandToHeight(final int targetHeight) throws IOException {
+    /**
+     * Pad a copy of the screenshot to the given height, leaving the screenshot file itself untouched.
+     * Screenshots that are already tall enough are not copied.
+     */
+    public Screenshot expandCopyToHeight(final int targetHeight) throws IOException {
         File screenshotFile = new File(sourceDirectory, screenshot.getFilename());
-        if (screenshotFile.exists()) {
-            File resizedFile = resizedImage(screenshotFile, targetHeight);
-            return new Screenshot(resizedFile.getName(),
+        if (!screenshotFile.exists()) {
+            return screenshot;
+        }
+        ResizableImage image = loadImage(screenshotFile);
+        ResizableImage paddedImage = image.rescaleCanvas(targetHeight);
+        if (paddedImage == image) {
+            return new Screenshot(screenshotFile.getName(),
                                   screenshot.getDescription(),
                                   screenshot.getWidth(),
+                                  image.getHeight(),
                                   screenshot.getError());
-        } else {
-            return screenshot;
         }
+        File paddedFile = new File(sourceDirectory, PADDED_SCREENSHOT_PREFIX + screenshotFile.getName());
+        paddedImage.saveTo(paddedFile);
+        return new Screenshot(paddedFile.getName(),
+                              screenshot.getDescription(),
+                              screenshot.getWidth(),
+                              paddedImage.getHeight(),
+                              screenshot.getError());
     }
 
-    private File resizedImage(File screenshotFile, int maxHeight) throws IOException {
-        String resizedScreenshotFilename = "scaled_" + screenshotFile.getName();
-        ResizableImage scaledImage = ResizableImage.loadFrom(screenshotFile).rescaleCanvas(maxHeight);
-
-        File scaledFile = new File(sourceDirectory, resizedScreenshotFilename);
-        scaledImage.saveTo(scaledFile);
-
-        if (shouldKeepOriginalScreenshots) {
-            saveCopyOf(screenshotFile);
+    /**
+     * Use the recorded dimensions of the screenshot where they are available, rather than reading the image file.
+     */
+    private ResizableImage loadImage(File screenshotFile) throws IOException {
+        if (screenshot.getHeight() > 0) {
+            return ResizableImage.loadFrom(screenshotFile, screenshot.getWidth(), screenshot.getHeight());
+        } else {
+            return ResizableImage.loadFrom(screenshotFile);
         }
-        screenshotFile.delete();
-
-        FileUtils.moveFile(scaledFile, screenshotFile);
-        return screenshotFile;
-    }
-
-    private void saveCopyOf(File screenshotFile) throws IOException {
-        String backupScreenshotFilename = "original_" + screenshotFile.getName();
-        FileUtils.copyFile(screenshotFile, new File(sourceDirectory, backupScreenshotFilename));
     }
-
 }
-
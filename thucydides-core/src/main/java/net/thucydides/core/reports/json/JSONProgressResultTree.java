@@ -1,29 +1,31 @@
 package net.thucydides.core.reports.json;
 
-import flexjson.JSONSerializer;
 import net.thucydides.core.model.FeatureResults;
-import net.thucydides.core.reports.TestOutcomes;
 
 public class JSONProgressResultTree {
 
-    private final JSONTreeNode root;
+    private final StringBuilder rootChildren = new StringBuilder();
+
+    private final JSONTreeWriter writer;
 
     private final ColorScheme colorScheme;
 
     public JSONProgressResultTree() {
         colorScheme = new ProgressColorScheme();
-        root = new JSONTreeNode("root", "Application", getColorScheme());
+        writer = new JSONTreeWriter(rootChildren, getColorScheme());
     }
 
     public String toJSON() {
-        JSONSerializer serializer = new JSONSerializer();
-        return serializer.exclude("*.class")
-                         .exclude("*.colorScheme")
-                         .deepSerialize(root);
+        StringBuilder json = new StringBuilder(rootChildren.length() + 128);
+        JSONTreeWriter.writeRootNode(json, rootChildren);
+        return json.toString();
     }
 
     public void addFeature(FeatureResults feature) {
-        root.addFeature(feature);
+        if (rootChildren.length() > 0) {
+            rootChildren.append(',');
+        }
+        writer.writeFeature(feature);
     }
 
     public ColorScheme getColorScheme() {
@@ -1,30 +1,35 @@
 package net.thucydides.core.reports.json;
 
-import flexjson.JSONSerializer;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.FeatureResults;
 import net.thucydides.core.reports.TestOutcomes;
 
+/**
+ * The data displayed on the report dashboard, in JSON form.
+ * Each feature or tag is written out as JSON as soon as it is added.
+ */
 public class JSONResultTree {
 
-    private final JSONTreeNode root;
+    private final StringBuilder rootChildren = new StringBuilder();
+
+    private final JSONTreeWriter writer;
 
     private ColorScheme colorScheme;
 
     public JSONResultTree() {
         colorScheme = Injectors.getInjector().getInstance(ColorScheme.class);
-        root = new JSONTreeNode("root", "Application", getColorScheme());
+        writer = new JSONTreeWriter(rootChildren, getColorScheme());
     }
 
     public String toJSON() {
-        JSONSerializer serializer = new JSONSerializer();
-        return serializer.exclude("*.class")
-                         .exclude("*.colorScheme")
-                         .deepSerialize(root);
+        StringBuilder json = new StringBuilder(rootChildren.length() + 128);
+        JSONTreeWriter.writeRootNode(json, rootChildren);
+        return json.toString();
     }
 
     public void addFeature(FeatureResults feature) {
-        root.addFeature(feature);
+        startNextChild();
+        writer.writeFeature(feature);
     }
 
     public ColorScheme getColorScheme() {
@@ -32,6 +37,13 @@ public class JSONResultTree {
     }
 
     public void addTestOutcomesForTag(String tag, TestOutcomes testOutcomes) {
-        root.addTestOutcomesForTag(tag, testOutcomes);
+        startNextChild();
+        writer.writeTestOutcomesForTag(tag, testOutcomes);
+    }
+
+    private void startNextChild() {
+        if (rootChildren.length() > 0) {
+            rootChildren.append(',');
+        }
     }
 }
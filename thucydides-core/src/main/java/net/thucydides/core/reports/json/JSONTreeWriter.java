@@ -0,0 +1,174 @@
+package net.thucydides.core.reports.json;
+
+import net.thucydides.core.model.FeatureResults;
+import net.thucydides.core.model.StoryTestResults;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.TestOutcomes;
+
+import static net.thucydides.core.model.ReportType.HTML;
+import static net.thucydides.core.reports.json.RelativeSizeColorScheme.rgbFormatOf;
+import static net.thucydides.core.reports.json.ResultTreeMeasures.averageTestSizeIn;
+import static net.thucydides.core.reports.json.ResultTreeMeasures.progressFor;
+import static net.thucydides.core.reports.json.ResultTreeMeasures.testAreaFor;
+
+/**
+ * Writes the nodes of the report dashboard tree as JSON while walking through the test results,
+ * rather than building a tree of node objects and serializing it afterwards.
+ * Each node is written as its children, then its data, id and name.
+ */
+class JSONTreeWriter {
+
+    private final StringBuilder json;
+    private final ColorScheme colorScheme;
+    private boolean firstDataEntry;
+
+    JSONTreeWriter(final StringBuilder json, final ColorScheme colorScheme) {
+        this.json = json;
+        this.colorScheme = colorScheme;
+    }
+
+    static void writeRootNode(final StringBuilder json, final CharSequence children) {
+        json.append("{\"children\":[").append(children).append("]");
+        json.append(",\"data\":{}");
+        json.append(",\"id\":\"root\",\"name\":\"Application\"}");
+    }
+
+    void writeFeature(final FeatureResults feature) {
+        startNode();
+        int averageTestSize = averageTestSizeIn(feature);
+        boolean firstStory = true;
+        for (StoryTestResults storyResult : feature.getStoryResults()) {
+            if (!firstStory) {
+                json.append(',');
+            }
+            writeStory(storyResult, averageTestSize);
+            firstStory = false;
+        }
+        startData();
+        dataEntry("$area", feature.getTotalSteps());
+        dataEntry("type", "feature");
+        dataEntry("$color", rgbFormatOf(colorScheme.colorFor(feature)));
+        dataEntry("stories", feature.getTotalStories());
+        dataEntry("tests", feature.getTotalTests());
+        dataEntry("passing", feature.getPassingTests());
+        dataEntry("pending", feature.getPendingTests());
+        dataEntry("failing", feature.getFailingTests());
+        dataEntry("steps", feature.getTotalSteps());
+        dataEntry("progress", progressFor(feature));
+        endNode(feature.getFeature().getId(), feature.getFeature().getName());
+    }
+
+    void writeTestOutcomesForTag(final String tag, final TestOutcomes testOutcomes) {
+        startNode();
+        startData();
+        dataEntry("$area", testOutcomes.getStepCount());
+        dataEntry("type", "tag");
+        dataEntry("$color", rgbFormatOf(colorScheme.colorFor(testOutcomes)));
+        dataEntry("tests", testOutcomes.getTotal());
+        dataEntry("passing", testOutcomes.getSuccessCount());
+        dataEntry("pending", testOutcomes.getPendingCount());
+        dataEntry("failing", testOutcomes.getFailureCount());
+        dataEntry("steps", testOutcomes.getStepCount());
+        dataEntry("progress", progressFor(testOutcomes));
+        endNode(tag, tag);
+    }
+
+    private void writeStory(final StoryTestResults storyResult, final int sizeOfPendingOrSkippedTests) {
+        startNode();
+        boolean firstOutcome = true;
+        for (TestOutcome outcome : storyResult.getTestOutcomes()) {
+            if (!firstOutcome) {
+                json.append(',');
+            }
+            writeTestOutcome(outcome, sizeOfPendingOrSkippedTests);
+            firstOutcome = false;
+        }
+        startData();
+        dataEntry("$area", storyResult.getStepCount());
+        dataEntry("type", "story");
+        dataEntry("$color", rgbFormatOf(colorScheme.colorFor(storyResult)));
+        dataEntry("tests", storyResult.getTotal());
+        dataEntry("passing", storyResult.getSuccessCount());
+        dataEntry("pending", storyResult.getPendingCount());
+        dataEntry("failing", storyResult.getFailureCount());
+        dataEntry("steps", storyResult.getStepCount());
+        dataEntry("progress", progressFor(storyResult));
+        endNode(storyResult.getStory().getId(), storyResult.getStory().getName());
+    }
+
+    private void writeTestOutcome(final TestOutcome outcome, final int sizeOfPendingOrSkippedTests) {
+        startNode();
+        startData();
+        dataEntry("$area", testAreaFor(sizeOfPendingOrSkippedTests, outcome));
+        dataEntry("type", "test");
+        dataEntry("$color", rgbFormatOf(colorScheme.colorFor(outcome)));
+        dataEntry("result", (outcome.getResult() == null) ? null : outcome.getResult().name());
+        dataEntry("steps", outcome.countTestSteps());
+        dataEntry("report", outcome.getReportName(HTML));
+        endNode(outcome.getMethodName(), outcome.getTitle());
+    }
+
+    private void startNode() {
+        json.append("{\"children\":[");
+    }
+
+    private void startData() {
+        json.append("],\"data\":{");
+        firstDataEntry = true;
+    }
+
+    private void dataEntry(final String key, final int value) {
+        nextDataEntry(key);
+        json.append(value);
+    }
+
+    private void dataEntry(final String key, final String value) {
+        nextDataEntry(key);
+        appendQuoted(value);
+    }
+
+    private void nextDataEntry(final String key) {
+        if (!firstDataEntry) {
+            json.append(',');
+        }
+        firstDataEntry = false;
+        appendQuoted(key);
+        json.append(':');
+    }
+
+    private void endNode(final String id, final String name) {
+        json.append("},\"id\":");
+        appendQuoted(id);
+        json.append(",\"name\":");
+        appendQuoted(name);
+        json.append('}');
+    }
+
+    private void appendQuoted(final String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':  json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '/':  json.append("\\/"); break;
+                case '\b': json.append("\\b"); break;
+                case '\f': json.append("\\f"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < ' ') {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
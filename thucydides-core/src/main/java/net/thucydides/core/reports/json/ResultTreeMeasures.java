@@ -0,0 +1,94 @@
+package net.thucydides.core.reports.json;
+
+import net.thucydides.core.model.FeatureResults;
+import net.thucydides.core.model.StoryTestResults;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.reports.TestOutcomes;
+
+import java.util.List;
+
+/**
+ * The sizes and progress figures displayed for each node of the report dashboard tree.
+ */
+final class ResultTreeMeasures {
+
+    private ResultTreeMeasures() {}
+
+    static int progressFor(final TestOutcomes outcomes) {
+        if (outcomes.getTotal() == 0) {
+            return 0;
+        }
+        return (int) (outcomes.getPercentagePassingStepCount() * 100);
+    }
+
+    static int progressFor(final FeatureResults feature) {
+        if (feature.getTotalSteps() == 0) {
+            return 0;
+        }
+        return (int) feature.countStepsInSuccessfulTests() * 100 / feature.getTotalSteps();
+    }
+
+    static int progressFor(final StoryTestResults storyResult) {
+        if (storyResult.getStepCount() == 0) {
+            return 0;
+        }
+        return (int) storyResult.countStepsInSuccessfulTests() * 100 / storyResult.getStepCount();
+    }
+
+    static int averageTestSizeIn(final FeatureResults feature) {
+        int totalExecutedSteps = totalStepsInExecutedTestsIn(feature);
+        int totalExecutedTests = totalExecutedTestsIn(feature);
+        if (totalExecutedTests > 0) {
+            return totalExecutedSteps / totalExecutedTests;
+        } else {
+            return 1;
+        }
+    }
+
+    static int totalExecutedTestsIn(final FeatureResults feature) {
+        int testTally = 0;
+
+        List<StoryTestResults> storyTestResults = feature.getStoryResults();
+        for (StoryTestResults testResults : storyTestResults) {
+            List<TestOutcome> outcomes = testResults.getTestOutcomes();
+            for(TestOutcome outcome : outcomes) {
+                if (outcome.isFailure() || outcome.isSuccess()) {
+                    testTally++;
+                }
+            }
+
+        }
+        return testTally;
+    }
+
+    static int totalStepsInExecutedTestsIn(final FeatureResults feature) {
+        int stepTally = 0;
+
+        List<StoryTestResults> storyTestResults = feature.getStoryResults();
+        for (StoryTestResults testResults : storyTestResults) {
+            List<TestOutcome> outcomes = testResults.getTestOutcomes();
+            for(TestOutcome outcome : outcomes) {
+                if (outcome.isFailure() || outcome.isSuccess()) {
+                    stepTally += outcome.getNestedStepCount();
+                }
+            }
+
+        }
+        return stepTally;
+    }
+
+    static int testAreaFor(final int sizeOfPendingOrSkippedTests, final TestOutcome outcome) {
+        if (testWasSkipped(outcome)) {
+            return sizeOfPendingOrSkippedTests;
+        } else {
+            return outcome.countTestSteps();
+        }
+    }
+
+    private static boolean testWasSkipped(final TestOutcome outcome) {
+        return (outcome.isPending()
+                || (outcome.getResult() == TestResult.IGNORED)
+                || (outcome.getResult() == TestResult.SKIPPED));
+    }
+}
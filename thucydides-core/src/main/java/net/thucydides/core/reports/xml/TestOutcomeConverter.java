@@ -1,6 +1,7 @@
 package net.thucydides.core.reports.xml;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.MarshallingContext;
@@ -8,6 +9,7 @@ import com.thoughtworks.xstream.converters.UnmarshallingContext;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import net.thucydides.core.model.DataTable;
+import net.thucydides.core.model.DataTableColumn;
 import net.thucydides.core.model.DataTableRow;
 import net.thucydides.core.model.Story;
 import net.thucydides.core.model.TestOutcome;
@@ -22,6 +24,7 @@ import org.apache.commons.lang3.StringUtils;
 import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -64,6 +67,9 @@ public class TestOutcomeConverter implements Converter {
     private static final String SCREENSHOT_FIELD = "screenshot";
     private static final String SCREENSHOT_IMAGE = "image";
     private static final String SCREENSHOT_SOURCE = "source";
+    private static final String SCREENSHOT_WIDTH = "width";
+    private static final String SCREENSHOT_HEIGHT = "height";
+    private static final String SCREENSHOT_SIZE = "size";
     private static final String DESCRIPTION = "description";
     private static final String DURATION = "duration";
     private static final String SESSION_ID = "session-id";
@@ -73,6 +79,19 @@ public class TestOutcomeConverter implements Converter {
     private static final String ROWS = "rows";
     private static final String ROW = "row";
     private static final String VALUE = "value";
+    private static final String COLUMNS = "columns";
+    private static final String COLUMN = "column";
+    private static final String CELLS = "cells";
+    private static final String RESULTS = "results";
+    private static final String MISSING_CELL = "-";
+    private static final String NULL_VALUE = "null";
+    private static final String REPEATED_RESULT_SEPARATOR = "*";
+    private static final Object MISSING_VALUE = new Object();
+
+    /**
+     * Example tables with at least this many rows are written column by column, with each distinct value written once.
+     */
+    static final int COMPACT_EXAMPLES_MINIMUM_ROWS = 1000;
     public static final String NEW_LINE_CHAR = "\n";
     public static final String ESCAPE_CHAR_FOR_NEW_LINE = "&#10;";
     private static final String DEFAULT_ERROR_MESSAGE = "Unspecified failure";
@@ -229,14 +248,72 @@ public class TestOutcomeConverter implements Converter {
     }
 
     private void addExamplesTo(HierarchicalStreamWriter writer, DataTable dataTable) {
-        if ((dataTable != null) && (!dataTable.getRows().isEmpty())) {
+        if ((dataTable != null) && (dataTable.getSize() > 0)) {
             writer.startNode(EXAMPLES);
             writeHeaders(writer, dataTable);
-            writeRows(writer, dataTable);
+            if (dataTable.getSize() >= COMPACT_EXAMPLES_MINIMUM_ROWS) {
+                writeColumns(writer, dataTable);
+                writeResults(writer, dataTable);
+            } else {
+                writeRows(writer, dataTable);
+            }
             writer.endNode();
         }
     }
 
+    private void writeColumns(HierarchicalStreamWriter writer, DataTable dataTable) {
+        writer.startNode(COLUMNS);
+        for(DataTableColumn column : dataTable.getColumns()) {
+            writeColumn(writer, column);
+        }
+        writer.endNode();
+    }
+
+    private void writeColumn(HierarchicalStreamWriter writer, DataTableColumn column) {
+        writer.startNode(COLUMN);
+        for(Object value : column.getDistinctValues()) {
+            writeCellValue(writer, value);
+        }
+        StringBuilder cells = new StringBuilder();
+        for(int row = 0; row < column.getSize(); row++) {
+            if (row > 0) {
+                cells.append(' ');
+            }
+            int valueIndex = column.getValueIndexAt(row);
+            cells.append((valueIndex == DataTableColumn.NO_VALUE) ? MISSING_CELL : Integer.toString(valueIndex));
+        }
+        writer.startNode(CELLS);
+        writer.setValue(cells.toString());
+        writer.endNode();
+        writer.endNode();
+    }
+
+    /**
+     * Row results are run-length encoded, as most rows usually have the same result as the row before.
+     */
+    private void writeResults(HierarchicalStreamWriter writer, DataTable dataTable) {
+        StringBuilder results = new StringBuilder();
+        int row = 0;
+        while (row < dataTable.getSize()) {
+            TestResult result = dataTable.getResultAt(row);
+            int repeats = 1;
+            while ((row + repeats < dataTable.getSize()) && (dataTable.getResultAt(row + repeats) == result)) {
+                repeats++;
+            }
+            if (results.length() > 0) {
+                results.append(' ');
+            }
+            results.append(result);
+            if (repeats > 1) {
+                results.append(REPEATED_RESULT_SEPARATOR).append(repeats);
+            }
+            row += repeats;
+        }
+        writer.startNode(RESULTS);
+        writer.setValue(results.toString());
+        writer.endNode();
+    }
+
     private void writeHeaders(HierarchicalStreamWriter writer, DataTable dataTable) {
         writer.startNode(HEADERS);
         for(String header : dataTable.getHeaders()) {
@@ -259,7 +336,7 @@ public class TestOutcomeConverter implements Converter {
             writer.addAttribute("result", rowData.getResult().toString());
         }
         for(Object cellValue : rowData.getValues()) {
-            writeCellValue(writer, cellValue.toString());
+            writeCellValue(writer, cellValue);
         }
         writer.endNode();
     }
@@ -270,12 +347,23 @@ public class TestOutcomeConverter implements Converter {
         writer.endNode();
     }
 
-    private void writeCellValue(final HierarchicalStreamWriter writer, final String cellValue) {
+    /**
+     * A null cell value is written as an empty value marked as null, so that it is not read back as an empty string.
+     */
+    private void writeCellValue(final HierarchicalStreamWriter writer, final Object cellValue) {
         writer.startNode(VALUE);
-        writer.setValue(cellValue);
+        if (cellValue == null) {
+            writer.addAttribute(NULL_VALUE, "true");
+        } else {
+            writer.setValue(cellValue.toString());
+        }
         writer.endNode();
     }
 
+    private String readCellValue(final HierarchicalStreamReader reader) {
+        return Boolean.parseBoolean(reader.getAttribute(NULL_VALUE)) ? null : reader.getValue();
+    }
+
     private void writeErrorForFailingTest(final HierarchicalStreamWriter writer, final TestStep step) {
         if (step.isFailure() || step.isError()) {
             writeErrorMessageAndException(writer, step);
@@ -316,6 +404,11 @@ public class TestOutcomeConverter implements Converter {
                 if (screenshotAndHtmlSource.getSourcecode().isPresent()) {
                     writer.addAttribute(SCREENSHOT_SOURCE, screenshotAndHtmlSource.getSourcecode().get().getName());
                 }
+                if (screenshotAndHtmlSource.hasDimensions()) {
+                    writer.addAttribute(SCREENSHOT_WIDTH, Integer.toString(screenshotAndHtmlSource.getWidth()));
+                    writer.addAttribute(SCREENSHOT_HEIGHT, Integer.toString(screenshotAndHtmlSource.getHeight()));
+                    writer.addAttribute(SCREENSHOT_SIZE, Long.toString(screenshotAndHtmlSource.getByteSize()));
+                }
                 writer.endNode();
             }
             writer.endNode();
@@ -439,6 +532,8 @@ public class TestOutcomeConverter implements Converter {
                               final TestOutcome testOutcome) {
         List<String> headers = Lists.newArrayList();
         List<DataTableRow> rows = Lists.newArrayList();
+        List<List<Object>> columns = Lists.newArrayList();
+        List<TestResult> results = Lists.newArrayList();
         while (reader.hasMoreChildren()) {
             reader.moveDown();
             String childNode = reader.getNodeName();
@@ -446,9 +541,16 @@ public class TestOutcomeConverter implements Converter {
                 headers = readHeaders(reader);
             } else if (childNode.equals(ROWS)) {
                 rows = readRows(reader);
+            } else if (childNode.equals(COLUMNS)) {
+                columns = readColumns(reader);
+            } else if (childNode.equals(RESULTS)) {
+                results = readResults(reader.getValue());
             }
             reader.moveUp();
         }
+        if (!columns.isEmpty()) {
+            rows = rowsFromColumns(columns, results);
+        }
 
         DataTable table = DataTable.withHeaders(headers).andRowData(rows).build();
         testOutcome.useExamplesFrom(table);
@@ -467,6 +569,82 @@ public class TestOutcomeConverter implements Converter {
         return headers;
     }
 
+    private List<List<Object>> readColumns(final HierarchicalStreamReader reader) {
+        List<List<Object>> columns = Lists.newArrayList();
+        while (reader.hasMoreChildren()) {
+            reader.moveDown();
+            String childNode = reader.getNodeName();
+            if (childNode.equals(COLUMN)) {
+                columns.add(readColumn(reader));
+            }
+            reader.moveUp();
+        }
+        return columns;
+    }
+
+    /**
+     * The cells of a column, with MISSING_VALUE for rows that have no value in this column.
+     */
+    private List<Object> readColumn(final HierarchicalStreamReader reader) {
+        List<String> distinctValues = Lists.newArrayList();
+        List<Object> cells = Lists.newArrayList();
+        while (reader.hasMoreChildren()) {
+            reader.moveDown();
+            String childNode = reader.getNodeName();
+            if (childNode.equals(VALUE)) {
+                distinctValues.add(readCellValue(reader));
+            } else if (childNode.equals(CELLS)) {
+                for (String cell : Splitter.on(' ').omitEmptyStrings().split(reader.getValue())) {
+                    cells.add(cell.equals(MISSING_CELL) ? MISSING_VALUE : distinctValues.get(Integer.parseInt(cell)));
+                }
+            }
+            reader.moveUp();
+        }
+        return cells;
+    }
+
+    private List<TestResult> readResults(final String encodedResults) {
+        List<TestResult> results = Lists.newArrayList();
+        for (String encodedResult : Splitter.on(' ').omitEmptyStrings().split(encodedResults)) {
+            int repeats = 1;
+            String resultName = encodedResult;
+            int separator = encodedResult.indexOf(REPEATED_RESULT_SEPARATOR);
+            if (separator > 0) {
+                resultName = encodedResult.substring(0, separator);
+                repeats = Integer.parseInt(encodedResult.substring(separator + 1));
+            }
+            TestResult result = TestResult.valueOf(resultName);
+            for (int i = 0; i < repeats; i++) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * As with rows written one by one, rows without a recorded result are read as successful.
+     * A row ends with its last cell that has a value, and cells before it without a value are read as null.
+     */
+    private List<DataTableRow> rowsFromColumns(final List<List<Object>> columns, final List<TestResult> results) {
+        List<DataTableRow> rows = Lists.newArrayList();
+        int rowCount = columns.get(0).size();
+        for (int row = 0; row < rowCount; row++) {
+            List<Object> rowValues = Lists.newArrayList();
+            for (List<Object> column : columns) {
+                rowValues.add((row < column.size()) ? column.get(row) : MISSING_VALUE);
+            }
+            while (!rowValues.isEmpty() && (rowValues.get(rowValues.size() - 1) == MISSING_VALUE)) {
+                rowValues.remove(rowValues.size() - 1);
+            }
+            Collections.replaceAll(rowValues, MISSING_VALUE, null);
+            DataTableRow newRow = new DataTableRow(rowValues);
+            TestResult result = (row < results.size()) ? results.get(row) : TestResult.UNDEFINED;
+            newRow.setResult((result == TestResult.UNDEFINED) ? TestResult.SUCCESS : result);
+            rows.add(newRow);
+        }
+        return rows;
+    }
+
     private List<DataTableRow> readRows(final HierarchicalStreamReader reader) {
         List<DataTableRow> rows = Lists.newArrayList();
         while (reader.hasMoreChildren()) {
@@ -493,7 +671,7 @@ public class TestOutcomeConverter implements Converter {
             reader.moveDown();
             String childNode = reader.getNodeName();
             if (childNode.equals(VALUE)) {
-                rowValues.add(reader.getValue());
+                rowValues.add(readCellValue(reader));
             }
             reader.moveUp();
         }
@@ -564,6 +742,16 @@ public class TestOutcomeConverter implements Converter {
         }
     }
 
+    private int readInteger(HierarchicalStreamReader reader, String attribute) {
+        String value = reader.getAttribute(attribute);
+        return (value != null) ? Integer.parseInt(value) : 0;
+    }
+
+    private long readLong(HierarchicalStreamReader reader, String attribute) {
+        String value = reader.getAttribute(attribute);
+        return (value != null) ? Long.parseLong(value) : 0;
+    }
+
     private void readScreenshots(HierarchicalStreamReader reader, TestStep step) {
         if (reader.getNodeName().equals(SCREENSHOT_LIST_FIELD)) {
             while (reader.hasMoreChildren()) {
@@ -572,11 +760,11 @@ public class TestOutcomeConverter implements Converter {
                 if (childNode.equals(SCREENSHOT_FIELD)) {
                     String screenshot = reader.getAttribute(SCREENSHOT_IMAGE);
                     String source = reader.getAttribute(SCREENSHOT_SOURCE);
-                    if (source != null) {
-                        step.addScreenshot(new ScreenshotAndHtmlSource(new File(screenshot), new File(source)));
-                    } else {
-                        step.addScreenshot(new ScreenshotAndHtmlSource(new File(screenshot)));
-                    }
+                    File sourceFile = (source != null) ? new File(source) : null;
+                    step.addScreenshot(new ScreenshotAndHtmlSource(new File(screenshot), sourceFile,
+                                                                   readInteger(reader, SCREENSHOT_WIDTH),
+                                                                   readInteger(reader, SCREENSHOT_HEIGHT),
+                                                                   readLong(reader, SCREENSHOT_SIZE)));
                 }
                 reader.moveUp();
             }
@@ -9,6 +9,8 @@ import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestTag;
+import net.thucydides.core.pages.InternalSystemClock;
+import net.thucydides.core.pages.SystemClock;
 import net.thucydides.core.requirements.model.Narrative;
 import net.thucydides.core.requirements.model.NarrativeReader;
 import net.thucydides.core.requirements.model.Requirement;
@@ -29,6 +31,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static ch.lambdaj.Lambda.convert;
 import static net.thucydides.core.requirements.RequirementsPath.pathElements;
@@ -48,14 +51,23 @@ public class FileSystemRequirementsTagProvider implements RequirementsTagProvide
     private static final String WORKING_DIR = "user.dir";
     private static final List<Requirement> NO_REQUIREMENTS = Lists.newArrayList();
     private static final List<TestTag> NO_TEST_TAGS = Lists.newArrayList();
+    private static final long MINIMUM_CHANGE_CHECK_INTERVAL_IN_MILLIS = 1000;
 
     private final String rootDirectoryPath;
     private final NarrativeReader narrativeReader;
     private final int level;
     private final EnvironmentVariables environmentVariables;
+    private final SystemClock clock;
 
     @Transient
-    private List<Requirement> requirements;
+    private volatile List<Requirement> requirements;
+
+    /**
+     * The requirements directory the requirements were loaded from, if they were loaded from the file system.
+     */
+    private volatile File loadedRootDirectory;
+    private volatile long loadedRootDirectoryLastModified;
+    private final AtomicLong lastCheckedForChanges = new AtomicLong();
 
     public FileSystemRequirementsTagProvider() {
         this(getDefaultRootDirectoryPathFrom(Injectors.getInjector().getInstance(EnvironmentVariables.class)));
@@ -86,7 +98,13 @@ public class FileSystemRequirementsTagProvider implements RequirementsTagProvide
     }
 
     public FileSystemRequirementsTagProvider(String rootDirectory, int level, EnvironmentVariables environmentVariables) {
+        this(rootDirectory, level, environmentVariables, new InternalSystemClock());
+    }
+
+    protected FileSystemRequirementsTagProvider(String rootDirectory, int level, EnvironmentVariables environmentVariables,
+                                                SystemClock clock) {
         this.environmentVariables = environmentVariables;
+        this.clock = clock;
         this.rootDirectoryPath = rootDirectory;
         this.level = level;
         this.narrativeReader = NarrativeReader.forRootDirectory(rootDirectory)
@@ -104,29 +122,78 @@ public class FileSystemRequirementsTagProvider implements RequirementsTagProvide
      * at the working directory.
      */
     public List<Requirement> getRequirements() {
-        if (requirements == null) {
-            URL rootDirectoryPath = null;
-            try {
-                Optional<String> directoryPath = getRootDirectoryPath();
-                if (directoryPath.isPresent()) {
-                    File rootDirectory = new File(directoryPath.get());
-                    List<Requirement> allRequirements = Lists.newArrayList();
-                    allRequirements.addAll(loadCapabilitiesFrom(rootDirectory.listFiles(thatAreDirectories())));
-                    allRequirements.addAll(loadStoriesFrom(rootDirectory.listFiles(thatAreStories())));
-                    Collections.sort(allRequirements);
-
-                    requirements = allRequirements;
-                } else {
-                    requirements = NO_REQUIREMENTS;
-                }
-            } catch (IOException e) {
+        List<Requirement> currentRequirements = requirements;
+        if ((currentRequirements == null) || requirementsHaveChanged()) {
+            return loadRequirements(currentRequirements);
+        }
+        return currentRequirements;
+    }
+
+    /**
+     * Only one thread reloads the requirements: threads that were waiting for it use the requirements it loaded.
+     */
+    private synchronized List<Requirement> loadRequirements(List<Requirement> outdatedRequirements) {
+        if (requirements != outdatedRequirements) {
+            return requirements;
+        }
+        URL rootDirectoryPath = null;
+        try {
+            Optional<String> directoryPath = getRootDirectoryPath();
+            if (directoryPath.isPresent()) {
+                File rootDirectory = new File(directoryPath.get());
+                List<Requirement> allRequirements = Lists.newArrayList();
+                allRequirements.addAll(loadCapabilitiesFrom(rootDirectory.listFiles(thatAreDirectories())));
+                allRequirements.addAll(loadStoriesFrom(rootDirectory.listFiles(thatAreStories())));
+                Collections.sort(allRequirements);
+
+                loadedRootDirectoryLastModified = lastModifiedTimeIn(rootDirectory);
+                loadedRootDirectory = rootDirectory;
+                lastCheckedForChanges.set(currentTime());
+                requirements = allRequirements;
+            } else {
                 requirements = NO_REQUIREMENTS;
-                throw new IllegalArgumentException("Could not load requirements from '" + rootDirectoryPath + "'", e);
             }
+        } catch (IOException e) {
+            requirements = NO_REQUIREMENTS;
+            throw new IllegalArgumentException("Could not load requirements from '" + rootDirectoryPath + "'", e);
         }
         return requirements;
     }
 
+    /**
+     * The requirements tree is reloaded if any of the files or directories in it has been modified since it was loaded.
+     * To avoid walking the requirements directories for every test outcome, this is checked at most once a second,
+     * by whichever thread gets there first, without holding up the threads that are reading the requirements.
+     */
+    private boolean requirementsHaveChanged() {
+        File rootDirectory = loadedRootDirectory;
+        if ((rootDirectory == null) || !rootDirectory.exists()) {
+            return false;
+        }
+        long now = currentTime();
+        long lastChecked = lastCheckedForChanges.get();
+        if ((now - lastChecked < MINIMUM_CHANGE_CHECK_INTERVAL_IN_MILLIS)
+             || !lastCheckedForChanges.compareAndSet(lastChecked, now)) {
+            return false;
+        }
+        return lastModifiedTimeIn(rootDirectory) != loadedRootDirectoryLastModified;
+    }
+
+    private long currentTime() {
+        return clock.getCurrentTime().getMillis();
+    }
+
+    private long lastModifiedTimeIn(File fileOrDirectory) {
+        long lastModified = fileOrDirectory.lastModified();
+        File[] children = fileOrDirectory.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                lastModified = Math.max(lastModified, lastModifiedTimeIn(child));
+            }
+        }
+        return lastModified;
+    }
+
     private Optional<String> getRootDirectoryPath() throws IOException {
 
         if (ThucydidesSystemProperty.TEST_REQUIREMENTS_ROOT.isDefinedIn(environmentVariables)){
@@ -410,7 +477,8 @@ public class FileSystemRequirementsTagProvider implements RequirementsTagProvide
 
     private List<Requirement> readChildrenFrom(File requirementDirectory) {
         String childDirectory = rootDirectoryPath + "/" + requirementDirectory.getName();
-        RequirementsTagProvider childReader = new FileSystemRequirementsTagProvider(childDirectory, level + 1, environmentVariables);
+        RequirementsTagProvider childReader = new FileSystemRequirementsTagProvider(childDirectory, level + 1,
+                                                                                     environmentVariables, clock);
         return childReader.getRequirements();
     }
 
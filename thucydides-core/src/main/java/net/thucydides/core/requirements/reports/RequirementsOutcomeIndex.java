@@ -0,0 +1,117 @@
+package net.thucydides.core.requirements.reports;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.reports.TestOutcomes;
+import net.thucydides.core.requirements.model.Requirement;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of test outcomes by tag, built in a single pass over the test outcomes.
+ * The index is shared by all the levels of a requirements hierarchy, so finding the tests of a requirement
+ * does not involve scanning the tags of every test outcome each time.
+ */
+class RequirementsOutcomeIndex {
+
+    private final Map<String, List<TestOutcome>> outcomesByTagName = Maps.newHashMap();
+    private final Map<TestTag, List<TestOutcome>> outcomesByTag = Maps.newHashMap();
+
+    RequirementsOutcomeIndex(TestOutcomes testOutcomes) {
+        for (TestOutcome outcome : testOutcomes.getOutcomes()) {
+            Collection<TestTag> tags = outcome.getTags();
+            if (tags != null) {
+                indexTags(outcome, tags);
+            }
+        }
+    }
+
+    private void indexTags(TestOutcome outcome, Collection<TestTag> tags) {
+        Set<String> indexedNames = Sets.newHashSet();
+        for (TestTag tag : tags) {
+            String normalizedName = tag.getName().toLowerCase(Locale.ENGLISH);
+            if (indexedNames.add(normalizedName)) {
+                outcomesIn(outcomesByTagName, normalizedName).add(outcome);
+            }
+            outcomesIn(outcomesByTag, tag).add(outcome);
+        }
+    }
+
+    private <K> List<TestOutcome> outcomesIn(Map<K, List<TestOutcome>> index, K key) {
+        List<TestOutcome> outcomes = index.get(key);
+        if (outcomes == null) {
+            outcomes = Lists.newArrayList();
+            index.put(key, outcomes);
+        }
+        return outcomes;
+    }
+
+    /**
+     * A view of the index restricted to a subset of the indexed test outcomes, such as the tests of a parent requirement.
+     */
+    Scope within(TestOutcomes testOutcomes) {
+        return new Scope(testOutcomes);
+    }
+
+    class Scope {
+        private final TestOutcomes testOutcomes;
+        private final Set<TestOutcome> outcomesInScope;
+        private final Map<Requirement, Integer> requirementsWithoutTests = Maps.newIdentityHashMap();
+
+        private Scope(TestOutcomes testOutcomes) {
+            this.testOutcomes = testOutcomes;
+            this.outcomesInScope = Sets.newIdentityHashSet();
+            this.outcomesInScope.addAll(testOutcomes.getOutcomes());
+        }
+
+        /**
+         * The test outcomes in this scope with a tag of the same name as the requirement,
+         * as returned by {@link TestOutcomes#forRequirement(Requirement)}.
+         */
+        TestOutcomes forRequirement(Requirement requirement) {
+            List<TestOutcome> taggedOutcomes = outcomesByTagName.get(requirement.getName().toLowerCase(Locale.ENGLISH));
+            return testOutcomes.withOutcomesFrom(inScope(taggedOutcomes), requirement.getName());
+        }
+
+        boolean hasTestsFor(Requirement requirement) {
+            return !inScope(outcomesByTag.get(requirement.asTag())).isEmpty();
+        }
+
+        /**
+         * Count the requirements in this requirement tree that have no tests in this scope.
+         * Counts are rolled up from the leaves, and each subtree is only counted once.
+         */
+        int countRequirementsWithoutTestsIn(Requirement requirement) {
+            Integer count = requirementsWithoutTests.get(requirement);
+            if (count == null) {
+                count = hasTestsFor(requirement) ? 0 : 1;
+                for (Requirement child : requirement.getChildren()) {
+                    count += countRequirementsWithoutTestsIn(child);
+                }
+                requirementsWithoutTests.put(requirement, count);
+            }
+            return count;
+        }
+
+        private List<TestOutcome> inScope(List<TestOutcome> indexedOutcomes) {
+            if (indexedOutcomes == null) {
+                return Collections.emptyList();
+            }
+            List<TestOutcome> outcomes = Lists.newArrayList();
+            for (TestOutcome outcome : indexedOutcomes) {
+                if (outcomesInScope.contains(outcome)) {
+                    outcomes.add(outcome);
+                }
+            }
+            return outcomes;
+        }
+    }
+}
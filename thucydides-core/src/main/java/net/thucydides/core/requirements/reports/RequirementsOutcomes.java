@@ -22,6 +22,8 @@ public class RequirementsOutcomes {
     private final Optional<Requirement> parentRequirement;
     private final EnvironmentVariables environmentVariables;
     private final IssueTracking issueTracking;
+    private final RequirementsOutcomeIndex index;
+    private final RequirementsOutcomeIndex.Scope indexedOutcomes;
 
     public final static Integer DEFAULT_TESTS_PER_REQUIREMENT = 4;
 
@@ -34,35 +36,44 @@ public class RequirementsOutcomes {
 
     public RequirementsOutcomes(Requirement parentRequirement, List<Requirement> requirements, TestOutcomes testOutcomes,
                                 IssueTracking issueTracking, EnvironmentVariables environmentVariables) {
+        this(parentRequirement, requirements, testOutcomes, issueTracking, environmentVariables,
+             new RequirementsOutcomeIndex(testOutcomes));
+    }
+
+    /**
+     * Nested requirements share the index of the top-level requirements, so the test outcomes are only indexed once
+     * for the whole requirements hierarchy.
+     */
+    private RequirementsOutcomes(Requirement parentRequirement, List<Requirement> requirements, TestOutcomes testOutcomes,
+                                 IssueTracking issueTracking, EnvironmentVariables environmentVariables,
+                                 RequirementsOutcomeIndex index) {
         this.testOutcomes = testOutcomes;
         this.parentRequirement = Optional.fromNullable(parentRequirement);
         this.environmentVariables = environmentVariables;
         this.issueTracking = issueTracking;
+        this.index = index;
+        this.indexedOutcomes = index.within(testOutcomes);
         this.requirementOutcomes = buildRequirementOutcomes(requirements);
     }
 
     private List<RequirementOutcome> buildRequirementOutcomes(List<Requirement> requirements) {
         List<RequirementOutcome> outcomes = Lists.newArrayList();
         for (Requirement requirement : requirements) {
-            TestOutcomes outcomesForRequirement = testOutcomes.forRequirement(requirement);
-            int requirementsWithoutTests = countRequirementsWithoutTestsIn(requirement);
+            TestOutcomes outcomesForRequirement = indexedOutcomes.forRequirement(requirement);
+            int requirementsWithoutTests = indexedOutcomes.countRequirementsWithoutTestsIn(requirement);
             int estimatedUnimplementedTests = requirementsWithoutTests * estimatedTestsPerRequirement();
             outcomes.add(new RequirementOutcome(requirement, outcomesForRequirement, requirementsWithoutTests, estimatedUnimplementedTests, issueTracking));
         }
         return outcomes;
     }
 
-    private int countRequirementsWithoutTestsIn(Requirement rootRequirement) {
-        List<Requirement> flattenedRequirements = getFlattenedRequirements(rootRequirement);
-
-        int requirementsWithoutTests = 0;
-        for(Requirement requirement : flattenedRequirements) {
-            TestOutcomes matchingOutcomes = testOutcomes.withTag(requirement.asTag());
-            if (matchingOutcomes.getTotal() == 0) {
-                requirementsWithoutTests++;
-            }
-        }
-        return requirementsWithoutTests;
+    /**
+     * The outcomes of the child requirements of one of these requirements, using the same index as this set of outcomes.
+     */
+    public RequirementsOutcomes forChildRequirementsOf(RequirementOutcome requirementOutcome) {
+        Requirement requirement = requirementOutcome.getRequirement();
+        return new RequirementsOutcomes(requirement, requirement.getChildren(), requirementOutcome.getTestOutcomes(),
+                                        issueTracking, environmentVariables, index);
     }
 
     public int getFlattenedRequirementCount() {
@@ -74,13 +85,6 @@ public class RequirementsOutcomes {
         return requirementCount;
     }
 
-    private List<Requirement> getFlattenedRequirements(Requirement rootRequirement) {
-        List<Requirement> flattenedRequirements = Lists.newArrayList();
-        flattenedRequirements.add(rootRequirement);
-        flattenedRequirements.addAll(rootRequirement.getNestedChildren());
-        return flattenedRequirements;
-    }
-
     public Optional<Requirement> getParentRequirement() {
         return parentRequirement;
     }
@@ -147,7 +151,16 @@ public class RequirementsOutcomes {
         return failingRequirements;
     }
 
+    private Integer requirementsWithoutTestsCount = null;
+
     public int getRequirementsWithoutTestsCount() {
+        if (requirementsWithoutTestsCount == null) {
+            requirementsWithoutTestsCount = countRequirementsWithoutTests();
+        }
+        return requirementsWithoutTestsCount;
+    }
+
+    private int countRequirementsWithoutTests() {
         int requirementsWithNoTests = 0;
         List<RequirementOutcome> flattenedRequirementOutcomes = getFlattenedRequirementOutcomes();
 
@@ -200,10 +213,12 @@ public class RequirementsOutcomes {
             flattenedOutcomes.add(requirementOutcome);
             Requirement requirement = requirementOutcome.getRequirement();
             if (requirement.hasChildren()) {
+                RequirementsOutcomeIndex.Scope testOutcomesForRequirement = index.within(requirementOutcome.getTestOutcomes());
                 for (Requirement childRequirement : requirement.getChildren()) {
-                    TestOutcomes testOutcomesForChildRequirement = requirementOutcome.getTestOutcomes().withTag(childRequirement.getName());
+                    TestOutcomes testOutcomesForChildRequirement = testOutcomesForRequirement.forRequirement(childRequirement);
                     List<Requirement> childRequirements = childRequirement.getChildren();
-                    RequirementsOutcomes childOutcomes = new RequirementsOutcomes(childRequirement, childRequirements, testOutcomesForChildRequirement, issueTracking, environmentVariables);
+                    RequirementsOutcomes childOutcomes = new RequirementsOutcomes(childRequirement, childRequirements, testOutcomesForChildRequirement,
+                                                                                  issueTracking, environmentVariables, index);
                     flattenedOutcomes.addAll(getFlattenedRequirementOutcomes(childOutcomes.getRequirementOutcomes()));
                 }
             }
@@ -0,0 +1,318 @@
+package net.thucydides.core.resources;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.SystemEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Keeps the list of entries in each JAR or zip file on the classpath, so that archives only need to be opened once,
+ * however many times resources or classes are looked up.
+ * An archive is read again if its size or modification date changes.
+ * Directory listings are kept too, along with the modification date of every directory under them:
+ * adding, removing or renaming a file changes the date of the directory it is in, so a directory is only listed again
+ * when one of these dates changes. A listing taken too soon after a directory changed to rely on its date is not kept.
+ * If the thucydides.classpath.index property is set, the archive entries are also saved in that file,
+ * so that later runs do not need to open archives that have not changed.
+ */
+public class ClasspathIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClasspathIndex.class);
+
+    private static final byte[] ZIP_FILE_HEADER = {'P', 'K', 3, 4};
+    private static final String ENTRY_PREFIX = "\t";
+
+    /**
+     * Some file systems only record modification dates to the nearest second or two.
+     */
+    private static final long MODIFICATION_DATE_RESOLUTION = 2000;
+
+    private static final ClasspathIndex SHARED_INDEX = new ClasspathIndex(configuredIndexFile(new SystemEnvironmentVariables()));
+
+    private final Optional<File> indexFile;
+    private final ConcurrentMap<String, IndexedElement> elements = new MapMaker().makeMap();
+    private final ConcurrentMap<String, DirectoryListing> directoryListings = new MapMaker().makeMap();
+    private boolean savedIndexLoaded = false;
+    private boolean changedSinceSaved = false;
+
+    public ClasspathIndex() {
+        this(Optional.<File>absent());
+    }
+
+    protected ClasspathIndex(final Optional<File> indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * The index shared by all classpath lookups in this JVM.
+     */
+    public static ClasspathIndex shared() {
+        return SHARED_INDEX;
+    }
+
+    protected static Optional<File> configuredIndexFile(final EnvironmentVariables environmentVariables) {
+        String indexFilePath = environmentVariables.getProperty(ThucydidesSystemProperty.CLASSPATH_INDEX.getPropertyName());
+        if (StringUtils.isBlank(indexFilePath)) {
+            return Optional.absent();
+        }
+        return Optional.of(new File(indexFilePath));
+    }
+
+    /**
+     * The entries in a classpath element: the entry names for a JAR or zip file,
+     * or the paths of all the files under a directory, starting with the canonical path of the directory.
+     * Other files have no entries.
+     */
+    public List<String> entriesIn(final File classpathElement) {
+        if (classpathElement.isDirectory()) {
+            return directoryEntriesIn(classpathElement);
+        }
+        if (!classpathElement.isFile()) {
+            return ImmutableList.of();
+        }
+        loadSavedIndexIfRequired();
+
+        String key = keyFor(classpathElement);
+        String fingerprint = fingerprintOf(classpathElement);
+        IndexedElement indexedElement = elements.get(key);
+        if ((indexedElement == null) || (!indexedElement.getFingerprint().equals(fingerprint))) {
+            indexedElement = new IndexedElement(fingerprint, archiveEntriesIn(classpathElement));
+            elements.put(key, indexedElement);
+            recordChange();
+        }
+        return indexedElement.getEntries();
+    }
+
+    private List<String> directoryEntriesIn(final File directory) {
+        String key = keyFor(directory);
+        DirectoryListing listing = directoryListings.get(key);
+        if ((listing == null) || listing.isOutOfDate()) {
+            listing = new DirectoryListing(new File(key));
+            if (listing.canBeReused()) {
+                directoryListings.put(key, listing);
+            } else {
+                directoryListings.remove(key);
+            }
+        }
+        return listing.getEntries();
+    }
+
+    /**
+     * Save the JAR file entries to the index file, if one is configured and new JAR files have been read.
+     */
+    public synchronized void saveIfChanged() {
+        if (!indexFile.isPresent() || !changedSinceSaved) {
+            return;
+        }
+        List<String> lines = Lists.newArrayList();
+        for (Map.Entry<String, IndexedElement> element : elements.entrySet()) {
+            lines.add(element.getKey() + ENTRY_PREFIX + element.getValue().getFingerprint());
+            for (String entry : element.getValue().getEntries()) {
+                lines.add(ENTRY_PREFIX + entry);
+            }
+        }
+        try {
+            FileUtils.writeLines(indexFile.get(), "UTF-8", lines);
+            changedSinceSaved = false;
+        } catch (IOException e) {
+            LOGGER.warn("Could not save the classpath index to " + indexFile.get(), e);
+        }
+    }
+
+    protected ZipFile zipFileFor(final File file) throws IOException {
+        return new ZipFile(file);
+    }
+
+    private synchronized void recordChange() {
+        changedSinceSaved = true;
+    }
+
+    private synchronized void loadSavedIndexIfRequired() {
+        if (savedIndexLoaded) {
+            return;
+        }
+        savedIndexLoaded = true;
+        if (indexFile.isPresent() && indexFile.get().exists()) {
+            try {
+                loadSavedIndexFrom(FileUtils.readLines(indexFile.get(), "UTF-8"));
+            } catch (IOException e) {
+                LOGGER.warn("Could not read the classpath index from " + indexFile.get(), e);
+            }
+        }
+    }
+
+    private void loadSavedIndexFrom(final List<String> lines) {
+        String key = null;
+        String fingerprint = null;
+        ImmutableList.Builder<String> entries = ImmutableList.builder();
+        for (String line : lines) {
+            if (line.startsWith(ENTRY_PREFIX)) {
+                entries.add(line.substring(ENTRY_PREFIX.length()));
+            } else {
+                addSavedElement(key, fingerprint, entries.build());
+                key = StringUtils.substringBefore(line, ENTRY_PREFIX);
+                fingerprint = StringUtils.substringAfter(line, ENTRY_PREFIX);
+                entries = ImmutableList.builder();
+            }
+        }
+        addSavedElement(key, fingerprint, entries.build());
+    }
+
+    private void addSavedElement(final String key, final String fingerprint, final List<String> entries) {
+        if (key != null) {
+            elements.putIfAbsent(key, new IndexedElement(fingerprint, entries));
+        }
+    }
+
+    private String keyFor(final File classpathElement) {
+        try {
+            return classpathElement.getCanonicalPath();
+        } catch (IOException e) {
+            return classpathElement.getAbsolutePath();
+        }
+    }
+
+    private String fingerprintOf(final File classpathElement) {
+        return classpathElement.length() + ":" + classpathElement.lastModified();
+    }
+
+    /**
+     * JAR, WAR and other zip archives are recognised by their header rather than by their name.
+     */
+    private boolean isAZipFile(final File file) {
+        byte[] header = new byte[ZIP_FILE_HEADER.length];
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                return (IOUtils.read(in, header) == header.length) && Arrays.equals(header, ZIP_FILE_HEADER);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private List<String> archiveEntriesIn(final File file) {
+        ImmutableList.Builder<String> entries = ImmutableList.builder();
+        if (isAZipFile(file)) {
+            addZipFileEntries(file, entries);
+        }
+        return entries.build();
+    }
+
+    private void addZipFileEntries(final File file, final ImmutableList.Builder<String> entries) {
+        ZipFile zipFile;
+        try {
+            zipFile = zipFileFor(file);
+        } catch (final IOException e) {
+            throw new ResourceCopyingError("Could not read from the JAR file", e);
+        }
+        Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+        while (zipEntries.hasMoreElements()) {
+            entries.add(zipEntries.nextElement().getName());
+        }
+        try {
+            zipFile.close();
+        } catch (final IOException e) {
+            throw new ResourceCopyingError("Couldn't close the zip file", e);
+        }
+    }
+
+    /**
+     * The files under a directory, with the modification date of each directory taken before it was listed.
+     * The paths are built from the canonical path of the top directory, rather than resolving each file.
+     */
+    private static class DirectoryListing {
+        private final Map<File, Long> directoryModificationDates = Maps.newHashMap();
+        private final List<String> entries;
+        private final boolean canBeReused;
+
+        private DirectoryListing(final File canonicalDirectory) {
+            long listedAt = System.currentTimeMillis();
+            ImmutableList.Builder<String> entries = ImmutableList.builder();
+            addDirectoryEntries(canonicalDirectory, entries);
+            this.entries = entries.build();
+            this.canBeReused = allModifiedBefore(listedAt - MODIFICATION_DATE_RESOLUTION);
+        }
+
+        private void addDirectoryEntries(final File directory, final ImmutableList.Builder<String> entries) {
+            directoryModificationDates.put(directory, directory.lastModified());
+            final File[] fileList = directory.listFiles();
+            if (fileList != null) {
+                for (final File file : fileList) {
+                    if (file.isDirectory()) {
+                        addDirectoryEntries(file, entries);
+                    } else if (file.exists()) {
+                        entries.add(file.getPath());
+                    }
+                }
+            }
+        }
+
+        private boolean allModifiedBefore(final long time) {
+            for (Long modificationDate : directoryModificationDates.values()) {
+                if (modificationDate >= time) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean canBeReused() {
+            return canBeReused;
+        }
+
+        public boolean isOutOfDate() {
+            for (Map.Entry<File, Long> directory : directoryModificationDates.entrySet()) {
+                if (directory.getKey().lastModified() != directory.getValue()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public List<String> getEntries() {
+            return entries;
+        }
+    }
+
+    private static class IndexedElement {
+        private final String fingerprint;
+        private final List<String> entries;
+
+        private IndexedElement(final String fingerprint, final List<String> entries) {
+            this.fingerprint = fingerprint;
+            this.entries = entries;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public List<String> getEntries() {
+            return entries;
+        }
+    }
+}
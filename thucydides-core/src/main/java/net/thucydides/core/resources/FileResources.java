@@ -1,9 +1,15 @@
 package net.thucydides.core.resources;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.thucydides.core.ThucydidesSystemProperties;
 import net.thucydides.core.ThucydidesSystemProperty;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -11,14 +17,33 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Utility class used to copy resources from a classpath to a target directory.
+ * Resources that are already in the target directory, with the same size and checksum, are not copied again.
  */
 public class FileResources {
 
-    private static final int BUFFER_SIZE = 4096;
+    private static final int BUFFER_SIZE = 65536;
     private static final int DEFAULT_FILE_IO_RETRY_TIMEOUT = 60;
+    private static final int MAXIMUM_COPYING_THREADS = 4;
+    private static final String JAR_ENTRY_SEPARATOR = "!/";
 
     private String resourceDirectoryRoot;
 
@@ -58,17 +83,145 @@ public class FileResources {
         return filenameIn(relativePath);
     }
 
-    public final void copyResourceTo(final String sourceResource, final File targetDirectory)
+    /**
+     * Copy a set of resources to the target directory, using several threads.
+     * Resources found in the same JAR file are read in a single pass over the JAR file.
+     */
+    public final void copyResourcesTo(final Collection<String> sourceResources, final File targetDirectory)
             throws IOException {
 
-        String targetFile = findTargetFileFrom(sourceResource);
-        String targetRelativeDirectory = findTargetSubdirectoryFrom(sourceResource);
+        Map<File, Set<String>> resourcesByJarFile = Maps.newHashMap();
+        List<String> otherResources = Lists.newArrayList();
+        for (String sourceResource : sourceResources) {
+            File jarFile = jarFileContaining(sourceResource);
+            if (jarFile != null) {
+                if (!resourcesByJarFile.containsKey(jarFile)) {
+                    resourcesByJarFile.put(jarFile, Sets.<String>newHashSet());
+                }
+                resourcesByJarFile.get(jarFile).add(sourceResource);
+            } else {
+                otherResources.add(sourceResource);
+            }
+        }
+
+        List<Callable<Void>> copyTasks = Lists.newArrayList();
+        for (Map.Entry<File, Set<String>> jarResources : resourcesByJarFile.entrySet()) {
+            copyTasks.add(copyFromJarTask(jarResources.getKey(), jarResources.getValue(), targetDirectory));
+        }
+        for (String sourceResource : otherResources) {
+            copyTasks.add(copyTask(sourceResource, targetDirectory));
+        }
+        runAll(copyTasks);
+    }
 
-        File destinationDirectory = targetDirectory;
+    private Callable<Void> copyFromJarTask(final File jarFile, final Set<String> resources, final File targetDirectory) {
+        return new Callable<Void>() {
+            public Void call() throws IOException {
+                copyResourcesFromJarTo(jarFile, resources, targetDirectory);
+                return null;
+            }
+        };
+    }
+
+    private Callable<Void> copyTask(final String sourceResource, final File targetDirectory) {
+        return new Callable<Void>() {
+            public Void call() throws IOException {
+                copyResourceTo(sourceResource, targetDirectory);
+                return null;
+            }
+        };
+    }
 
+    private void runAll(final List<Callable<Void>> copyTasks) throws IOException {
+        int threads = Math.max(1, Math.min(copyTasks.size(),
+                                           Math.min(Runtime.getRuntime().availableProcessors(), MAXIMUM_COPYING_THREADS)));
+        ExecutorService executorService = Executors.newFixedThreadPool(threads,
+                                                                       new ThreadFactoryBuilder().setNameFormat("resource-copier-%d")
+                                                                                                 .setDaemon(true)
+                                                                                                 .build());
+        try {
+            for (Future<Void> copy : executorService.invokeAll(copyTasks)) {
+                copy.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while copying resources");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new ResourceCopyingError("Could not copy resources", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * The JAR file on the classpath that a resource will be loaded from, if any.
+     */
+    private File jarFileContaining(final String sourceResource) {
+        if (new File(sourceResource).exists()) {
+            return null;
+        }
+        URL resourceUrl = this.getClass().getClassLoader().getResource(sourceResource);
+        if ((resourceUrl == null) || (!"jar".equals(resourceUrl.getProtocol()))) {
+            return null;
+        }
+        String path = resourceUrl.getPath();
+        int entrySeparatorPosition = path.indexOf(JAR_ENTRY_SEPARATOR);
+        if (entrySeparatorPosition < 0) {
+            return null;
+        }
+        try {
+            File jarFile = new File(new URI(path.substring(0, entrySeparatorPosition)));
+            return jarFile.isFile() ? jarFile : null;
+        } catch (Exception notALocalFile) {
+            return null;
+        }
+    }
+
+    private void copyResourcesFromJarTo(final File jarFile, final Set<String> resources, final File targetDirectory)
+            throws IOException {
+        ZipFile zipFile = new ZipFile(jarFile);
+        try {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !resources.contains(entry.getName())) {
+                    continue;
+                }
+                File destinationFile = destinationFileFor(entry.getName(), targetDirectory);
+                if (!alreadyInstalled(destinationFile, entry.getSize(), entry.getCrc())) {
+                    InputStream in = zipFile.getInputStream(entry);
+                    try {
+                        writeTo(destinationFile, in);
+                    } finally {
+                        in.close();
+                    }
+                }
+            }
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private File destinationFileFor(final String sourceResource, final File targetDirectory) {
+        return new File(destinationDirectoryFor(sourceResource, targetDirectory), new File(sourceResource).getName());
+    }
+
+    private File destinationDirectoryFor(final String sourceResource, final File targetDirectory) {
+        String targetRelativeDirectory = findTargetSubdirectoryFrom(sourceResource);
         if (targetRelativeDirectory.length() > 0) {
-            destinationDirectory = new File(targetDirectory, targetRelativeDirectory);
+            return new File(targetDirectory, targetRelativeDirectory);
         }
+        return targetDirectory;
+    }
+
+    public final void copyResourceTo(final String sourceResource, final File targetDirectory)
+            throws IOException {
+
+        String targetFile = findTargetFileFrom(sourceResource);
+        File destinationDirectory = destinationDirectoryFor(sourceResource, targetDirectory);
 
         if (new File(sourceResource).isDirectory()) {
             File fullTargetDirectory = new File(destinationDirectory, targetFile);
@@ -82,30 +235,94 @@ public class FileResources {
             final String resourcePath, final File targetDirectory)
             throws IOException {
 
-        FileOutputStream out = null;
-        InputStream in = null;
-        try {
-            File resourceOnClasspath = new File(resourcePath);
+        File resourceOnClasspath = new File(resourcePath);
+        File destinationFile = new File(targetDirectory, resourceOnClasspath.getName());
 
-            if (resourceOnClasspath.exists()) {
-                in = new FileInputStream(resourceOnClasspath);
-            } else {
-                in = this.getClass().getClassLoader().getResourceAsStream(resourcePath);
+        if (resourceOnClasspath.exists()) {
+            if (!alreadyInstalled(destinationFile, resourceOnClasspath)) {
+                copyFile(resourceOnClasspath, destinationFile);
             }
-            File destinationFile = new File(targetDirectory, resourceOnClasspath.getName());
-
-            if (destinationFile.exists()) {
-                return;
+        } else {
+            InputStream in = this.getClass().getClassLoader().getResourceAsStream(resourcePath);
+            if (in == null) {
+                throw new FileNotFoundException("Resource not found on the classpath: " + resourcePath);
             }
-            if (destinationFile.getParent() != null) {
-                new File(destinationFile.getParent()).mkdirs();
+            try {
+                byte[] content = IOUtils.toByteArray(in);
+                if (!alreadyInstalled(destinationFile, content.length, checksumOf(content))) {
+                    writeTo(destinationFile, new ByteArrayInputStream(content));
+                }
+            } finally {
+                in.close();
             }
+        }
+    }
+
+    private boolean alreadyInstalled(final File destinationFile, final File sourceFile) throws IOException {
+        return destinationFile.exists()
+                && (destinationFile.length() == sourceFile.length())
+                && (checksumOf(destinationFile) == checksumOf(sourceFile));
+    }
 
+    private boolean alreadyInstalled(final File destinationFile, final long size, final long checksum) throws IOException {
+        return destinationFile.exists()
+                && (size >= 0) && (checksum >= 0)
+                && (destinationFile.length() == size)
+                && (checksumOf(destinationFile) == checksum);
+    }
+
+    private long checksumOf(final File file) throws IOException {
+        CRC32 checksum = new CRC32();
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                checksum.update(buffer, 0, bytesRead);
+            }
+        } finally {
+            in.close();
+        }
+        return checksum.getValue();
+    }
+
+    private long checksumOf(final byte[] content) {
+        CRC32 checksum = new CRC32();
+        checksum.update(content);
+        return checksum.getValue();
+    }
+
+    private void copyFile(final File sourceFile, final File destinationFile) throws IOException {
+        makeParentDirectoryOf(destinationFile);
+        FileInputStream in = new FileInputStream(sourceFile);
+        FileOutputStream out = null;
+        try {
             out = getOutputStreamForDestination(destinationFile);
+            FileChannel source = in.getChannel();
+            FileChannel destination = out.getChannel();
+            long size = source.size();
+            long position = 0;
+            while (position < size) {
+                position += source.transferTo(position, size - position, destination);
+            }
+        } finally {
+            closeSafely(out, in);
+        }
+    }
 
+    private void writeTo(final File destinationFile, final InputStream in) throws IOException {
+        makeParentDirectoryOf(destinationFile);
+        FileOutputStream out = getOutputStreamForDestination(destinationFile);
+        try {
             copyData(in, out);
         } finally {
-            closeSafely(out, in);
+            out.close();
+        }
+    }
+
+    private void makeParentDirectoryOf(final File destinationFile) {
+        if (destinationFile.getParentFile() != null) {
+            destinationFile.getParentFile().mkdirs();
         }
     }
 
@@ -10,15 +10,14 @@ import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Enumeration;
 import java.util.List;
 import java.util.regex.Pattern;
-import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 /**
  * Utility class to read report resources from the classpath. This way, report
  * resources such as images and stylesheets can be shipped in a separate JAR
- * file.
+ * file. The classpath entries are read through the shared ClasspathIndex, so
+ * each JAR file is only scanned once.
  */
 public class ResourceList {
 
@@ -29,12 +28,29 @@ public class ResourceList {
 
     private final Pattern pattern;
 
+    private final ClasspathIndex classpathIndex;
+
     public static ResourceList forResources(final Pattern pattern) {
-        return new ResourceList(pattern);
+        return new ResourceList(pattern, ClasspathIndex.shared());
     }
 
+    /**
+     * Resource lists created by subclasses read the classpath through their own index,
+     * using the zipFileFor() method to open JAR files.
+     */
     protected ResourceList(final Pattern pattern) {
         this.pattern = pattern;
+        this.classpathIndex = new ClasspathIndex() {
+            @Override
+            protected ZipFile zipFileFor(final File file) throws IOException {
+                return ResourceList.this.zipFileFor(file);
+            }
+        };
+    }
+
+    private ResourceList(final Pattern pattern, final ClasspathIndex classpathIndex) {
+        this.pattern = pattern;
+        this.classpathIndex = classpathIndex;
     }
 
     /**
@@ -53,6 +69,7 @@ public class ResourceList {
         for(URL classPathElement : classPathElements) {
             resources.addAll(getResources(classPathElement.getFile(), pattern));
         }
+        classpathIndex.saveIfChanged();
         return resources;
     }
 
@@ -70,11 +87,10 @@ public class ResourceList {
 
     private Collection<String> getResources(final String element, final Pattern pattern) {
         final ArrayList<String> resources = new ArrayList<String>();
-        final File file = new File(element);
-        if (isAJarFile(file)) {
-            resources.addAll(getResourcesFromJarFile(file, pattern));
-        } else {
-            resources.addAll(getResourcesFromDirectory(file, pattern));
+        for (String entry : classpathIndex.entriesIn(new File(element))) {
+            if (pattern.matcher(entry).matches()) {
+                resources.add(entry);
+            }
         }
         return removeUnnecessaryFilesFrom(resources);
     }
@@ -90,71 +106,8 @@ public class ResourceList {
         return cleanedResources;
     }
 
-    private boolean isAJarFile(final File file) {
-        if (file.isDirectory()) {
-            return false;
-        } else {
-            return (file.getName().endsWith(".jar"));
-        }
-    }
-
     protected ZipFile zipFileFor(final File file) throws IOException {
         return new ZipFile(file);
     }
 
-    private Collection<String> getResourcesFromJarFile(final File file, final Pattern pattern) {
-        final ArrayList<String> retval = new ArrayList<String>();
-        if (file.exists()) {
-            ZipFile zf;
-            try {
-                zf = zipFileFor(file);
-            } catch (final IOException e) {
-                throw new ResourceCopyingError("Could not read from the JAR file", e);
-            }
-            @SuppressWarnings("rawtypes")
-            final Enumeration e = zf.entries();
-            while (e.hasMoreElements()) {
-                final ZipEntry ze = (ZipEntry) e.nextElement();
-                final String fileName = ze.getName();
-                
-                final boolean accept = pattern.matcher(fileName).matches();
-                if (accept) {
-                    retval.add(fileName);
-                }
-            }
-            try {
-                zf.close();
-            } catch (final IOException e1) {
-                throw new ResourceCopyingError("Couldn't close the zip file", e1);
-            }
-        }
-        return retval;
-    }
-
-    private Collection<String> getResourcesFromDirectory(final File directory,
-                                                                final Pattern pattern) {
-        final ArrayList<String> retval = new ArrayList<String>();
-        final File[] fileList = directory.listFiles();
-        if (fileList != null) {
-            for (final File file : fileList) {
-                if (file.isDirectory() && (file.exists())) {
-                    retval.addAll(getResourcesFromDirectory(file, pattern));
-                } else {
-                    if (file.exists()) {
-                        try {
-                            final String fileName = file.getCanonicalPath();
-                            final boolean accept = pattern.matcher(fileName).matches();
-                            if (accept) {
-                                retval.add(fileName);
-                            }
-                        } catch (final IOException e) {
-                            throw new ResourceCopyingError("Could not read from the JAR file", e);
-                        }
-                    }
-                }
-            }
-        }
-        return retval;
-    }
-
 }
@@ -6,6 +6,7 @@ import com.jhlabs.image.BoxBlurFilter;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.digest.Digest;
 import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.images.ImageEncoders;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.webdriver.WebDriverFacade;
 import org.apache.commons.io.FileUtils;
@@ -105,6 +106,18 @@ public class Photographer {
      * Take a screenshot of the current browser and store it in the output directory.
      */
     public Optional<File> takeScreenshot(final String prefix) {
+        Optional<ScreenshotAndHtmlSource> screenshot = takeScreenshot(prefix, false);
+        if (screenshot.isPresent()) {
+            return Optional.of(screenshot.get().getScreenshotFile());
+        }
+        return Optional.absent();
+    }
+
+    /**
+     * Take a screenshot of the current browser and store it in the output directory, optionally
+     * along with the matching HTML source code. The dimensions of the screenshot are recorded once it has been saved.
+     */
+    public Optional<ScreenshotAndHtmlSource> takeScreenshot(final String prefix, final boolean includeSourcecode) {
         if (driverCanTakeSnapshots()) {
             try {
                 File screenshotFile = null;
@@ -119,13 +132,15 @@ public class Photographer {
                 }
                 if (screenshotFile != null) {
                     File savedScreenshot = targetScreenshot(prefix);
-                    screenshotProcessor.queueScreenshot(new QueuedScreenshot(screenshotFile, savedScreenshot));
+                    File sourcecode = includeSourcecode ? getMatchingSourceCodeFor(savedScreenshot) : null;
+                    ScreenshotAndHtmlSource screenshotAndHtmlSource = new ScreenshotAndHtmlSource(savedScreenshot, sourcecode);
+                    screenshotProcessor.queueScreenshot(new QueuedScreenshot(screenshotFile, savedScreenshot, screenshotAndHtmlSource));
 
                     if (!blurLevel.isPresent() && shouldSavePageSource()) {
                         savePageSourceFor(savedScreenshot.getAbsolutePath());
                     }
 
-                    return Optional.of(savedScreenshot);
+                    return Optional.of(screenshotAndHtmlSource);
                 }
             } catch (Throwable e) {
                 getLogger().warn("Failed to write screenshot (possibly an out of memory error): " + e.getMessage());
@@ -147,7 +162,7 @@ public class Photographer {
         destImage = boxBlurFilter.filter(srcImage, destImage);
 
         ByteArrayOutputStream outStream = new ByteArrayOutputStream();
-        ImageIO.write(destImage, "png", outStream);
+        ImageEncoders.getDefault().forScreenshots().write(destImage, outStream);
 
         return  saveScreenshotData(outStream.toByteArray());
     }
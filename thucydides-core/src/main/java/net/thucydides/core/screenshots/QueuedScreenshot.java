@@ -1,15 +1,26 @@
 package net.thucydides.core.screenshots;
 
+import com.google.common.base.Optional;
+
 import java.io.File;
 
 public class QueuedScreenshot {
 
     private final File filename;
     private final File sourceFilename;
+    private final Optional<ScreenshotAndHtmlSource> screenshotAndHtmlSource;
 
     public QueuedScreenshot(File sourceFilename, File targetFilename) {
+        this(sourceFilename, targetFilename, null);
+    }
+
+    /**
+     * The dimensions of the saved screenshot are recorded in the given screenshot and HTML source.
+     */
+    public QueuedScreenshot(File sourceFilename, File targetFilename, ScreenshotAndHtmlSource screenshotAndHtmlSource) {
         this.filename = targetFilename;
         this.sourceFilename = sourceFilename;
+        this.screenshotAndHtmlSource = Optional.fromNullable(screenshotAndHtmlSource);
     }
 
     public File getDestinationFile() {
@@ -19,4 +30,8 @@ public class QueuedScreenshot {
     public File getSourceFile() {
         return sourceFilename;
     }
+
+    public Optional<ScreenshotAndHtmlSource> getScreenshotAndHtmlSource() {
+        return screenshotAndHtmlSource;
+    }
 }
@@ -7,17 +7,29 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.commons.io.FileUtils.checksumCRC32;
 
 /**
  * A screenshot image and the corresponding HTML source code.
+ * The dimensions and size of the screenshot image are recorded when the screenshot processor has saved the image file,
+ * or when the test outcome is loaded, so that reports do not need to read the image files to find them.
  */
 public class ScreenshotAndHtmlSource {
 
     private final File screenshot;
     private final File sourcecode;
 
+    private volatile int width;
+    private volatile int height;
+    private volatile long byteSize;
+
+    /**
+     * Counts the changes made to the steps of the test outcome this screenshot belongs to.
+     */
+    private transient volatile AtomicLong outcomeChanges;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(ScreenshotAndHtmlSource.class);
 
     public ScreenshotAndHtmlSource(File screenshot, File sourcecode) {
@@ -26,8 +38,14 @@ public class ScreenshotAndHtmlSource {
     }
 
     public ScreenshotAndHtmlSource(File screenshot) {
-        this.screenshot = screenshot;
-        this.sourcecode = null;
+        this(screenshot, null);
+    }
+
+    public ScreenshotAndHtmlSource(File screenshot, File sourcecode, int width, int height, long byteSize) {
+        this(screenshot, sourcecode);
+        this.width = width;
+        this.height = height;
+        this.byteSize = byteSize;
     }
 
     public File getScreenshotFile() {
@@ -42,6 +60,55 @@ public class ScreenshotAndHtmlSource {
         return (screenshot != null);
     }
 
+    /**
+     * @return true if the dimensions of the screenshot image are known.
+     */
+    public boolean hasDimensions() {
+        return (width > 0) && (height > 0);
+    }
+
+    /**
+     * @return the width of the screenshot in pixels, or 0 if it is not known.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height of the screenshot in pixels, or 0 if it is not known.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the size of the screenshot file in bytes, or 0 if it is not known.
+     */
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    /**
+     * Record the dimensions of the screenshot image once the file has been saved, or after it has been rewritten.
+     */
+    public void recordDimensions(int width, int height, long byteSize) {
+        this.byteSize = byteSize;
+        this.height = height;
+        this.width = width;
+        AtomicLong changes = outcomeChanges;
+        if (changes != null) {
+            changes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Called when the step holding this screenshot is recorded in a test outcome, so that the values the test outcome
+     * calculates from the screenshot dimensions are refreshed when the dimensions are recorded.
+     */
+    public void countChangesIn(final AtomicLong outcomeChanges) {
+        this.outcomeChanges = outcomeChanges;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
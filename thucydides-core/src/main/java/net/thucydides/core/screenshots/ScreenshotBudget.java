@@ -0,0 +1,172 @@
+package net.thucydides.core.screenshots;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.model.TakeScreenshots;
+import net.thucydides.core.util.EnvironmentVariables;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number and total size of the screenshots taken for each test and during the whole test run.
+ * As a budget runs out, fewer screenshots are taken: first only at the end of each step, then only for failures.
+ * The last part of the budget is kept for failure screenshots, and once it is spent no more optional screenshots
+ * are taken. The run budget is shared by all the tests running in the same JVM.
+ * No limits apply unless they are configured.
+ */
+@Singleton
+public class ScreenshotBudget {
+
+    private static final long MEGABYTE = 1024 * 1024;
+    private static final double AFTER_EACH_STEP_THRESHOLD = 0.5;
+    private static final double FAILURES_ONLY_THRESHOLD = 0.75;
+
+    private final Limits testLimits;
+    private final Limits runLimits;
+    private final Usage runUsage;
+
+    @Inject
+    public ScreenshotBudget(EnvironmentVariables environmentVariables) {
+        this.testLimits = new Limits(environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.MAX_SCREENSHOTS_PER_TEST, 0),
+                                     megabytes(environmentVariables, ThucydidesSystemProperty.MAX_SCREENSHOT_MEGABYTES_PER_TEST));
+        this.runLimits = new Limits(environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.MAX_SCREENSHOTS_PER_RUN, 0),
+                                    megabytes(environmentVariables, ThucydidesSystemProperty.MAX_SCREENSHOT_MEGABYTES_PER_RUN));
+        this.runUsage = new Usage();
+    }
+
+    private long megabytes(EnvironmentVariables environmentVariables, ThucydidesSystemProperty property) {
+        return environmentVariables.getPropertyAsInteger(property, 0) * MEGABYTE;
+    }
+
+    public boolean isLimited() {
+        return testLimits.areDefined() || runLimits.areDefined();
+    }
+
+    /**
+     * Start keeping track of the screenshots of a new test.
+     */
+    public ForTest forNewTest() {
+        return new ForTest();
+    }
+
+    /**
+     * The screenshot budget of a single test, which also draws on the budget of the whole run.
+     */
+    public class ForTest {
+
+        private final Usage testUsage = new Usage();
+
+        private ForTest() {
+        }
+
+        /**
+         * Can screenshots be taken at this level of detail with what is left of the budget?
+         */
+        public boolean allows(final TakeScreenshots level) {
+            double usedFraction = usedFraction();
+            if (usedFraction >= 1.0) {
+                return false;
+            } else if (usedFraction >= FAILURES_ONLY_THRESHOLD) {
+                return level == TakeScreenshots.FOR_FAILURES;
+            } else if (usedFraction >= AFTER_EACH_STEP_THRESHOLD) {
+                return level.compareTo(TakeScreenshots.AFTER_EACH_STEP) >= 0;
+            }
+            return true;
+        }
+
+        /**
+         * Once half of the budget is spent, each step only gets one optional screenshot.
+         */
+        public boolean allowsSeveralScreenshotsPerStep() {
+            return usedFraction() < AFTER_EACH_STEP_THRESHOLD;
+        }
+
+        public void recordScreenshot(final File screenshot) {
+            if (isLimited() && (screenshot != null)) {
+                testUsage.record(screenshot);
+                runUsage.record(screenshot);
+            }
+        }
+
+        public int getScreenshotCount() {
+            return testUsage.getScreenshotCount();
+        }
+
+        private double usedFraction() {
+            return Math.max(testLimits.usedFraction(testUsage), runLimits.usedFraction(runUsage));
+        }
+    }
+
+    private static class Limits {
+        private final int maxScreenshots;
+        private final long maxBytes;
+
+        private Limits(final int maxScreenshots, final long maxBytes) {
+            this.maxScreenshots = maxScreenshots;
+            this.maxBytes = maxBytes;
+        }
+
+        boolean areDefined() {
+            return (maxScreenshots > 0) || (maxBytes > 0);
+        }
+
+        double usedFraction(final Usage usage) {
+            double usedFraction = 0.0;
+            if (maxScreenshots > 0) {
+                usedFraction = (double) usage.getScreenshotCount() / maxScreenshots;
+            }
+            if (maxBytes > 0) {
+                usedFraction = Math.max(usedFraction, (double) usage.getByteCount() / maxBytes);
+            }
+            return usedFraction;
+        }
+    }
+
+    /**
+     * Screenshots are saved in the background, so their size is only known some time after they are taken.
+     * Until then, they are assumed to be of the average size of the screenshots already saved.
+     */
+    private static class Usage {
+        private final AtomicInteger screenshotCount = new AtomicInteger();
+        private final AtomicInteger savedScreenshotCount = new AtomicInteger();
+        private final AtomicLong savedBytes = new AtomicLong();
+        private final Queue<File> unsavedScreenshots = new ConcurrentLinkedQueue<File>();
+
+        void record(final File screenshot) {
+            screenshotCount.incrementAndGet();
+            unsavedScreenshots.add(screenshot);
+        }
+
+        int getScreenshotCount() {
+            return screenshotCount.get();
+        }
+
+        long getByteCount() {
+            recordSavedScreenshots();
+            int savedCount = savedScreenshotCount.get();
+            long bytes = savedBytes.get();
+            if (savedCount == 0) {
+                return bytes;
+            }
+            long unsavedCount = screenshotCount.get() - savedCount;
+            return bytes + unsavedCount * (bytes / savedCount);
+        }
+
+        private void recordSavedScreenshots() {
+            Iterator<File> screenshots = unsavedScreenshots.iterator();
+            while (screenshots.hasNext()) {
+                File screenshot = screenshots.next();
+                if (screenshot.exists() && unsavedScreenshots.remove(screenshot)) {
+                    savedBytes.addAndGet(screenshot.length());
+                    savedScreenshotCount.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package net.thucydides.core.screenshots;
+
+import net.thucydides.core.images.ImageEncoder;
+import net.thucydides.core.images.ImageEncoders;
+import org.apache.commons.io.FilenameUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Generates smaller versions of each screenshot for the HTML reports:
+ * a thumbnail for the test step tables, and a preview that fits the screenshot slider.
+ * Derivatives are stored next to the screenshot, and are only generated once per screenshot.
+ * Previews are only generated for screenshots wider than the slider; narrower screenshots are displayed as they are.
+ */
+public class ScreenshotDerivatives {
+
+    public static final int THUMBNAIL_WIDTH = 96;
+    public static final int PREVIEW_WIDTH = 1000;
+
+    private static final String THUMBNAIL_PREFIX = "thumbnail_";
+    private static final String PREVIEW_PREFIX = "preview_";
+
+    private final ImageEncoder thumbnailEncoder;
+    private final ImageEncoder previewEncoder;
+
+    public ScreenshotDerivatives(final ImageEncoders imageEncoders) {
+        this.thumbnailEncoder = imageEncoders.forThumbnails();
+        this.previewEncoder = imageEncoders.forScreenshots();
+    }
+
+    public void generateFor(final File screenshotFile) throws IOException {
+        if (!thumbnailOf(screenshotFile).exists()) {
+            BufferedImage screenshot = ImageIO.read(screenshotFile);
+            if (screenshot != null) {
+                generateFor(screenshot, screenshotFile);
+            }
+        }
+    }
+
+    /**
+     * Generate the derivatives of a screenshot that is already in memory, to avoid reading it back from disk.
+     * The thumbnail is written last, so a screenshot with a thumbnail has all of its derivatives.
+     */
+    public void generateFor(final BufferedImage screenshot, final File screenshotFile) throws IOException {
+        File preview = previewOf(screenshotFile);
+        if ((screenshot.getWidth() > PREVIEW_WIDTH) && !preview.exists()) {
+            previewEncoder.write(scaledToWidth(screenshot, PREVIEW_WIDTH), preview);
+        }
+        File thumbnail = thumbnailOf(screenshotFile);
+        if (!thumbnail.exists()) {
+            thumbnailEncoder.write(scaledToWidth(screenshot, THUMBNAIL_WIDTH), thumbnail);
+        }
+    }
+
+    public File thumbnailOf(final File screenshotFile) {
+        return new File(screenshotFile.getParentFile(), thumbnailNameFor(screenshotFile.getName()));
+    }
+
+    public File previewOf(final File screenshotFile) {
+        return new File(screenshotFile.getParentFile(), previewNameFor(screenshotFile.getName()));
+    }
+
+    private String thumbnailNameFor(final String screenshotName) {
+        return THUMBNAIL_PREFIX + FilenameUtils.getBaseName(screenshotName) + "." + thumbnailEncoder.getFileExtension();
+    }
+
+    private String previewNameFor(final String screenshotName) {
+        return PREVIEW_PREFIX + FilenameUtils.getBaseName(screenshotName) + "." + previewEncoder.getFileExtension();
+    }
+
+    /**
+     * The derivatives of the screenshots stored in a given directory, for use in the report templates.
+     * Where a derivative has not been generated, the original screenshot is used instead.
+     */
+    public InDirectory inDirectory(final File directory) {
+        return new InDirectory(directory);
+    }
+
+    public class InDirectory {
+        private final File directory;
+
+        private InDirectory(final File directory) {
+            this.directory = directory;
+        }
+
+        public String thumbnailFor(final String screenshotName) {
+            return existingFileOrOriginal(thumbnailNameFor(screenshotName), screenshotName);
+        }
+
+        public String previewFor(final String screenshotName) {
+            return existingFileOrOriginal(previewNameFor(screenshotName), screenshotName);
+        }
+
+        public boolean hasPreview(final String screenshotName) {
+            return new File(directory, previewNameFor(screenshotName)).exists();
+        }
+
+        private String existingFileOrOriginal(final String derivativeName, final String screenshotName) {
+            return new File(directory, derivativeName).exists() ? derivativeName : screenshotName;
+        }
+    }
+
+    /**
+     * Large reductions are done in several halving steps, which keeps text legible without the cost of
+     * area-averaging the whole image.
+     */
+    private BufferedImage scaledToWidth(final BufferedImage image, final int targetWidth) {
+        if (image.getWidth() <= targetWidth) {
+            return image;
+        }
+        int targetHeight = Math.max(1, (int) ((long) image.getHeight() * targetWidth / image.getWidth()));
+        BufferedImage scaledImage = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(width / 2, targetWidth);
+            height = Math.max(height / 2, targetHeight);
+            scaledImage = resize(scaledImage, width, height);
+        } while (width > targetWidth);
+        return scaledImage;
+    }
+
+    private BufferedImage resize(final BufferedImage image, final int width, final int height) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage resizedImage = new BufferedImage(width, height, type);
+        Graphics2D g = resizedImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return resizedImage;
+    }
+}
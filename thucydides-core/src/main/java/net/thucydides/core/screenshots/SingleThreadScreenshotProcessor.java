@@ -3,6 +3,9 @@ package net.thucydides.core.screenshots;
 import com.google.common.io.Files;
 import com.google.inject.Inject;
 import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.images.ImageEncoder;
+import net.thucydides.core.images.ImageEncoders;
+import net.thucydides.core.images.SimpleImageInfo;
 import net.thucydides.core.util.EnvironmentVariables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -20,12 +24,20 @@ public class SingleThreadScreenshotProcessor implements ScreenshotProcessor {
     final Queue<QueuedScreenshot> queue;
 
     private final EnvironmentVariables environmentVariables;
+    private final ImageEncoder imageEncoder;
+    private final ScreenshotDerivatives screenshotDerivatives;
 
     private final Logger logger = LoggerFactory.getLogger(SingleThreadScreenshotProcessor.class);
 
-    @Inject
     public SingleThreadScreenshotProcessor(EnvironmentVariables environmentVariables) {
+        this(environmentVariables, new ImageEncoders(environmentVariables));
+    }
+
+    @Inject
+    public SingleThreadScreenshotProcessor(EnvironmentVariables environmentVariables, ImageEncoders imageEncoders) {
         this.environmentVariables = environmentVariables;
+        this.imageEncoder = imageEncoders.forScreenshots();
+        this.screenshotDerivatives = new ScreenshotDerivatives(imageEncoders);
         this.queue = new ConcurrentLinkedQueue<QueuedScreenshot>();
         start();
     }
@@ -72,11 +84,16 @@ public class SingleThreadScreenshotProcessor implements ScreenshotProcessor {
             }
         }
 
+        /**
+         * Screenshots are only removed from the queue once they have been processed,
+         * so that waitUntilDone() also waits for the screenshot currently being processed.
+         */
         private void saveQueuedScreenshot() {
             while (!queue.isEmpty()) {
-                QueuedScreenshot queuedScreenshot = queue.poll();
+                QueuedScreenshot queuedScreenshot = queue.peek();
                 if (queuedScreenshot != null) {
                     processScreenshot(queuedScreenshot);
+                    queue.poll();
                 }
             }
         }
@@ -86,6 +103,30 @@ public class SingleThreadScreenshotProcessor implements ScreenshotProcessor {
                 resizeScreenshot(queuedScreenshot);
             } else {
                 moveScreenshot(queuedScreenshot);
+                recordDimensionsOfSavedScreenshot(queuedScreenshot);
+                if (shouldGenerateThumbnails()) {
+                    generateDerivativesFor(queuedScreenshot);
+                }
+            }
+        }
+
+        private boolean shouldGenerateThumbnails() {
+            return environmentVariables.getPropertyAsBoolean(ThucydidesSystemProperty.SCREENSHOT_THUMBNAILS, false);
+        }
+
+        private void generateDerivativesFor(QueuedScreenshot queuedScreenshot) {
+            try {
+                screenshotDerivatives.generateFor(queuedScreenshot.getDestinationFile());
+            } catch (Throwable e) {
+                logger.warn("Failed to generate screenshot thumbnails: " + e.getMessage());
+            }
+        }
+
+        private void generateDerivativesFor(BufferedImage screenshot, QueuedScreenshot queuedScreenshot) {
+            try {
+                screenshotDerivatives.generateFor(screenshot, queuedScreenshot.getDestinationFile());
+            } catch (Throwable e) {
+                logger.warn("Failed to generate screenshot thumbnails: " + e.getMessage());
             }
         }
 
@@ -132,11 +173,38 @@ public class SingleThreadScreenshotProcessor implements ScreenshotProcessor {
                 int targetHeight = (int) (((double) targetWidth / (double) width) * (double) height);
 
                 BufferedImage resizedImage = resize(image, targetWidth, targetHeight);
-                ImageIO.write(resizedImage, "png", queuedScreenshot.getDestinationFile());
+                imageEncoder.write(resizedImage, queuedScreenshot.getDestinationFile());
                 queuedScreenshot.getSourceFile().delete();
+                recordDimensions(queuedScreenshot, targetWidth, targetHeight);
+                if (shouldGenerateThumbnails()) {
+                    generateDerivativesFor(resizedImage, queuedScreenshot);
+                }
             } catch (Throwable e) {
                 logger.warn("Failed to resize screenshot: using original size " + e.getMessage());
                 moveScreenshot(queuedScreenshot);
+                recordDimensionsOfSavedScreenshot(queuedScreenshot);
+            }
+        }
+
+        /**
+         * Only the header of the saved image file is read.
+         */
+        private void recordDimensionsOfSavedScreenshot(QueuedScreenshot queuedScreenshot) {
+            File savedScreenshot = queuedScreenshot.getDestinationFile();
+            if (queuedScreenshot.getScreenshotAndHtmlSource().isPresent() && savedScreenshot.isFile()) {
+                try {
+                    SimpleImageInfo imageInfo = new SimpleImageInfo(savedScreenshot);
+                    recordDimensions(queuedScreenshot, imageInfo.getWidth(), imageInfo.getHeight());
+                } catch (IOException e) {
+                    logger.warn("Failed to read the dimensions of the screenshot " + savedScreenshot + ": " + e.getMessage());
+                }
+            }
+        }
+
+        private void recordDimensions(QueuedScreenshot queuedScreenshot, int width, int height) {
+            if (queuedScreenshot.getScreenshotAndHtmlSource().isPresent()) {
+                queuedScreenshot.getScreenshotAndHtmlSource().get()
+                                .recordDimensions(width, height, queuedScreenshot.getDestinationFile().length());
             }
         }
 
@@ -8,7 +8,10 @@ import net.thucydides.core.statistics.model.TestRun;
 import net.thucydides.core.statistics.model.TestRunTag;
 import net.thucydides.core.statistics.model.TestStatistics;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public class HibernateTestStatisticsProvider implements TestStatisticsProvider {
 
@@ -27,6 +30,11 @@ public class HibernateTestStatisticsProvider implements TestStatisticsProvider {
         return null;
     }
 
+    @Override
+    public List<TestRun> testRunsForTests(Collection<String> titles) {
+        return testOutcomeHistoryDAO.findTestRunsByTitles(titles);
+    }
+
     @Override
     public List<TestRun> getAllTestHistories() {
         return testOutcomeHistoryDAO.findAll();
@@ -83,4 +91,9 @@ public class HibernateTestStatisticsProvider implements TestStatisticsProvider {
     public List<String> findAllTagTypes() {
         return testOutcomeHistoryDAO.findAllTagTypes();
     }
+
+    @Override
+    public Map<String, Long> getEstimatedTestCaseDurations(Date recordedBefore) {
+        return testOutcomeHistoryDAO.findEstimatedTestCaseDurations(recordedBefore);
+    }
 }
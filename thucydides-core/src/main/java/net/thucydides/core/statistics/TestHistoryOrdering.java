@@ -0,0 +1,215 @@
+package net.thucydides.core.statistics;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.guice.DatabaseConfig;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.statistics.model.TestRun;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders tests using their recorded history, so that the tests most likely to fail are run first.
+ * Tests that failed on their last run come first, followed by the least stable tests, and then by the quickest ones.
+ * Tests are kept in their original order when the history does not distinguish between them.
+ * The ordering is activated by setting the thucydides.test.ordering property to FAILURES_FIRST.
+ */
+public class TestHistoryOrdering {
+
+    public static final String FAILURES_FIRST = "FAILURES_FIRST";
+
+    private static final int RECENT_TEST_RUN_COUNT = 10;
+
+    private final Provider<TestStatisticsProvider> testStatisticsProvider;
+    private final Provider<DatabaseConfig> databaseConfig;
+    private final EnvironmentVariables environmentVariables;
+
+    private final Logger logger = LoggerFactory.getLogger(TestHistoryOrdering.class);
+
+    /**
+     * The statistics database is only opened if the ordering is activated.
+     */
+    @Inject
+    public TestHistoryOrdering(Provider<TestStatisticsProvider> testStatisticsProvider,
+                               Provider<DatabaseConfig> databaseConfig,
+                               EnvironmentVariables environmentVariables) {
+        this.testStatisticsProvider = testStatisticsProvider;
+        this.databaseConfig = databaseConfig;
+        this.environmentVariables = environmentVariables;
+    }
+
+    public boolean isActive() {
+        String ordering = ThucydidesSystemProperty.TEST_ORDERING.from(environmentVariables, "");
+        return FAILURES_FIRST.equalsIgnoreCase(ordering) && databaseConfig.get().isActive();
+    }
+
+    /**
+     * Return the tests in the order in which they should be run.
+     * If the ordering is not active, or if the test history cannot be read, the tests are returned in their original order.
+     *
+     * @param tests the tests to be ordered
+     * @param toTitle obtains the title under which the test history of a test was recorded
+     */
+    public <T> List<T> inExecutionOrder(final List<T> tests, final Function<T, String> toTitle) {
+        return groupsInExecutionOrder(tests, new Function<T, Collection<String>>() {
+            public Collection<String> apply(T test) {
+                return ImmutableSet.of(toTitle.apply(test));
+            }
+        });
+    }
+
+    /**
+     * Return groups of tests, such as test classes, in the order in which they should be run.
+     * Each group is ranked by the test in it that should be run first.
+     *
+     * @param groups the groups of tests to be ordered
+     * @param toTitles obtains the titles under which the test history of the tests in a group were recorded
+     */
+    public <T> List<T> groupsInExecutionOrder(final List<T> groups, final Function<T, ? extends Collection<String>> toTitles) {
+        try {
+            if (!isActive()) {
+                return groups;
+            }
+            return failuresFirst(groups, toTitles);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the test history - tests will be run in their default order", e);
+            return groups;
+        }
+    }
+
+    private <T> List<T> failuresFirst(List<T> tests, Function<T, ? extends Collection<String>> toTitles) {
+        Map<T, Collection<String>> titles = Maps.newHashMap();
+        List<String> allTitles = Lists.newArrayList();
+        for (T test : tests) {
+            Collection<String> testTitles = toTitles.apply(test);
+            titles.put(test, testTitles);
+            allTitles.addAll(testTitles);
+        }
+        ListMultimap<String, TestRun> testRunsByTitle = testRunsByTitle(allTitles);
+
+        List<PrioritizedTest<T>> prioritizedTests = Lists.newArrayList();
+        for (T test : tests) {
+            prioritizedTests.add(new PrioritizedTest<T>(test, highestPriorityOf(titles.get(test), testRunsByTitle)));
+        }
+        Collections.sort(prioritizedTests);
+
+        List<T> orderedTests = Lists.newArrayList();
+        for (PrioritizedTest<T> prioritizedTest : prioritizedTests) {
+            orderedTests.add(prioritizedTest.getTest());
+        }
+        return orderedTests;
+    }
+
+    /**
+     * The history of all the tests is read in a single query, most recent test runs first.
+     */
+    private ListMultimap<String, TestRun> testRunsByTitle(Collection<String> titles) {
+        ListMultimap<String, TestRun> testRunsByTitle = ArrayListMultimap.create();
+        List<TestRun> testRuns = testStatisticsProvider.get().testRunsForTests(ImmutableSet.copyOf(titles));
+        if (testRuns != null) {
+            for (TestRun testRun : testRuns) {
+                testRunsByTitle.put(testRun.getTitle(), testRun);
+            }
+        }
+        return testRunsByTitle;
+    }
+
+    private TestPriority highestPriorityOf(Collection<String> titles, ListMultimap<String, TestRun> testRunsByTitle) {
+        TestPriority highestPriority = null;
+        for (String title : titles) {
+            TestPriority priority = priorityOf(testRunsByTitle.get(title));
+            if ((highestPriority == null) || (priority.compareTo(highestPriority) < 0)) {
+                highestPriority = priority;
+            }
+        }
+        return (highestPriority == null) ? TestPriority.NO_HISTORY : highestPriority;
+    }
+
+    protected TestPriority priorityOf(List<TestRun> mostRecentTestRunsFirst) {
+        if (mostRecentTestRunsFirst.isEmpty()) {
+            return TestPriority.NO_HISTORY;
+        }
+        boolean failedLastTime = failed(mostRecentTestRunsFirst.get(0));
+        return new TestPriority(failedLastTime, recentStabilityOf(mostRecentTestRunsFirst), averageDurationOf(mostRecentTestRunsFirst));
+    }
+
+    private boolean failed(TestRun testRun) {
+        return (testRun.getResult() == TestResult.FAILURE) || (testRun.getResult() == TestResult.ERROR);
+    }
+
+    private double recentStabilityOf(List<TestRun> mostRecentTestRunsFirst) {
+        List<TestRun> recentTestRuns = mostRecentTestRunsFirst.subList(0, Math.min(RECENT_TEST_RUN_COUNT,
+                                                                                   mostRecentTestRunsFirst.size()));
+        int successfulTestRuns = 0;
+        for (TestRun testRun : recentTestRuns) {
+            if (testRun.getResult() == TestResult.SUCCESS) {
+                successfulTestRuns++;
+            }
+        }
+        return (successfulTestRuns * 1.0) / recentTestRuns.size();
+    }
+
+    private long averageDurationOf(List<TestRun> testRuns) {
+        long totalDuration = 0;
+        for (TestRun testRun : testRuns) {
+            totalDuration += testRun.getDuration();
+        }
+        return totalDuration / testRuns.size();
+    }
+
+    protected static class TestPriority implements Comparable<TestPriority> {
+
+        static final TestPriority NO_HISTORY = new TestPriority(false, 1.0, 0);
+
+        private final boolean failedLastTime;
+        private final double recentStability;
+        private final long averageDuration;
+
+        TestPriority(boolean failedLastTime, double recentStability, long averageDuration) {
+            this.failedLastTime = failedLastTime;
+            this.recentStability = recentStability;
+            this.averageDuration = averageDuration;
+        }
+
+        public int compareTo(TestPriority other) {
+            if (failedLastTime != other.failedLastTime) {
+                return failedLastTime ? -1 : 1;
+            }
+            if (recentStability != other.recentStability) {
+                return Double.compare(recentStability, other.recentStability);
+            }
+            return (averageDuration < other.averageDuration) ? -1 : ((averageDuration == other.averageDuration) ? 0 : 1);
+        }
+    }
+
+    private static class PrioritizedTest<T> implements Comparable<PrioritizedTest<T>> {
+        private final T test;
+        private final TestPriority priority;
+
+        private PrioritizedTest(T test, TestPriority priority) {
+            this.test = test;
+            this.priority = priority;
+        }
+
+        public T getTest() {
+            return test;
+        }
+
+        public int compareTo(PrioritizedTest<T> other) {
+            return priority.compareTo(other.priority);
+        }
+    }
+}
@@ -4,7 +4,10 @@ import net.thucydides.core.statistics.model.TestRun;
 import net.thucydides.core.statistics.model.TestRunTag;
 import net.thucydides.core.statistics.model.TestStatistics;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A description goes here.
@@ -22,4 +25,15 @@ public interface TestStatisticsProvider {
     List<TestRunTag> findAllTags();
 
     List<String> findAllTagTypes();
+
+    /**
+     * The recorded runs of all the tests with the given titles, most recent first, read in a single query.
+     */
+    List<TestRun> testRunsForTests(Collection<String> titles);
+
+    /**
+     * The estimated execution time of each recorded test class, in milliseconds, indexed by class name,
+     * using only the test runs recorded before a given date.
+     */
+    Map<String, Long> getEstimatedTestCaseDurations(Date recordedBefore);
 }
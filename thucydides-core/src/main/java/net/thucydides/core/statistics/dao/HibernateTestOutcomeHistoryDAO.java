@@ -4,6 +4,7 @@ import ch.lambdaj.function.convert.Converter;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 import net.thucydides.core.Thucydides;
 import net.thucydides.core.ThucydidesSystemProperty;
@@ -21,8 +22,11 @@ import org.slf4j.LoggerFactory;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import static ch.lambdaj.Lambda.convert;
 
@@ -30,6 +34,8 @@ public class HibernateTestOutcomeHistoryDAO implements TestOutcomeHistoryDAO {
 
     private static final String FIND_ALL_TEST_HISTORIES = "select t from TestRun t where t.projectKey = :projectKey order by t.executionDate";
     private static final String FIND_BY_NAME = "select t from TestRun t where t.title = :title and t.projectKey = :projectKey";
+    private static final String FIND_BY_NAMES
+            = "select t from TestRun t where t.title in (:titles) and t.projectKey = :projectKey order by t.executionDate desc";
     private static final String FIND_TAG_BY_NAME_IGNORING_CASE = "select t from TestRunTag t where lower(t.name) = :name and t.type = :type and t.projectKey = :projectKey";
     private static final String FIND_ALL_TAGS = "select t from TestRunTag t where t.projectKey = :projectKey order by lower(t.name)";
     private static final String FIND_ALL_TAG_TYPES = "select distinct t.type from TestRunTag t where t.projectKey = :projectKey order by t.type";
@@ -114,6 +120,14 @@ public class HibernateTestOutcomeHistoryDAO implements TestOutcomeHistoryDAO {
             "and test.projectKey = :projectKey " +
             "order by test.executionDate desc";
 
+    private static final String SELECT_TEST_CASE_DURATIONS
+            = "select test.testCaseName, avg(test.duration), count(distinct test.title) from TestRun test " +
+            "where test.testCaseName is not null " +
+            "and test.projectKey = :projectKey " +
+            "and test.executionDate < :recordedBefore " +
+            "group by test.testCaseName " +
+            "order by test.testCaseName";
+
     protected EntityManagerFactory entityManagerFactory;
 
     private final SystemClock clock;
@@ -161,6 +175,21 @@ public class HibernateTestOutcomeHistoryDAO implements TestOutcomeHistoryDAO {
     }
 
 
+    public List<TestRun> findTestRunsByTitles(Collection<String> titles) {
+        if (titles.isEmpty()) {
+            return Collections.emptyList();
+        }
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return (List<TestRun>) entityManager.createQuery(FIND_BY_NAMES)
+                    .setParameter("projectKey", getProjectKey())
+                    .setParameter("titles", titles)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
     public void storeTestOutcomes(List<TestOutcome> testOutcomes) {
         EntityManager entityManager = entityManagerFactory.createEntityManager();
         entityManager.getTransaction().begin();
@@ -298,6 +327,32 @@ public class HibernateTestOutcomeHistoryDAO implements TestOutcomeHistoryDAO {
     }
 
 
+    /**
+     * Estimate how long each test class takes to run, based on the recorded history.
+     * The estimate is the average duration of a test in the class, multiplied by the number of distinct tests
+     * recorded for that class. Only the tests recorded before the given date are used, so that the estimates
+     * do not change while the tests are running.
+     */
+    public Map<String, Long> findEstimatedTestCaseDurations(final Date recordedBefore) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Object[]> rows = entityManager.createQuery(SELECT_TEST_CASE_DURATIONS)
+                    .setParameter("projectKey", getProjectKey())
+                    .setParameter("recordedBefore", recordedBefore)
+                    .getResultList();
+            Map<String, Long> durations = Maps.newHashMap();
+            for (Object[] row : rows) {
+                String testCaseName = (String) row[0];
+                double averageDuration = ((Number) row[1]).doubleValue();
+                long testCount = ((Number) row[2]).longValue();
+                durations.put(testCaseName, Math.round(averageDuration * testCount));
+            }
+            return durations;
+        } finally {
+            entityManager.close();
+        }
+    }
+
     public void deleteAll() {
         EntityManager entityManager = entityManagerFactory.createEntityManager();
         try {
@@ -5,13 +5,18 @@ import net.thucydides.core.model.TestResult;
 import net.thucydides.core.statistics.model.TestRun;
 import net.thucydides.core.statistics.model.TestRunTag;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public interface TestOutcomeHistoryDAO {
     List<TestRun> findAll();
 
     List<TestRun> findTestRunsByTitle(String title);
 
+    List<TestRun> findTestRunsByTitles(Collection<String> titles);
+
     void storeTestOutcomes(List<TestOutcome> testOutcomes);
 
     void storeTestOutcome(TestOutcome testOutcome);
@@ -46,5 +51,7 @@ public interface TestOutcomeHistoryDAO {
 
     List<TestRunTag> findTagsMatching(TestRunTag tag);
 
+    Map<String, Long> findEstimatedTestCaseDurations(Date recordedBefore);
+
     void deleteAll();
 }
@@ -25,6 +25,7 @@ public class TestRun {
     private Long id;
 
     private String title;
+    private String testCaseName;
     private String projectKey;
     private TestResult result;
     private Date executionDate;
@@ -41,7 +42,12 @@ public class TestRun {
     public TestRun() {}
 
     protected TestRun(String title, String projectKey, TestResult result, long duration, Date executionDate) {
+        this(title, null, projectKey, result, duration, executionDate);
+    }
+
+    protected TestRun(String title, String testCaseName, String projectKey, TestResult result, long duration, Date executionDate) {
         this.title = title;
+        this.testCaseName = testCaseName;
         this.projectKey = projectKey;
         this.result = result;
         this.executionDate = executionDate;
@@ -52,6 +58,13 @@ public class TestRun {
         return title;
     }
 
+    /**
+     * The fully-qualified name of the test class that produced this test run, if known.
+     */
+    public String getTestCaseName() {
+        return testCaseName;
+    }
+
     public String getProjectKey() {
         return projectKey;
     }
@@ -73,14 +86,18 @@ public class TestRun {
     }
 
     public static TestRun from(final TestOutcome result) {
-        return new TestRun(result.getTitle(), null, result.getResult(), result.getDuration(), null);
+        return new TestRun(result.getTitle(), testCaseNameOf(result), null, result.getResult(), result.getDuration(), null);
+    }
+
+    private static String testCaseNameOf(final TestOutcome result) {
+        return (result.getTestCase() == null) ? null : result.getTestCase().getName();
     }
 
     public TestRun inProject(final String projectKey) {
-        return new TestRun(getTitle(), projectKey, getResult(), getDuration(), getExecutionDate());
+        return new TestRun(getTitle(), getTestCaseName(), projectKey, getResult(), getDuration(), getExecutionDate());
     }
 
     public TestRun at(final Date executionDate) {
-        return new TestRun(getTitle(), getProjectKey(), getResult(), getDuration(), executionDate);
+        return new TestRun(getTitle(), getTestCaseName(), getProjectKey(), getResult(), getDuration(), executionDate);
     }
 }
@@ -1,6 +1,6 @@
 package net.thucydides.core.statistics.service;
 
-import com.google.common.collect.Sets;
+import com.google.common.collect.ImmutableSet;
 import net.thucydides.core.annotations.TestAnnotations;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestTag;
@@ -8,6 +8,8 @@ import net.thucydides.core.model.TestTag;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Returns test tags based on the @WithTag, @WithTags and @WithTagValuesOf.
@@ -16,6 +18,12 @@ import java.util.Set;
  */
 public class AnnotationBasedTagProvider implements TagProvider {
 
+    /**
+     * Tags read from the annotations of each test method, indexed by test class and then by method name.
+     */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<String, Set<TestTag>>> annotatedTags
+            = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, Set<TestTag>>>();
+
     public AnnotationBasedTagProvider() {
     }
 
@@ -23,8 +31,27 @@ public class AnnotationBasedTagProvider implements TagProvider {
         if (testOutcome.getTestCase() == null) {
             return Collections.emptySet();
         }
-        List<TestTag> tags = TestAnnotations.forClass(testOutcome.getTestCase()).getTagsForMethod(testOutcome.getMethodName());
+        return annotatedTagsFor(testOutcome.getTestCase(), testOutcome.getMethodName());
+    }
+
+    private Set<TestTag> annotatedTagsFor(Class<?> testCase, String methodName) {
+        ConcurrentMap<String, Set<TestTag>> tagsForTestCase = tagsForTestCase(testCase);
+        String methodKey = (methodName == null) ? "" : methodName;
+        Set<TestTag> tags = tagsForTestCase.get(methodKey);
+        if (tags == null) {
+            List<TestTag> tagsFromAnnotations = TestAnnotations.forClass(testCase).getTagsForMethod(methodName);
+            tags = ImmutableSet.copyOf(tagsFromAnnotations);
+            tagsForTestCase.putIfAbsent(methodKey, tags);
+        }
+        return tags;
+    }
 
-        return Sets.newHashSet(tags);
+    private ConcurrentMap<String, Set<TestTag>> tagsForTestCase(Class<?> testCase) {
+        ConcurrentMap<String, Set<TestTag>> tagsForTestCase = annotatedTags.get(testCase);
+        if (tagsForTestCase == null) {
+            annotatedTags.putIfAbsent(testCase, new ConcurrentHashMap<String, Set<TestTag>>());
+            tagsForTestCase = annotatedTags.get(testCase);
+        }
+        return tagsForTestCase;
     }
 }
@@ -1,25 +1,44 @@
 package net.thucydides.core.statistics.service;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.google.inject.Inject;
-import net.thucydides.core.batches.SystemVariableBasedBatchManager;
-import net.thucydides.core.util.EnvironmentVariables;
+import com.google.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.ServiceLoader;
 
+/**
+ * Provides the tag providers declared on the classpath.
+ * The tag providers are only loaded once, and are then shared by every test outcome. This matters for
+ * providers such as the FileSystemRequirementsTagProvider, which only read the requirements tree once.
+ */
+@Singleton
 public class ClasspathTagProviderService implements TagProviderService {
 
     private final Logger logger = LoggerFactory.getLogger(ClasspathTagProviderService.class);
 
+    private volatile List<TagProvider> tagProviders;
+
     public ClasspathTagProviderService() {
     }
 
     @Override
     public List<TagProvider> getTagProviders() {
+        if (tagProviders == null) {
+            loadTagProviders();
+        }
+        return tagProviders;
+    }
+
+    private synchronized void loadTagProviders() {
+        if (tagProviders == null) {
+            tagProviders = ImmutableList.copyOf(tagProvidersOnTheClasspath());
+        }
+    }
+
+    private List<TagProvider> tagProvidersOnTheClasspath() {
         List<TagProvider> tagProviders = Lists.newArrayList();
 
         ServiceLoader<TagProvider> tagProviderServiceLoader = ServiceLoader.load(TagProvider.class);
@@ -7,6 +7,12 @@ import net.thucydides.core.statistics.model.TestRunTag;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * Provides the tags of test outcomes for the reports.
+ * Tag providers are normally called from a single thread. If parallel tagging is enabled with the
+ * thucydides.report.tagging.threads property, getTagsFor() is called from several threads at once,
+ * and implementations must be thread-safe.
+ */
 public interface TagProvider {
     /**
      * Returns the tags associated with a given test outcome.
@@ -6,6 +6,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.inject.Injector;
 import net.thucydides.core.PendingStepException;
+import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.annotations.TestAnnotations;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.DataTable;
@@ -20,6 +21,7 @@ import net.thucydides.core.model.TestTag;
 import net.thucydides.core.pages.Pages;
 import net.thucydides.core.pages.SystemClock;
 import net.thucydides.core.screenshots.Photographer;
+import net.thucydides.core.screenshots.ScreenshotBudget;
 import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
 import net.thucydides.core.screenshots.ScreenshotBlurCheck;
 import net.thucydides.core.screenshots.ScreenshotException;
@@ -40,6 +42,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.Callable;
 
 import static net.thucydides.core.model.Stories.findStoryFrom;
 import static net.thucydides.core.model.TestResult.FAILURE;
@@ -47,6 +50,7 @@ import static net.thucydides.core.model.TestResult.IGNORED;
 import static net.thucydides.core.model.TestResult.PENDING;
 import static net.thucydides.core.model.TestResult.SKIPPED;
 import static net.thucydides.core.model.TestResult.SUCCESS;
+import static net.thucydides.core.steps.BaseStepListener.ScreenshotType.FAILURE_SCREENSHOT;
 import static net.thucydides.core.steps.BaseStepListener.ScreenshotType.MANDATORY_SCREENSHOT;
 import static net.thucydides.core.steps.BaseStepListener.ScreenshotType.OPTIONAL_SCREENSHOT;
 import static net.thucydides.core.util.NameConverter.underscore;
@@ -81,6 +85,12 @@ public class BaseStepListener implements StepListener, StepPublisher {
     private final SystemClock clock;
 
     private ScreenshotPermission screenshots;
+
+    private final ScreenshotBudget screenshotBudget;
+
+    private ScreenshotBudget.ForTest currentTestScreenshotBudget;
+
+    private final PendingScreenshots pendingScreenshots = new PendingScreenshots();
     /**
      * The Java class (if any) containing the tests.
      */
@@ -121,6 +131,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
 
     protected enum ScreenshotType {
         OPTIONAL_SCREENSHOT,
+        FAILURE_SCREENSHOT,
         MANDATORY_SCREENSHOT
     }
 
@@ -141,6 +152,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
         this.clock = injector.getInstance(SystemClock.class);
         this.configuration = injector.getInstance(Configuration.class);
         this.screenshotProcessor = injector.getInstance(ScreenshotProcessor.class);
+        this.screenshotBudget = injector.getInstance(ScreenshotBudget.class);
     }
 
     /**
@@ -186,11 +198,23 @@ public class BaseStepListener implements StepListener, StepPublisher {
 
     protected ScreenshotPermission screenshots() {
         if (screenshots == null) {
-            screenshots = new ScreenshotPermission(configuration);
+            screenshots = new ScreenshotPermission(configuration, currentTestScreenshotBudget());
         }
         return screenshots;
     }
 
+    private ScreenshotBudget.ForTest currentTestScreenshotBudget() {
+        if (currentTestScreenshotBudget == null) {
+            currentTestScreenshotBudget = screenshotBudget.forNewTest();
+        }
+        return currentTestScreenshotBudget;
+    }
+
+    private void startNewScreenshotBudget() {
+        currentTestScreenshotBudget = screenshotBudget.forNewTest();
+        screenshots = null;
+    }
+
     private void createNewDriver() {
         setDriver(getProxyFactory().proxyDriver());
     }
@@ -255,6 +279,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
     }
 
     public void testSuiteFinished() {
+        waitForPendingScreenshots();
         screenshotProcessor.waitUntilDone();
         clearStorywideTagsAndIssues();
         suiteStarted = false;
@@ -268,6 +293,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
      */
     public void testStarted(final String testMethod) {
         testOutcomes.add(TestOutcome.forTestInStory(testMethod, testSuite, testedStory));
+        startNewScreenshotBudget();
         updateSessionIdIfKnown();
         setAnnotatedResult(testMethod);
     }
@@ -302,6 +328,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
      * @param outcome the result of the test that just finished.
      */
     public void testFinished(final TestOutcome outcome) {
+        attachPendingScreenshots();
         recordTestDuration();
         getCurrentTestOutcome().addIssues(storywideIssues);
         getCurrentTestOutcome().addTags(storywideTags);
@@ -321,12 +348,14 @@ public class BaseStepListener implements StepListener, StepPublisher {
      * @param description the description of the test that is about to be run
      */
     public void stepStarted(final ExecutedStepDescription description) {
+        pendingScreenshots.stepBoundaryReached();
         recordStep(description);
         takeInitialScreenshot();
         updateSessionIdIfKnown();
     }
 
     public void skippedStepStarted(final ExecutedStepDescription description) {
+        pendingScreenshots.stepBoundaryReached();
         recordStep(description);
     }
 
@@ -430,6 +459,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
     }
 
     public void stepFinished() {
+        pendingScreenshots.stepBoundaryReached();
         updateSessionIdIfKnown();
         takeEndOfStepScreenshotFor(SUCCESS);
         currentStepDone();
@@ -463,6 +493,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
     FailureAnalysis failureAnalysis = new FailureAnalysis();
 
     public void stepFailed(StepFailure failure) {
+        pendingScreenshots.stepBoundaryReached();
         takeEndOfStepScreenshotFor(FAILURE);
         getCurrentTestOutcome().setTestFailureCause(failure.getException());
         markCurrentStepAs(failureAnalysis.resultFor(failure));
@@ -471,6 +502,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
     }
 
     public void lastStepFailed(StepFailure failure) {
+        pendingScreenshots.stepBoundaryReached();
         takeEndOfStepScreenshotFor(FAILURE);
         getCurrentTestOutcome().lastStepFailedWith(failure);
     }
@@ -483,6 +515,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
     }
 
     public void stepIgnored() {
+        pendingScreenshots.stepBoundaryReached();
         if (aStepHasFailed()) {
             markCurrentStepAs(SKIPPED);
             currentStepDone();
@@ -493,6 +526,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
     }
 
     public void stepPending() {
+        pendingScreenshots.stepBoundaryReached();
         markCurrentStepAs(PENDING);
         currentStepDone();
     }
@@ -524,51 +558,125 @@ public class BaseStepListener implements StepListener, StepPublisher {
 
     private void takeEndOfStepScreenshotFor(final TestResult result) {
         if (shouldTakeEndOfStepScreenshotFor(result)) {
-            take(OPTIONAL_SCREENSHOT);
+            take((result == FAILURE) ? FAILURE_SCREENSHOT : OPTIONAL_SCREENSHOT);
         }
     }
 
     private void take(final ScreenshotType screenshotType) {
-        if (currentStepExists() && browserIsOpen()) {
-            try {
-                String stepDescription = getCurrentTestOutcome().getCurrentStep().getDescription();
-                String testName = getCurrentTestOutcome().getTitle();
-                Optional<ScreenshotAndHtmlSource> screenshotAndHtmlSource = grabScreenshotFor(testName + ":" + stepDescription);
-                if (screenshotAndHtmlSource.isPresent()) {
-                    takeScreenshotIfRequired(screenshotType, screenshotAndHtmlSource.get());
-                }
-                removeDuplicatedInitalScreenshotsIfPresent();
-            } catch (ScreenshotException e) {
-                LOGGER.warn("Failed to take screenshot", e);
+        if (currentStepExists() && browserIsOpen() && !skipToSaveScreenshotBudget(screenshotType)) {
+            if (shouldTakeAsynchronously(screenshotType)) {
+                requestScreenshot();
+            } else {
+                takeScreenshotNow(screenshotType);
             }
         }
     }
 
-    private void removeDuplicatedInitalScreenshotsIfPresent() {
-        if (currentStepHasMoreThanOneScreenshot() && getPreviousStep().isPresent() && getPreviousStep().get().hasScreenshots()) {
-            ScreenshotAndHtmlSource lastScreenshotOfPreviousStep = lastScreenshotOf(getPreviousStep().get());
-            ScreenshotAndHtmlSource firstScreenshotOfThisStep = getCurrentStep().getFirstScreenshot();
-            if (firstScreenshotOfThisStep.hasIdenticalScreenshotsAs(lastScreenshotOfPreviousStep)) {
-                removeFirstScreenshotOfCurrentStep();
+    private void takeScreenshotNow(final ScreenshotType screenshotType) {
+        attachPendingScreenshots();
+        try {
+            Optional<ScreenshotAndHtmlSource> screenshotAndHtmlSource = grabScreenshotFor(getPhotographer(), currentScreenshotName());
+            if (screenshotAndHtmlSource.isPresent()) {
+                attachScreenshot(screenshotType, getCurrentStep(), screenshotAndHtmlSource.get());
+            }
+            removeDuplicatedInitalScreenshotsIfPresent(getCurrentStep(), getPreviousStep());
+        } catch (ScreenshotException e) {
+            LOGGER.warn("Failed to take screenshot", e);
+        }
+    }
+
+    /**
+     * Ask the browser for a screenshot without waiting for it: the screenshot is attached to the current step
+     * when it arrives.
+     */
+    private void requestScreenshot() {
+        attachArrivedScreenshots();
+        final Photographer photographer = getPhotographer();
+        final String screenshotName = currentScreenshotName();
+        pendingScreenshots.request(getCurrentStep(), getPreviousStep(),
+                new Callable<Optional<ScreenshotAndHtmlSource>>() {
+                    public Optional<ScreenshotAndHtmlSource> call() {
+                        return grabScreenshotFor(photographer, screenshotName);
+                    }
+                });
+    }
+
+    private boolean shouldTakeAsynchronously(final ScreenshotType screenshotType) {
+        return (screenshotType == OPTIONAL_SCREENSHOT)
+                && configuration.getEnvironmentVariables().getPropertyAsBoolean(ThucydidesSystemProperty.THUCYDIDES_ASYNCHRONOUS_SCREENSHOTS, false);
+    }
+
+    private void attachArrivedScreenshots() {
+        attach(pendingScreenshots.takeArrivedScreenshots());
+    }
+
+    private void attachPendingScreenshots() {
+        if (!pendingScreenshots.isEmpty()) {
+            attach(pendingScreenshots.takeAllScreenshots());
+        }
+    }
+
+    /**
+     * Screenshots requested in the background still need the browser, so this must be called before the drivers are closed.
+     */
+    public void waitForPendingScreenshots() {
+        attachPendingScreenshots();
+        pendingScreenshots.shutdown();
+    }
+
+    private void attach(final List<PendingScreenshots.PendingScreenshot> screenshots) {
+        for (PendingScreenshots.PendingScreenshot pendingScreenshot : screenshots) {
+            Optional<ScreenshotAndHtmlSource> screenshotAndHtmlSource = pendingScreenshot.getScreenshot();
+            if (screenshotAndHtmlSource.isPresent()) {
+                attachScreenshot(OPTIONAL_SCREENSHOT, pendingScreenshot.getStep(), screenshotAndHtmlSource.get());
             }
+            removeDuplicatedInitalScreenshotsIfPresent(pendingScreenshot.getStep(), pendingScreenshot.getPreviousStep());
         }
     }
 
-    private void removeFirstScreenshotOfCurrentStep() {
-        getCurrentStep().removeScreenshot(0);
+    private void attachScreenshot(final ScreenshotType screenshotType,
+                                  final TestStep step,
+                                  final ScreenshotAndHtmlSource screenshotAndHtmlSource) {
+        currentTestScreenshotBudget().recordScreenshot(screenshotAndHtmlSource.getScreenshotFile());
+        takeScreenshotIfRequired(screenshotType, step, screenshotAndHtmlSource);
+    }
+
+    private String currentScreenshotName() {
+        String stepDescription = getCurrentTestOutcome().getCurrentStep().getDescription();
+        String testName = getCurrentTestOutcome().getTitle();
+        return testName + ":" + stepDescription;
+    }
+
+    /**
+     * When the screenshot budget is running low, optional screenshots are only taken for steps that have none yet.
+     */
+    private boolean skipToSaveScreenshotBudget(final ScreenshotType screenshotType) {
+        return (screenshotType == OPTIONAL_SCREENSHOT)
+                && !currentTestScreenshotBudget().allowsSeveralScreenshotsPerStep()
+                && getCurrentStep().hasScreenshots();
     }
 
-    private boolean currentStepHasMoreThanOneScreenshot() {
-        return getCurrentStep().getScreenshotCount() > 1;
+    private void removeDuplicatedInitalScreenshotsIfPresent(final TestStep step, final Optional<TestStep> previousStep) {
+        if (hasMoreThanOneScreenshot(step) && previousStep.isPresent() && previousStep.get().hasScreenshots()) {
+            ScreenshotAndHtmlSource lastScreenshotOfPreviousStep = lastScreenshotOf(previousStep.get());
+            ScreenshotAndHtmlSource firstScreenshotOfThisStep = step.getFirstScreenshot();
+            if (firstScreenshotOfThisStep.hasIdenticalScreenshotsAs(lastScreenshotOfPreviousStep)) {
+                step.removeScreenshot(0);
+            }
+        }
+    }
+
+    private boolean hasMoreThanOneScreenshot(final TestStep step) {
+        return step.getScreenshotCount() > 1;
     }
 
     private ScreenshotAndHtmlSource lastScreenshotOf(TestStep testStep) {
         return testStep.getScreenshots().get(testStep.getScreenshots().size() - 1);
     }
 
-    private void takeScreenshotIfRequired(ScreenshotType screenshotType, ScreenshotAndHtmlSource screenshotAndHtmlSource) {
-        if (shouldTakeScreenshot(screenshotType, screenshotAndHtmlSource) && screenshotWasTaken(screenshotAndHtmlSource)) {
-            getCurrentStep().addScreenshot(screenshotAndHtmlSource);
+    private void takeScreenshotIfRequired(ScreenshotType screenshotType, TestStep step, ScreenshotAndHtmlSource screenshotAndHtmlSource) {
+        if (shouldTakeScreenshot(screenshotType, step, screenshotAndHtmlSource) && screenshotWasTaken(screenshotAndHtmlSource)) {
+            step.addScreenshot(screenshotAndHtmlSource);
         }
     }
 
@@ -578,9 +686,10 @@ public class BaseStepListener implements StepListener, StepPublisher {
 
 
     private boolean shouldTakeScreenshot(ScreenshotType screenshotType,
+                                         TestStep step,
                                          ScreenshotAndHtmlSource screenshotAndHtmlSource) {
         return (screenshotType == MANDATORY_SCREENSHOT)
-                || getCurrentStep().getScreenshots().isEmpty()
+                || step.getScreenshots().isEmpty()
                 || shouldTakeOptionalScreenshot(screenshotAndHtmlSource);
     }
 
@@ -615,19 +724,10 @@ public class BaseStepListener implements StepListener, StepPublisher {
         }
     }
 
-    private Optional<ScreenshotAndHtmlSource> grabScreenshotFor(final String testName) {
+    private Optional<ScreenshotAndHtmlSource> grabScreenshotFor(final Photographer photographer, final String testName) {
         String snapshotName = underscore(testName);
 
-        Optional<File> screenshot = getPhotographer().takeScreenshot(snapshotName);
-        if (screenshot.isPresent()) {
-            if (shouldStoreSourcecode()) {
-                File sourcecode = getPhotographer().getMatchingSourceCodeFor(screenshot.get());
-                return Optional.of(new ScreenshotAndHtmlSource(screenshot.get(), sourcecode));
-            } else {
-                return Optional.of(new ScreenshotAndHtmlSource(screenshot.get()));
-            }
-        }
-        return Optional.absent();
+        return photographer.takeScreenshot(snapshotName, shouldStoreSourcecode());
     }
 
     private boolean shouldStoreSourcecode() {
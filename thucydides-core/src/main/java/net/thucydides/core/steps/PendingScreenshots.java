@@ -0,0 +1,218 @@
+package net.thucydides.core.steps;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Screenshots that have been requested but that may not have been returned by the browser yet.
+ * Screenshots are taken one at a time on a background thread, in the order in which they were requested.
+ * They are handed back to the test thread in the same order, so that the test steps are only updated
+ * from the test thread.
+ * <p/>
+ * The page may change as soon as a step starts or ends, so when the next step starts or ends, the test thread
+ * waits for the screenshots still being taken. This wait is bounded: a screenshot that the browser has not returned
+ * within MAXIMUM_WAIT_AT_STEP_BOUNDARY_IN_MILLISECONDS is dropped, with a warning, so that a step is never
+ * illustrated by a later state of the page.
+ */
+class PendingScreenshots {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PendingScreenshots.class);
+    private static final int SHUTDOWN_TIMEOUT_IN_SECONDS = 60;
+    private static final long MAXIMUM_WAIT_AT_STEP_BOUNDARY_IN_MILLISECONDS = 10000;
+
+    private final List<PendingScreenshot> pendingScreenshots = Lists.newArrayList();
+    private final AtomicLong stepBoundaries = new AtomicLong();
+    private final long maximumWaitAtStepBoundary;
+
+    private ExecutorService executorService;
+
+    PendingScreenshots() {
+        this(MAXIMUM_WAIT_AT_STEP_BOUNDARY_IN_MILLISECONDS);
+    }
+
+    PendingScreenshots(final long maximumWaitAtStepBoundary) {
+        this.maximumWaitAtStepBoundary = maximumWaitAtStepBoundary;
+    }
+
+    /**
+     * A screenshot for a given test step.
+     * The previous step is recorded when the screenshot is requested, as later steps may have started by the time
+     * the screenshot arrives.
+     */
+    static class PendingScreenshot {
+        private final TestStep step;
+        private final Optional<TestStep> previousStep;
+        private final Future<Optional<ScreenshotAndHtmlSource>> screenshot;
+
+        private PendingScreenshot(final TestStep step,
+                                  final Optional<TestStep> previousStep,
+                                  final Future<Optional<ScreenshotAndHtmlSource>> screenshot) {
+            this.step = step;
+            this.previousStep = previousStep;
+            this.screenshot = screenshot;
+        }
+
+        public TestStep getStep() {
+            return step;
+        }
+
+        public Optional<TestStep> getPreviousStep() {
+            return previousStep;
+        }
+
+        private boolean isDone() {
+            return screenshot.isDone();
+        }
+
+        private boolean waitUntil(final long deadline) {
+            try {
+                screenshot.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                // Reported when the screenshot is read
+            }
+            return true;
+        }
+
+        public Optional<ScreenshotAndHtmlSource> getScreenshot() {
+            try {
+                return screenshot.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting for a screenshot");
+            } catch (ExecutionException e) {
+                LOGGER.warn("Failed to take screenshot", e.getCause());
+            }
+            return Optional.absent();
+        }
+    }
+
+    public synchronized void request(final TestStep step,
+                                     final Optional<TestStep> previousStep,
+                                     final Callable<Optional<ScreenshotAndHtmlSource>> capture) {
+        Future<Optional<ScreenshotAndHtmlSource>> screenshot = getExecutorService().submit(beforeTheNextStepBoundary(capture));
+        pendingScreenshots.add(new PendingScreenshot(step, previousStep, screenshot));
+    }
+
+    /**
+     * Called from the test thread whenever a step starts or ends.
+     * Waits for the screenshots that have been requested but not returned yet, for a limited time.
+     */
+    public void stepBoundaryReached() {
+        waitForRequestedScreenshots();
+        stepBoundaries.incrementAndGet();
+    }
+
+    private void waitForRequestedScreenshots() {
+        List<PendingScreenshot> requestedScreenshots;
+        synchronized (this) {
+            requestedScreenshots = ImmutableList.copyOf(pendingScreenshots);
+        }
+        long deadline = System.currentTimeMillis() + maximumWaitAtStepBoundary;
+        for (PendingScreenshot screenshot : requestedScreenshots) {
+            if (!screenshot.waitUntil(deadline)) {
+                LOGGER.warn("The browser did not return a screenshot within " + maximumWaitAtStepBoundary
+                            + " ms of the end of its step: the screenshot will be dropped");
+                return;
+            }
+        }
+    }
+
+    private Callable<Optional<ScreenshotAndHtmlSource>> beforeTheNextStepBoundary(final Callable<Optional<ScreenshotAndHtmlSource>> capture) {
+        final long requestedAt = stepBoundaries.get();
+        return new Callable<Optional<ScreenshotAndHtmlSource>>() {
+            public Optional<ScreenshotAndHtmlSource> call() throws Exception {
+                if (stepBoundaries.get() != requestedAt) {
+                    return Optional.absent();
+                }
+                Optional<ScreenshotAndHtmlSource> screenshot = capture.call();
+                if (stepBoundaries.get() != requestedAt) {
+                    LOGGER.debug("Dropping a screenshot that was only taken after the end of its step");
+                    return Optional.absent();
+                }
+                return screenshot;
+            }
+        };
+    }
+
+    /**
+     * Remove the screenshots that have already arrived, stopping at the first one that is still pending.
+     */
+    public synchronized List<PendingScreenshot> takeArrivedScreenshots() {
+        List<PendingScreenshot> arrivedScreenshots = Lists.newArrayList();
+        Iterator<PendingScreenshot> screenshots = pendingScreenshots.iterator();
+        while (screenshots.hasNext()) {
+            PendingScreenshot screenshot = screenshots.next();
+            if (!screenshot.isDone()) {
+                break;
+            }
+            arrivedScreenshots.add(screenshot);
+            screenshots.remove();
+        }
+        return arrivedScreenshots;
+    }
+
+    /**
+     * Remove all of the pending screenshots. Callers will wait for them to arrive when they read them.
+     */
+    public synchronized List<PendingScreenshot> takeAllScreenshots() {
+        List<PendingScreenshot> allScreenshots = ImmutableList.copyOf(pendingScreenshots);
+        pendingScreenshots.clear();
+        return allScreenshots;
+    }
+
+    public synchronized boolean isEmpty() {
+        return pendingScreenshots.isEmpty();
+    }
+
+    /**
+     * Waits for the screenshot being taken, if any, as the browser may be closed straight afterwards.
+     */
+    public void shutdown() {
+        ExecutorService runningExecutorService;
+        synchronized (this) {
+            runningExecutorService = executorService;
+            executorService = null;
+        }
+        if (runningExecutorService != null) {
+            runningExecutorService.shutdown();
+            try {
+                if (!runningExecutorService.awaitTermination(SHUTDOWN_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Gave up waiting for the pending screenshots");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("screenshot-capture-%d")
+                                                                                          .setDaemon(true)
+                                                                                          .build());
+        }
+        return executorService;
+    }
+}
@@ -1,6 +1,6 @@
 package net.thucydides.core.steps;
 
-import net.thucydides.core.annotations.Fields;
+import net.thucydides.core.annotations.AnnotatedFields;
 import net.thucydides.core.annotations.InvalidStepsFieldException;
 import net.thucydides.core.annotations.Steps;
 import net.thucydides.core.reflection.FieldSetter;
@@ -40,35 +40,12 @@ public class StepsAnnotatedField {
     public static List<StepsAnnotatedField> findOptionalAnnotatedFields(final Class<?> clazz) {
 
         List<StepsAnnotatedField> annotatedFields = new ArrayList<StepsAnnotatedField>();
-        for (Field field : Fields.of(clazz).allFields()) {
-            if (fieldIsAnnotated(field)) {
-                annotatedFields.add( new StepsAnnotatedField(field));
-            }
+        for (Field field : AnnotatedFields.of(clazz).annotatedWith(Steps.class)) {
+            annotatedFields.add( new StepsAnnotatedField(field));
         }
         return annotatedFields;
     }
 
-    private static boolean fieldIsAnnotated(final Field aField) {
-        Steps fieldAnnotation = annotationFrom(aField);
-        return (fieldAnnotation != null);
-    }
-
-    private static Steps annotationFrom(final Field aField) {
-        Steps annotationOnField = null;
-        if (isFieldAnnotated(aField)) {
-            annotationOnField = aField.getAnnotation(Steps.class);
-        }
-        return annotationOnField;
-    }
-
-    private static boolean isFieldAnnotated(final Field field) {
-        return (fieldIsAnnotatedCorrectly(field));
-    }
-
-    private static boolean fieldIsAnnotatedCorrectly(final Field field) {
-        return (field.getAnnotation(Steps.class) != null);
-    }
-
     protected StepsAnnotatedField(final Field field) {
         this.field = field;
     }
@@ -1,7 +1,15 @@
 package net.thucydides.core.util;
 
+import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+import net.thucydides.core.ThucydidesSystemProperty;
+
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -12,11 +20,19 @@ import java.util.regex.Pattern;
  * href="http://www.rubyonrails.org">Ruby on Rails</a>, which is distributed under the <a
  * href="http://wiki.rubyonrails.org/rails/pages/License">Rails license</a>.
  *
+ * The same names are inflected over and over again when the reports are generated, so the results of each kind of
+ * inflection are kept in a bounded cache, whose size can be set with the thucydides.inflection.cache.size property.
+ *
  * @author Randall Hauch
  */
 public class Inflector {
 
-    protected static final Inflector INSTANCE = new Inflector();
+    /**
+     * The number of results of each kind of inflection that are kept for reuse, unless configured otherwise.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    protected static final Inflector INSTANCE = new Inflector(configuredCacheSize(new SystemEnvironmentVariables()));
 
     public static Inflector getInstance() {
         return INSTANCE;
@@ -65,10 +81,85 @@ public class Inflector {
      */
     private final Set<String> uncountables = new HashSet<String>();
 
+    private final Cache<String, String> pluralForms;
+    private final Cache<String, String> singularForms;
+    private final Cache<String, String> humanizedForms;
+    private final Cache<String, String> underscoredForms;
+    private final Cache<String, String> titleCaseForms;
+
     public Inflector() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public Inflector(int cacheSize) {
+        pluralForms = newCache(cacheSize);
+        singularForms = newCache(cacheSize);
+        humanizedForms = newCache(cacheSize);
+        underscoredForms = newCache(cacheSize);
+        titleCaseForms = newCache(cacheSize);
         initialize();
     }
 
+    protected static int configuredCacheSize(EnvironmentVariables environmentVariables) {
+        int cacheSize = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.INFLECTION_CACHE_SIZE.getPropertyName(),
+                                                                  DEFAULT_CACHE_SIZE);
+        return Math.max(cacheSize, 0);
+    }
+
+    private static Cache<String, String> newCache(int cacheSize) {
+        return CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats().build();
+    }
+
+    private String cached(Cache<String, String> cache, String key, Function<String, String> inflection) {
+        String result = cache.getIfPresent(key);
+        if (result == null) {
+            result = inflection.apply(key);
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private final Function<String, String> toPluralForm = new Function<String, String>() {
+        public String apply(String word) {
+            return applyRules(plurals, word);
+        }
+    };
+
+    private final Function<String, String> toSingularForm = new Function<String, String>() {
+        public String apply(String word) {
+            return applyRules(singulars, word);
+        }
+    };
+
+    private final Function<String, String> toHumanizedForm = new Function<String, String>() {
+        public String apply(String words) {
+            return humanizeWithoutCache(words);
+        }
+    };
+
+    private final Function<String, String> toUnderscoredForm = new Function<String, String>() {
+        public String apply(String camelCaseWord) {
+            return underscoreWithoutCache(camelCaseWord);
+        }
+    };
+
+    private final Function<String, String> toTitleCaseForm = new Function<String, String>() {
+        public String apply(String words) {
+            return titleCaseWithoutCache(words);
+        }
+    };
+
+    /**
+     * How often each kind of inflection was found in the cache, by inflection name.
+     */
+    public Map<String, CacheStats> getCacheStatistics() {
+        return ImmutableMap.of("pluralize", pluralForms.stats(),
+                               "singularize", singularForms.stats(),
+                               "humanize", humanizedForms.stats(),
+                               "underscore", underscoredForms.stats(),
+                               "titleCase", titleCaseForms.stats());
+    }
+
     // ------------------------------------------------------------------------------------------------
     // Usage functions
     // ------------------------------------------------------------------------------------------------
@@ -98,10 +189,14 @@ public class Inflector {
      */
     public String pluralize( Object word ) {
         if (word == null) return null;
-        String wordStr = word.toString().trim();
+        return cached(pluralForms, word.toString().trim(), toPluralForm);
+    }
+
+    private String applyRules( LinkedList<Rule> rules,
+                               String wordStr ) {
         if (wordStr.length() == 0) return wordStr;
         if (isUncountable(wordStr)) return wordStr;
-        for (Rule rule : this.plurals) {
+        for (Rule rule : rules) {
             String result = rule.apply(wordStr);
             if (result != null) return result;
         }
@@ -142,14 +237,7 @@ public class Inflector {
      */
     public String singularize( Object word ) {
         if (word == null) return null;
-        String wordStr = word.toString().trim();
-        if (wordStr.length() == 0) return wordStr;
-        if (isUncountable(wordStr)) return wordStr;
-        for (Rule rule : this.singulars) {
-            String result = rule.apply(wordStr);
-            if (result != null) return result;
-        }
-        return wordStr;
+        return cached(singularForms, word.toString().trim(), toSingularForm);
     }
 
     /**
@@ -187,6 +275,14 @@ public class Inflector {
     public String humanize( String lowerCaseAndUnderscoredWords,
                             String... removableTokens ) {
         if (lowerCaseAndUnderscoredWords == null) return null;
+        if (isEmpty(removableTokens)) {
+            return cached(humanizedForms, lowerCaseAndUnderscoredWords, toHumanizedForm);
+        }
+        return humanizeWithoutCache(lowerCaseAndUnderscoredWords, removableTokens);
+    }
+
+    private String humanizeWithoutCache( String lowerCaseAndUnderscoredWords,
+                                         String... removableTokens ) {
         String result = lowerCaseAndUnderscoredWords.trim();
         if (result.length() == 0) return "";
         // Remove a trailing "_id" token
@@ -201,6 +297,10 @@ public class Inflector {
         return capitalize(result);
     }
 
+    private boolean isEmpty( Object[] values ) {
+        return (values == null) || (values.length == 0);
+    }
+
     /**
      * Makes an underscored form from the expression in the string (the reverse of the {@link #camelCase(String, boolean, char[])
      * camelCase} method. Also changes any characters that match the supplied delimiters into underscore.
@@ -225,6 +325,14 @@ public class Inflector {
     public String underscore( String camelCaseWord,
                               char... delimiterChars ) {
         if (camelCaseWord == null) return null;
+        if ((delimiterChars == null) || (delimiterChars.length == 0)) {
+            return cached(underscoredForms, camelCaseWord, toUnderscoredForm);
+        }
+        return underscoreWithoutCache(camelCaseWord, delimiterChars);
+    }
+
+    private String underscoreWithoutCache( String camelCaseWord,
+                                           char... delimiterChars ) {
         String result = camelCaseWord.trim();
         if (result.length() == 0) return "";
         result = result.replaceAll("([A-Z]+)([A-Z][a-z])", "$1_$2");
@@ -259,6 +367,14 @@ public class Inflector {
      */
     public String titleCase( String words,
                              String... removableTokens ) {
+        if ((words != null) && isEmpty(removableTokens)) {
+            return cached(titleCaseForms, words, toTitleCaseForm);
+        }
+        return titleCaseWithoutCache(words, removableTokens);
+    }
+
+    private String titleCaseWithoutCache( String words,
+                                          String... removableTokens ) {
         String result = humanize(words, removableTokens);
         result = replaceAllWithUppercase(result, "\\b([a-z])", 1); // change first char of each word to uppercase
         return result;
@@ -284,12 +400,14 @@ public class Inflector {
                               String replacement ) {
         final Rule pluralizeRule = new Rule(rule, replacement);
         this.plurals.addFirst(pluralizeRule);
+        pluralForms.invalidateAll();
     }
 
     public void addSingularize( String rule,
                                 String replacement ) {
         final Rule singularizeRule = new Rule(rule, replacement);
         this.singulars.addFirst(singularizeRule);
+        singularForms.invalidateAll();
     }
 
     public void addIrregular( String singular,
@@ -304,6 +422,8 @@ public class Inflector {
         for (String word : words) {
             uncountables.add(word.trim().toLowerCase());
         }
+        pluralForms.invalidateAll();
+        singularForms.invalidateAll();
     }
 
     /**
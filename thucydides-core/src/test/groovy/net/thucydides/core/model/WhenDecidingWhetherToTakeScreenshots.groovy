@@ -7,6 +7,7 @@ import net.thucydides.core.annotations.Screenshots
 import net.thucydides.core.webdriver.SystemPropertiesConfiguration
 import net.thucydides.core.util.MockEnvironmentVariables
 import com.google.common.base.Optional
+import net.thucydides.core.screenshots.ScreenshotBudget
 
 class WhenDecidingWhetherToTakeScreenshots extends Specification {
 
@@ -165,4 +166,82 @@ class WhenDecidingWhetherToTakeScreenshots extends Specification {
         assert permissions.areAllowed(TakeScreenshots.AFTER_EACH_STEP)
         assert permissions.areAllowed(TakeScreenshots.FOR_FAILURES)
     }
+
+    @Unroll
+    def "should take fewer screenshots as the screenshot budget of a test runs out"() {
+
+        given:
+            environmentVariables.setProperty("thucydides.take.screenshots", "BEFORE_AND_AFTER_EACH_STEP")
+            environmentVariables.setProperty("thucydides.max.screenshots.per.test", "8")
+            def budget = new ScreenshotBudget(environmentVariables).forNewTest()
+            ScreenshotPermission permissions = new ScreenshotPermission(systemPropConfiguration, budget)
+
+        when:
+            screenshotsTaken.times { budget.recordScreenshot(new File("screenshot-${it}.png")) }
+
+        then:
+            permissions.areAllowed(screenshotLevel) == shouldBeAllowed
+
+        where:
+        screenshotsTaken | screenshotLevel                            | shouldBeAllowed
+        0                | TakeScreenshots.BEFORE_AND_AFTER_EACH_STEP | true
+        3                | TakeScreenshots.BEFORE_AND_AFTER_EACH_STEP | true
+        4                | TakeScreenshots.BEFORE_AND_AFTER_EACH_STEP | false
+        4                | TakeScreenshots.AFTER_EACH_STEP            | true
+        6                | TakeScreenshots.AFTER_EACH_STEP            | false
+        6                | TakeScreenshots.FOR_FAILURES               | true
+        8                | TakeScreenshots.FOR_FAILURES               | false
+    }
+
+    def "the screenshot budget of a test run should be shared by all of the tests"() {
+
+        given:
+            environmentVariables.setProperty("thucydides.max.screenshots.per.run", "4")
+            def budget = new ScreenshotBudget(environmentVariables)
+            def firstTest = budget.forNewTest()
+            def secondTest = budget.forNewTest()
+
+        when:
+            4.times { firstTest.recordScreenshot(new File("screenshot-${it}.png")) }
+
+        then:
+            !secondTest.allows(TakeScreenshots.FOR_FAILURES)
+    }
+
+    def "the screenshot budget should take the size of saved screenshots into account"() {
+
+        given:
+            def screenshotDirectory = File.createTempFile("screenshots", "")
+            screenshotDirectory.delete()
+            screenshotDirectory.mkdir()
+            def largeScreenshot = new File(screenshotDirectory, "large-screenshot.png")
+            largeScreenshot.bytes = new byte[600 * 1024]
+            environmentVariables.setProperty("thucydides.max.screenshot.megabytes.per.test", "1")
+            def budget = new ScreenshotBudget(environmentVariables).forNewTest()
+
+        when:
+            budget.recordScreenshot(largeScreenshot)
+
+        then:
+            !budget.allows(TakeScreenshots.BEFORE_AND_AFTER_EACH_STEP)
+            budget.allows(TakeScreenshots.AFTER_EACH_STEP)
+            !budget.allowsSeveralScreenshotsPerStep()
+
+        cleanup:
+            largeScreenshot.delete()
+            screenshotDirectory.delete()
+    }
+
+    def "screenshots should not be limited unless a budget is configured"() {
+
+        given:
+            def budget = new ScreenshotBudget(environmentVariables).forNewTest()
+
+        when:
+            100.times { budget.recordScreenshot(new File("screenshot-${it}.png")) }
+
+        then:
+            budget.allows(TakeScreenshots.FOR_EACH_ACTION)
+            budget.allowsSeveralScreenshotsPerStep()
+    }
 }
@@ -111,6 +111,56 @@ class WhenRecordingDataDrivenTestOutcomes extends Specification {
             table.rows.collect {it.result} ==[FAILURE, PENDING]
     }
 
+    def "repeated values should only be stored once in each column"() {
+        when:
+            def table = DataTable.withHeaders(["firstName","lastName","age"]).
+                    andMappedRows([["firstName":"Joe",  "lastName":"Smith","age":20],
+                                   ["firstName":"Jack", "lastName":"Smith","age":21],
+                                   ["firstName":"Joe",  "lastName":"Smith","age":20]]).build();
+        then:
+            table.columns.collect {it.distinctValues} == [["Joe","Jack"], ["Smith"], [20,21]]
+            table.rows.collect {it.values} == [["Joe","Smith",20], ["Jack","Smith",21], ["Joe","Smith",20]]
+    }
+
+    def "results set on the rows of a table should be recorded in the table"() {
+        given:
+            def table = DataTable.withHeaders(["firstName","lastName","age"]).
+                    andMappedRows([["firstName":"Joe",  "lastName":"Smith","age":20],
+                                   ["firstName":"Jack", "lastName":"Jones","age":21]]).build();
+        when:
+            table.rows[0].result = FAILURE
+            table.getRow(1).updateResult(PENDING)
+        then:
+            table.rows.collect {it.result} == [FAILURE, PENDING]
+            table.countRowsWithResult(FAILURE) == 1
+    }
+
+    def "cells without a value should be read as null without moving the other values"() {
+        when:
+            def table = DataTable.withHeaders(["firstName","lastName","age"]).
+                    andRows([["Joe", null, 20], ["Jack"]]).build();
+        then:
+            table.rows.collect {it.values} == [["Joe", null, 20], ["Jack"]]
+            table.getRow(0).stringValues == ["Joe", "", "20"]
+    }
+
+    def "should count the rows with a given result"() {
+        given:
+            def table = DataTable.withHeaders(["firstName","lastName","age"]).
+                    andMappedRows([["firstName":"Joe",  "lastName":"Smith","age":20],
+                                   ["firstName":"Jack", "lastName":"Jones","age":21],
+                                   ["firstName":"John", "lastName":"Doe",  "age":22]]).build();
+        when:
+            table.row(0).hasResult(FAILURE)
+            table.row(1).hasResult(SUCCESS)
+            table.row(2).hasResult(FAILURE)
+        then:
+            table.countRowsWithResult(FAILURE) == 2
+            table.countRowsWithResult(SUCCESS) == 1
+            table.getRow(2).values == ["John","Doe",22]
+            table.getRow(2).result == FAILURE
+    }
+
     def screenshotProcessor = Mock(ScreenshotProcessor)
     def outputDirectory = Mock(File);
 
@@ -209,6 +209,23 @@ class WhenGeneratingRequirementsReportData extends Specification {
             outcomes.requirementOutcomes[0].formatted.percentPendingCoverage == "75%"
     }
 
+    def "child requirement outcomes should be built from the tests of their parent requirement"() {
+        given: "there are some test results"
+            def testOutcomes = TestOutcomes.of(someVariedTestResults())
+        and: "we read the requirements from the directory structure"
+            RequirmentsOutcomeFactory requirmentsOutcomeFactory = new RequirmentsOutcomeFactory([requirementsProvider],issueTracking)
+            RequirementsOutcomes outcomes = requirmentsOutcomeFactory.buildRequirementsOutcomesFrom(testOutcomes)
+        when: "we generate the outcomes of the child requirements of a capability"
+            RequirementsOutcomes childOutcomes = outcomes.forChildRequirementsOf(outcomes.requirementOutcomes[0])
+        then: "the child requirements should only use the tests of the parent requirement"
+            childOutcomes.parentRequirement.get().name == "Grow potatoes"
+            childOutcomes.totalTestCount == 2
+            def testCounts = childOutcomes.requirementOutcomes.collectEntries {[it.requirement.name, it.testCount]}
+            testCounts == ["Grow new potatoes":2, "Grow organic potatoes":0, "Grow sweet potatoes":0]
+        and: "the requirements without tests should add up to the count for the parent requirement"
+            childOutcomes.requirementOutcomes.sum {it.requirementsWithoutTestsCount} == outcomes.requirementOutcomes[0].requirementsWithoutTestsCount
+    }
+
     def someTestResults() {
         TestOutcome testOutcome1 = TestOutcome.forTestInStory("planting potatoes in the sun", Story.called("planting potatoes"))
         testOutcome1.addTags(Lists.asList(TestTag.withName("Grow potatoes").andType("capability")));
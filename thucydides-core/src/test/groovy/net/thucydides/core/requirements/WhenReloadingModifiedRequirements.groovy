@@ -0,0 +1,69 @@
+package net.thucydides.core.requirements
+
+import net.thucydides.core.pages.SystemClock
+import net.thucydides.core.util.MockEnvironmentVariables
+import org.joda.time.DateTime
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class WhenReloadingModifiedRequirements extends Specification {
+
+    @Rule
+    TemporaryFolder temporaryFolder = new TemporaryFolder()
+
+    def environmentVariables = new MockEnvironmentVariables()
+
+    def currentTime = new DateTime()
+
+    def clock = [getCurrentTime: { currentTime }, pauseFor: { }] as SystemClock
+
+    File storiesDirectory
+
+    def setup() {
+        environmentVariables.setProperty("thucydides.test.requirements.basedir", temporaryFolder.root.absolutePath)
+        storiesDirectory = new File(temporaryFolder.root, "src/test/resources/stories")
+        def appleCapability = new File(storiesDirectory, "grow_apples")
+        appleCapability.mkdirs()
+        def anHourAgo = currentTime.minusHours(1).millis
+        appleCapability.setLastModified(anHourAgo)
+        storiesDirectory.setLastModified(anHourAgo)
+    }
+
+    def "The requirements should only be read once if they have not changed"() {
+        given: "We are using the file system requirements provider"
+            def capabilityProvider = new FileSystemRequirementsTagProvider("stories", 0, environmentVariables, clock)
+        when: "We load the requirements twice"
+            def requirements = capabilityProvider.getRequirements()
+            def reloadedRequirements = capabilityProvider.getRequirements()
+        then: "the same requirements should be returned"
+            reloadedRequirements.is(requirements)
+    }
+
+    def "The requirements should be reloaded if the requirements directories are modified"() {
+        given: "We are using the file system requirements provider"
+            def capabilityProvider = new FileSystemRequirementsTagProvider("stories", 0, environmentVariables, clock)
+            def requirementNames = capabilityProvider.getRequirements().collect { it.name }
+        when: "a new capability directory is added"
+            new File(storiesDirectory, "grow_potatoes").mkdirs()
+        and: "the requirements are read again after the check interval"
+            currentTime = currentTime.plusSeconds(2)
+            def reloadedRequirementNames = capabilityProvider.getRequirements().collect { it.name }
+        then: "the new capability should be found"
+            requirementNames == ["Grow apples"]
+            reloadedRequirementNames == ["Grow apples", "Grow potatoes"]
+    }
+
+    def "The requirements directories should not be checked for changes more than once a second"() {
+        given: "We are using the file system requirements provider"
+            def capabilityProvider = new FileSystemRequirementsTagProvider("stories", 0, environmentVariables, clock)
+            def requirements = capabilityProvider.getRequirements()
+        when: "a new capability directory is added"
+            new File(storiesDirectory, "grow_potatoes").mkdirs()
+        and: "the requirements are read again within the check interval"
+            currentTime = currentTime.plusMillis(500)
+            def requirementsWithinTheInterval = capabilityProvider.getRequirements()
+        then: "the requirements already loaded should be returned"
+            requirementsWithinTheInterval.is(requirements)
+    }
+}
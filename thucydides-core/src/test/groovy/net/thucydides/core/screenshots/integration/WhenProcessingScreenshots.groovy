@@ -6,7 +6,9 @@ import net.thucydides.core.util.EnvironmentVariables
 import net.thucydides.core.util.MockEnvironmentVariables
 import com.google.common.io.Files
 
+import net.thucydides.core.images.SimpleImageInfo
 import net.thucydides.core.screenshots.QueuedScreenshot
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource
 import net.thucydides.core.screenshots.SingleThreadScreenshotProcessor
 
 class WhenProcessingScreenshots extends Specification {
@@ -113,4 +115,58 @@ class WhenProcessingScreenshots extends Specification {
         assert targetDirectory.list().size() == 100
     }
 
+    def "should not generate screenshot thumbnails by default"() {
+        given:
+            def screenshotProcessor = new SingleThreadScreenshotProcessor(environmentVariables)
+        when:
+            def screenshotFile = copySourceScreenshot(sourceDirectory)
+            screenshotProcessor.queueScreenshot(new QueuedScreenshot(screenshotFile, new File(targetDirectory,"screenshot.png")))
+            screenshotProcessor.waitUntilDone()
+        then:
+            targetDirectory.list() as List == ["screenshot.png"]
+    }
+
+    def "should generate thumbnails and previews of processed screenshots if requested"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.thumbnails", "true")
+            def screenshotProcessor = new SingleThreadScreenshotProcessor(environmentVariables)
+        when:
+            def screenshotFile = copySourceScreenshot(sourceDirectory)
+            screenshotProcessor.queueScreenshot(new QueuedScreenshot(screenshotFile, new File(targetDirectory,"screenshot.png")))
+            screenshotProcessor.waitUntilDone()
+        then:
+            new SimpleImageInfo(new File(targetDirectory, "thumbnail_screenshot.png")).width == 96
+            new SimpleImageInfo(new File(targetDirectory, "preview_screenshot.png")).width == 1000
+            new SimpleImageInfo(new File(targetDirectory, "screenshot.png")).width == 1495
+    }
+
+    def "should record the dimensions of a screenshot once it has been saved"() {
+        given:
+            def screenshotProcessor = new SingleThreadScreenshotProcessor(environmentVariables)
+            def targetFile = new File(targetDirectory,"screenshot.png")
+            def screenshot = new ScreenshotAndHtmlSource(targetFile)
+        when:
+            screenshotProcessor.queueScreenshot(new QueuedScreenshot(copySourceScreenshot(sourceDirectory), targetFile, screenshot))
+            screenshotProcessor.waitUntilDone()
+        then:
+            screenshot.width == 1495
+            screenshot.height == 2236
+            screenshot.byteSize == targetFile.length()
+    }
+
+    def "should record the dimensions of a resized screenshot"() {
+        given:
+            environmentVariables.setProperty("thucydides.resized.image.width", "1000")
+            def screenshotProcessor = new SingleThreadScreenshotProcessor(environmentVariables)
+            def targetFile = new File(targetDirectory,"screenshot.png")
+            def screenshot = new ScreenshotAndHtmlSource(targetFile)
+        when:
+            screenshotProcessor.queueScreenshot(new QueuedScreenshot(copySourceScreenshot(sourceDirectory), targetFile, screenshot))
+            screenshotProcessor.waitUntilDone()
+        then:
+            screenshot.width == 1000
+            screenshot.height == new SimpleImageInfo(targetFile).height
+            screenshot.byteSize == targetFile.length()
+    }
+
 }
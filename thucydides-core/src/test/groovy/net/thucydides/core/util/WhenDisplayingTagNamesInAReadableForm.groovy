@@ -97,4 +97,39 @@ class WhenDisplayingTagNamesInAReadableForm extends Specification {
             'AnotherTest'       | 'Another test'
             'AN_ENUM_NAME'      | 'An enum name'
     }
+
+    def "repeated inflections should be reused"() {
+        given:
+            def inflector = new Inflector()
+        when:
+            inflector.pluralize("story")
+            inflector.pluralize("story")
+            inflector.humanize("employee_salary")
+            inflector.humanize("employee_salary")
+        then:
+            inflector.cacheStatistics["pluralize"].hitCount() == 1
+            inflector.cacheStatistics["humanize"].hitCount() == 1
+            inflector.pluralize("story") == "stories"
+    }
+
+    def "new rules should apply to words that have already been inflected"() {
+        given:
+            def inflector = new Inflector()
+            inflector.pluralize("data")
+        when:
+            inflector.addUncountable("data")
+        then:
+            inflector.pluralize("data") == "data"
+    }
+
+    def "the inflection cache can be turned off"() {
+        given:
+            def inflector = new Inflector(0)
+        when:
+            inflector.pluralize("story")
+            inflector.pluralize("story")
+        then:
+            inflector.cacheStatistics["pluralize"].hitCount() == 0
+            inflector.pluralize("story") == "stories"
+    }
 }
@@ -0,0 +1,58 @@
+package net.thucydides.core.annotations;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class WhenFindingAnnotatedFields {
+
+    static class SampleBaseTestCase {
+        @Steps
+        Object baseSteps;
+
+        Object notAStepLibrary;
+    }
+
+    static class SampleTestCase extends SampleBaseTestCase {
+        @Steps
+        Object steps;
+
+        @Managed
+        Object driver;
+    }
+
+    @Test
+    public void should_find_annotated_fields_in_the_class_and_its_superclasses() throws Exception {
+        List<Field> fields = AnnotatedFields.of(SampleTestCase.class).annotatedWith(Steps.class);
+
+        assertThat(fields, contains(SampleTestCase.class.getDeclaredField("steps"),
+                                    SampleBaseTestCase.class.getDeclaredField("baseSteps")));
+    }
+
+    @Test
+    public void should_only_find_fields_with_the_requested_annotation() throws Exception {
+        List<Field> fields = AnnotatedFields.of(SampleTestCase.class).annotatedWith(Managed.class);
+
+        assertThat(fields, contains(SampleTestCase.class.getDeclaredField("driver")));
+    }
+
+    @Test
+    public void should_find_no_fields_if_none_are_annotated() {
+        List<Field> fields = AnnotatedFields.of(Object.class).annotatedWith(Steps.class);
+
+        assertThat(fields.isEmpty(), is(true));
+    }
+
+    @Test
+    public void should_only_look_for_the_annotated_fields_of_a_class_once() {
+        List<Field> fields = AnnotatedFields.of(SampleTestCase.class).annotatedWith(Steps.class);
+
+        assertThat(AnnotatedFields.of(SampleTestCase.class).annotatedWith(Steps.class), is(sameInstance(fields)));
+    }
+}
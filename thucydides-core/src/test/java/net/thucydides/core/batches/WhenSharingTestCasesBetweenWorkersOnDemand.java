@@ -0,0 +1,147 @@
+package net.thucydides.core.batches;
+
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WhenSharingTestCasesBetweenWorkersOnDemand {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    MockEnvironmentVariables environmentVariables;
+
+    File coordinationDirectory;
+
+    @Before
+    public void initEnvironment() {
+        coordinationDirectory = new File(temporaryFolder.getRoot(), "claims");
+        environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.batch.coordination.dir", coordinationDirectory.getAbsolutePath());
+        environmentVariables.setProperty("thucydides.batch.run.id", "1");
+    }
+
+    @Test
+    public void the_first_worker_to_reach_a_test_case_should_run_it() {
+        OnDemandBatchManager firstWorker = new OnDemandBatchManager(environmentVariables, "first-worker");
+        OnDemandBatchManager secondWorker = new OnDemandBatchManager(environmentVariables, "second-worker");
+
+        firstWorker.registerTestCase("SomeTest");
+        assertThat(firstWorker.shouldExecuteThisTest(1), is(true));
+
+        secondWorker.registerTestCase("SomeTest");
+        assertThat(secondWorker.shouldExecuteThisTest(1), is(false));
+    }
+
+    @Test
+    public void a_worker_should_keep_running_the_test_cases_it_has_claimed() {
+        OnDemandBatchManager worker = new OnDemandBatchManager(environmentVariables);
+
+        worker.registerTestCase("SomeTest");
+        assertThat(worker.shouldExecuteThisTest(1), is(true));
+        assertThat(worker.shouldExecuteThisTest(1), is(true));
+    }
+
+    @Test
+    public void each_claimed_test_case_should_be_recorded_in_the_coordination_directory() {
+        OnDemandBatchManager worker = new OnDemandBatchManager(environmentVariables);
+
+        worker.registerTestCase("SomeTest");
+        worker.shouldExecuteThisTest(1);
+        worker.registerTestCase("AnotherTest");
+        worker.shouldExecuteThisTest(1);
+
+        assertThat(new File(coordinationDirectory, "1/SomeTest.claim").exists(), is(true));
+        assertThat(new File(coordinationDirectory, "1/AnotherTest.claim").exists(), is(true));
+    }
+
+    @Test
+    public void a_new_run_should_not_see_the_claims_of_a_previous_run() {
+        OnDemandBatchManager workerInFirstRun = new OnDemandBatchManager(environmentVariables);
+        workerInFirstRun.registerTestCase("SomeTest");
+        assertThat(workerInFirstRun.shouldExecuteThisTest(1), is(true));
+
+        environmentVariables.setProperty("thucydides.batch.run.id", "2");
+        OnDemandBatchManager workerInSecondRun = new OnDemandBatchManager(environmentVariables);
+        workerInSecondRun.registerTestCase("SomeTest");
+
+        assertThat(workerInSecondRun.shouldExecuteThisTest(1), is(true));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void a_run_id_is_required() {
+        environmentVariables.setProperty("thucydides.batch.run.id", "");
+
+        new OnDemandBatchManager(environmentVariables);
+    }
+
+    @Test
+    public void the_expired_claim_of_a_dead_worker_should_be_taken_over() throws IOException {
+        File deadWorkerClaim = new File(coordinationDirectory, "1/SomeTest.claim");
+        FileUtils.writeStringToFile(deadWorkerClaim, "1234@deadhost");
+        deadWorkerClaim.setLastModified(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+
+        OnDemandBatchManager worker = new OnDemandBatchManager(environmentVariables);
+        worker.registerTestCase("SomeTest");
+
+        assertThat(worker.shouldExecuteThisTest(1), is(true));
+    }
+
+    @Test
+    public void a_recent_claim_should_not_be_taken_over() throws IOException {
+        File otherWorkerClaim = new File(coordinationDirectory, "1/SomeTest.claim");
+        FileUtils.writeStringToFile(otherWorkerClaim, "1234@otherhost");
+
+        OnDemandBatchManager worker = new OnDemandBatchManager(environmentVariables);
+        worker.registerTestCase("SomeTest");
+
+        assertThat(worker.shouldExecuteThisTest(1), is(false));
+    }
+
+    @Test
+    public void a_completed_claim_should_never_be_taken_over() throws IOException {
+        OnDemandBatchManager firstWorker = new OnDemandBatchManager(environmentVariables, "first-worker");
+        firstWorker.registerTestCase("SomeTest");
+        firstWorker.shouldExecuteThisTest(1);
+        firstWorker.completeClaims();
+        new File(coordinationDirectory, "1/SomeTest.claim").setLastModified(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+
+        OnDemandBatchManager secondWorker = new OnDemandBatchManager(environmentVariables, "second-worker");
+        secondWorker.registerTestCase("SomeTest");
+
+        assertThat(secondWorker.shouldExecuteThisTest(1), is(false));
+    }
+
+    @Test
+    public void the_batch_managers_of_a_jvm_should_act_as_a_single_worker() {
+        OnDemandBatchManager batchManagerForFirstTestClass = new OnDemandBatchManager(environmentVariables);
+        OnDemandBatchManager batchManagerForSecondTestClass = new OnDemandBatchManager(environmentVariables);
+
+        batchManagerForFirstTestClass.registerTestCase("SomeTest");
+        assertThat(batchManagerForFirstTestClass.shouldExecuteThisTest(1), is(true));
+
+        batchManagerForSecondTestClass.registerTestCase("SomeTest");
+        assertThat(batchManagerForSecondTestClass.shouldExecuteThisTest(1), is(true));
+        assertThat(batchManagerForSecondTestClass.getWorkerName(), is(batchManagerForFirstTestClass.getWorkerName()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void a_test_case_should_not_be_run_if_it_cannot_be_claimed() throws IOException {
+        FileUtils.writeStringToFile(coordinationDirectory, "not a directory");
+
+        OnDemandBatchManager worker = new OnDemandBatchManager(environmentVariables);
+        worker.registerTestCase("SomeTest");
+
+        worker.shouldExecuteThisTest(1);
+    }
+}
@@ -0,0 +1,176 @@
+package net.thucydides.core.batches;
+
+import com.google.common.collect.ImmutableMap;
+import net.thucydides.core.statistics.TestStatisticsProvider;
+import net.thucydides.core.util.ExtendedTemporaryFolder;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WhenUsingDurationBasedBatchStrategy {
+
+    @Rule
+    public ExtendedTemporaryFolder temporaryFolder = new ExtendedTemporaryFolder();
+
+    @Mock
+    TestStatisticsProvider testStatisticsProvider;
+
+    private final Map<String, Long> recordedDurations = ImmutableMap.of("SlowTest", 1200L,
+                                                                        "MediumTest", 600L,
+                                                                        "AnotherMediumTest", 500L,
+                                                                        "QuickTest", 100L);
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        when(testStatisticsProvider.getEstimatedTestCaseDurations(any(Date.class))).thenReturn(recordedDurations);
+    }
+
+    @Test
+    public void should_allocate_the_slowest_test_cases_first_to_the_least_loaded_batch() {
+        Map<String, Integer> allocations = DurationBasedBatchManager.allocateToBatches(recordedDurations, 2);
+
+        assertThat(allocations.get("SlowTest"), is(0));
+        assertThat(allocations.get("MediumTest"), is(1));
+        assertThat(allocations.get("AnotherMediumTest"), is(1));
+        assertThat(allocations.get("QuickTest"), is(1));
+    }
+
+    @Test
+    public void by_default_all_tests_should_run() {
+        DurationBasedBatchManager batchManager = new DurationBasedBatchManager(new MockEnvironmentVariables(),
+                                                                               testStatisticsProvider);
+        batchManager.registerTestCase("SlowTest");
+        assertThat(batchManager.shouldExecuteThisTest(1), is(true));
+        batchManager.registerTestCase("UnknownTest");
+        assertThat(batchManager.shouldExecuteThisTest(1), is(true));
+    }
+
+    @Test
+    public void each_batch_should_compute_the_same_partition() {
+        List<String> firstBatch = runTestCasesInBatch(1);
+        List<String> secondBatch = runTestCasesInBatch(2);
+
+        assertThat(firstBatch, contains("MediumTest", "AnotherMediumTest", "QuickTest"));
+        assertThat(secondBatch, contains("SlowTest"));
+    }
+
+    @Test
+    public void test_cases_with_no_history_should_each_run_in_exactly_one_batch() {
+        String[] newTestCases = {"NewTest1", "NewTest2", "NewTest3", "NewTest4"};
+        List<String> firstBatch = runTestCasesInBatch(1, newTestCases);
+        List<String> secondBatch = runTestCasesInBatch(2, newTestCases);
+
+        List<String> allExecutedTests = new ArrayList<String>(firstBatch);
+        allExecutedTests.addAll(secondBatch);
+        assertThat(allExecutedTests, containsInAnyOrder(newTestCases));
+    }
+
+    @Test
+    public void test_cases_with_no_history_should_be_allocated_regardless_of_the_order_they_run_in() {
+        List<String> firstBatch = runTestCasesInBatch(1, "NewTest1", "NewTest2", "NewTest3", "NewTest4");
+        List<String> firstBatchInAnotherOrder = runTestCasesInBatch(1, "NewTest4", "NewTest3", "NewTest2", "NewTest1");
+
+        assertThat(firstBatchInAnotherOrder, containsInAnyOrder(firstBatch.toArray()));
+    }
+
+    @Test
+    public void should_only_use_the_durations_recorded_before_the_cutoff_date() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.batch.count", "2");
+        environmentVariables.setProperty("thucydides.batch.number", "1");
+        environmentVariables.setProperty("thucydides.batch.durations.cutoff", "2013-05-01T18:00");
+        DurationBasedBatchManager batchManager = new DurationBasedBatchManager(environmentVariables,
+                                                                               testStatisticsProvider);
+        batchManager.registerTestCase("SlowTest");
+        batchManager.shouldExecuteThisTest(1);
+
+        verify(testStatisticsProvider).getEstimatedTestCaseDurations(new DateTime("2013-05-01T18:00", DateTimeZone.UTC).toDate());
+    }
+
+    @Test
+    public void the_recorded_durations_should_only_be_read_once_for_all_the_test_runners() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.batch.durations.cutoff", "2013-06-01T18:00");
+
+        runTestCasesInBatch(1, environmentVariables, "SlowTest");
+        runTestCasesInBatch(1, environmentVariables, "MediumTest");
+
+        verify(testStatisticsProvider, times(1)).getEstimatedTestCaseDurations(any(Date.class));
+    }
+
+    @Test
+    public void the_default_cutoff_date_should_be_the_start_of_the_current_day_in_UTC() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.batch.count", "3");
+        environmentVariables.setProperty("thucydides.batch.number", "1");
+        DurationBasedBatchManager batchManager = new DurationBasedBatchManager(environmentVariables,
+                                                                               testStatisticsProvider);
+        Date startOfTheDay = new LocalDate(DateTimeZone.UTC).toDateTimeAtStartOfDay(DateTimeZone.UTC).toDate();
+        batchManager.registerTestCase("SlowTest");
+        batchManager.shouldExecuteThisTest(1);
+
+        verify(testStatisticsProvider).getEstimatedTestCaseDurations(startOfTheDay);
+    }
+
+    @Test
+    public void should_use_the_durations_file_if_one_is_provided() throws IOException {
+        File durationsFile = temporaryFolder.newFile("durations.properties");
+        FileUtils.writeStringToFile(durationsFile, "SlowTest=100\nQuickTest=1200\n");
+
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.batch.durations.file", durationsFile.getAbsolutePath());
+
+        List<String> firstBatch = runTestCasesInBatch(1, environmentVariables, "SlowTest", "QuickTest");
+
+        assertThat(firstBatch, contains("SlowTest"));
+        verify(testStatisticsProvider, never()).getEstimatedTestCaseDurations(any(Date.class));
+    }
+
+    private List<String> runTestCasesInBatch(int batchNumber) {
+        return runTestCasesInBatch(batchNumber, "SlowTest", "MediumTest", "AnotherMediumTest", "QuickTest");
+    }
+
+    private List<String> runTestCasesInBatch(int batchNumber, String... testCases) {
+        return runTestCasesInBatch(batchNumber, new MockEnvironmentVariables(), testCases);
+    }
+
+    private List<String> runTestCasesInBatch(int batchNumber, MockEnvironmentVariables environmentVariables, String... testCases) {
+        environmentVariables.setProperty("thucydides.batch.count", "2");
+        environmentVariables.setProperty("thucydides.batch.number", Integer.toString(batchNumber));
+        DurationBasedBatchManager batchManager = new DurationBasedBatchManager(environmentVariables,
+                                                                               testStatisticsProvider);
+        List<String> executedTests = new ArrayList<String>();
+        for (String testCase : testCases) {
+            batchManager.registerTestCase(testCase);
+            if (batchManager.shouldExecuteThisTest(1)) {
+                executedTests.add(testCase);
+            }
+        }
+        return executedTests;
+    }
+}
@@ -6,6 +6,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 /**
  * Created by IntelliJ IDEA.
@@ -76,5 +77,39 @@ public class WhenCreatingNewDataDrivenTestSteps {
         Address address = InstanceBuilder.newInstanceOf(Address.class, args);
     }
 
+    @Test
+    public void should_set_properties_of_several_instances_of_the_same_class() throws Exception {
+        Person smith = new Person();
+        Person jones = new Person();
+
+        InstanceBuilder.inObject(smith).setPropertyValue("name","Smith");
+        InstanceBuilder.inObject(jones).setPropertyValue("name","Jones");
+
+        assertThat(smith.getName(), is("Smith"));
+        assertThat(jones.getName(), is("Jones"));
+    }
+
+    @Test
+    public void class_bindings_should_only_be_worked_out_once_per_class() {
+        assertThat(ClassBinding.forClass(Person.class), is(sameInstance(ClassBinding.forClass(Person.class))));
+    }
+
+    @Test
+    public void property_bindings_should_be_reused() {
+        ClassBinding personBinding = ClassBinding.forClass(Person.class);
+
+        assertThat(personBinding.propertyNamed("name").get(), is(sameInstance(personBinding.propertyNamed("name").get())));
+        assertThat(personBinding.propertyNamed("unknown_field").isPresent(), is(false));
+    }
+
+    @Test(expected = FailedToInitializeTestData.class)
+    public void should_keep_failing_if_field_does_not_exist() throws Exception {
+        try {
+            InstanceBuilder.inObject(new Person()).setPropertyValue("unknown_field","Smithy");
+        } catch (FailedToInitializeTestData expected) {
+        }
+        InstanceBuilder.inObject(new Person()).setPropertyValue("unknown_field","Smithy");
+    }
+
 
 }
@@ -0,0 +1,164 @@
+package net.thucydides.core.csv;
+
+import com.google.common.collect.Lists;
+import net.thucydides.core.util.ExtendedTemporaryFolder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class WhenStreamingTestDataFromACSVFile {
+
+    @Rule
+    public ExtendedTemporaryFolder temporaryFolder = new ExtendedTemporaryFolder();
+
+    File temporaryDirectory;
+
+    @Before
+    public void setupTemporaryDirectory() throws IOException {
+        temporaryDirectory = temporaryFolder.newFolder("testdata");
+    }
+
+    protected File useTestDataIn(String filename, String... data) throws IOException {
+        File testDataFile = new File(temporaryDirectory, filename);
+        BufferedWriter out = new BufferedWriter(new FileWriter(testDataFile));
+        for (String row : data) {
+            out.write(row);
+            out.newLine();
+        }
+        out.close();
+        return testDataFile;
+    }
+
+    @Test
+    public void should_read_the_column_headings_from_the_first_row() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone",
+                "Bill, 10 main street, 123456789");
+
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath());
+
+        assertThat(testdata.getHeaders(), contains("name", "address", "phone"));
+    }
+
+    @Test
+    public void should_look_up_row_values_by_column_heading() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone",
+                "Bill, 10 main street, 123456789");
+
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath());
+        CSVRow row = testdata.getRows().iterator().next();
+
+        assertThat(row.get("name"), is("Bill"));
+        assertThat(row.get("address"), is("10 main street"));
+        assertThat(row.get(2), is("123456789"));
+        assertThat(row.get("unknown"), is(nullValue()));
+    }
+
+    @Test
+    public void rows_can_be_viewed_as_maps() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone",
+                "Bill, 10 main street");
+
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath());
+        Map<String, String> row = testdata.getRows().iterator().next().asMap();
+
+        assertThat(row.size(), is(2));
+        assertThat(row.get("name"), is("Bill"));
+        assertThat(row.containsKey("phone"), is(false));
+    }
+
+    @Test
+    public void should_count_the_data_rows() throws IOException {
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource("testdata/test.csv");
+
+        assertThat(testdata.countRows(), is(3));
+    }
+
+    @Test
+    public void rows_can_be_read_more_than_once() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone",
+                "Bill, 10 main street, 123456789",
+                "Tim,  12 main street, 123456700");
+
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath());
+
+        assertThat(testdata.countRows(), is(2));
+        assertThat(testdata.countRows(), is(2));
+    }
+
+    @Test
+    public void shards_should_cover_every_row_exactly_once() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone",
+                "Bill, 10 main street, 123456789",
+                "Tim,  12 main street, 123456700",
+                "Joe,  14 main street, 123456701",
+                "Jim,  16 main street, 123456702",
+                "Sue,  18 main street, 123456703");
+
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath());
+
+        assertThat(namesIn(testdata.getRowsInShard(0, 2)), contains("Bill", "Joe", "Sue"));
+        assertThat(namesIn(testdata.getRowsInShard(1, 2)), contains("Tim", "Jim"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shard_numbers_should_be_less_than_the_number_of_shards() throws IOException {
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource("testdata/test.csv");
+
+        testdata.getRowsInShard(2, 2);
+    }
+
+    @Test
+    public void should_load_data_as_objects_as_the_rows_are_read() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone",
+                "Bill, 10 main street, 123456789",
+                "Tim,  12 main street, 123456700");
+
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath());
+
+        List<Person> loadedData = Lists.newArrayList(testdata.getDataAsInstancesOf(Person.class));
+        assertThat(loadedData.size(), is(2));
+        assertThat(loadedData.get(1).getName(), is("Tim"));
+        assertThat(loadedData.get(1).getAddress(), is("12 main street"));
+    }
+
+    @Test
+    public void should_load_the_rows_of_a_shard_as_objects() throws IOException {
+        File testDataFile = useTestDataIn("testdata.csv",
+                "name, address,        phone",
+                "Bill, 10 main street, 123456789",
+                "Tim,  12 main street, 123456700");
+
+        StreamingCSVTestDataSource testdata = new StreamingCSVTestDataSource(testDataFile.getAbsolutePath());
+
+        List<Person> loadedData = Lists.newArrayList(testdata.getDataAsInstancesOf(testdata.getRowsInShard(1, 2),
+                                                                                   Person.class));
+        assertThat(loadedData.size(), is(1));
+        assertThat(loadedData.get(0).getName(), is("Tim"));
+    }
+
+    private List<String> namesIn(Iterable<CSVRow> rows) {
+        List<String> names = Lists.newArrayList();
+        for (CSVRow row : rows) {
+            names.add(row.get("name"));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,166 @@
+package net.thucydides.core.images;
+
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class WhenEncodingScreenshots {
+
+    @Test
+    public void png_encoded_screenshots_should_keep_all_of_the_original_pixels() throws IOException {
+        BufferedImage screenshot = screenshotFrom("/screenshots/google_page_1.png");
+
+        for (PngFilter filter : PngFilter.values()) {
+            BufferedImage encodedScreenshot = decode(encode(screenshot, new PngEncoder(4, filter, 1)));
+
+            assertThat("Pixels changed with the " + filter + " filter", haveTheSamePixels(screenshot, encodedScreenshot), is(true));
+        }
+    }
+
+    @Test
+    public void screenshots_filtered_on_several_threads_should_be_identical_to_screenshots_filtered_on_one_thread() throws IOException {
+        BufferedImage screenshot = screenshotFrom("/screenshots/amazon.png");
+
+        for (PngFilter filter : new PngFilter[] {PngFilter.NONE, PngFilter.ADAPTIVE}) {
+            byte[] encodedOnOneThread = encode(screenshot, new PngEncoder(4, filter, 1));
+            byte[] encodedOnSeveralThreads = encode(screenshot, new PngEncoder(4, filter, 4));
+
+            assertThat("Output changed with the " + filter + " filter", encodedOnSeveralThreads, is(encodedOnOneThread));
+        }
+    }
+
+    @Test
+    public void png_encoded_images_with_interleaved_bgr_samples_should_keep_all_of_the_original_pixels() throws IOException {
+        shouldKeepAllThePixelsOf(randomImageOfType(BufferedImage.TYPE_3BYTE_BGR));
+    }
+
+    @Test
+    public void png_encoded_images_with_interleaved_abgr_samples_should_keep_all_of_the_original_pixels() throws IOException {
+        shouldKeepAllThePixelsOf(randomImageOfType(BufferedImage.TYPE_4BYTE_ABGR));
+    }
+
+    private void shouldKeepAllThePixelsOf(BufferedImage image) throws IOException {
+        for (PngFilter filter : PngFilter.values()) {
+            for (int threads : new int[] {1, 4}) {
+                BufferedImage encodedImage = decode(encode(image, new PngEncoder(4, filter, threads)));
+
+                assertThat("Pixels changed with the " + filter + " filter on " + threads + " threads",
+                           haveTheSamePixels(image, encodedImage), is(true));
+            }
+        }
+    }
+
+    private BufferedImage randomImageOfType(int imageType) {
+        Random random = new Random(imageType);
+        BufferedImage image = new BufferedImage(120, 150, imageType);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    @Test
+    public void lower_compression_levels_should_still_produce_valid_screenshots() throws IOException {
+        BufferedImage screenshot = screenshotFrom("/screenshots/google_page_1.png");
+
+        BufferedImage encodedScreenshot = decode(encode(screenshot, new PngEncoder(0, PngFilter.NONE, 1)));
+
+        assertThat(haveTheSamePixels(screenshot, encodedScreenshot), is(true));
+    }
+
+    @Test
+    public void thumbnails_can_be_saved_as_smaller_jpeg_files() throws IOException {
+        BufferedImage screenshot = screenshotFrom("/screenshots/google_page_1.png");
+
+        byte[] jpegThumbnail = encode(screenshot, new JpegEncoder(80));
+        byte[] pngThumbnail = encode(screenshot, new PngEncoder());
+
+        assertThat(decode(jpegThumbnail).getWidth(), is(screenshot.getWidth()));
+        assertThat(jpegThumbnail.length, lessThan(pngThumbnail.length));
+    }
+
+    @Test
+    public void screenshot_encoding_should_be_configurable_using_system_properties() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.screenshot.compression.level", "1");
+        environmentVariables.setProperty("thucydides.screenshot.png.filter", "paeth");
+        environmentVariables.setProperty("thucydides.screenshot.encoding.threads", "2");
+
+        PngEncoder encoder = (PngEncoder) new ImageEncoders(environmentVariables).forScreenshots();
+
+        assertThat(encoder.getCompressionLevel(), is(1));
+        assertThat(encoder.getFilter(), is(PngFilter.PAETH));
+        assertThat(encoder.getThreads(), is(2));
+    }
+
+    @Test
+    public void screenshots_should_be_encoded_on_all_the_available_processors_by_default() {
+        PngEncoder encoder = (PngEncoder) new ImageEncoders(new MockEnvironmentVariables()).forScreenshots();
+
+        assertThat(encoder.getFilter(), is(PngFilter.NONE));
+        assertThat(encoder.getThreads(), is(Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Test
+    public void thumbnails_should_be_saved_as_png_files_by_default() {
+        ImageEncoders imageEncoders = new ImageEncoders(new MockEnvironmentVariables());
+
+        assertThat(imageEncoders.forThumbnails(), instanceOf(PngEncoder.class));
+    }
+
+    @Test
+    public void thumbnails_can_be_configured_to_use_jpeg() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.thumbnail.format", "jpeg");
+        environmentVariables.setProperty("thucydides.thumbnail.quality", "60");
+
+        ImageEncoder thumbnailEncoder = new ImageEncoders(environmentVariables).forThumbnails();
+
+        assertThat(thumbnailEncoder.getFileExtension(), is("jpg"));
+        assertThat(((JpegEncoder) thumbnailEncoder).getQuality(), is(60));
+    }
+
+    private BufferedImage screenshotFrom(String resource) throws IOException {
+        URL screenshotUrl = getClass().getResource(resource);
+        return ImageIO.read(new File(screenshotUrl.getFile()));
+    }
+
+    private byte[] encode(BufferedImage image, ImageEncoder encoder) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        encoder.write(image, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private BufferedImage decode(byte[] encodedImage) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(encodedImage));
+    }
+
+    private boolean haveTheSamePixels(BufferedImage image, BufferedImage otherImage) {
+        if ((image.getWidth() != otherImage.getWidth()) || (image.getHeight() != otherImage.getHeight())) {
+            return false;
+        }
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if (image.getRGB(x, y) != otherImage.getRGB(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
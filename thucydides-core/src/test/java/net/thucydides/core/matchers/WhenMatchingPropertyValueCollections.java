@@ -1,11 +1,14 @@
 package net.thucydides.core.matchers;
 
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
 import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -19,6 +22,7 @@ import static net.thucydides.core.matchers.BeanMatchers.the;
 import static net.thucydides.core.matchers.BeanMatchers.the_count;
 import static org.fest.assertions.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 
 public class WhenMatchingPropertyValueCollections {
@@ -172,6 +176,47 @@ public class WhenMatchingPropertyValueCollections {
         assertThat(filterElements(persons, firstNameIsBill)).contains(billkidd, billoddie);
     }
 
+    @Test
+    public void should_return_matching_elements_from_large_collections_in_their_original_order() {
+        List<Person> persons = new ArrayList<Person>();
+        for (int i = 0; i < 3000; i++) {
+            persons.add(new Person((i % 3 == 0) ? "Bill" : "Tim", "Oddie", i % 50));
+        }
+
+        List<Person> matchingPersons = filterElements(persons, the("age", greaterThan(47)), the("firstName", is("Bill")));
+
+        assertThat(matchingPersons.size()).isEqualTo(40);
+        assertThat(matchingPersons.get(0)).isEqualTo(persons.get(48));
+        assertThat(matchingPersons.get(39)).isEqualTo(persons.get(2949));
+    }
+
+    @Test
+    public void should_only_check_each_distinct_field_value_once() {
+        List<Person> persons = new ArrayList<Person>();
+        for (int i = 0; i < 1000; i++) {
+            persons.add(new Person((i % 2 == 0) ? "Bill" : "Tim", "Oddie", i % 10));
+        }
+        CountingMatcher ageIsEven = new CountingMatcher();
+
+        List<Person> matchingPersons = filterElements(persons, the("age", ageIsEven));
+
+        assertThat(matchingPersons.size()).isEqualTo(500);
+        assertThat(ageIsEven.evaluations).isEqualTo(10);
+    }
+
+    private static class CountingMatcher extends BaseMatcher<Integer> {
+        int evaluations = 0;
+
+        public boolean matches(Object value) {
+            evaluations++;
+            return ((Integer) value) % 2 == 0;
+        }
+
+        public void describeTo(Description description) {
+            description.appendText("an even number");
+        }
+    }
+
     @Test
     public void should_check_the_size_of_a_collection() {
         List<Person> persons = Arrays.asList(billoddie, tim, graeme);
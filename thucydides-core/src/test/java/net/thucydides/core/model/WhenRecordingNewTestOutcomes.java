@@ -8,6 +8,7 @@ import net.thucydides.core.annotations.Title;
 import net.thucydides.core.issues.IssueTracking;
 import net.thucydides.core.issues.SystemPropertiesIssueTracking;
 import net.thucydides.core.pages.Pages;
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
 import net.thucydides.core.statistics.model.TestRunTag;
 import net.thucydides.core.statistics.model.TestStatistics;
 import net.thucydides.core.steps.ScenarioSteps;
@@ -23,6 +24,7 @@ import org.mockito.MockitoAnnotations;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriverException;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.List;
 
@@ -1118,4 +1120,114 @@ public class WhenRecordingNewTestOutcomes {
         assertThat(testOutcome.getRecentPassCount() , is(5));
         assertThat(testOutcome.getRecentPendingCount() , is(1));
     }
+
+    @Test
+    public void a_frozen_test_outcome_should_reuse_its_derived_values() {
+        testOutcome.recordStep(forASuccessfulTestStepCalled("Step 1"));
+        testOutcome.recordStep(forASuccessfulTestStepCalled("Step 2"));
+
+        testOutcome.freeze();
+
+        assertThat(testOutcome.isFrozen(), is(true));
+        assertThat(testOutcome.getResult(), is(SUCCESS));
+        assertThat(testOutcome.getFlattenedTestSteps() == testOutcome.getFlattenedTestSteps(), is(true));
+        assertThat(testOutcome.getLeafTestSteps() == testOutcome.getLeafTestSteps(), is(true));
+    }
+
+    @Test
+    public void recording_a_new_step_should_unfreeze_a_test_outcome() {
+        testOutcome.recordStep(forASuccessfulTestStepCalled("Step 1"));
+        testOutcome.freeze();
+        assertThat(testOutcome.getResult(), is(SUCCESS));
+
+        testOutcome.recordStep(forABrokenTestStepCalled("Step 2", new AssertionError("Oh bother!")));
+
+        assertThat(testOutcome.isFrozen(), is(false));
+        assertThat(testOutcome.getResult(), is(FAILURE));
+        assertThat(testOutcome.getFlattenedTestSteps().size(), is(2));
+    }
+
+    @Test
+    public void changing_a_test_step_should_update_the_derived_values_of_a_frozen_test_outcome() {
+        TestStep step = forASuccessfulTestStepCalled("Step 1");
+        testOutcome.recordStep(step);
+        testOutcome.freeze();
+        assertThat(testOutcome.getResult(), is(SUCCESS));
+        assertThat(testOutcome.getScreenshots().size(), is(0));
+
+        step.setResult(FAILURE);
+        step.addScreenshot(new ScreenshotAndHtmlSource(new File("step_1.png")));
+
+        assertThat(testOutcome.isFrozen(), is(true));
+        assertThat(testOutcome.getResult(), is(FAILURE));
+        assertThat(testOutcome.getScreenshots().size(), is(1));
+    }
+
+    @Test
+    public void recording_the_dimensions_of_a_screenshot_should_update_the_screenshots_of_a_frozen_test_outcome() {
+        TestStep step = forASuccessfulTestStepCalled("Step 1");
+        ScreenshotAndHtmlSource screenshot = new ScreenshotAndHtmlSource(new File("step_1.png"));
+        step.addScreenshot(screenshot);
+        testOutcome.recordStep(step);
+        testOutcome.freeze();
+        assertThat(testOutcome.getScreenshots().get(0).getHeight(), is(0));
+
+        screenshot.recordDimensions(1024, 768, 12345);
+
+        assertThat(testOutcome.getScreenshots().get(0).getWidth(), is(1024));
+        assertThat(testOutcome.getScreenshots().get(0).getHeight(), is(768));
+    }
+
+    @Test
+    public void changing_the_steps_of_another_test_outcome_should_not_affect_a_frozen_test_outcome() {
+        testOutcome.recordStep(forASuccessfulTestStepCalled("Step 1"));
+        testOutcome.freeze();
+        List<TestStep> flattenedSteps = testOutcome.getFlattenedTestSteps();
+
+        TestStep otherStep = forASuccessfulTestStepCalled("Step 1");
+        TestOutcome.forTest("another_test", SomeTestScenario.class).recordStep(otherStep);
+        otherStep.setResult(FAILURE);
+        otherStep.addScreenshot(new ScreenshotAndHtmlSource(new File("step_1.png")));
+
+        assertThat(testOutcome.getFlattenedTestSteps() == flattenedSteps, is(true));
+    }
+
+    @Test
+    public void changing_a_child_step_should_update_the_derived_values_of_a_frozen_test_outcome() {
+        TestStep group = forASuccessfulTestStepCalled("A group");
+        TestStep child = forASuccessfulTestStepCalled("A child step");
+        group.addChildStep(child);
+        testOutcome.recordStep(group);
+        testOutcome.freeze();
+        assertThat(testOutcome.getResult(), is(SUCCESS));
+
+        child.setResult(FAILURE);
+
+        assertThat(testOutcome.getResult(), is(FAILURE));
+    }
+
+    @Test
+    public void changing_a_step_should_update_the_derived_values_of_a_qualified_copy_of_a_frozen_test_outcome() {
+        TestStep step = forASuccessfulTestStepCalled("Step 1");
+        testOutcome.recordStep(step);
+        testOutcome.freeze();
+        TestOutcome qualifiedOutcome = testOutcome.withQualifier("a qualifier");
+        assertThat(qualifiedOutcome.getResult(), is(SUCCESS));
+
+        step.setResult(FAILURE);
+
+        assertThat(testOutcome.getResult(), is(FAILURE));
+        assertThat(qualifiedOutcome.getResult(), is(FAILURE));
+    }
+
+    @Test
+    public void a_qualified_copy_of_a_frozen_test_outcome_should_also_be_frozen() {
+        testOutcome.recordStep(forASuccessfulTestStepCalled("Step 1"));
+        testOutcome.freeze();
+
+        TestOutcome qualifiedOutcome = testOutcome.withQualifier("a qualifier");
+
+        assertThat(qualifiedOutcome.isFrozen(), is(true));
+        assertThat(qualifiedOutcome.getResult(), is(SUCCESS));
+    }
 }
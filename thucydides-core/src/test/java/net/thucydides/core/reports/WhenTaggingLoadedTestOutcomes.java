@@ -0,0 +1,64 @@
+package net.thucydides.core.reports;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestTag;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+public class WhenTaggingLoadedTestOutcomes {
+
+    class SomeTestScenario {
+        public void a_test() {}
+        public void another_test() {}
+    }
+
+    @Test
+    public void should_keep_the_tags_of_each_test_outcome() {
+        TestOutcome outcome = TestOutcome.forTest("a_test", SomeTestScenario.class);
+        outcome.setTags(ImmutableSet.of(TestTag.withName("Grow apples").andType("capability")));
+
+        new TestOutcomeTagger().tag(ImmutableList.of(outcome));
+
+        assertThat(outcome.getTags(), hasItem(TestTag.withName("Grow apples").andType("capability")));
+    }
+
+    @Test
+    public void identical_tags_should_be_shared_between_test_outcomes() {
+        TestOutcome outcome1 = TestOutcome.forTest("a_test", SomeTestScenario.class);
+        outcome1.setTags(ImmutableSet.of(TestTag.withName("Grow apples").andType("capability")));
+        TestOutcome outcome2 = TestOutcome.forTest("another_test", SomeTestScenario.class);
+        outcome2.setTags(ImmutableSet.of(TestTag.withName("Grow apples").andType("capability")));
+        List<TestOutcome> outcomes = ImmutableList.of(outcome1, outcome2);
+
+        new TestOutcomeTagger(2).tag(outcomes);
+
+        TestTag tag1 = outcome1.getTags().iterator().next();
+        TestTag tag2 = outcome2.getTags().iterator().next();
+        assertThat(tag1 == tag2, is(true));
+    }
+
+    @Test
+    public void the_tags_of_large_sets_of_test_outcomes_can_be_resolved_in_parallel() {
+        List<TestOutcome> outcomes = Lists.newArrayList();
+        for (int i = 0; i < 500; i++) {
+            TestOutcome outcome = TestOutcome.forTest("a_test", SomeTestScenario.class);
+            outcome.setTags(ImmutableSet.of(TestTag.withName("Grow apples").andType("capability")));
+            outcomes.add(outcome);
+        }
+
+        new TestOutcomeTagger(4).tag(outcomes);
+
+        TestTag firstTag = outcomes.get(0).getTags().iterator().next();
+        for (TestOutcome outcome : outcomes) {
+            assertThat(outcome.getTags().iterator().next() == firstTag, is(true));
+        }
+    }
+}
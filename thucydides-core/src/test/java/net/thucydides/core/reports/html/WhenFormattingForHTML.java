@@ -15,6 +15,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class WhenFormattingForHTML {
@@ -100,6 +102,28 @@ public class WhenFormattingForHTML {
         assertThat(formattedValue, is("A big story (<a target=\"_blank\" href=\"http://my.issue.tracker/MYPROJECT/browse/MY_PROJECT_123\">#MY_PROJECT_123</a>,<a target=\"_blank\" href=\"http://my.issue.tracker/MYPROJECT/browse/MY_PROJECT_456\">#MY_PROJECT_456</a>)"));
     }
 
+    @Test
+    public void should_link_issue_numbers_that_start_with_other_issue_numbers() {
+        when(issueTracking.getShortenedIssueTrackerUrl()).thenReturn("http://my.issue.tracker/MY-PROJECT/browse/ISSUE-{0}");
+        Formatter formatter = new Formatter(issueTracking);
+
+        String formattedValue = formatter.addLinks("Issues #12 and #123");
+
+        assertThat(formattedValue, is("Issues <a target=\"_blank\" href=\"http://my.issue.tracker/MY-PROJECT/browse/ISSUE-12\">#12</a> and <a target=\"_blank\" href=\"http://my.issue.tracker/MY-PROJECT/browse/ISSUE-123\">#123</a>"));
+    }
+
+    @Test
+    public void should_reuse_the_links_for_text_that_has_already_been_formatted() {
+        when(issueTracking.getShortenedIssueTrackerUrl()).thenReturn("http://my.issue.tracker/MY-PROJECT/browse/ISSUE-{0}");
+        Formatter formatter = new Formatter(issueTracking);
+
+        String formattedValue = formatter.addLinks("Fixes issue #123");
+        String reformattedValue = formatter.addLinks("Fixes issue #123");
+
+        assertThat(reformattedValue, is(formattedValue));
+        verify(issueTracking, times(1)).getShortenedIssueTrackerUrl();
+    }
+
     @Test
     public void should_identify_issues_in_a_text() {
         List<String> issues = Formatter.shortenedIssuesIn("A scenario about issue #123");
@@ -184,6 +208,16 @@ public class WhenFormattingForHTML {
         assertThat(formattedValue, is("Given a person named &lt;name&gt;<br>and aged &lt;age&gt;"));
     }
 
+    @Test
+    public void should_only_escape_the_table_fields() {
+        Formatter formatter = new Formatter(issueTracking);
+
+        List<String> fields = ImmutableList.of("name");
+        String formattedValue = formatter.formatWithFields("Given a <b>person</b> named <name> and <names>", fields);
+
+        assertThat(formattedValue, is("Given a <b>person</b> named &lt;name&gt; and <names>"));
+    }
+
     @Test
     public void formatter_should_round_doubles_to_a_given_precision() {
         NumericalFormatter formatter = new NumericalFormatter();
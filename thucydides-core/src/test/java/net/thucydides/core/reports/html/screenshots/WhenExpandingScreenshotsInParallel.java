@@ -0,0 +1,169 @@
+package net.thucydides.core.reports.html.screenshots;
+
+import com.google.common.collect.ImmutableList;
+import net.thucydides.core.images.SimpleImageInfo;
+import net.thucydides.core.model.Screenshot;
+import net.thucydides.core.util.ExtendedTemporaryFolder;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class WhenExpandingScreenshotsInParallel {
+
+    @Rule
+    public ExtendedTemporaryFolder folder = new ExtendedTemporaryFolder();
+
+    private File screenshotDirectory;
+
+    private ExecutorService executorService;
+
+    private static final boolean KEEP_ORIGINALS = true;
+    private static final boolean PAD_IN_PLACE = false;
+
+    @Before
+    public void setupWorkingDirectory() throws IOException {
+        screenshotDirectory = folder.newFolder("screenshots");
+        File screenshotsSourceDirectory = new File(Thread.currentThread().getContextClassLoader().getResource("screenshots").getPath());
+        File[] screenshots = screenshotsSourceDirectory.listFiles();
+        for(File screenshot : screenshots) {
+            FileUtils.copyFileToDirectory(screenshot, screenshotDirectory);
+        }
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executorService.shutdown();
+    }
+
+    private final List<Screenshot> screenshots = ImmutableList.of(new Screenshot("google_page_1.png", "Google", 1200),
+                                                                  new Screenshot("amazon.png", "Amazon", 1495),
+                                                                  new Screenshot("google_page_1.png", "Google again", 1200));
+
+    @Test
+    public void should_expand_screenshots_and_keep_them_in_their_original_order() throws IOException {
+        ScreenshotExpander expander = new ScreenshotExpander(screenshotDirectory, 100000, executorService, KEEP_ORIGINALS);
+
+        List<Screenshot> expandedScreenshots = expander.expandToHeight(screenshots, 1500);
+
+        assertThat(expandedScreenshots.size(), is(3));
+        assertThat(expandedScreenshots.get(0).getDescription(), is("Google"));
+        assertThat(expandedScreenshots.get(1).getDescription(), is("Amazon"));
+        assertThat(expandedScreenshots.get(2).getDescription(), is("Google again"));
+        assertThat(heightOf("padded_google_page_1.png"), is(1500));
+        assertThat(heightOf("amazon.png"), is(2236));
+    }
+
+    @Test
+    public void should_pad_copies_of_the_screenshots_and_leave_the_originals_untouched() throws IOException {
+        ScreenshotExpander expander = new ScreenshotExpander(screenshotDirectory, 100000, executorService, KEEP_ORIGINALS);
+        int originalHeight = heightOf("google_page_1.png");
+
+        List<Screenshot> expandedScreenshots = expander.expandToHeight(screenshots, 1500);
+
+        assertThat(expandedScreenshots.get(0).getFilename(), is("padded_google_page_1.png"));
+        assertThat(expandedScreenshots.get(1).getFilename(), is("amazon.png"));
+        assertThat(expandedScreenshots.get(2).getFilename(), is("padded_google_page_1.png"));
+        assertThat(heightOf("google_page_1.png"), is(originalHeight));
+        assertThat(new File(screenshotDirectory, "padded_amazon.png").exists(), is(false));
+    }
+
+    @Test
+    public void should_record_the_height_of_the_expanded_screenshots() throws IOException {
+        ScreenshotExpander expander = new ScreenshotExpander(screenshotDirectory, 100000, executorService, KEEP_ORIGINALS);
+
+        List<Screenshot> expandedScreenshots = expander.expandToHeight(screenshots, 1500);
+
+        assertThat(expandedScreenshots.get(0).getHeight(), is(1500));
+        assertThat(expandedScreenshots.get(1).getHeight(), is(2236));
+        assertThat(expandedScreenshots.get(2).getHeight(), is(1500));
+    }
+
+    @Test
+    public void screenshots_that_are_already_expanded_should_not_be_rewritten() throws IOException {
+        ScreenshotExpander expander = new ScreenshotExpander(screenshotDirectory, 100000, executorService, KEEP_ORIGINALS);
+        expander.expandToHeight(screenshots, 1500);
+        File expandedScreenshot = new File(screenshotDirectory, "padded_google_page_1.png");
+        expandedScreenshot.setLastModified(0);
+
+        expander.expandToHeight(screenshots, 1500);
+
+        assertThat(expandedScreenshot.lastModified(), is(0L));
+    }
+
+    @Test
+    public void screenshots_that_have_changed_since_they_were_expanded_should_be_expanded_again() throws IOException {
+        ScreenshotExpander expander = new ScreenshotExpander(screenshotDirectory, 100000, executorService, KEEP_ORIGINALS);
+        expander.expandToHeight(screenshots, 1500);
+        File expandedScreenshot = new File(screenshotDirectory, "padded_google_page_1.png");
+        expandedScreenshot.setLastModified(0);
+        File originalScreenshot = new File(screenshotDirectory, "google_page_1.png");
+        originalScreenshot.setLastModified(originalScreenshot.lastModified() - 60000);
+
+        expander.expandToHeight(screenshots, 1500);
+
+        assertThat(expandedScreenshot.lastModified(), is(not(0L)));
+    }
+
+    @Test
+    public void expanded_copies_that_have_been_deleted_should_be_written_again() throws IOException {
+        ScreenshotExpander expander = new ScreenshotExpander(screenshotDirectory, 100000, executorService, KEEP_ORIGINALS);
+        expander.expandToHeight(screenshots, 1500);
+        new File(screenshotDirectory, "padded_google_page_1.png").delete();
+
+        List<Screenshot> expandedScreenshots = expander.expandToHeight(screenshots, 1500);
+
+        assertThat(expandedScreenshots.get(0).getFilename(), is("padded_google_page_1.png"));
+        assertThat(heightOf("padded_google_page_1.png"), is(1500));
+    }
+
+    @Test
+    public void screenshots_should_be_expanded_even_if_they_need_more_than_the_image_memory_budget() throws IOException {
+        ScreenshotExpander expander = new ScreenshotExpander(screenshotDirectory, 1, executorService, KEEP_ORIGINALS);
+
+        expander.expandToHeight(screenshots, 1500);
+
+        assertThat(heightOf("padded_google_page_1.png"), is(1500));
+    }
+
+    @Test
+    public void should_pad_the_screenshots_in_place_unless_the_originals_are_kept() throws IOException {
+        ScreenshotExpander expander = new ScreenshotExpander(screenshotDirectory, 100000, executorService, PAD_IN_PLACE);
+        int screenshotCount = screenshotDirectory.list().length;
+
+        List<Screenshot> expandedScreenshots = expander.expandToHeight(screenshots, 1500);
+
+        assertThat(expandedScreenshots.get(0).getFilename(), is("google_page_1.png"));
+        assertThat(expandedScreenshots.get(0).getHeight(), is(1500));
+        assertThat(heightOf("google_page_1.png"), is(1500));
+        assertThat(screenshotDirectory.list().length, is(screenshotCount));
+    }
+
+    @Test
+    public void the_original_screenshots_should_only_be_kept_if_requested() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.keep.unscaled.screenshots", "true");
+
+        ScreenshotExpander expander = new ScreenshotExpander(screenshotDirectory, environmentVariables);
+
+        assertThat(expander.keepsOriginals(), is(true));
+        assertThat(new ScreenshotExpander(screenshotDirectory, new MockEnvironmentVariables()).keepsOriginals(), is(false));
+    }
+
+    private int heightOf(String screenshot) throws IOException {
+        return new SimpleImageInfo(new File(screenshotDirectory, screenshot)).getHeight();
+    }
+}
@@ -21,6 +21,7 @@ public class WhenReformattingScreenshots {
     public ExtendedTemporaryFolder folder = new ExtendedTemporaryFolder();
 
     private File screenshotDirectory;
+    private int screenshotCount;
 
     @Before
     public void setupWorkingDirectory() throws IOException {
@@ -30,6 +31,7 @@ public class WhenReformattingScreenshots {
         for(File screenshot : screenshots) {
             FileUtils.copyFileToDirectory(screenshot, screenshotDirectory);
         }
+        screenshotCount = screenshots.length;
     }
 
     @Test
@@ -44,26 +46,40 @@ public class WhenReformattingScreenshots {
     }
 
     @Test
-    public void should_keep_original_image_if_requested() throws IOException {
+    public void should_resize_the_screenshot_file_itself() throws IOException {
 
         Screenshot screenshot = new Screenshot("google_page_1.png", "Google", 1200);
-        ScreenshotFormatter.forScreenshot(screenshot).
-                keepOriginals(true).
-                inDirectory(screenshotDirectory).expandToHeight(1500);
+        Screenshot expandedScreenshot = ScreenshotFormatter.forScreenshot(screenshot).inDirectory(screenshotDirectory).expandToHeight(1500);
 
-        File backupScreenshot = new File(screenshotDirectory, "original_google_page_1.png");
-        assertThat(backupScreenshot.exists(), is(true));
+        assertThat(expandedScreenshot.getFilename(), is("google_page_1.png"));
+        assertThat(new SimpleImageInfo(new File(screenshotDirectory, "google_page_1.png")).getHeight(), is(1500));
+        assertThat(screenshotDirectory.list().length, is(screenshotCount));
     }
 
     @Test
-    public void should_not_keep_original_image_by_default() throws IOException {
+    public void should_resize_a_copy_of_the_screenshot_if_requested() throws IOException {
 
         Screenshot screenshot = new Screenshot("google_page_1.png", "Google", 1200);
-        ScreenshotFormatter.forScreenshot(screenshot).
-                inDirectory(screenshotDirectory).expandToHeight(1500);
+        int originalHeight = new SimpleImageInfo(new File(screenshotDirectory, "google_page_1.png")).getHeight();
+        Screenshot expandedScreenshot = ScreenshotFormatter.forScreenshot(screenshot).inDirectory(screenshotDirectory).expandCopyToHeight(1500);
+
+        assertThat(expandedScreenshot.getFilename(), is("padded_google_page_1.png"));
+        assertThat(new SimpleImageInfo(new File(screenshotDirectory, "padded_google_page_1.png")).getHeight(), is(1500));
+        assertThat(new SimpleImageInfo(new File(screenshotDirectory, "google_page_1.png")).getHeight(), is(originalHeight));
+    }
+
+    @Test
+    public void should_not_resize_a_screenshot_that_has_already_been_resized() throws IOException {
+
+        Screenshot screenshot = new Screenshot("google_page_1.png", "Google", 1200);
+        ScreenshotFormatter.forScreenshot(screenshot).inDirectory(screenshotDirectory).expandToHeight(1500);
+        File screenshotFile = new File(screenshotDirectory, "google_page_1.png");
+        screenshotFile.setLastModified(0);
+
+        Screenshot expandedScreenshot = ScreenshotFormatter.forScreenshot(screenshot).inDirectory(screenshotDirectory).expandToHeight(1500);
 
-        File backupScreenshot = new File(screenshotDirectory, "original_google_page_1.png");
-        assertThat(backupScreenshot.exists(), is(false));
+        assertThat(expandedScreenshot.getHeight(), is(1500));
+        assertThat(screenshotFile.lastModified(), is(0L));
     }
 
     @Test
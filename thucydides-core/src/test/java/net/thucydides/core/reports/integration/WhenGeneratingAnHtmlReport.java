@@ -1,10 +1,12 @@
 package net.thucydides.core.reports.integration;
 
 import net.thucydides.core.digest.Digest;
+import net.thucydides.core.images.ImageEncoders;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestStep;
 import net.thucydides.core.reports.TestOutcomes;
 import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
+import net.thucydides.core.screenshots.ScreenshotDerivatives;
 import net.thucydides.core.util.ExtendedTemporaryFolder;
 
 import org.apache.commons.codec.digest.DigestUtils;
@@ -181,6 +183,34 @@ public class WhenGeneratingAnHtmlReport extends AbstractReportGenerationTest {
                                         containsString("src=\"google_page_3.png\"")));
     }
 
+    @Test
+    public void the_screenshots_report_should_display_screenshot_previews_where_available()  throws Exception {
+        TestOutcome testOutcome = TestOutcome.forTest("search_for_cats", SomeTestScenario.class);
+
+        recordStepWithScreenshot(testOutcome, "Search cats on Google", "google_page_1.png");
+        new ScreenshotDerivatives(new ImageEncoders(environmentVariables)).generateFor(new File(outputDirectory, "google_page_1.png"));
+
+        reporter.generateReportFor(testOutcome, allTestOutcomes);
+
+        File screenshotReport = new File(outputDirectory, Digest.ofTextValue("a_user_story_search_for_cats") + "_screenshots.html");
+        String reportContents = FileUtils.readFileToString(screenshotReport);
+        assertThat(reportContents, allOf(containsString("src=\"preview_google_page_1.png\""),
+                                         containsString("href=\"google_page_1.png\"")));
+    }
+
+    @Test
+    public void the_test_report_should_display_screenshot_thumbnails_where_available()  throws Exception {
+        TestOutcome testOutcome = TestOutcome.forTest("search_for_cats", SomeTestScenario.class);
+
+        recordStepWithScreenshot(testOutcome, "Search cats on Google", "google_page_1.png");
+        new ScreenshotDerivatives(new ImageEncoders(environmentVariables)).generateFor(new File(outputDirectory, "google_page_1.png"));
+
+        File htmlReport = reporter.generateReportFor(testOutcome, allTestOutcomes);
+
+        String reportContents = FileUtils.readFileToString(htmlReport);
+        assertThat(reportContents, containsString("src=\"thumbnail_google_page_1.png\""));
+    }
+
     @Test
     public void the_screenshots_report_should_contain_captions_with_the_step_descriptions()  throws Exception {
         TestOutcome testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class);
@@ -36,6 +36,7 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.startsWith;
 
 public class WhenGeneratingAnXMLReport {
@@ -180,6 +181,67 @@ public class WhenGeneratingAnXMLReport {
         assertThat(generatedReportText, isSimilarTo(expectedReport));
     }
 
+    @Test
+    public void should_write_large_tables_in_a_compact_form_that_can_be_read_back()
+            throws Exception {
+
+        List<List<Object>> rows = new ArrayList<List<Object>>();
+        for (int i = 0; i < 1200; i++) {
+            List<Object> row = new ArrayList<Object>();
+            row.addAll(Lists.newArrayList("Joe", (i % 2 == 0) ? "Smith" : "Jones", Integer.toString(i % 10)));
+            rows.add(row);
+        }
+
+        TestOutcome testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class);
+        DataTable table = DataTable.withHeaders(ImmutableList.of("firstName","lastName","age")).andRows(rows).build();
+        testOutcome.useExamplesFrom(table);
+        for (int i = 0; i < 1200; i++) {
+            table.row(i).hasResult((i == 7) ? TestResult.FAILURE : TestResult.SUCCESS);
+        }
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1"));
+
+        File xmlReport = reporter.generateReportFor(testOutcome, allTestOutcomes);
+        String generatedReportText = getStringFrom(xmlReport);
+
+        assertThat(generatedReportText, allOf(containsString("<columns>"), containsString("<results>")));
+        assertThat(generatedReportText, not(containsString("<row ")));
+
+        TestOutcome reloadedOutcome = new XMLTestOutcomeReporter().loadReportFrom(xmlReport).get();
+        DataTable reloadedTable = reloadedOutcome.getDataTable();
+        assertThat(reloadedTable.getHeaders(), is(table.getHeaders()));
+        assertThat(reloadedTable.getSize(), is(1200));
+        assertThat(reloadedTable.getRow(7).getResult(), is(TestResult.FAILURE));
+        assertThat(reloadedTable.getRow(8).getResult(), is(TestResult.SUCCESS));
+        assertThat(reloadedTable.getRow(1199).getStringValues(), is((List<String>) ImmutableList.of("Joe", "Jones", "9")));
+        assertThat(reloadedTable.countRowsWithResult(TestResult.FAILURE), is(1));
+    }
+
+    @Test
+    public void should_read_back_null_and_missing_cells_in_compact_tables()
+            throws Exception {
+
+        List<List<Object>> rows = new ArrayList<List<Object>>();
+        for (int i = 0; i < 1200; i++) {
+            List<Object> row = new ArrayList<Object>();
+            row.addAll(Lists.newArrayList("Joe", (i % 2 == 0) ? null : "Jones", Integer.toString(i % 10)));
+            rows.add(row);
+        }
+        rows.set(3, new ArrayList<Object>(Lists.newArrayList("Jack")));
+
+        TestOutcome testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class);
+        DataTable table = DataTable.withHeaders(ImmutableList.of("firstName","lastName","age")).andRows(rows).build();
+        testOutcome.useExamplesFrom(table);
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1"));
+
+        File xmlReport = reporter.generateReportFor(testOutcome, allTestOutcomes);
+
+        DataTable reloadedTable = new XMLTestOutcomeReporter().loadReportFrom(xmlReport).get().getDataTable();
+        assertThat(reloadedTable.getSize(), is(1200));
+        assertThat(reloadedTable.getRow(0).getValues(), is((List) Lists.newArrayList("Joe", null, "0")));
+        assertThat(reloadedTable.getRow(1).getValues(), is((List) Lists.newArrayList("Joe", "Jones", "1")));
+        assertThat(reloadedTable.getRow(3).getValues(), is((List) Lists.newArrayList("Jack")));
+    }
+
     @Test
     public void should_generate_an_XML_report_for_an_acceptance_test_run_with_a_table()
             throws Exception {
@@ -740,6 +802,33 @@ public class WhenGeneratingAnXMLReport {
         assertThat(generatedReportText, isSimilarTo(expectedReport));
     }
 
+    @Test
+    public void should_include_the_dimensions_of_screenshots_where_known() throws Exception {
+        TestOutcome testOutcome = TestOutcome.forTest("a_simple_test_case", SomeTestScenario.class);
+        String expectedReport =
+                "<acceptance-test-run title='A simple test case' name='a_simple_test_case' steps='1' successful='1' failures='0' skipped='0' ignored='0' pending='0' result='SUCCESS' duration='0'>\n"
+                        + "  <user-story id='net.thucydides.core.reports.integration.WhenGeneratingAnXMLReport.AUserStory' name='A user story' path='net.thucydides.core.reports.integration.WhenGeneratingAnXMLReport'/>\n"
+                        + "  <tags>\n"
+                        + "    <tag name='A user story' type='story'/>\n"
+                        + "  </tags>\n"
+                        + "  <test-step result='SUCCESS' duration='0'>\n"
+                        + "    <screenshots>\n"
+                        + "      <screenshot image='step_1.png' width='1024' height='768' size='12345'/>\n"
+                        + "    </screenshots>\n"
+                        + "    <description>step 1</description>\n"
+                        + "  </test-step>\n"
+                        + "</acceptance-test-run>";
+
+        TestStep step1 = TestStepFactory.successfulTestStepCalled("step 1");
+        step1.addScreenshot(new ScreenshotAndHtmlSource(new File("step_1.png"), null, 1024, 768, 12345));
+        testOutcome.recordStep(step1);
+
+        File xmlReport = reporter.generateReportFor(testOutcome, allTestOutcomes);
+        String generatedReportText = getStringFrom(xmlReport);
+
+        assertThat(generatedReportText, isSimilarTo(expectedReport));
+    }
+
     @Test
     public void should_have_a_qualified_filename_if_qualifier_present() throws Exception {
         TestOutcome testOutcome = TestOutcome.forTest("a_simple_test_case", SomeTestScenario.class);
@@ -246,6 +246,31 @@ public class WhenReadingAnXMLReport {
         assertThat(testStep.getScreenshots().get(0).getSourcecode().isPresent(), is(false));
     }
 
+    @Test
+    public void should_load_recorded_screenshot_dimensions_from_xml_file() throws Exception {
+        String storedReportXML =
+                "<acceptance-test-run title='Should do this' name='should_do_this' steps='1' successful='1' failures='0' skipped='0' ignored='0' pending='0' result='SUCCESS'>\n"
+                        + "  <user-story id='net.thucydides.core.reports.integration.WhenGeneratingAnXMLReport.AUserStory' name='A user story' />\n"
+                        + "  <test-step result='SUCCESS'>\n"
+                        + "    <screenshots>"
+                        + "      <screenshot image='step_1.png' width='1024' height='768' size='12345'/>"
+                        + "    </screenshots>"
+                        + "    <description>step 1</description>\n"
+                        + "  </test-step>\n"
+                        + "</acceptance-test-run>";
+
+        File report = temporaryDirectory.newFile("saved-report.xml");
+        FileUtils.writeStringToFile(report, storedReportXML);
+
+        Optional<TestOutcome> testOutcome = outcomeReporter.loadReportFrom(report);
+
+        TestStep testStep = (TestStep) testOutcome.get().getTestSteps().get(0);
+        assertThat(testStep.getScreenshots().get(0).getWidth(), is(1024));
+        assertThat(testStep.getScreenshots().get(0).getHeight(), is(768));
+        assertThat(testStep.getScreenshots().get(0).getByteSize(), is(12345L));
+        assertThat(testOutcome.get().getScreenshots().get(0).getHeight(), is(768));
+    }
+
 
     @Test
     public void should_load_user_story_details_from_xml_file() throws Exception {
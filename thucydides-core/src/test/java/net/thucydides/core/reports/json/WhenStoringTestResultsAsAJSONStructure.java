@@ -8,6 +8,7 @@ import net.thucydides.core.model.StoryTestResults;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestResult;
 import net.thucydides.core.model.features.ApplicationFeature;
+import net.thucydides.core.reports.TestOutcomes;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -133,6 +134,24 @@ public class WhenStoringTestResultsAsAJSONStructure {
 
     }
 
+    @Test
+    public void should_be_able_to_add_the_results_for_a_tag() {
+        JSONResultTree resultTree = new JSONResultTree();
+
+        TestOutcomes outcomes = mock(TestOutcomes.class);
+        when(outcomes.getStepCount()).thenReturn(12);
+        when(outcomes.getTotal()).thenReturn(3);
+        when(outcomes.getSuccessCount()).thenReturn(3);
+        resultTree.addTestOutcomesForTag("Search \"widgets\"", outcomes);
+
+        String json = resultTree.toJSON();
+
+        assertThat(json, containsString("\"id\":\"Search \\\"widgets\\\"\""));
+        assertThat(json, containsString("\"type\":\"tag\""));
+        assertThat(json, containsString("\"$area\":12"));
+        assertThat(json, containsString("\"tests\":3"));
+    }
+
     @Test
     public void should_be_able_to_add_user_stories() {
         JSONResultTree resultTree = new JSONResultTree();
@@ -317,10 +336,7 @@ public class WhenStoringTestResultsAsAJSONStructure {
 
         prepareFeatureResults();
 
-
-        JSONTreeNode treeNode = new JSONTreeNode("widgets", "Widgets", new RelativeSizeColorScheme());
-
-        assertThat(treeNode.totalExecutedTestsIn(widgetFeature), is(51));
+        assertThat(ResultTreeMeasures.totalExecutedTestsIn(widgetFeature), is(51));
     }
 
     @Test
@@ -328,10 +344,7 @@ public class WhenStoringTestResultsAsAJSONStructure {
 
         prepareFeatureResults();
 
-
-        JSONTreeNode treeNode = new JSONTreeNode("widgets", "Widgets", new RelativeSizeColorScheme());
-
-        assertThat(treeNode.totalStepsInExecutedTestsIn(widgetFeature), is(153));
+        assertThat(ResultTreeMeasures.totalStepsInExecutedTestsIn(widgetFeature), is(153));
     }
 
     private void prepareFeatureResults() {
@@ -0,0 +1,166 @@
+package net.thucydides.core.resources;
+
+import com.google.common.base.Optional;
+import net.thucydides.core.util.ExtendedTemporaryFolder;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class WhenIndexingTheClasspath {
+
+    @Rule
+    public ExtendedTemporaryFolder temporaryDirectory = new ExtendedTemporaryFolder();
+
+    private File jarFile;
+
+    @Before
+    public void createJarFile() throws IOException {
+        jarFile = new File(temporaryDirectory.newFolder("lib"), "sample.jar");
+        writeJarFile(jarFile, "report-resources/css/core.css");
+    }
+
+    private void writeJarFile(File file, String... entries) throws IOException {
+        JarOutputStream jar = new JarOutputStream(new FileOutputStream(file));
+        for (String entry : entries) {
+            jar.putNextEntry(new ZipEntry(entry));
+            jar.write(entry.getBytes());
+            jar.closeEntry();
+        }
+        jar.close();
+    }
+
+    class CountingClasspathIndex extends ClasspathIndex {
+        int jarFilesOpened = 0;
+
+        CountingClasspathIndex(Optional<File> indexFile) {
+            super(indexFile);
+        }
+
+        @Override
+        protected ZipFile zipFileFor(File file) throws IOException {
+            jarFilesOpened++;
+            return super.zipFileFor(file);
+        }
+    }
+
+    @Test
+    public void should_list_the_entries_in_a_jar_file() {
+        List<String> entries = new ClasspathIndex().entriesIn(jarFile);
+
+        assertThat(entries, contains("report-resources/css/core.css"));
+    }
+
+    @Test
+    public void should_list_the_entries_in_zip_files_whatever_their_name() throws IOException {
+        File zipFile = new File(temporaryDirectory.newFolder("zips"), "resources.zip");
+        writeJarFile(zipFile, "report-resources/css/core.css");
+
+        List<String> entries = new ClasspathIndex().entriesIn(zipFile);
+
+        assertThat(entries, contains("report-resources/css/core.css"));
+    }
+
+    @Test
+    public void files_that_are_not_archives_should_have_no_entries() throws IOException {
+        File textFile = temporaryDirectory.newFile("readme.txt");
+        FileUtils.writeStringToFile(textFile, "Not a zip file");
+
+        assertThat(new ClasspathIndex().entriesIn(textFile).isEmpty(), is(true));
+    }
+
+    @Test
+    public void should_only_read_a_jar_file_once() {
+        CountingClasspathIndex classpathIndex = new CountingClasspathIndex(Optional.<File>absent());
+
+        classpathIndex.entriesIn(jarFile);
+        classpathIndex.entriesIn(jarFile);
+
+        assertThat(classpathIndex.jarFilesOpened, is(1));
+    }
+
+    @Test
+    public void should_read_a_jar_file_again_if_it_changes() throws IOException {
+        ClasspathIndex classpathIndex = new ClasspathIndex();
+        classpathIndex.entriesIn(jarFile);
+
+        writeJarFile(jarFile, "report-resources/css/core.css", "report-resources/css/extra.css");
+        jarFile.setLastModified(jarFile.lastModified() + 2000);
+
+        assertThat(classpathIndex.entriesIn(jarFile), hasItem("report-resources/css/extra.css"));
+    }
+
+    @Test
+    public void should_reuse_jar_file_entries_saved_in_a_previous_run() throws IOException {
+        File indexFile = new File(temporaryDirectory.newFolder("index"), "classpath.index");
+        ClasspathIndex previousIndex = new ClasspathIndex(Optional.of(indexFile));
+        previousIndex.entriesIn(jarFile);
+        previousIndex.saveIfChanged();
+
+        CountingClasspathIndex classpathIndex = new CountingClasspathIndex(Optional.of(indexFile));
+        List<String> entries = classpathIndex.entriesIn(jarFile);
+
+        assertThat(entries, contains("report-resources/css/core.css"));
+        assertThat(classpathIndex.jarFilesOpened, is(0));
+    }
+
+    @Test
+    public void should_list_the_files_in_a_directory_by_canonical_path() throws IOException {
+        File directory = temporaryDirectory.newFolder("classes");
+        File stylesheet = new File(new File(directory, "css"), "core.css");
+        stylesheet.getParentFile().mkdirs();
+        stylesheet.createNewFile();
+
+        List<String> entries = new ClasspathIndex().entriesIn(directory);
+
+        assertThat(entries, contains(stylesheet.getCanonicalPath()));
+    }
+
+    @Test
+    public void should_find_files_added_to_a_sub_directory_since_the_last_lookup() throws IOException {
+        File directory = temporaryDirectory.newFolder("classes");
+        File cssDirectory = new File(directory, "css");
+        cssDirectory.mkdirs();
+        new File(cssDirectory, "core.css").createNewFile();
+        ClasspathIndex classpathIndex = new ClasspathIndex();
+        classpathIndex.entriesIn(directory);
+
+        File extraStylesheet = new File(cssDirectory, "extra.css");
+        extraStylesheet.createNewFile();
+
+        assertThat(classpathIndex.entriesIn(directory), hasItem(extraStylesheet.getCanonicalPath()));
+    }
+
+    @Test
+    public void should_reuse_the_listing_of_a_directory_that_has_not_changed() throws IOException {
+        File directory = temporaryDirectory.newFolder("classes");
+        File cssDirectory = new File(directory, "css");
+        cssDirectory.mkdirs();
+        new File(cssDirectory, "core.css").createNewFile();
+        long anHourAgo = System.currentTimeMillis() - 60 * 60 * 1000;
+        cssDirectory.setLastModified(anHourAgo);
+        directory.setLastModified(anHourAgo);
+        ClasspathIndex classpathIndex = new ClasspathIndex();
+        classpathIndex.entriesIn(directory);
+
+        File extraStylesheet = new File(cssDirectory, "extra.css");
+        extraStylesheet.createNewFile();
+        cssDirectory.setLastModified(anHourAgo);
+
+        assertThat(classpathIndex.entriesIn(directory), not(hasItem(extraStylesheet.getCanonicalPath())));
+    }
+}
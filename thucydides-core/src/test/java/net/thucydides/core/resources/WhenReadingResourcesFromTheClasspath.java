@@ -2,6 +2,7 @@ package net.thucydides.core.resources;
 
 import net.thucydides.core.util.ExtendedTemporaryFolder;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -15,8 +16,11 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.regex.Pattern;
 import java.util.zip.ZipFile;
 
@@ -211,6 +215,51 @@ public class WhenReadingResourcesFromTheClasspath {
         assertThat(destinationFile.exists(), is(true));
     }
 
+    @Test
+    public void should_copy_several_resources_into_the_target_directory() throws Exception {
+        File targetDir = temporaryDirectory.newFolder("target");
+        String sampleStylesheet = new File("src/test/resources/resourcelist/sample.css").getAbsolutePath();
+        String nestedStylesheet = new File("src/test/resources/resourcelist/stylesheets/sample.css").getAbsolutePath();
+        FileResources fileResource = FileResources.from("resourcelist");
+
+        fileResource.copyResourcesTo(Arrays.asList(sampleStylesheet, nestedStylesheet), targetDir);
+
+        assertThat(new File(targetDir, "sample.css").exists(), is(true));
+        assertThat(new File(new File(targetDir, "stylesheets"), "sample.css").exists(), is(true));
+    }
+
+    @Test
+    public void should_not_copy_a_resource_that_is_already_in_the_target_directory() throws Exception {
+        File targetDir = temporaryDirectory.newFolder("target");
+        String sourceResource = new File("src/test/resources/resourcelist/sample.css").getAbsolutePath();
+        final List<File> filesWritten = new ArrayList<File>();
+        FileResources fileResource = new FileResources("resourcelist") {
+            @Override
+            protected FileOutputStream createOutputStream(File destinationFile) throws FileNotFoundException {
+                filesWritten.add(destinationFile);
+                return super.createOutputStream(destinationFile);
+            }
+        };
+
+        fileResource.copyResourceTo(sourceResource, targetDir);
+        fileResource.copyResourceTo(sourceResource, targetDir);
+
+        assertThat(filesWritten.size(), is(1));
+    }
+
+    @Test
+    public void should_replace_a_resource_that_is_different_in_the_target_directory() throws Exception {
+        File targetDir = temporaryDirectory.newFolder("target");
+        File sourceFile = new File("src/test/resources/resourcelist/sample.css");
+        File destinationFile = new File(targetDir, "sample.css");
+        FileUtils.writeStringToFile(destinationFile, "an older version of the stylesheet");
+        FileResources fileResource = FileResources.from("resourcelist");
+
+        fileResource.copyResourceTo(sourceFile.getAbsolutePath(), targetDir);
+
+        assertThat(FileUtils.contentEquals(sourceFile, destinationFile), is(true));
+    }
+
     static class ErrorProneResourceList extends ResourceList {
 
         protected ErrorProneResourceList(final Pattern pattern) {
@@ -14,6 +14,7 @@ import org.junit.rules.TemporaryFolder;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -88,6 +89,20 @@ public class WhenConfiguringTheStatisticsDatabase {
         assertThat(properties.getProperty("hibernate.hbm2ddl.auto"), is("validate"));
     }
 
+    @Test
+    public void should_add_new_columns_to_an_existing_custom_database() throws SQLException {
+        String preexistingDatabaseUrl = "jdbc:hsqldb:mem:database-without-test-case-names";
+        createPreexistingDatabaseFor(preexistingDatabaseUrl);
+
+        environmentVariables.setProperty("thucydides.statistics.url",preexistingDatabaseUrl);
+
+        databaseConfig.getProperties();
+
+        Connection connection = DriverManager.getConnection(preexistingDatabaseUrl, "SA", "");
+        ResultSet columns = connection.getMetaData().getColumns(null, null, "TESTRUN", "TESTCASENAME");
+        assertThat(columns.next(), is(true));
+    }
+
     @Rule
     public ExtendedTemporaryFolder temporaryFolder = new ExtendedTemporaryFolder();
 
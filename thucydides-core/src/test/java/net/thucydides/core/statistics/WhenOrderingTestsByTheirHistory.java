@@ -0,0 +1,210 @@
+package net.thucydides.core.statistics;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Provider;
+import com.google.inject.util.Providers;
+import net.thucydides.core.guice.DatabaseConfig;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.statistics.model.TestRun;
+import net.thucydides.core.statistics.model.TestRunTag;
+import net.thucydides.core.statistics.model.TestStatistics;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WhenOrderingTestsByTheirHistory {
+
+    @Mock
+    DatabaseConfig databaseConfig;
+
+    MockEnvironmentVariables environmentVariables;
+
+    StubbedTestStatisticsProvider testStatisticsProvider;
+
+    List<String> tests = ImmutableList.of("stable test", "failing test", "flaky test", "new test");
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        when(databaseConfig.isActive()).thenReturn(true);
+        environmentVariables = new MockEnvironmentVariables();
+        testStatisticsProvider = new StubbedTestStatisticsProvider();
+        testStatisticsProvider.recordResults("stable test", TestResult.SUCCESS, TestResult.SUCCESS, TestResult.SUCCESS);
+        testStatisticsProvider.recordResults("failing test", TestResult.FAILURE, TestResult.SUCCESS, TestResult.SUCCESS);
+        testStatisticsProvider.recordResults("flaky test", TestResult.SUCCESS, TestResult.FAILURE, TestResult.SUCCESS);
+    }
+
+    @Test
+    public void tests_should_keep_their_original_order_by_default() {
+        TestHistoryOrdering ordering = new TestHistoryOrdering(Providers.<TestStatisticsProvider>of(testStatisticsProvider),
+                                                               Providers.of(databaseConfig),
+                                                               environmentVariables);
+
+        assertThat(ordering.inExecutionOrder(tests, titles()), contains("stable test", "failing test", "flaky test", "new test"));
+    }
+
+    @Test
+    public void recently_failed_and_unstable_tests_should_be_run_first() {
+        environmentVariables.setProperty("thucydides.test.ordering", "failures_first");
+        TestHistoryOrdering ordering = new TestHistoryOrdering(Providers.<TestStatisticsProvider>of(testStatisticsProvider),
+                                                               Providers.of(databaseConfig),
+                                                               environmentVariables);
+
+        assertThat(ordering.inExecutionOrder(tests, titles()), contains("failing test", "flaky test", "stable test", "new test"));
+    }
+
+    @Test
+    public void groups_of_tests_should_be_ranked_by_the_test_in_them_that_should_run_first() {
+        environmentVariables.setProperty("thucydides.test.ordering", "failures_first");
+        TestHistoryOrdering ordering = new TestHistoryOrdering(Providers.<TestStatisticsProvider>of(testStatisticsProvider),
+                                                               Providers.of(databaseConfig),
+                                                               environmentVariables);
+        List<List<String>> testClasses = ImmutableList.<List<String>>of(ImmutableList.of("stable test"),
+                                                                        ImmutableList.of("stable test", "flaky test"),
+                                                                        ImmutableList.of("new test", "failing test"));
+
+        List<List<String>> orderedTestClasses = ordering.groupsInExecutionOrder(testClasses, groupTitles());
+
+        assertThat(orderedTestClasses, contains(testClasses.get(2), testClasses.get(1), testClasses.get(0)));
+        assertThat(testStatisticsProvider.queryCount, is(1));
+    }
+
+    @Test
+    public void tests_should_keep_their_original_order_if_the_statistics_database_is_not_available() {
+        environmentVariables.setProperty("thucydides.test.ordering", "failures_first");
+        when(databaseConfig.isActive()).thenReturn(false);
+        TestHistoryOrdering ordering = new TestHistoryOrdering(Providers.<TestStatisticsProvider>of(testStatisticsProvider),
+                                                               Providers.of(databaseConfig),
+                                                               environmentVariables);
+
+        assertThat(ordering.inExecutionOrder(tests, titles()), contains("stable test", "failing test", "flaky test", "new test"));
+    }
+
+    @Test
+    public void the_statistics_database_should_not_be_opened_if_the_ordering_is_not_active() {
+        Provider<TestStatisticsProvider> statisticsProvider = mock(Provider.class);
+        Provider<DatabaseConfig> databaseConfigProvider = mock(Provider.class);
+        TestHistoryOrdering ordering = new TestHistoryOrdering(statisticsProvider, databaseConfigProvider, environmentVariables);
+
+        ordering.inExecutionOrder(tests, titles());
+
+        verify(statisticsProvider, never()).get();
+        verify(databaseConfigProvider, never()).get();
+    }
+
+    @Test
+    public void the_history_of_all_the_tests_should_be_read_in_a_single_query() {
+        environmentVariables.setProperty("thucydides.test.ordering", "failures_first");
+        TestHistoryOrdering ordering = new TestHistoryOrdering(Providers.<TestStatisticsProvider>of(testStatisticsProvider),
+                                                               Providers.of(databaseConfig),
+                                                               environmentVariables);
+
+        ordering.inExecutionOrder(tests, titles());
+
+        assertThat(testStatisticsProvider.queryCount, is(1));
+    }
+
+    @Test
+    public void tests_should_keep_their_original_order_if_the_test_history_cannot_be_read() {
+        environmentVariables.setProperty("thucydides.test.ordering", "failures_first");
+        TestStatisticsProvider brokenStatisticsProvider = mock(TestStatisticsProvider.class);
+        when(brokenStatisticsProvider.testRunsForTests(anyCollection())).thenThrow(new IllegalStateException("No database"));
+        TestHistoryOrdering ordering = new TestHistoryOrdering(Providers.of(brokenStatisticsProvider),
+                                                               Providers.of(databaseConfig),
+                                                               environmentVariables);
+
+        assertThat(ordering.inExecutionOrder(tests, titles()), contains("stable test", "failing test", "flaky test", "new test"));
+    }
+
+    private Function<String, String> titles() {
+        return new Function<String, String>() {
+            public String apply(String title) {
+                return title;
+            }
+        };
+    }
+
+    private Function<List<String>, List<String>> groupTitles() {
+        return new Function<List<String>, List<String>>() {
+            public List<String> apply(List<String> titles) {
+                return titles;
+            }
+        };
+    }
+
+    class StubbedTestStatisticsProvider implements TestStatisticsProvider {
+
+        private final Map<String, List<TestResult>> results = new HashMap<String, List<TestResult>>();
+
+        int queryCount = 0;
+
+        void recordResults(String title, TestResult... mostRecentFirst) {
+            results.put(title, Arrays.asList(mostRecentFirst));
+        }
+
+        public List<TestRun> testRunsForTest(With withCondition) {
+            return Collections.emptyList();
+        }
+
+        public List<TestRun> testRunsForTests(Collection<String> titles) {
+            queryCount++;
+            List<TestRun> testRuns = new ArrayList<TestRun>();
+            for (String title : titles) {
+                if (results.containsKey(title)) {
+                    for (TestResult result : results.get(title)) {
+                        testRuns.add(testRun(title, result));
+                    }
+                }
+            }
+            return testRuns;
+        }
+
+        private TestRun testRun(String title, TestResult result) {
+            TestRun testRun = mock(TestRun.class);
+            when(testRun.getTitle()).thenReturn(title);
+            when(testRun.getResult()).thenReturn(result);
+            return testRun;
+        }
+
+        public List<TestRun> getAllTestHistories() {
+            return Collections.emptyList();
+        }
+
+        public TestStatistics statisticsForTests(With withCondition) {
+            throw new AssertionError("The test history should be read in a single query");
+        }
+
+        public List<TestRunTag> findAllTags() {
+            return Collections.emptyList();
+        }
+
+        public List<String> findAllTagTypes() {
+            return Collections.emptyList();
+        }
+
+        public Map<String, Long> getEstimatedTestCaseDurations(Date recordedBefore) {
+            return Collections.emptyMap();
+        }
+    }
+}
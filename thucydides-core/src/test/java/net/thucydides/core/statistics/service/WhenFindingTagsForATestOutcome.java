@@ -68,6 +68,17 @@ public class WhenFindingTagsForATestOutcome {
         assertThat(containsRequirementsProvider, is(true));
     }
 
+    @Test
+    public void tag_providers_should_only_be_loaded_once() {
+        TagProviderService tagProviderService = new ClasspathTagProviderService();
+        List<TagProvider> tagProviders = tagProviderService.getTagProviders();
+        List<TagProvider> tagProvidersUsedLater = tagProviderService.getTagProviders();
+
+        for(int i = 0; i < tagProviders.size(); i++) {
+            assertThat(tagProvidersUsedLater.get(i) == tagProviders.get(i), is(true));
+        }
+    }
+
     @Test
     @Ignore
     public void should_find_a_custom_tag_provider_in_a_specified_package() {
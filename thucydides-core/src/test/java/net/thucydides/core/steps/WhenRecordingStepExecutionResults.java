@@ -28,6 +28,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
@@ -37,6 +39,7 @@ import some.other.place.StepsInSomeOtherPlace;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
@@ -1521,6 +1524,92 @@ public class WhenRecordingStepExecutionResults {
         assertThat(screenshot.getSourcecode().isPresent(), is(true));
     }
 
+    @Test
+    public void screenshots_can_be_taken_asynchronously() {
+
+        environmentVariables.setProperty("thucydides.asynchronous.screenshots","true");
+        StepEventBus.getEventBus().testSuiteStarted(MyTestCase.class);
+        StepEventBus.getEventBus().testStarted("app_should_work");
+
+        FlatScenarioSteps steps = stepFactory.getStepLibraryFor(FlatScenarioSteps.class);
+        steps.step_one();
+        steps.step_two();
+        StepEventBus.getEventBus().testFinished(testOutcome);
+
+        verify(driver, times(4)).getScreenshotAs((OutputType<?>) anyObject());
+        TestOutcome testOutcome = stepListener.getTestOutcomes().get(0);
+        assertThat(testOutcome.getTestSteps().get(0).hasScreenshots(), is(true));
+        assertThat(testOutcome.getTestSteps().get(1).hasScreenshots(), is(true));
+    }
+
+    @Test
+    public void asynchronous_screenshots_should_be_recorded_in_the_steps_they_were_taken_for() {
+
+        environmentVariables.setProperty("thucydides.asynchronous.screenshots","true");
+        environmentVariables.setProperty("thucydides.store.html.source","true");
+        StepEventBus.getEventBus().testSuiteStarted(MyTestCase.class);
+        StepEventBus.getEventBus().testStarted("app_should_work");
+
+        NestedScenarioSteps steps = stepFactory.getStepLibraryFor(NestedScenarioSteps.class);
+        steps.step1();
+        steps.step2();
+        StepEventBus.getEventBus().testFinished(testOutcome);
+
+        TestOutcome testOutcome = stepListener.getTestOutcomes().get(0);
+        TestStep firstStep = testOutcome.getTestSteps().get(0).getChildren().get(0);
+        ScreenshotAndHtmlSource screenshot = firstStep.getScreenshots().get(0);
+        assertThat(screenshot.getSourcecode().isPresent(), is(true));
+        assertThat(testOutcome.getTestSteps().get(1).hasScreenshots(), is(true));
+    }
+
+    @Test
+    public void a_step_followed_immediately_by_another_step_should_keep_its_asynchronous_screenshot() {
+
+        environmentVariables.setProperty("thucydides.asynchronous.screenshots","true");
+        when(driver.getScreenshotAs(any(OutputType.class))).thenAnswer(slowScreenshot(new AtomicInteger(), new AtomicInteger()));
+        StepEventBus.getEventBus().testSuiteStarted(MyTestCase.class);
+        StepEventBus.getEventBus().testStarted("app_should_work");
+
+        FlatScenarioSteps steps = stepFactory.getStepLibraryFor(FlatScenarioSteps.class);
+        steps.step_one();
+        steps.step_two();
+        StepEventBus.getEventBus().testFinished(testOutcome);
+
+        TestOutcome testOutcome = stepListener.getTestOutcomes().get(0);
+        assertThat(testOutcome.getTestSteps().get(0).hasScreenshots(), is(true));
+        assertThat(testOutcome.getTestSteps().get(1).hasScreenshots(), is(true));
+    }
+
+    @Test
+    public void pending_screenshots_should_be_taken_before_the_drivers_are_closed() {
+
+        environmentVariables.setProperty("thucydides.asynchronous.screenshots","true");
+        AtomicInteger screenshotsStarted = new AtomicInteger();
+        AtomicInteger screenshotsTaken = new AtomicInteger();
+        when(driver.getScreenshotAs(any(OutputType.class))).thenAnswer(slowScreenshot(screenshotsStarted, screenshotsTaken));
+        StepEventBus.getEventBus().testSuiteStarted(MyTestCase.class);
+        StepEventBus.getEventBus().testStarted("app_should_work");
+
+        FlatScenarioSteps steps = stepFactory.getStepLibraryFor(FlatScenarioSteps.class);
+        steps.step_one();
+
+        stepListener.waitForPendingScreenshots();
+
+        assertThat(screenshotsTaken.get(), is(screenshotsStarted.get()));
+        assertThat(stepListener.getTestOutcomes().get(0).getTestSteps().get(0).hasScreenshots(), is(true));
+    }
+
+    private Answer<byte[]> slowScreenshot(final AtomicInteger screenshotsStarted, final AtomicInteger screenshotsTaken) {
+        return new Answer<byte[]>() {
+            public byte[] answer(InvocationOnMock invocation) throws InterruptedException {
+                screenshotsStarted.incrementAndGet();
+                Thread.sleep(200);
+                screenshotsTaken.incrementAndGet();
+                return screenshot1;
+            }
+        };
+    }
+
     @Test
     public void blurred_screenshots_will_be_stored_if_configured() throws IOException {
 
@@ -0,0 +1,135 @@
+package net.thucydides.core.steps;
+
+import com.google.common.base.Optional;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WhenTakingScreenshotsInTheBackground {
+
+    private final PendingScreenshots pendingScreenshots = new PendingScreenshots();
+
+    private final TestStep step = new TestStep("a step");
+
+    @After
+    public void shutdown() {
+        pendingScreenshots.shutdown();
+    }
+
+    @Test
+    public void screenshots_taken_before_the_next_step_boundary_should_be_kept() {
+        pendingScreenshots.request(step, Optional.<TestStep>absent(), screenshotCalled("screenshot.png"));
+
+        List<PendingScreenshots.PendingScreenshot> screenshots = pendingScreenshots.takeAllScreenshots();
+
+        assertThat(screenshots.get(0).getScreenshot().isPresent(), is(true));
+    }
+
+    @Test
+    public void a_step_boundary_should_wait_for_the_screenshots_being_taken() {
+        CountDownLatch browserIsBusy = new CountDownLatch(1);
+        AtomicBoolean screenshotTaken = new AtomicBoolean();
+        pendingScreenshots.request(step, Optional.<TestStep>absent(), slowScreenshot(browserIsBusy, screenshotTaken));
+        releaseAfter(browserIsBusy, 200);
+
+        pendingScreenshots.stepBoundaryReached();
+
+        assertThat(screenshotTaken.get(), is(true));
+        List<PendingScreenshots.PendingScreenshot> screenshots = pendingScreenshots.takeAllScreenshots();
+        assertThat(screenshots.get(0).getScreenshot().isPresent(), is(true));
+    }
+
+    @Test
+    public void screenshots_that_are_not_returned_in_time_after_the_next_step_boundary_should_be_dropped() {
+        PendingScreenshots pendingScreenshotsWithShortWait = new PendingScreenshots(100);
+        CountDownLatch browserIsBusy = new CountDownLatch(1);
+        pendingScreenshotsWithShortWait.request(step, Optional.<TestStep>absent(), slowScreenshot(browserIsBusy, new AtomicBoolean()));
+
+        pendingScreenshotsWithShortWait.stepBoundaryReached();
+        browserIsBusy.countDown();
+
+        List<PendingScreenshots.PendingScreenshot> screenshots = pendingScreenshotsWithShortWait.takeAllScreenshots();
+        assertThat(screenshots.get(0).getScreenshot().isPresent(), is(false));
+        pendingScreenshotsWithShortWait.shutdown();
+    }
+
+    @Test
+    public void screenshots_requested_after_a_step_boundary_should_be_kept() {
+        pendingScreenshots.stepBoundaryReached();
+        pendingScreenshots.request(step, Optional.<TestStep>absent(), screenshotCalled("screenshot.png"));
+
+        List<PendingScreenshots.PendingScreenshot> screenshots = pendingScreenshots.takeAllScreenshots();
+
+        assertThat(screenshots.get(0).getScreenshot().isPresent(), is(true));
+    }
+
+    @Test
+    public void screenshots_should_be_handed_back_in_the_order_they_were_requested() {
+        pendingScreenshots.request(step, Optional.<TestStep>absent(), screenshotCalled("first.png"));
+        pendingScreenshots.request(step, Optional.<TestStep>absent(), screenshotCalled("second.png"));
+
+        List<PendingScreenshots.PendingScreenshot> screenshots = pendingScreenshots.takeAllScreenshots();
+
+        assertThat(screenshots.get(0).getScreenshot().get().getScreenshotFile().getName(), is("first.png"));
+        assertThat(screenshots.get(1).getScreenshot().get().getScreenshotFile().getName(), is("second.png"));
+    }
+
+    @Test
+    public void shutting_down_should_wait_for_the_screenshot_being_taken() throws InterruptedException {
+        CountDownLatch browserIsBusy = new CountDownLatch(1);
+        AtomicBoolean screenshotTaken = new AtomicBoolean();
+        pendingScreenshots.request(step, Optional.<TestStep>absent(), slowScreenshot(browserIsBusy, screenshotTaken));
+        releaseAfter(browserIsBusy, 200);
+
+        pendingScreenshots.shutdown();
+
+        assertThat(screenshotTaken.get(), is(true));
+    }
+
+    private Callable<Optional<ScreenshotAndHtmlSource>> screenshotCalled(final String name) {
+        return new Callable<Optional<ScreenshotAndHtmlSource>>() {
+            public Optional<ScreenshotAndHtmlSource> call() {
+                return Optional.of(new ScreenshotAndHtmlSource(new File(name)));
+            }
+        };
+    }
+
+    private Callable<Optional<ScreenshotAndHtmlSource>> slowScreenshot(final CountDownLatch browserIsBusy,
+                                                                       final AtomicBoolean screenshotTaken) {
+        return new Callable<Optional<ScreenshotAndHtmlSource>>() {
+            public Optional<ScreenshotAndHtmlSource> call() throws InterruptedException {
+                browserIsBusy.await();
+                screenshotTaken.set(true);
+                return Optional.of(new ScreenshotAndHtmlSource(new File("screenshot.png")));
+            }
+        };
+    }
+
+    private void releaseAfter(final CountDownLatch browserIsBusy, final long millis) {
+        new Thread() {
+            @Override
+            public void run() {
+                pause(millis);
+                browserIsBusy.countDown();
+            }
+        }.start();
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package net.thucydides.junit.runners;
+
+import net.thucydides.junit.annotations.Concurrent;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Works out how many threads should be used to run the tests in a class annotated with @Concurrent.
+ */
+final class ConcurrentTestThreads {
+
+    private static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    private final Class<?> testClass;
+
+    private ConcurrentTestThreads(final Class<?> testClass) {
+        this.testClass = testClass;
+    }
+
+    public static ConcurrentTestThreads forClass(final Class<?> testClass) {
+        return new ConcurrentTestThreads(testClass);
+    }
+
+    public boolean isConcurrent() {
+        return (testClass.getAnnotation(Concurrent.class) != null);
+    }
+
+    public int getThreadCount() {
+        Concurrent concurrent = testClass.getAnnotation(Concurrent.class);
+        String threadValue = concurrent.threads();
+        int threads = (AVAILABLE_PROCESSORS * 2);
+        if (StringUtils.isNotEmpty(threadValue)) {
+            if (StringUtils.isNumeric(threadValue)) {
+                threads = Integer.valueOf(threadValue);
+            } else if (threadValue.endsWith("x")) {
+                threads = getRelativeThreadCount(threadValue);
+            }
+
+        }
+        return threads;
+    }
+
+    private int getRelativeThreadCount(final String threadValue) {
+        try {
+            String threadCount = threadValue.substring(0, threadValue.length() - 1);
+            return Integer.valueOf(threadCount) * AVAILABLE_PROCESSORS;
+        } catch (NumberFormatException cause) {
+            throw new IllegalArgumentException("Illegal thread value: " + threadValue, cause);
+        }
+    }
+}
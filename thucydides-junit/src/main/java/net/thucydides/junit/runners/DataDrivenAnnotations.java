@@ -1,9 +1,13 @@
 package net.thucydides.junit.runners;
 
 import ch.lambdaj.function.convert.Converter;
+import com.google.common.base.Function;
 import com.google.common.base.Splitter;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import net.thucydides.core.csv.CSVRow;
 import net.thucydides.core.csv.CSVTestDataSource;
-import net.thucydides.core.csv.TestDataSource;
+import net.thucydides.core.csv.StreamingCSVTestDataSource;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.DataTable;
 import net.thucydides.core.steps.FilePathParser;
@@ -19,7 +23,6 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.regex.Pattern;
 
 import static ch.lambdaj.Lambda.convert;
@@ -57,15 +60,30 @@ public class DataDrivenAnnotations {
         return new DataDrivenAnnotations(this.testClass, environmentVariables);
     }
 
+    /**
+     * The test data is read one row at a time, and the values of each row are added straight to the table.
+     */
     public DataTable getParametersTableFromTestDataSource() throws Throwable {
-        TestDataSource testDataSource = new CSVTestDataSource(findTestDataSource(), findTestDataSeparator());
-        List<Map<String, String>> testData = testDataSource.getData();
+        StreamingCSVTestDataSource testDataSource = getStreamingTestDataSource();
         List<String> headers = testDataSource.getHeaders();
         return DataTable.withHeaders(headers)
-                        .andMappedRows(testData)
+                        .andStreamedRows(Iterables.transform(testDataSource.getRows(), toValuesUnder(headers)))
                         .build();
     }
 
+    private Function<CSVRow, List<Object>> toValuesUnder(final List<String> headers) {
+        return new Function<CSVRow, List<Object>>() {
+
+            public List<Object> apply(CSVRow row) {
+                List<Object> values = Lists.newArrayListWithCapacity(headers.size());
+                for (String header : headers) {
+                    values.add(row.get(header));
+                }
+                return values;
+            }
+        };
+    }
+
     public DataTable getParametersTableFromTestDataAnnotation() throws Throwable {
         Method testDataMethod = getTestDataMethod().getMethod();
         String columnNamesString = testDataMethod.getAnnotation(TestData.class).columnNames();
@@ -154,13 +172,22 @@ public class DataDrivenAnnotations {
     }
 
     public <T> List<T> getDataAsInstancesOf(final Class<T> clazz) throws IOException {
-        TestDataSource testdata = new CSVTestDataSource(findTestDataSource(), findTestDataSeparator());
-        return testdata.getDataAsInstancesOf(clazz);
+        return Lists.newArrayList(streamDataAsInstancesOf(clazz));
+    }
+
+    /**
+     * The test data as instances of the given class, each one created as the test data file is read.
+     */
+    public <T> Iterable<T> streamDataAsInstancesOf(final Class<T> clazz) throws IOException {
+        return getStreamingTestDataSource().getDataAsInstancesOf(clazz);
     }
     
     public int countDataEntries() throws IOException {
-        TestDataSource testdata = new CSVTestDataSource(findTestDataSource(), findTestDataSeparator());
-        return testdata.getData().size();
+        return getStreamingTestDataSource().countRows();
+    }
+
+    public StreamingCSVTestDataSource getStreamingTestDataSource() throws IOException {
+        return new StreamingCSVTestDataSource(findTestDataSource(), findTestDataSeparator());
     }
 
     private char findTestDataSeparator() {
@@ -0,0 +1,81 @@
+package net.thucydides.junit.runners;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.statistics.TestHistoryOrdering;
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runners.Suite;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Run a suite of test classes, starting with the classes that contain the tests most likely to fail.
+ * Build tools choose the order of the test classes they run, so test classes can only be ordered within a suite:
+ * <pre>
+ *     <code>
+ *         &#64;RunWith(FailuresFirstSuite.class)
+ *         &#64;Suite.SuiteClasses({SearchByKeyword.class, SearchByCategory.class, PlaceAnOrder.class})
+ *         public class AcceptanceTests {}
+ *     </code>
+ * </pre>
+ * Each class is ranked by the test in it that should be run first (see TestHistoryOrdering), when the
+ * thucydides.test.ordering property is set to FAILURES_FIRST. Otherwise, the classes run in the order they are listed.
+ * In batch mode, each batch runs its own share of the test classes in this order.
+ */
+public class FailuresFirstSuite extends Suite {
+
+    private List<Runner> orderedRunners;
+
+    private final Logger logger = LoggerFactory.getLogger(FailuresFirstSuite.class);
+
+    public FailuresFirstSuite(final Class<?> klass, final RunnerBuilder builder) throws InitializationError {
+        super(klass, builder);
+    }
+
+    @Override
+    protected synchronized List<Runner> getChildren() {
+        if (orderedRunners == null) {
+            orderedRunners = inExecutionOrder(super.getChildren());
+        }
+        return orderedRunners;
+    }
+
+    private List<Runner> inExecutionOrder(final List<Runner> runners) {
+        try {
+            TestHistoryOrdering testOrdering = Injectors.getInjector().getInstance(TestHistoryOrdering.class);
+            return testOrdering.groupsInExecutionOrder(runners, titlesOfTheTestsIn());
+        } catch (Throwable orderingFailure) {
+            logger.warn("Could not order the test classes by their history: " + orderingFailure.getMessage(), orderingFailure);
+            return runners;
+        }
+    }
+
+    private Function<Runner, List<String>> titlesOfTheTestsIn() {
+        return new Function<Runner, List<String>>() {
+            public List<String> apply(Runner runner) {
+                List<String> titles = Lists.newArrayList();
+                addTitlesOfTheTestsIn(runner.getDescription(), titles);
+                return titles;
+            }
+        };
+    }
+
+    private void addTitlesOfTheTestsIn(final Description description, final List<String> titles) {
+        if (description.isTest()) {
+            if ((description.getTestClass() != null) && (description.getMethodName() != null)) {
+                titles.add(TestOutcome.forTest(description.getMethodName(), description.getTestClass()).getTitle());
+            }
+        } else {
+            for (Description child : description.getChildren()) {
+                addTitlesOfTheTestsIn(child, titles);
+            }
+        }
+    }
+}
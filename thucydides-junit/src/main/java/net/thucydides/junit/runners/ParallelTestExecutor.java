@@ -0,0 +1,131 @@
+package net.thucydides.junit.runners;
+
+import com.google.common.base.Optional;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.util.EnvironmentVariables;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs parallel tests for all the test classes in the JVM, using a single pool of worker threads.
+ * Each test class limits the number of its own tests running at the same time, using its thread count.
+ * If the thucydides.concurrent.browsers property is set, the total number of tests running at any time
+ * is also limited to this number of browser slots; otherwise there is no limit across test classes.
+ * Since all the test classes share the same workers, a thread that finishes the tests of one class goes on
+ * to run the tests of other classes rather than staying idle.
+ * <p/>
+ * A parallel runner nested inside a test that is already running on a worker (for example a parameterized
+ * test class inside a concurrent suite) runs its tests one after the other in that worker when browser slots are
+ * limited: the worker already holds a browser slot, and waiting for more could leave every slot held by tests
+ * that are waiting for each other.
+ */
+class ParallelTestExecutor {
+
+    private static ParallelTestExecutor sharedExecutor;
+
+    private final ExecutorService workers;
+    private final Optional<Semaphore> browserSlots;
+
+    /**
+     * An executor with no limit on the number of tests running across the test classes.
+     */
+    ParallelTestExecutor() {
+        this.workers = Executors.newCachedThreadPool(new WorkerThreadFactory());
+        this.browserSlots = Optional.absent();
+    }
+
+    ParallelTestExecutor(final int browserSlotCount) {
+        this.workers = Executors.newFixedThreadPool(browserSlotCount, new WorkerThreadFactory());
+        this.browserSlots = Optional.of(new Semaphore(browserSlotCount, true));
+    }
+
+    public static synchronized ParallelTestExecutor getSharedExecutor() {
+        if (sharedExecutor == null) {
+            sharedExecutor = executorFor(environmentVariables());
+        }
+        return sharedExecutor;
+    }
+
+    private static EnvironmentVariables environmentVariables() {
+        return Injectors.getInjector().getInstance(EnvironmentVariables.class);
+    }
+
+    private static ParallelTestExecutor executorFor(final EnvironmentVariables environmentVariables) {
+        int browserSlotCount = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.CONCURRENT_BROWSERS.getPropertyName(), 0);
+        return (browserSlotCount > 0) ? new ParallelTestExecutor(browserSlotCount) : new ParallelTestExecutor();
+    }
+
+    /**
+     * Run a test as soon as one of the test class's own slots, and a browser slot if they are limited, are available.
+     * The calling thread waits until the test can be admitted.
+     * Since no more tests are admitted than there are browser slots, there is always a worker free to run it.
+     */
+    public Future<Void> submit(final Runnable test, final Semaphore testClassSlots) throws InterruptedException {
+        if (browserSlots.isPresent() && runningOnAWorker()) {
+            return runInThisWorker(test);
+        }
+        testClassSlots.acquire();
+        try {
+            acquireBrowserSlot();
+        } catch (InterruptedException e) {
+            testClassSlots.release();
+            throw e;
+        }
+        FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+            public void run() {
+                try {
+                    test.run();
+                } finally {
+                    releaseBrowserSlot();
+                    testClassSlots.release();
+                }
+            }
+        }, null);
+        workers.execute(task);
+        return task;
+    }
+
+    private boolean runningOnAWorker() {
+        return Thread.currentThread() instanceof WorkerThread;
+    }
+
+    private Future<Void> runInThisWorker(final Runnable test) {
+        FutureTask<Void> task = new FutureTask<Void>(test, null);
+        task.run();
+        return task;
+    }
+
+    private void acquireBrowserSlot() throws InterruptedException {
+        if (browserSlots.isPresent()) {
+            browserSlots.get().acquire();
+        }
+    }
+
+    private void releaseBrowserSlot() {
+        if (browserSlots.isPresent()) {
+            browserSlots.get().release();
+        }
+    }
+
+    private static final class WorkerThread extends Thread {
+        private WorkerThread(final Runnable r, final String name) {
+            super(r, name);
+            setDaemon(true);
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public Thread newThread(final Runnable r) {
+            return new WorkerThread(r, "thucydides-test-worker-" + threadNumber.getAndIncrement());
+        }
+    }
+}
@@ -45,7 +45,7 @@ public class ParameterizedJUnitStepListener extends JUnitStepListener {
     }
 
     private DataTable dataTableRow() {
-        return DataTable.withHeaders(parametersTable.getHeaders()).andCopyRowDataFrom(parametersTable.getRows().get(parameterSetNumber)).build();
+        return DataTable.withHeaders(parametersTable.getHeaders()).andCopyRowDataFrom(parametersTable.getRow(parameterSetNumber)).build();
     }
 
     private boolean testingThisDataSet(Description description) {
@@ -1,69 +1,93 @@
 package net.thucydides.junit.runners;
 
-import com.google.common.collect.ImmutableList;
 import org.junit.runners.model.RunnerScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.LinkedList;
 import java.util.Queue;
-import java.util.concurrent.CompletionService;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Semaphore;
 
 /**
  * JUnit scheduler for parallel parameterized tests.
+ * Tests are run by the JVM-wide ParallelTestExecutor, which can limit the total number of tests running in parallel
+ * to the number of available browser slots. The thread count of each test class caps the number of its own tests
+ * running at the same time.
+ * If the scheduling thread is interrupted, no more tests are scheduled: the runners report the remaining tests
+ * as not run (see isStopped()).
  */
 class ParameterizedRunnerScheduler implements RunnerScheduler {
 
-    private ExecutorService executorService;
-    private CompletionService<Void> completionService;
-    private Queue<Future<Void>> tasks;
+    private final ParallelTestExecutor executor;
+    private final Semaphore testClassSlots;
+    private final Queue<Future<Void>> tasks;
+    private final Class<?> testClass;
+    private volatile boolean stopped = false;
 
-    public ParameterizedRunnerScheduler(final Class<?> klass, final int threadCount) {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParameterizedRunnerScheduler.class);
 
+    public ParameterizedRunnerScheduler(final Class<?> klass, final int threadCount) {
+        this(klass, threadCount, ParallelTestExecutor.getSharedExecutor());
+    }
 
-        executorService = Executors.newFixedThreadPool(threadCount,
-                new NamedThreadFactory(klass.getSimpleName()));
-        completionService = new ExecutorCompletionService<Void>(executorService);
-        tasks = new LinkedList<Future<Void>>();
+    ParameterizedRunnerScheduler(final Class<?> klass, final int threadCount, final ParallelTestExecutor executor) {
+        this.testClass = klass;
+        this.executor = executor;
+        this.testClassSlots = new Semaphore(threadCount, true);
+        this.tasks = new ConcurrentLinkedQueue<Future<Void>>();
     }
 
     protected Queue<Future<Void>> getTaskQueue() {
-        return new LinkedList<Future<Void>>(ImmutableList.copyOf(tasks));
+        return new LinkedList<Future<Void>>(tasks);
     }
 
     public void schedule(final Runnable childStatement) {
+        if (!stopped) {
+            try {
+                tasks.offer(executor.submit(childStatement, testClassSlots));
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting for a free test slot - the remaining tests in "
+                            + testClass.getName() + " will not be run");
+                stopped = true;
+            }
+        }
+        childStatement.run();
+    }
 
-        tasks.offer(completionService.submit(childStatement, null));
+    /**
+     * Once scheduling has stopped, the child statements passed to the scheduler should only report their tests
+     * as not run: they are run directly by the scheduling thread, without waiting for a test slot.
+     */
+    public boolean isStopped() {
+        return stopped;
     }
 
     public void finished() {
-        try {
-            while (!tasks.isEmpty()) {
-                tasks.remove(completionService.take());
+        Future<Void> task;
+        while ((task = tasks.peek()) != null) {
+            try {
+                task.get();
+                tasks.remove(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelRemainingTasks();
+                return;
+            } catch (ExecutionException e) {
+                LOGGER.error("Parallel test in " + testClass.getName() + " failed unexpectedly", e.getCause());
+                tasks.remove(task);
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        } finally {
-            executorService.shutdownNow();
         }
     }
 
-    static final class NamedThreadFactory implements ThreadFactory {
-        private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
-        private final AtomicInteger threadNumber = new AtomicInteger(1);
-        private final ThreadGroup group;
-
-        NamedThreadFactory(final String poolName) {
-            group = new ThreadGroup(poolName + "-" + POOL_NUMBER.getAndIncrement());
-        }
-
-        public Thread newThread(final Runnable r) {
-            return new Thread(group, r, group.getName() + "-thread-" + threadNumber.getAndIncrement(), 0);
+    private void cancelRemainingTasks() {
+        for (Future<Void> task : tasks) {
+            task.cancel(true);
         }
+        tasks.clear();
     }
-
 }
@@ -0,0 +1,99 @@
+package net.thucydides.junit.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.thucydides.core.csv.CSVRow;
+import net.thucydides.core.csv.StreamingCSVTestDataSource;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The test cases of a data-driven test, created from the test data file only when each one is about to run.
+ * The rows are split into one shard per runner thread, and each shard is read by its own reader,
+ * so that the threads running the test cases do not all wait on a single reader.
+ * Only the rows read ahead of the test case that is asked for are kept in memory, and only until they are used.
+ */
+class StreamedTestCases {
+
+    private final StreamingCSVTestDataSource testData;
+    private final Class<?> testClass;
+    private final List<Shard> shards;
+
+    StreamedTestCases(final StreamingCSVTestDataSource testData, final Class<?> testClass, final int shardCount) {
+        Preconditions.checkArgument(shardCount > 0, "There must be at least one shard");
+        this.testData = testData;
+        this.testClass = testClass;
+        this.shards = Lists.newArrayList();
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(new Shard(shard, shardCount));
+        }
+    }
+
+    int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * A new test case instance, with the test data of the given row.
+     */
+    Object testCaseFor(final int rowNumber) {
+        CSVRow row = shards.get(rowNumber % shards.size()).getRow(rowNumber);
+        return testData.getInstanceFrom(row, testClass);
+    }
+
+    private class Shard {
+        private final int shard;
+        private final int shardCount;
+        private final Map<Integer, CSVRow> rowsReadAhead = Maps.newHashMap();
+        private Iterator<CSVRow> rows;
+        private int lastRowRead = -1;
+
+        private Shard(final int shard, final int shardCount) {
+            this.shard = shard;
+            this.shardCount = shardCount;
+        }
+
+        synchronized CSVRow getRow(final int rowNumber) {
+            CSVRow row = rowsReadAhead.remove(rowNumber);
+            if (row != null) {
+                return row;
+            }
+            return (rowNumber > lastRowRead) ? readAheadTo(rowNumber) : readAgain(rowNumber);
+        }
+
+        private CSVRow readAheadTo(final int rowNumber) {
+            if (rows == null) {
+                rows = testData.getRowsInShard(shard, shardCount).iterator();
+            }
+            while (rows.hasNext()) {
+                CSVRow row = rows.next();
+                lastRowRead = row.getRowNumber();
+                if (lastRowRead == rowNumber) {
+                    return row;
+                }
+                rowsReadAhead.put(lastRowRead, row);
+            }
+            throw noTestDataFor(rowNumber);
+        }
+
+        /**
+         * A row that has already been used, for example by a test case that is run again, is read from the start
+         * of the shard without disturbing the rows being read ahead.
+         */
+        private CSVRow readAgain(final int rowNumber) {
+            for (CSVRow row : testData.getRowsInShard(shard, shardCount)) {
+                if (row.getRowNumber() == rowNumber) {
+                    return row;
+                }
+            }
+            throw noTestDataFor(rowNumber);
+        }
+
+        private IllegalArgumentException noTestDataFor(final int rowNumber) {
+            return new IllegalArgumentException("No test data found for row " + rowNumber + " of " + testClass.getName());
+        }
+    }
+}
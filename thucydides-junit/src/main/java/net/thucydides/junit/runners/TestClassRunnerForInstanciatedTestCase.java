@@ -12,21 +12,34 @@ import org.junit.runners.model.Statement;
 
 class TestClassRunnerForInstanciatedTestCase extends ThucydidesRunner {
     private final int parameterSetNumber;
-    private final Object instanciatedTest;
+    private final StreamedTestCases testCases;
+    private final String qualifier;
     private final DataTable parametersTable;
+    private Object instanciatedTest;
 
-
-    TestClassRunnerForInstanciatedTestCase(final Object instanciatedTest,
+    /**
+     * The test case is only created from the test data when this runner starts running it,
+     * and is released once all of its test methods have run.
+     */
+    TestClassRunnerForInstanciatedTestCase(final Class<?> testClass,
+                                           final StreamedTestCases testCases,
+                                           final String qualifier,
                                            Configuration configuration,
                                            WebDriverFactory webDriverFactory,
                                            final DataTable parametersTable,
                                            final int parameterSetNumber) throws InitializationError {
-        super(instanciatedTest.getClass(), webDriverFactory, configuration);
-        this.instanciatedTest = instanciatedTest;
+        super(testClass, webDriverFactory, configuration);
+        this.testCases = testCases;
+        this.qualifier = qualifier;
         this.parameterSetNumber = parameterSetNumber;
         this.parametersTable    = parametersTable;
     }
 
+    @Override
+    protected boolean runTestMethodsConcurrently() {
+        return false;
+    }
+
     @Override
     protected JUnitStepListener initListenersUsing(final Pages pageFactory) {
         setStepListener(JUnitStepListener.withOutputDirectory(getConfiguration().getOutputDirectory())
@@ -39,13 +52,20 @@ class TestClassRunnerForInstanciatedTestCase extends ThucydidesRunner {
     }
 
     @Override
-    public Object createTest() throws Exception {
+    public synchronized Object createTest() throws Exception {
+        if (instanciatedTest == null) {
+            instanciatedTest = testCases.testCaseFor(parameterSetNumber);
+        }
         return instanciatedTest;
     }
 
+    private synchronized void releaseTestCase() {
+        instanciatedTest = null;
+    }
+
     @Override
     protected String getName() {
-        return QualifierFinder.forTestCase(instanciatedTest).getQualifier();
+        return qualifier;
     }
 
     @Override
@@ -55,7 +75,17 @@ class TestClassRunnerForInstanciatedTestCase extends ThucydidesRunner {
 
     @Override
     protected Statement classBlock(final RunNotifier notifier) {
-        return childrenInvoker(notifier);
+        final Statement testMethods = childrenInvoker(notifier);
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                try {
+                    testMethods.evaluate();
+                } finally {
+                    releaseTestCase();
+                }
+            }
+        };
     }
 
     @Override
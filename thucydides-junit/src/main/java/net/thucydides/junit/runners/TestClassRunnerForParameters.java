@@ -27,6 +27,11 @@ class TestClassRunnerForParameters extends ThucydidesRunner {
         parameterSetNumber = i;
     }
 
+    @Override
+    protected boolean runTestMethodsConcurrently() {
+        return false;
+    }
+
     @Override
     protected JUnitStepListener initListenersUsing(final Pages pageFactory) {
         setStepListener(JUnitStepListener.withOutputDirectory(getConfiguration().getOutputDirectory())
@@ -45,7 +50,7 @@ class TestClassRunnerForParameters extends ThucydidesRunner {
 
     private Object[] computeParams() throws Exception {
         try {
-            DataTableRow row = parametersTable.getRows().get(parameterSetNumber);
+            DataTableRow row = parametersTable.getRow(parameterSetNumber);
             return row.getValues().toArray();
         } catch (ClassCastException cause) {
             throw new Exception(String.format(
@@ -69,7 +74,7 @@ class TestClassRunnerForParameters extends ThucydidesRunner {
 
     @Override
     protected String getName() {
-        String firstParameter = parametersTable.getRows().get(parameterSetNumber).getValues().get(0).toString();
+        String firstParameter = parametersTable.getRow(parameterSetNumber).getValues().get(0).toString();
         return String.format("[%s]", firstParameter);
     }
 
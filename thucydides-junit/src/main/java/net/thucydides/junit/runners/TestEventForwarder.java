@@ -0,0 +1,54 @@
+package net.thucydides.junit.runners;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Relays the test events of a test method running in its own thread to the notifier of the main test run.
+ * This lets each concurrent test method have its own listeners, while JUnit still sees every test event.
+ */
+class TestEventForwarder extends RunListener {
+
+    private final RunNotifier mainNotifier;
+
+    TestEventForwarder(final RunNotifier mainNotifier) {
+        this.mainNotifier = mainNotifier;
+    }
+
+    @Override
+    public void testStarted(final Description description) throws Exception {
+        synchronized (mainNotifier) {
+            mainNotifier.fireTestStarted(description);
+        }
+    }
+
+    @Override
+    public void testFinished(final Description description) throws Exception {
+        synchronized (mainNotifier) {
+            mainNotifier.fireTestFinished(description);
+        }
+    }
+
+    @Override
+    public void testFailure(final Failure failure) throws Exception {
+        synchronized (mainNotifier) {
+            mainNotifier.fireTestFailure(failure);
+        }
+    }
+
+    @Override
+    public void testAssumptionFailure(final Failure failure) {
+        synchronized (mainNotifier) {
+            mainNotifier.fireTestAssumptionFailed(failure);
+        }
+    }
+
+    @Override
+    public void testIgnored(final Description description) throws Exception {
+        synchronized (mainNotifier) {
+            mainNotifier.fireTestIgnored(description);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package net.thucydides.junit.runners;
+
+import com.google.common.collect.ImmutableList;
+import net.thucydides.core.batches.BatchManager;
+import net.thucydides.core.webdriver.Configuration;
+import net.thucydides.core.webdriver.WebdriverManager;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
+
+import java.util.List;
+
+/**
+ * Runs a single test method of a test class running in concurrent mode.
+ * The whole test method runs in the current thread, with its own event bus, drivers and page objects.
+ * Class-level set-up, batch allocation and reporting are left to the parent runner.
+ */
+class TestMethodRunner extends ThucydidesRunner {
+
+    private final FrameworkMethod method;
+
+    TestMethodRunner(final Class<?> klass,
+                     final FrameworkMethod method,
+                     final WebdriverManager webdriverManager,
+                     final Configuration configuration,
+                     final BatchManager batchManager) throws InitializationError {
+        super(klass, webdriverManager, configuration, batchManager);
+        this.method = method;
+    }
+
+    @Override
+    protected List<FrameworkMethod> getChildren() {
+        return ImmutableList.of(method);
+    }
+
+    @Override
+    protected boolean runTestMethodsConcurrently() {
+        return false;
+    }
+
+    @Override
+    protected boolean skipThisTest() {
+        return false;
+    }
+
+    @Override
+    protected Statement classBlock(final RunNotifier notifier) {
+        return childrenInvoker(notifier);
+    }
+
+    @Override
+    protected void generateReports() {
+        // reports are generated by the parent runner
+    }
+}
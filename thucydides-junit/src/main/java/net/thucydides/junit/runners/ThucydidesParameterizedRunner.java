@@ -7,8 +7,7 @@ import net.thucydides.core.reports.AcceptanceTestReporter;
 import net.thucydides.core.reports.ReportService;
 import net.thucydides.core.webdriver.Configuration;
 import net.thucydides.core.webdriver.WebDriverFactory;
-import net.thucydides.junit.annotations.Concurrent;
-import org.apache.commons.lang3.StringUtils;
+import org.junit.runner.Description;
 import org.junit.runner.Runner;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.Suite;
@@ -26,12 +25,11 @@ import java.util.List;
  */
 public class ThucydidesParameterizedRunner extends Suite {
 
-    private static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
-
     private final List<Runner> runners = new ArrayList<Runner>();
 
     private final Configuration configuration;
     private ReportService reportService;
+    private ParameterizedRunnerScheduler parallelScheduler;
     private final ParameterizedTestsOutcomeAggregator parameterizedTestsOutcomeAggregator = ParameterizedTestsOutcomeAggregator.from(this);
 
     /**
@@ -56,68 +54,75 @@ public class ThucydidesParameterizedRunner extends Suite {
     }
 
     private void scheduleParallelTestRunsFor(final Class<?> klass) {
-        setScheduler(new ParameterizedRunnerScheduler(klass, getThreadCountFor(klass)));
+        parallelScheduler = new ParameterizedRunnerScheduler(klass, getThreadCountFor(klass));
+        setScheduler(parallelScheduler);
     }
 
-    protected boolean runTestsInParallelFor(final Class<?> klass) {
-        return (klass.getAnnotation(Concurrent.class) != null);
-    }
-
-    protected int getThreadCountFor(final Class<?> klass) {
-        Concurrent concurrent = klass.getAnnotation(Concurrent.class);
-        String threadValue = concurrent.threads();
-        int threads = (AVAILABLE_PROCESSORS * 2);
-        if (StringUtils.isNotEmpty(threadValue)) {
-            if (StringUtils.isNumeric(threadValue)) {
-                threads = Integer.valueOf(threadValue);
-            } else if (threadValue.endsWith("x")) {
-                threads = getRelativeThreadCount(threadValue);
+    /**
+     * Once the parallel scheduler has been interrupted, the remaining data sets are reported as not run.
+     */
+    @Override
+    protected void runChild(final Runner runner, final RunNotifier notifier) {
+        if ((parallelScheduler != null) && parallelScheduler.isStopped()) {
+            for (Description test : describeChild(runner).getChildren()) {
+                notifier.fireTestIgnored(test);
             }
-
+        } else {
+            super.runChild(runner, notifier);
         }
-        return threads;
     }
 
-    private int getRelativeThreadCount(final String threadValue) {
-        try {
-            String threadCount = threadValue.substring(0, threadValue.length() - 1);
-            return Integer.valueOf(threadCount) * AVAILABLE_PROCESSORS;
-        } catch (NumberFormatException cause) {
-            throw new IllegalArgumentException("Illegal thread value: " + threadValue, cause);
-        }
+    protected boolean runTestsInParallelFor(final Class<?> klass) {
+        return ConcurrentTestThreads.forClass(klass).isConcurrent();
+    }
+
+    protected int getThreadCountFor(final Class<?> klass) {
+        return ConcurrentTestThreads.forClass(klass).getThreadCount();
     }
 
     private void buildTestRunnersForEachDataSetUsing(final WebDriverFactory webDriverFactory) throws Throwable {
         DataTable parametersTable = getTestAnnotations().getParametersTableFromTestDataAnnotation();
-        for (int i = 0; i < parametersTable.getRows().size(); i++) {
+        for (int i = 0; i < parametersTable.getSize(); i++) {
             Class<?> testClass = getTestClass().getJavaClass();
             ThucydidesRunner runner = new TestClassRunnerForParameters(testClass,
                                                                        configuration,
                                                                        webDriverFactory,
                                                                        parametersTable,
                                                                        i);
-            runner.useQualifier(from(parametersTable.getRows().get(i).getValues()));
+            runner.useQualifier(from(parametersTable.getRow(i).getValues()));
             runners.add(runner);
         }
     }
 
     private void buildTestRunnersFromADataSourceUsing(final WebDriverFactory webDriverFactory) throws Throwable {
 
-        List<?> testCases = getTestAnnotations().getDataAsInstancesOf(getTestClass().getJavaClass());
+        Class<?> testClass = getTestClass().getJavaClass();
         DataTable parametersTable = getTestAnnotations().getParametersTableFromTestDataSource();
-
-        for (int i = 0; i < testCases.size(); i++) {
-            Object testCase = testCases.get(i);
-            ThucydidesRunner runner = new TestClassRunnerForInstanciatedTestCase(testCase,
+        StreamedTestCases testCases = new StreamedTestCases(getTestAnnotations().getStreamingTestDataSource(),
+                                                            testClass,
+                                                            shardCountFor(testClass));
+        int i = 0;
+        for (Object testCase : getTestAnnotations().streamDataAsInstancesOf(testClass)) {
+            String qualifier = getQualifierFor(testCase);
+            ThucydidesRunner runner = new TestClassRunnerForInstanciatedTestCase(testClass,
+                                                                                 testCases,
+                                                                                 qualifier,
                                                                                  configuration,
                                                                                  webDriverFactory,
                                                                                  parametersTable,
-                                                                                 i);
-            runner.useQualifier(getQualifierFor(testCase));
+                                                                                 i++);
+            runner.useQualifier(qualifier);
             runners.add(runner);
         }
     }
 
+    /**
+     * The test data rows are shared out between the threads that run the test cases.
+     */
+    private int shardCountFor(final Class<?> testClass) {
+        return runTestsInParallelFor(testClass) ? getThreadCountFor(testClass) : 1;
+    }
+
     private String getQualifierFor(final Object testCase) {
         return QualifierFinder.forTestCase(testCase).getQualifier();
     }
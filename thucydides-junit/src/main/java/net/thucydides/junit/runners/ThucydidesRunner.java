@@ -1,5 +1,7 @@
 package net.thucydides.junit.runners;
 
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Injector;
 import com.google.inject.Module;
 
@@ -16,6 +18,7 @@ import net.thucydides.core.pages.Pages;
 import net.thucydides.core.reports.AcceptanceTestReporter;
 import net.thucydides.core.reports.ReportService;
 import net.thucydides.core.statistics.TestCount;
+import net.thucydides.core.statistics.TestHistoryOrdering;
 import net.thucydides.core.steps.StepAnnotations;
 import net.thucydides.core.steps.StepData;
 import net.thucydides.core.steps.StepEventBus;
@@ -32,6 +35,7 @@ import net.thucydides.junit.listeners.JUnitStepListener;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Ignore;
 import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.model.FrameworkMethod;
@@ -42,7 +46,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import static net.thucydides.core.Thucydides.initializeTestSession;
@@ -73,6 +79,8 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
      * Special listener that keeps track of test step execution and results.
      */
     private JUnitStepListener stepListener;
+
+    private ParameterizedRunnerScheduler parallelScheduler;
     /**
      * Retrieve the runner getConfiguration().from an external source.
      */
@@ -82,6 +90,11 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
 
     private BatchManager batchManager;
 
+    /**
+     * Test outcomes recorded by test methods run in their own threads, when the class is run in concurrent mode.
+     */
+    private final List<TestOutcome> concurrentTestOutcomes = Collections.synchronizedList(new ArrayList<TestOutcome>());
+
     private final Logger logger = LoggerFactory.getLogger(ThucydidesRunner.class);
 
     public Pages getPages() {
@@ -228,18 +241,67 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
 
     @Override
     public void run(final RunNotifier notifier) {
-        if (!skipThisTest()) {
-            try {
-                setupFixtureServices();
-                initializeDriversAndListeners(notifier);
-                super.run(notifier);
-            } finally {
-                notifyTestSuiteFinished();
-                generateReports();
-                dropListeners(notifier);
-                closeDrivers();
-                shutdownFixtureServices();
-            }
+        if (skipThisTest()) {
+            return;
+        }
+        if (runTestMethodsConcurrently()) {
+            runTestMethodsInParallel(notifier);
+        } else {
+            runTestMethodsInSequence(notifier);
+        }
+    }
+
+    private void runTestMethodsInSequence(final RunNotifier notifier) {
+        try {
+            setupFixtureServices();
+            initializeDriversAndListeners(notifier);
+            super.run(notifier);
+        } finally {
+            notifyTestSuiteFinished();
+            generateReports();
+            dropListeners(notifier);
+            closeDrivers();
+            shutdownFixtureServices();
+        }
+    }
+
+    /**
+     * In concurrent mode, each test method runs in its own runner on a bounded thread pool.
+     * The test outcomes from all the test methods are gathered and reported together at the end of the class.
+     */
+    private void runTestMethodsInParallel(final RunNotifier notifier) {
+        parallelScheduler = new ParameterizedRunnerScheduler(getTestClass().getJavaClass(),
+                                                             ConcurrentTestThreads.forClass(getTestClass().getJavaClass()).getThreadCount());
+        setScheduler(parallelScheduler);
+        try {
+            setupFixtureServices();
+            super.run(notifier);
+        } finally {
+            notifyTestSuiteFinished();
+            generateReports();
+            dropListeners(notifier);
+            closeDrivers();
+            shutdownFixtureServices();
+        }
+    }
+
+    /**
+     * Test methods are run in parallel if the test class is annotated with @Concurrent.
+     */
+    protected boolean runTestMethodsConcurrently() {
+        return ConcurrentTestThreads.forClass(getTestClass().getJavaClass()).isConcurrent();
+    }
+
+    private void runInItsOwnThread(final FrameworkMethod method, final RunNotifier notifier) {
+        RunNotifier testMethodNotifier = new RunNotifier();
+        testMethodNotifier.addListener(new TestEventForwarder(notifier));
+        try {
+            TestMethodRunner runner = new TestMethodRunner(getTestClass().getJavaClass(), method,
+                                                           webdriverManager, configuration, batchManager);
+            runner.run(testMethodNotifier);
+            concurrentTestOutcomes.addAll(runner.getTestOutcomes());
+        } catch (InitializationError initializationError) {
+            testMethodNotifier.fireTestFailure(new Failure(describeChild(method), initializationError));
         }
     }
 
@@ -268,7 +330,7 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
             generateReportsFor(getTestOutcomes());
     }
 
-    private boolean skipThisTest() {
+    protected boolean skipThisTest() {
         return testNotInCurrentBatch();
     }
 
@@ -344,7 +406,11 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
         stepFactory = new StepFactory();
     }
 
+    /**
+     * Screenshots requested in the background are taken before the browsers are closed.
+     */
     private void closeDrivers() {
+        getStepListener().getBaseStepListener().waitForPendingScreenshots();
         getWebdriverManager().closeAllCurrentDrivers();
     }
 
@@ -372,12 +438,43 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
     }
 
 
+    /**
+     * The test methods are run in the order defined by the test ordering strategy (see TestHistoryOrdering).
+     */
+    @Override
+    protected List<FrameworkMethod> getChildren() {
+        List<FrameworkMethod> testMethods = super.getChildren();
+        try {
+            TestHistoryOrdering testOrdering = Injectors.getInjector().getInstance(TestHistoryOrdering.class);
+            return testOrdering.inExecutionOrder(testMethods, titleOfTestMethod());
+        } catch (Throwable orderingFailure) {
+            logger.warn("Could not order the tests by their history: " + orderingFailure.getMessage(), orderingFailure);
+            return testMethods;
+        }
+    }
+
+    private Function<FrameworkMethod, String> titleOfTestMethod() {
+        return new Function<FrameworkMethod, String>() {
+            public String apply(FrameworkMethod method) {
+                return TestOutcome.forTest(method.getName(), getTestClass().getJavaClass()).getTitle();
+            }
+        };
+    }
+
     @Override
     protected void runChild(FrameworkMethod method, RunNotifier notifier) {
 
         if (shouldSkipTest(method)) {
             return;
         }
+        if (runTestMethodsConcurrently()) {
+            if ((parallelScheduler != null) && parallelScheduler.isStopped()) {
+                notifier.fireTestIgnored(describeChild(method));
+            } else {
+                runInItsOwnThread(method, notifier);
+            }
+            return;
+        }
         initializeTestSession();
         resetBroswerFromTimeToTime();
         if (isPending(method)) {
@@ -522,6 +619,11 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
     }
 
     public List<TestOutcome> getTestOutcomes() {
+        if (runTestMethodsConcurrently()) {
+            synchronized (concurrentTestOutcomes) {
+                return ImmutableList.copyOf(concurrentTestOutcomes);
+            }
+        }
         return getStepListener().getTestOutcomes();
     }
 
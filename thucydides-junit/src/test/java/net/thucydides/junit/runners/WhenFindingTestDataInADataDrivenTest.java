@@ -13,6 +13,7 @@ import org.junit.runners.model.TestClass;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -111,6 +112,58 @@ public class WhenFindingTestDataInADataDrivenTest {
         assertThat(parameterNames.get(2), is("ADDRESS"));
     }
 
+    @Test
+    public void the_data_table_from_csv_should_contain_the_values_of_each_row() throws Throwable {
+        TestClass testClass = new TestClass(CSVDataDrivenTestScenario.class);
+        DataTable testDataTable = DataDrivenAnnotations.forClass(testClass).getParametersTableFromTestDataSource();
+
+        assertThat(testDataTable.getSize(), is(3));
+        assertThat(testDataTable.hasPredefinedRows(), is(true));
+        assertThat(testDataTable.getRow(0).getStringValues().toString(), is("[Joe Smith, 30, 10 Main Street]"));
+        assertThat(testDataTable.getRow(2).getStringValues().toString(), is("[Jim Brown, 25, 1 Main Street]"));
+    }
+
+    @Test
+    public void test_cases_should_be_created_from_the_shard_containing_their_row() throws IOException {
+        TestClass testClass = new TestClass(CSVDataDrivenTestScenario.class);
+        StreamedTestCases testCases = new StreamedTestCases(DataDrivenAnnotations.forClass(testClass).getStreamingTestDataSource(),
+                                                            PersonTestScenario.class, 2);
+
+        assertThat(((PersonTestScenario) testCases.testCaseFor(1)).getName(), is("Jack Black"));
+        assertThat(((PersonTestScenario) testCases.testCaseFor(2)).getName(), is("Jim Brown"));
+        assertThat(((PersonTestScenario) testCases.testCaseFor(0)).getName(), is("Joe Smith"));
+    }
+
+    @Test
+    public void test_cases_should_be_created_when_their_rows_are_asked_for_out_of_order() throws IOException {
+        TestClass testClass = new TestClass(CSVDataDrivenTestScenario.class);
+        StreamedTestCases testCases = new StreamedTestCases(DataDrivenAnnotations.forClass(testClass).getStreamingTestDataSource(),
+                                                            PersonTestScenario.class, 1);
+
+        assertThat(((PersonTestScenario) testCases.testCaseFor(2)).getName(), is("Jim Brown"));
+        assertThat(((PersonTestScenario) testCases.testCaseFor(0)).getName(), is("Joe Smith"));
+        assertThat(((PersonTestScenario) testCases.testCaseFor(1)).getName(), is("Jack Black"));
+        assertThat(((PersonTestScenario) testCases.testCaseFor(2)).getName(), is("Jim Brown"));
+    }
+
+    @Test
+    public void each_test_case_should_be_a_new_instance() throws IOException {
+        TestClass testClass = new TestClass(CSVDataDrivenTestScenario.class);
+        StreamedTestCases testCases = new StreamedTestCases(DataDrivenAnnotations.forClass(testClass).getStreamingTestDataSource(),
+                                                            PersonTestScenario.class, 1);
+
+        assertThat(testCases.testCaseFor(0) == testCases.testCaseFor(0), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void there_should_be_no_test_case_beyond_the_last_row() throws IOException {
+        TestClass testClass = new TestClass(CSVDataDrivenTestScenario.class);
+        StreamedTestCases testCases = new StreamedTestCases(DataDrivenAnnotations.forClass(testClass).getStreamingTestDataSource(),
+                                                            PersonTestScenario.class, 2);
+
+        testCases.testCaseFor(4);
+    }
+
     @Test
     public void should_be_able_to_count_the_number_of_data_entries_using_a_class_directory() throws Throwable {
         int dataEntries = DataDrivenAnnotations.forClass(CSVDataDrivenTestScenario.class).countDataEntries();
@@ -155,6 +208,16 @@ public class WhenFindingTestDataInADataDrivenTest {
         assertThat(testScenarios.get(1).getName(), is("Jack Black"));
     }
 
+    @Test
+    public void should_stream_test_class_instances_from_a_provided_test_data_source() throws IOException {
+        TestClass testClass = new TestClass(CSVDataDrivenTestScenario.class);
+        Iterator<PersonTestScenario> testScenarios
+                = DataDrivenAnnotations.forClass(testClass).streamDataAsInstancesOf(PersonTestScenario.class).iterator();
+
+        assertThat(testScenarios.next().getName(), is("Joe Smith"));
+        assertThat(testScenarios.next().getName(), is("Jack Black"));
+    }
+
     static class DataDrivenTestScenarioWithPrivateTestData {
 
         @TestData
@@ -7,11 +7,13 @@ import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestResult;
 import net.thucydides.core.model.TestStep;
 import net.thucydides.core.steps.StepEventBus;
+import net.thucydides.core.steps.StepListener;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.webdriver.WebDriverFactory;
 import net.thucydides.junit.rules.DisableThucydidesHistoryRule;
 import net.thucydides.junit.rules.QuietThucydidesLoggingRule;
 import net.thucydides.samples.NonWebTestScenarioWithParameterizedSteps;
+import net.thucydides.samples.SampleConcurrentNonWebScenario;
 import net.thucydides.samples.SampleNonWebScenarioWithError;
 import net.thucydides.samples.SamplePassingNonWebScenario;
 import net.thucydides.samples.SamplePassingNonWebScenarioWithEmptyTests;
@@ -65,6 +67,31 @@ public class WhenRunningANonWebTestScenario extends AbstractTestStepRunnerTest {
         StepEventBus.getEventBus().clear();
     }
 
+    @Test
+    public void the_test_runner_can_run_the_test_methods_of_a_concurrent_test_class_in_parallel() throws InitializationError {
+
+        ThucydidesRunner runner = new ThucydidesRunner(SampleConcurrentNonWebScenario.class, injector);
+        runner.run(new RunNotifier());
+
+        List<TestOutcome> executedSteps = runner.getTestOutcomes();
+        assertThat(executedSteps.size(), is(3));
+
+        assertThat(inTheTesOutcomes(executedSteps).theOutcomeFor("happy_day_scenario").getResult(), is(TestResult.SUCCESS));
+        assertThat(inTheTesOutcomes(executedSteps).theOutcomeFor("edge_case_1").getResult(), is(TestResult.PENDING));
+        assertThat(inTheTesOutcomes(executedSteps).theOutcomeFor("edge_case_2").getResult(), is(TestResult.FAILURE));
+    }
+
+    @Test
+    public void the_test_runner_should_notify_listeners_when_a_concurrent_test_class_is_finished() throws InitializationError {
+        StepListener listener = mock(StepListener.class);
+        StepEventBus.getEventBus().registerListener(listener);
+
+        ThucydidesRunner runner = new ThucydidesRunner(SampleConcurrentNonWebScenario.class, injector);
+        runner.run(new RunNotifier());
+
+        verify(listener).testSuiteFinished();
+    }
+
     @Test
     public void the_test_runner_records_the_steps_as_they_are_executed() throws InitializationError {
 
@@ -6,6 +6,13 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
@@ -47,4 +54,166 @@ public class WhenSchedulingParallelTestJobs {
         assertThat(scheduler.getTaskQueue().size(), is(0));
     }
 
+    @Test
+    public void parallel_tests_from_different_classes_should_share_the_available_browser_slots() {
+        ParallelTestExecutor executor = new ParallelTestExecutor(2);
+        ParameterizedRunnerScheduler scheduler1 = new ParameterizedRunnerScheduler(SampleParallelDataDrivenScenario.class, 4, executor);
+        ParameterizedRunnerScheduler scheduler2 = new ParameterizedRunnerScheduler(SampleParallelDataDrivenScenario.class, 4, executor);
+
+        ConcurrencyRecordingJob job = new ConcurrencyRecordingJob();
+        for (int i = 0; i < 5; i++) {
+            scheduler1.schedule(job);
+            scheduler2.schedule(job);
+        }
+        scheduler1.finished();
+        scheduler2.finished();
+
+        assertThat(job.getRunCount(), is(10));
+        assertThat(job.getMaximumConcurrentRuns() <= 2, is(true));
+    }
+
+    @Test
+    public void each_test_class_should_not_run_more_parallel_tests_than_its_thread_count() {
+        ParallelTestExecutor executor = new ParallelTestExecutor(10);
+        ParameterizedRunnerScheduler scheduler = new ParameterizedRunnerScheduler(SampleParallelDataDrivenScenario.class, 1, executor);
+
+        ConcurrencyRecordingJob job = new ConcurrencyRecordingJob();
+        for (int i = 0; i < 5; i++) {
+            scheduler.schedule(job);
+        }
+        scheduler.finished();
+
+        assertThat(job.getRunCount(), is(5));
+        assertThat(job.getMaximumConcurrentRuns(), is(1));
+    }
+
+    @Test
+    public void an_interrupted_scheduler_should_stop_scheduling_tests() {
+        ParallelTestExecutor executor = new ParallelTestExecutor(2);
+        ParameterizedRunnerScheduler scheduler = new ParameterizedRunnerScheduler(SampleParallelDataDrivenScenario.class, 4, executor);
+
+        Thread.currentThread().interrupt();
+        try {
+            scheduler.schedule(testJob);
+            scheduler.schedule(testJob2);
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertThat(scheduler.isStopped(), is(true));
+        assertThat(scheduler.getTaskQueue().size(), is(0));
+    }
+
+    @Test
+    public void the_parallel_tests_should_not_use_more_worker_threads_than_there_are_browser_slots() {
+        ParallelTestExecutor executor = new ParallelTestExecutor(2);
+        ParameterizedRunnerScheduler scheduler = new ParameterizedRunnerScheduler(SampleParallelDataDrivenScenario.class, 10, executor);
+
+        ThreadRecordingJob job = new ThreadRecordingJob();
+        for (int i = 0; i < 10; i++) {
+            scheduler.schedule(job);
+        }
+        scheduler.finished();
+
+        assertThat(job.getWorkerThreads().size() <= 2, is(true));
+    }
+
+    @Test
+    public void without_a_browser_slot_limit_each_test_class_should_run_as_many_tests_as_its_thread_count() {
+        ParallelTestExecutor executor = new ParallelTestExecutor();
+        ParameterizedRunnerScheduler scheduler = new ParameterizedRunnerScheduler(SampleParallelDataDrivenScenario.class, 4, executor);
+
+        RendezvousJob job = new RendezvousJob(4);
+        for (int i = 0; i < 4; i++) {
+            scheduler.schedule(job);
+        }
+        scheduler.finished();
+
+        assertThat(job.getTestsThatMet(), is(4));
+    }
+
+    @Test(timeout = 10000)
+    public void parallel_tests_nested_in_a_running_test_should_not_wait_for_a_browser_slot() {
+        final ParallelTestExecutor executor = new ParallelTestExecutor(1);
+        ParameterizedRunnerScheduler outerScheduler = new ParameterizedRunnerScheduler(SampleParallelDataDrivenScenario.class, 4, executor);
+        final ConcurrencyRecordingJob nestedJob = new ConcurrencyRecordingJob();
+
+        outerScheduler.schedule(new Runnable() {
+            public void run() {
+                ParameterizedRunnerScheduler nestedScheduler
+                        = new ParameterizedRunnerScheduler(SampleParallelDataDrivenScenario.class, 4, executor);
+                for (int i = 0; i < 3; i++) {
+                    nestedScheduler.schedule(nestedJob);
+                }
+                nestedScheduler.finished();
+            }
+        });
+        outerScheduler.finished();
+
+        assertThat(nestedJob.getRunCount(), is(3));
+    }
+
+    class RendezvousJob implements Runnable {
+        private final CyclicBarrier barrier;
+        private final AtomicInteger testsThatMet = new AtomicInteger(0);
+
+        RendezvousJob(int parties) {
+            this.barrier = new CyclicBarrier(parties);
+        }
+
+        public void run() {
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+                testsThatMet.incrementAndGet();
+            } catch (Exception e) {
+                // Not all the tests were running at the same time
+            }
+        }
+
+        public int getTestsThatMet() {
+            return testsThatMet.get();
+        }
+    }
+
+    class ThreadRecordingJob implements Runnable {
+        private final Set<String> workerThreads = Collections.synchronizedSet(new HashSet<String>());
+
+        public void run() {
+            workerThreads.add(Thread.currentThread().getName());
+        }
+
+        public Set<String> getWorkerThreads() {
+            return workerThreads;
+        }
+    }
+
+    class ConcurrencyRecordingJob implements Runnable {
+        private final AtomicInteger runningJobs = new AtomicInteger(0);
+        private final AtomicInteger maximumConcurrentRuns = new AtomicInteger(0);
+        private final AtomicInteger runCount = new AtomicInteger(0);
+
+        public void run() {
+            int running = runningJobs.incrementAndGet();
+            synchronized (maximumConcurrentRuns) {
+                if (running > maximumConcurrentRuns.get()) {
+                    maximumConcurrentRuns.set(running);
+                }
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            runningJobs.decrementAndGet();
+            runCount.incrementAndGet();
+        }
+
+        public int getRunCount() {
+            return runCount.get();
+        }
+
+        public int getMaximumConcurrentRuns() {
+            return maximumConcurrentRuns.get();
+        }
+    }
 }
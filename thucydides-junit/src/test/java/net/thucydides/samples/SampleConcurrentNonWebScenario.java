@@ -0,0 +1,34 @@
+package net.thucydides.samples;
+
+import net.thucydides.core.annotations.Steps;
+import net.thucydides.junit.annotations.Concurrent;
+import net.thucydides.junit.runners.ThucydidesRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(ThucydidesRunner.class)
+@Concurrent(threads = "3")
+public class SampleConcurrentNonWebScenario {
+
+    @Steps
+    public SampleNonWebSteps steps;
+
+    @Test
+    public void happy_day_scenario() throws Throwable {
+        steps.stepThatSucceeds();
+        steps.anotherStepThatSucceeds();
+    }
+
+    @Test
+    public void edge_case_1() {
+        steps.stepThatSucceeds();
+        steps.anotherStepThatSucceeds();
+        steps.stepThatIsPending();
+    }
+
+    @Test
+    public void edge_case_2() {
+        steps.stepThatSucceeds();
+        steps.stepThatFails();
+    }
+}
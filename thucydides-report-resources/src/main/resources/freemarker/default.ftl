@@ -135,7 +135,7 @@
             <#list testOutcome.dataTable.rows as row>
             <tr class="test-${row.result}">
                 <#list row.values as value>
-                    <td><a href="#${row_index}">${formatter.htmlCompatible(value)}</a></td>
+                    <td><a href="#${row_index}">${formatter.htmlCompatible(value!"")}</a></td>
                 </#list>
             </tr>
             </#list>
@@ -261,7 +261,7 @@
                     <td width="100" class="${step.result}-text">
                         <#if !step.isAGroup() && step.firstScreenshot??>
                             <a href="${relativeLink!}${testOutcome.screenshotReportName}.html#screenshots?screenshot=${screenshotCount}">
-                                <img src="${step.firstScreenshot.screenshotFile.name}"
+                                <img src="${screenshotDerivatives.thumbnailFor(step.firstScreenshot.screenshotFile.name)}"
                                      class="screenshot"
                                      width="48" height="48"/>
                                 <#assign screenshotCount = screenshotCount + step.screenshotCount />
@@ -168,7 +168,7 @@
 	 <div class="slider-wrapper theme-default">
 		<div id="slider">
             <#foreach screenshot in screenshots>
-                <img src="${screenshot.filename}" alt="${screenshot.shortErrorMessage}" title="${screenshot.html.description}" width="${screenshot.width?string.computer}"/>
+                <a href="${fullSizeScreenshots[screenshot_index].filename}"><img src="${screenshot.filename}" alt="${screenshot.shortErrorMessage}" title="${screenshot.html.description}" width="${screenshot.width?string.computer}"/></a>
             </#foreach>
         </div>
 	  </div>